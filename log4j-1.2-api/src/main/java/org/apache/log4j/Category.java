@@ -16,6 +16,7 @@
  */
 package org.apache.log4j;
 
+import java.lang.ref.WeakReference;
 import java.util.Enumeration;
 import java.util.Map;
 import java.util.ResourceBundle;
@@ -45,6 +46,17 @@ public class Category {
     private static final Map<LoggerContext, ConcurrentMap<String, Logger>> CONTEXT_MAP =
         new WeakHashMap<>();
 
+    /**
+     * Number of slots of the cache in front of CONTEXT_MAP. Must be a power of 2.
+     */
+    private static final int CONTEXT_CACHE_SIZE = 16;
+
+    /**
+     * Direct-mapped cache of the Logger maps of recently used contexts, so that looking up a Logger does not lock
+     * CONTEXT_MAP. Entries are immutable and only hold their context weakly.
+     */
+    private static final ContextLoggers[] CONTEXT_CACHE = new ContextLoggers[CONTEXT_CACHE_SIZE];
+
     private static final String FQCN = Category.class.getName();
 
     /**
@@ -140,14 +152,21 @@ public class Category {
     }
 
     private static ConcurrentMap<String, Logger> getLoggersMap(final LoggerContext context) {
+        final int index = System.identityHashCode(context) & (CONTEXT_CACHE_SIZE - 1);
+        final ContextLoggers cached = CONTEXT_CACHE[index];
+        if (cached != null && cached.get() == context) {
+            return cached.loggers;
+        }
+        ConcurrentMap<String, Logger> map;
         synchronized (CONTEXT_MAP) {
-            ConcurrentMap<String, Logger> map = CONTEXT_MAP.get(context);
+            map = CONTEXT_MAP.get(context);
             if (map == null) {
                 map = new ConcurrentHashMap<>();
                 CONTEXT_MAP.put(context, map);
             }
-            return map;
         }
+        CONTEXT_CACHE[index] = new ContextLoggers(context, map);
+        return map;
     }
 
     /**
@@ -453,6 +472,19 @@ public class Category {
         }
     }
 
+    /**
+     * A LoggerContext, held weakly, and the map of its Loggers.
+     */
+    private static final class ContextLoggers extends WeakReference<LoggerContext> {
+
+        private final ConcurrentMap<String, Logger> loggers;
+
+        ContextLoggers(final LoggerContext context, final ConcurrentMap<String, Logger> loggers) {
+            super(context);
+            this.loggers = loggers;
+        }
+    }
+
     private static class PrivateAdapter extends AbstractLoggerAdapter<Logger> {
 
         @Override
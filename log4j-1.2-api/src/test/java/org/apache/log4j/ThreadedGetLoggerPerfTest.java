@@ -0,0 +1,80 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.log4j;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.logging.log4j.categories.PerformanceTests;
+import org.apache.logging.log4j.core.util.Timer;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+/**
+ * Measures legacy code that calls Logger.getLogger in hot methods instead of keeping the Logger in a field, from
+ * several threads at once.
+ */
+@Category(PerformanceTests.class)
+public class ThreadedGetLoggerPerfTest {
+
+    private static final int LOOP_CNT = 1000000;
+    private static final int THREADS = 8;
+
+    @Test
+    public void getLoggerAndDebug() throws InterruptedException {
+        run("GetLoggerAndDebug", new GetLoggerAndDebugRunnable());
+    }
+
+    @Test
+    public void cachedLoggerDebug() throws InterruptedException {
+        run("CachedLoggerDebug", new CachedLoggerDebugRunnable());
+    }
+
+    private static void run(final String name, final Runnable runnable) throws InterruptedException {
+        final Timer timer = new Timer(name, LOOP_CNT * THREADS);
+        final ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        timer.start();
+        for (int i = 0; i < THREADS; ++i) {
+            pool.execute(runnable);
+        }
+        pool.shutdown();
+        pool.awaitTermination(10, TimeUnit.MINUTES);
+        timer.stop();
+        System.out.println(timer.toString());
+    }
+
+    public static class GetLoggerAndDebugRunnable implements Runnable {
+        @Override
+        public void run() {
+            for (int i = 0; i < LOOP_CNT; ++i) {
+                Logger.getLogger(ThreadedGetLoggerPerfTest.class).debug("This is a test");
+            }
+        }
+    }
+
+    public static class CachedLoggerDebugRunnable implements Runnable {
+        private static final Logger LOGGER = Logger.getLogger(ThreadedGetLoggerPerfTest.class);
+
+        @Override
+        public void run() {
+            for (int i = 0; i < LOOP_CNT; ++i) {
+                LOGGER.debug("This is a test");
+            }
+        }
+    }
+}
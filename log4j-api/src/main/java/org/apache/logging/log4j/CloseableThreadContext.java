@@ -17,7 +17,6 @@
 package org.apache.logging.log4j;
 
 import java.util.HashMap;
-import java.util.Iterator;
 import java.util.Map;
 
 /**
@@ -74,6 +73,19 @@ public class CloseableThreadContext {
         return new CloseableThreadContext.Instance().put(key, value);
     }
 
+    /**
+     * Populates the Thread Context Map with the supplied key/value pairs. Any existing keys in the
+     * {@link ThreadContext} will be replaced with the supplied values, and restored back to their original values when
+     * the instance is closed. All entries are added with a single update of the Thread Context Map.
+     *
+     * @param values The map of key/value pairs to be added
+     * @return a new instance that will back out the changes when closed.
+     * @since 2.7
+     */
+    public static CloseableThreadContext.Instance putAll(final Map<String, String> values) {
+        return new CloseableThreadContext.Instance().putAll(values);
+    }
+
     public static class Instance implements AutoCloseable {
 
         private int pushCount = 0;
@@ -127,6 +139,25 @@ public class CloseableThreadContext {
             return this;
         }
 
+        /**
+         * Populates the Thread Context Map with the supplied key/value pairs. Any existing keys in the
+         * {@link ThreadContext} will be replaced with the supplied values, and restored back to their original values when
+         * the instance is closed. All entries are added with a single update of the Thread Context Map.
+         *
+         * @param values The map of key/value pairs to be added
+         * @return the instance that will back out the changes when closed.
+         * @since 2.7
+         */
+        public Instance putAll(final Map<String, String> values) {
+            for (final String key : values.keySet()) {
+                if (!originalValues.containsKey(key)) {
+                    originalValues.put(key, ThreadContext.get(key));
+                }
+            }
+            ThreadContext.putAll(values);
+            return this;
+        }
+
         /**
          * Removes the values from the {@link ThreadContext}.
          * <p>
@@ -143,16 +174,9 @@ public class CloseableThreadContext {
         }
 
         private void closeMap() {
-            for (final Iterator<Map.Entry<String, String>> it = originalValues.entrySet().iterator(); it.hasNext(); ) {
-                final Map.Entry<String, String> entry = it.next();
-                final String key = entry.getKey();
-                final String originalValue = entry.getValue();
-                if (null == originalValue) {
-                    ThreadContext.remove(key);
-                } else {
-                    ThreadContext.put(key, originalValue);
-                }
-                it.remove();
+            if (!originalValues.isEmpty()) {
+                ThreadContext.restoreAll(originalValues);
+                originalValues.clear();
             }
         }
 
@@ -19,6 +19,9 @@ package org.apache.logging.log4j;
 import java.util.Arrays;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 
 import org.apache.logging.log4j.util.PerformanceSensitive;
 
@@ -116,10 +119,47 @@ public final class MarkerManager {
 
         private static final long serialVersionUID = 100L;
 
+        /**
+         * Source of the dense ids that index the ancestor bitsets. Id 0 means "not assigned yet".
+         */
+        private static final AtomicInteger NEXT_ID = new AtomicInteger();
+
+        /**
+         * The highest id that is handed out, which bounds an ancestor bitset to 16 longs. Markers that need an id
+         * after all of them have been handed out get {@link #NO_ID} and are tested by walking their parents, so
+         * applications that create markers dynamically do not pay for ever larger bitsets.
+         */
+        private static final int MAX_ID = 1023;
+
+        private static final int NO_ID = -1;
+
+        private static final AtomicIntegerFieldUpdater<Log4jMarker> ID_UPDATER =
+                AtomicIntegerFieldUpdater.newUpdater(Log4jMarker.class, "id");
+
+        private static final AtomicIntegerFieldUpdater<Log4jMarker> VERSION_UPDATER =
+                AtomicIntegerFieldUpdater.newUpdater(Log4jMarker.class, "version");
+
+        private static final AtomicReferenceFieldUpdater<Log4jMarker, Log4jMarker[]> DEPENDENTS_UPDATER =
+                AtomicReferenceFieldUpdater.newUpdater(Log4jMarker.class, Log4jMarker[].class, "dependents");
+
         private final String name;
 
         private volatile Marker[] parents;
 
+        private transient volatile int id;
+
+        /**
+         * Incremented when the parents of this marker or of one of its ancestors change.
+         */
+        private transient volatile int version;
+
+        private transient volatile Ancestors ancestors;
+
+        /**
+         * The markers whose ancestor bitset contains this marker, which must be invalidated when its parents change.
+         */
+        private transient volatile Log4jMarker[] dependents;
+
         /**
          * Required by JAXB and Jackson for XML and JSON IO.
          */
@@ -143,8 +183,6 @@ public final class MarkerManager {
             this.parents = null;
         }
 
-        // TODO: use java.util.concurrent
-
         @Override
         public synchronized Marker addParents(final Marker... parentMarkers) {
             requireNonNull(parentMarkers, "A parent marker must be specified");
@@ -178,6 +216,7 @@ public final class MarkerManager {
                 }
             }
             this.parents = markers;
+            invalidateAncestors();
             return this;
         }
 
@@ -192,6 +231,7 @@ public final class MarkerManager {
             if (localParentsLength == 1) {
                 if (localParents[0].equals(parent)) {
                     parents = null;
+                    invalidateAncestors();
                     return true;
                 }
                 return false;
@@ -210,6 +250,7 @@ public final class MarkerManager {
                 }
             }
             parents = markers;
+            invalidateAncestors();
             return true;
         }
 
@@ -222,6 +263,7 @@ public final class MarkerManager {
                 System.arraycopy(markers, 0, array, 0, markers.length);
                 this.parents = array;
             }
+            invalidateAncestors();
             return this;
         }
 
@@ -250,6 +292,14 @@ public final class MarkerManager {
             if (this == marker) {
                 return true;
             }
+            if (marker instanceof Log4jMarker) {
+                final long[] bits = getAncestors();
+                // the ancestors of this marker were given an id when the bitset was computed
+                final int markerId = ((Log4jMarker) marker).id;
+                if (bits != null && markerId != NO_ID) {
+                    return markerId != 0 && isSet(bits, markerId);
+                }
+            }
             final Marker[] localParents = parents;
             if (localParents != null) {
                 // With only one or two parents the for loop is slower.
@@ -283,6 +333,14 @@ public final class MarkerManager {
             if (marker == null) {
                 return false;
             }
+            if (marker instanceof Log4jMarker) {
+                final long[] bits = getAncestors();
+                // the ancestors of this marker were given an id when the bitset was computed
+                final int markerId = ((Log4jMarker) marker).id;
+                if (bits != null && markerId != NO_ID) {
+                    return markerId != 0 && isSet(bits, markerId);
+                }
+            }
             final Marker[] localParents = parents;
             if (localParents != null) {
                 final int localParentsLength = localParents.length;
@@ -304,6 +362,128 @@ public final class MarkerManager {
             return false;
         }
 
+        /**
+         * Returns the dense id of this marker, assigning one the first time it is needed, or {@link #NO_ID} if all ids
+         * have been handed out.
+         */
+        private int getId() {
+            final int result = id;
+            if (result != 0) {
+                return result;
+            }
+            final int next = NEXT_ID.get() < MAX_ID ? NEXT_ID.incrementAndGet() : NO_ID;
+            ID_UPDATER.compareAndSet(this, 0, next > MAX_ID ? NO_ID : next);
+            return id;
+        }
+
+        /**
+         * Returns the bitset of the ids of this marker and all its ancestors, recomputing it if the parents of this
+         * marker or of an ancestor changed since it was last computed. Returns null if the hierarchy contains a Marker
+         * that is not a Log4jMarker or has no id, in which case the caller must walk the parents.
+         */
+        @PerformanceSensitive("allocation")
+        private long[] getAncestors() {
+            final int localVersion = version;
+            Ancestors local = ancestors;
+            if (local == null || local.version != localVersion) {
+                // Read the version before the parents: a concurrent change makes the next call recompute.
+                local = new Ancestors(localVersion, computeAncestors());
+                ancestors = local;
+            }
+            return local.bits;
+        }
+
+        private long[] computeAncestors() {
+            final int localId = getId();
+            if (localId == NO_ID) {
+                return null;
+            }
+            final long[] bits = set(new long[1], localId);
+            final Marker[] localParents = parents;
+            return localParents == null ? bits : addAncestors(bits, localParents, this);
+        }
+
+        /*
+         * Depth first; markers that are already in the set are not visited again, so a cycle created with
+         * setParents does not recurse forever. The dependent is registered with each ancestor before its parents
+         * are read, so a concurrent change of those parents is guaranteed to invalidate the result.
+         */
+        private static long[] addAncestors(final long[] bits, final Marker[] localParents,
+                                           final Log4jMarker dependent) {
+            long[] result = bits;
+            for (final Marker parent : localParents) {
+                if (!(parent instanceof Log4jMarker)) {
+                    return null;
+                }
+                final Log4jMarker marker = (Log4jMarker) parent;
+                final int parentId = marker.getId();
+                if (parentId == NO_ID) {
+                    return null;
+                }
+                if (isSet(result, parentId)) {
+                    continue;
+                }
+                marker.addDependent(dependent);
+                result = set(result, parentId);
+                final Marker[] grandParents = marker.parents;
+                if (grandParents != null) {
+                    result = addAncestors(result, grandParents, dependent);
+                    if (result == null) {
+                        return null;
+                    }
+                }
+            }
+            return result;
+        }
+
+        private void addDependent(final Log4jMarker dependent) {
+            for (;;) {
+                final Log4jMarker[] local = dependents;
+                if (local == null) {
+                    if (DEPENDENTS_UPDATER.compareAndSet(this, null, new Log4jMarker[] {dependent})) {
+                        return;
+                    }
+                    continue;
+                }
+                for (final Log4jMarker existing : local) {
+                    if (existing == dependent) {
+                        return;
+                    }
+                }
+                final Log4jMarker[] updated = Arrays.copyOf(local, local.length + 1);
+                updated[local.length] = dependent;
+                if (DEPENDENTS_UPDATER.compareAndSet(this, local, updated)) {
+                    return;
+                }
+            }
+        }
+
+        /**
+         * Invalidates the ancestor bitsets of this marker and of the markers that descend from it. Must be called
+         * after the parents of this marker changed; the bitsets of unrelated markers stay valid.
+         */
+        private void invalidateAncestors() {
+            VERSION_UPDATER.incrementAndGet(this);
+            final Log4jMarker[] local = dependents;
+            if (local != null) {
+                for (final Log4jMarker dependent : local) {
+                    VERSION_UPDATER.incrementAndGet(dependent);
+                }
+            }
+        }
+
+        private static boolean isSet(final long[] bits, final int bit) {
+            final int index = bit >>> 6;
+            return index < bits.length && (bits[index] & (1L << bit)) != 0;
+        }
+
+        private static long[] set(final long[] bits, final int bit) {
+            final int index = bit >>> 6;
+            final long[] result = index < bits.length ? bits : Arrays.copyOf(bits, index + 1);
+            result[index] |= 1L << bit;
+            return result;
+        }
+
         @PerformanceSensitive({"allocation", "unrolled"})
         private static boolean checkParent(final Marker parent, final Marker marker) {
             if (parent == marker) {
@@ -393,6 +573,21 @@ public final class MarkerManager {
             }
             sb.append(" ]");
         }
+
+        /**
+         * The ancestor bitset of a marker and the version of the marker it was computed for.
+         */
+        private static final class Ancestors {
+
+            private final int version;
+
+            private final long[] bits;
+
+            Ancestors(final int version, final long[] bits) {
+                this.version = version;
+                this.bits = bits;
+            }
+        }
     }
 
     // this method wouldn't be necessary if Marker methods threw an NPE instead of an IAE for null values ;)
@@ -27,6 +27,7 @@ import java.util.Map;
 import java.util.NoSuchElementException;
 
 import org.apache.logging.log4j.message.ParameterizedMessage;
+import org.apache.logging.log4j.spi.CleanableThreadContextMap;
 import org.apache.logging.log4j.spi.DefaultThreadContextMap;
 import org.apache.logging.log4j.spi.DefaultThreadContextStack;
 import org.apache.logging.log4j.spi.Provider;
@@ -311,6 +312,42 @@ public final class ThreadContext {
         contextMap.remove(key);
     }
 
+    /**
+     * Removes the context values identified by the <code>keys</code> parameter.
+     *
+     * @param keys The keys to remove.
+     * @since 2.7
+     */
+    public static void removeAll(final Iterable<String> keys) {
+        if (contextMap instanceof CleanableThreadContextMap) {
+            ((CleanableThreadContextMap) contextMap).removeAll(keys);
+        } else {
+            for (final String key : keys) {
+                contextMap.remove(key);
+            }
+        }
+    }
+
+    /**
+     * Sets each key of the given map back to its value, removing the keys whose value is null. Used by
+     * {@link CloseableThreadContext} to undo its changes with a single update of the context map.
+     *
+     * @param values The keys to restore and their previous values.
+     */
+    static void restoreAll(final Map<String, String> values) {
+        if (contextMap instanceof CleanableThreadContextMap) {
+            ((CleanableThreadContextMap) contextMap).restoreAll(values);
+        } else {
+            for (final Map.Entry<String, String> entry : values.entrySet()) {
+                if (entry.getValue() == null) {
+                    contextMap.remove(entry.getKey());
+                } else {
+                    contextMap.put(entry.getKey(), entry.getValue());
+                }
+            }
+        }
+    }
+
     /**
      * Clears the context map.
      */
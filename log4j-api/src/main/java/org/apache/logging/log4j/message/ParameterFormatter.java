@@ -23,7 +23,10 @@ import java.util.Date;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
 
+import org.apache.logging.log4j.util.PropertiesUtil;
 import org.apache.logging.log4j.util.StringBuilderFormattable;
 
 /**
@@ -60,11 +63,146 @@ final class ParameterFormatter {
     private static final char DELIM_STOP = '}';
     private static final char ESCAPE_CHAR = '\\';
 
+    /**
+     * Name of the system property that sets the number of message patterns whose parsed form is cached. The value of
+     * this property is {@value}. Caching is disabled if the value is not positive.
+     */
+    static final String PATTERN_CACHE_SIZE_PROPERTY = "log4j2.messagePatternCacheSize";
+
+    private static final int DEFAULT_PATTERN_CACHE_SIZE = 1024;
+
+    /** Number of ints reserved in the pattern store for each slot of the cache. */
+    private static final int STORE_INTS_PER_SLOT = 8;
+
+    /**
+     * Returned by {@link #getParsedPattern(String)} for a pattern that is not cached. It is zero, the value of a
+     * deserialized transient field; cached patterns are one plus their offset in the store.
+     */
+    static final int NOT_CACHED = 0;
+
+    /** Slot states, any other value is the offset of the parsed pattern in the store. */
+    private static final int EMPTY = -1;
+    private static final int FILLING = -2;
+    private static final int UNUSABLE = -3;
+
     private static ThreadLocal<SimpleDateFormat> threadLocalSimpleDateFormat = new ThreadLocal<>();
 
+    /** The pattern cached in each slot, published by the write of its offset. */
+    private static final String[] PATTERN_KEYS = createPatternCache();
+
+    /** The offset in the store of the pattern cached in each slot, or the state of the slot. */
+    private static final AtomicIntegerArray PATTERN_OFFSETS = PATTERN_KEYS == null ? null
+            : createOffsets(PATTERN_KEYS.length);
+
+    /**
+     * The identity hash of the last pattern seen in each empty slot of the cache. A pattern is only parsed and cached
+     * the second time it is seen, so patterns built at runtime rarely take a slot.
+     */
+    private static final int[] PATTERN_CANDIDATES = PATTERN_KEYS == null ? null : new int[PATTERN_KEYS.length];
+
+    /**
+     * The parsed patterns, allocated up front so that caching a pattern never allocates. Each pattern is stored as its
+     * placeholder count, its range count, and the start and end of each literal range. The end is stored
+     * complemented when the range is followed by a placeholder.
+     */
+    private static final int[] PATTERN_STORE = PATTERN_KEYS == null ? null
+            : new int[PATTERN_KEYS.length * STORE_INTS_PER_SLOT];
+
+    private static final AtomicInteger PATTERN_STORE_USED = new AtomicInteger();
+
     private ParameterFormatter() {
     }
 
+    private static String[] createPatternCache() {
+        final int size = PropertiesUtil.getProperties().getIntegerProperty(PATTERN_CACHE_SIZE_PROPERTY,
+                DEFAULT_PATTERN_CACHE_SIZE);
+        if (size <= 0) {
+            return null;
+        }
+        final int capacity = size <= 1 ? 1 : Integer.highestOneBit(Math.min(size, 1 << 20) - 1) << 1;
+        return new String[capacity];
+    }
+
+    private static AtomicIntegerArray createOffsets(final int length) {
+        final AtomicIntegerArray offsets = new AtomicIntegerArray(length);
+        for (int i = 0; i < length; i++) {
+            offsets.set(i, EMPTY);
+        }
+        return offsets;
+    }
+
+    /**
+     * Returns the parsed form of the given message pattern if it is cached. Patterns are identified by identity, which
+     * is cheap and works well for the String literals most message patterns are. The cache is direct-mapped and a
+     * pattern only takes an empty slot: cached patterns are never evicted, so two patterns that map to the same slot
+     * do not replace each other, and the one that is not cached is formatted by scanning it as before. Neither
+     * lookups nor caching allocate.
+     *
+     * @param messagePattern the message pattern.
+     * @return the parsed pattern to pass to {@link #getPlaceholderCount(int)} and
+     *         {@link #formatTo(StringBuilder, String, int, Object[], int)}, or {@link #NOT_CACHED}.
+     */
+    static int getParsedPattern(final String messagePattern) {
+        if (messagePattern == null || PATTERN_KEYS == null) {
+            return NOT_CACHED;
+        }
+        final int hash = System.identityHashCode(messagePattern);
+        final int index = (hash ^ (hash >>> 16)) & (PATTERN_KEYS.length - 1);
+        final int offset = PATTERN_OFFSETS.get(index);
+        if (offset >= 0) {
+            return PATTERN_KEYS[index] == messagePattern ? offset + 1 : NOT_CACHED;
+        }
+        if (offset != EMPTY) {
+            return NOT_CACHED;
+        }
+        if (PATTERN_CANDIDATES[index] != hash) {
+            PATTERN_CANDIDATES[index] = hash;
+            return NOT_CACHED;
+        }
+        return cachePattern(messagePattern, index);
+    }
+
+    private static int cachePattern(final String messagePattern, final int index) {
+        if (!PATTERN_OFFSETS.compareAndSet(index, EMPTY, FILLING)) {
+            return NOT_CACHED;
+        }
+        final int size = 2 + 2 * parse(messagePattern, null, 0);
+        final int offset = PATTERN_STORE_USED.getAndAdd(size);
+        if (offset < 0 || offset > PATTERN_STORE.length - size) {
+            // the store is full, the slot stays unused
+            PATTERN_OFFSETS.set(index, UNUSABLE);
+            return NOT_CACHED;
+        }
+        parse(messagePattern, PATTERN_STORE, offset);
+        PATTERN_KEYS[index] = messagePattern;
+        PATTERN_OFFSETS.set(index, offset);
+        return offset + 1;
+    }
+
+    /**
+     * Returns the number of placeholders of a cached pattern, counted like {@link #countArgumentPlaceholders2}.
+     *
+     * @param parsedPattern the value returned by {@link #getParsedPattern(String)} for the pattern.
+     * @return the placeholder count used to decide how many arguments are used.
+     */
+    static int getPlaceholderCount(final int parsedPattern) {
+        return PATTERN_STORE[parsedPattern - 1];
+    }
+
+    /**
+     * Replace placeholders in a cached pattern with arguments.
+     *
+     * @param buffer the buffer to write the formatted message into
+     * @param messagePattern the message pattern containing placeholders.
+     * @param parsedPattern the value returned by {@link #getParsedPattern(String)} for the pattern.
+     * @param arguments the arguments to be used to replace placeholders.
+     * @param argCount the number of arguments to use.
+     */
+    static void formatTo(final StringBuilder buffer, final String messagePattern, final int parsedPattern,
+            final Object[] arguments, final int argCount) {
+        formatTo(buffer, messagePattern, PATTERN_STORE, parsedPattern - 1, arguments, argCount);
+    }
+
     /**
      * Counts the number of unescaped placeholders in the given messagePattern.
      *
@@ -655,4 +793,98 @@ final class ParameterFormatter {
         return obj.getClass().getName() + '@' + Integer.toHexString(System.identityHashCode(obj));
     }
 
+
+    /**
+     * Splits a message pattern into the ranges of literal text to copy and the positions of the placeholders, so it
+     * can be formatted with a sequence of {@code StringBuilder.append(CharSequence, int, int)} calls. Escaped
+     * placeholders and the escape characters that {@link #formatMessage} removes are already accounted for.
+     * <p>
+     * The pattern is written to the store at the given offset as its placeholder count, its range count, and the
+     * start and end of each range, the end being complemented when the range is followed by a placeholder.
+     * </p>
+     *
+     * @param pattern a non-null message pattern.
+     * @param store the array to write the parsed pattern to, or null to only count the ranges.
+     * @param offset the offset in the store.
+     * @return the number of ranges, the parsed pattern takes {@code 2 + 2 * ranges} ints.
+     */
+    static int parse(final String pattern, final int[] store, final int offset) {
+        final int len = pattern.length();
+        int rangeCount = 0;
+        int escapedCount = 0;
+        int unescapedCount = 0;
+        int literalStart = 0;
+        int escapeCounter = 0;
+        for (int i = 0; i < len - 1; i++) {
+            final char curChar = pattern.charAt(i);
+            if (curChar == ESCAPE_CHAR) {
+                escapeCounter++;
+                escapedCount++;
+                continue;
+            }
+            if (curChar == DELIM_START && pattern.charAt(i + 1) == DELIM_STOP) {
+                // half of the escape chars before the pair are removed, the other half are written
+                final int kept = escapeCounter >> 1;
+                final int runStart = i - escapeCounter;
+                if (runStart > literalStart) {
+                    putRange(store, offset, rangeCount++, literalStart, runStart, false);
+                }
+                if (isOdd(escapeCounter)) {
+                    // escaped: the pair is literal text
+                    literalStart = i - kept;
+                } else {
+                    putRange(store, offset, rangeCount++, i - kept, i, true);
+                    unescapedCount++;
+                    literalStart = i + 2;
+                }
+                i++;
+            }
+            escapeCounter = 0;
+        }
+        putRange(store, offset, rangeCount++, literalStart, len, false);
+        if (store != null) {
+            // like countArgumentPlaceholders2, which also counts the escape chars
+            store[offset] = unescapedCount + escapedCount;
+            store[offset + 1] = rangeCount;
+        }
+        return rangeCount;
+    }
+
+    private static void putRange(final int[] store, final int offset, final int range, final int start, final int end,
+            final boolean placeholderAfter) {
+        if (store != null) {
+            store[offset + 2 + range * 2] = start;
+            store[offset + 3 + range * 2] = placeholderAfter ? ~end : end;
+        }
+    }
+
+    /**
+     * Replace placeholders in a parsed pattern with arguments.
+     *
+     * @param buffer the buffer to write the formatted message into
+     * @param pattern the message pattern containing placeholders.
+     * @param store the array the pattern was parsed to.
+     * @param offset the offset of the parsed pattern in the store.
+     * @param arguments the arguments to be used to replace placeholders.
+     * @param argCount the number of arguments to use.
+     */
+    static void formatTo(final StringBuilder buffer, final String pattern, final int[] store, final int offset,
+            final Object[] arguments, final int argCount) {
+        if (arguments == null || argCount == 0) {
+            buffer.append(pattern);
+            return;
+        }
+        final int rangeCount = store[offset + 1];
+        int currentArgument = 0;
+        for (int i = offset + 2; i < offset + 2 + rangeCount * 2; i += 2) {
+            final int end = store[i + 1];
+            if (end >= 0) {
+                buffer.append(pattern, store[i], end);
+            } else {
+                buffer.append(pattern, store[i], ~end);
+                writeArgOrDelimPair(arguments, argCount, currentArgument, buffer);
+                currentArgument++;
+            }
+        }
+    }
 }
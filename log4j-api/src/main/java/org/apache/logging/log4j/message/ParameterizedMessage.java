@@ -66,6 +66,9 @@ public class ParameterizedMessage implements Message, StringBuilderFormattable {
 
     private static final int HASHVAL = 31;
 
+    /** Selects the general formatting path in {@link #formatTo(StringBuilder)} when the pattern was not scanned. */
+    private static final int[] NO_INDICES = {-1};
+
     // storing JDK classes in ThreadLocals does not cause memory leaks in web apps, so this is okay
     private static ThreadLocal<StringBuilder> threadLocalStringBuilder = new ThreadLocal<>();
 
@@ -76,6 +79,7 @@ public class ParameterizedMessage implements Message, StringBuilderFormattable {
     private transient Throwable throwable;
     private int[] indices;
     private int usedCount;
+    private transient int parsedPattern; // ParameterFormatter.NOT_CACHED unless the pattern is cached
 
     /**
      * Creates a parameterized message.
@@ -142,8 +146,16 @@ public class ParameterizedMessage implements Message, StringBuilderFormattable {
 
     private void init(final String messagePattern) {
         this.messagePattern = messagePattern;
-        this.indices = new int[messagePattern == null ? 0 : messagePattern.length() >> 1]; // divide by 2
-        final int placeholders = ParameterFormatter.countArgumentPlaceholders2(messagePattern, indices);
+        this.parsedPattern = ParameterFormatter.getParsedPattern(messagePattern);
+        final int placeholders;
+        if (parsedPattern != ParameterFormatter.NOT_CACHED) {
+            // no need to scan the pattern; indices are only used after deserialization, when there are no arguments
+            this.indices = NO_INDICES;
+            placeholders = ParameterFormatter.getPlaceholderCount(parsedPattern);
+        } else {
+            this.indices = new int[messagePattern == null ? 0 : messagePattern.length() >> 1]; // divide by 2
+            placeholders = ParameterFormatter.countArgumentPlaceholders2(messagePattern, indices);
+        }
         initThrowable(argArray, placeholders);
         this.usedCount = Math.min(placeholders, argArray == null ? 0 : argArray.length);
     }
@@ -217,6 +229,8 @@ public class ParameterizedMessage implements Message, StringBuilderFormattable {
     public void formatTo(final StringBuilder buffer) {
         if (formattedMessage != null) {
             buffer.append(formattedMessage);
+        } else if (parsedPattern != ParameterFormatter.NOT_CACHED) {
+            ParameterFormatter.formatTo(buffer, messagePattern, parsedPattern, argArray, usedCount);
         } else {
             if (indices[0] < 0) {
                 ParameterFormatter.formatMessage(buffer, messagePattern, argArray, usedCount);
@@ -0,0 +1,311 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.message;
+
+import java.text.FieldPosition;
+import java.text.MessageFormat;
+import java.util.Arrays;
+import java.util.Locale;
+
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.status.StatusLogger;
+import org.apache.logging.log4j.util.PerformanceSensitive;
+
+/**
+ * Reusable {@link MessageFormatMessage}: a message whose format string conforms to java.text.MessageFormat, with
+ * parameters that are only formatted when the message is written. The MessageFormat of the last pattern and the
+ * buffer it formats into are kept, so logging the same pattern repeatedly does not parse it again.
+ * @see ReusableMessageFormatMessageFactory
+ * @since 2.7
+ */
+@PerformanceSensitive("allocation")
+public class ReusableMessageFormatMessage implements ReusableMessage {
+
+    private static final Logger LOGGER = StatusLogger.getLogger();
+    private static final int MAX_PARMS = 10;
+    private static final long serialVersionUID = -6009209539722025469L;
+
+    private final Locale locale;
+    private transient String messagePattern;
+    private transient int argCount;
+    private transient Object[] params;
+    private transient Throwable throwable;
+    private transient Object[][] unrolled = new Object[MAX_PARMS + 1][];
+    private transient MessageFormat messageFormat;
+    private transient String messageFormatPattern;
+    private transient StringBuffer formatBuffer = new StringBuffer(128);
+    private transient FieldPosition fieldPosition = new FieldPosition(0);
+
+    /**
+     * Creates a reusable message that formats its parameters with the default formatting locale.
+     */
+    public ReusableMessageFormatMessage() {
+        this(Locale.getDefault(Locale.Category.FORMAT));
+    }
+
+    /**
+     * Creates a reusable message.
+     *
+     * @param locale the locale for the message format
+     */
+    public ReusableMessageFormatMessage(final Locale locale) {
+        this.locale = locale;
+    }
+
+    ReusableMessageFormatMessage set(final String messagePattern, final Object... arguments) {
+        init(messagePattern, arguments == null ? 0 : arguments.length, arguments);
+        return this;
+    }
+
+    ReusableMessageFormatMessage set(final String messagePattern, final Object p0) {
+        final Object[] array = getUnrolled(1);
+        array[0] = p0;
+        init(messagePattern, 1, array);
+        return this;
+    }
+
+    ReusableMessageFormatMessage set(final String messagePattern, final Object p0, final Object p1) {
+        final Object[] array = getUnrolled(2);
+        array[0] = p0;
+        array[1] = p1;
+        init(messagePattern, 2, array);
+        return this;
+    }
+
+    ReusableMessageFormatMessage set(final String messagePattern, final Object p0, final Object p1, final Object p2) {
+        final Object[] array = getUnrolled(3);
+        array[0] = p0;
+        array[1] = p1;
+        array[2] = p2;
+        init(messagePattern, 3, array);
+        return this;
+    }
+
+    ReusableMessageFormatMessage set(final String messagePattern, final Object p0, final Object p1, final Object p2,
+            final Object p3) {
+        final Object[] array = getUnrolled(4);
+        array[0] = p0;
+        array[1] = p1;
+        array[2] = p2;
+        array[3] = p3;
+        init(messagePattern, 4, array);
+        return this;
+    }
+
+    ReusableMessageFormatMessage set(final String messagePattern, final Object p0, final Object p1, final Object p2,
+            final Object p3, final Object p4) {
+        final Object[] array = getUnrolled(5);
+        array[0] = p0;
+        array[1] = p1;
+        array[2] = p2;
+        array[3] = p3;
+        array[4] = p4;
+        init(messagePattern, 5, array);
+        return this;
+    }
+
+    ReusableMessageFormatMessage set(final String messagePattern, final Object p0, final Object p1, final Object p2,
+            final Object p3, final Object p4, final Object p5) {
+        final Object[] array = getUnrolled(6);
+        array[0] = p0;
+        array[1] = p1;
+        array[2] = p2;
+        array[3] = p3;
+        array[4] = p4;
+        array[5] = p5;
+        init(messagePattern, 6, array);
+        return this;
+    }
+
+    ReusableMessageFormatMessage set(final String messagePattern, final Object p0, final Object p1, final Object p2,
+            final Object p3, final Object p4, final Object p5, final Object p6) {
+        final Object[] array = getUnrolled(7);
+        array[0] = p0;
+        array[1] = p1;
+        array[2] = p2;
+        array[3] = p3;
+        array[4] = p4;
+        array[5] = p5;
+        array[6] = p6;
+        init(messagePattern, 7, array);
+        return this;
+    }
+
+    ReusableMessageFormatMessage set(final String messagePattern, final Object p0, final Object p1, final Object p2,
+            final Object p3, final Object p4, final Object p5, final Object p6, final Object p7) {
+        final Object[] array = getUnrolled(8);
+        array[0] = p0;
+        array[1] = p1;
+        array[2] = p2;
+        array[3] = p3;
+        array[4] = p4;
+        array[5] = p5;
+        array[6] = p6;
+        array[7] = p7;
+        init(messagePattern, 8, array);
+        return this;
+    }
+
+    ReusableMessageFormatMessage set(final String messagePattern, final Object p0, final Object p1, final Object p2,
+            final Object p3, final Object p4, final Object p5, final Object p6, final Object p7, final Object p8) {
+        final Object[] array = getUnrolled(9);
+        array[0] = p0;
+        array[1] = p1;
+        array[2] = p2;
+        array[3] = p3;
+        array[4] = p4;
+        array[5] = p5;
+        array[6] = p6;
+        array[7] = p7;
+        array[8] = p8;
+        init(messagePattern, 9, array);
+        return this;
+    }
+
+    ReusableMessageFormatMessage set(final String messagePattern, final Object p0, final Object p1, final Object p2,
+            final Object p3, final Object p4, final Object p5, final Object p6, final Object p7, final Object p8,
+            final Object p9) {
+        final Object[] array = getUnrolled(10);
+        array[0] = p0;
+        array[1] = p1;
+        array[2] = p2;
+        array[3] = p3;
+        array[4] = p4;
+        array[5] = p5;
+        array[6] = p6;
+        array[7] = p7;
+        array[8] = p8;
+        array[9] = p9;
+        init(messagePattern, 10, array);
+        return this;
+    }
+
+    /**
+     * Returns the reusable array of exactly the specified length: MessageFormat renders a placeholder without a
+     * matching argument as is, so the parameters cannot be passed in a longer array.
+     */
+    private Object[] getUnrolled(final int length) {
+        Object[] result = unrolled[length];
+        if (result == null) {
+            result = new Object[length];
+            unrolled[length] = result;
+        }
+        return result;
+    }
+
+    private void init(final String messagePattern, final int argCount, final Object[] paramArray) {
+        this.messagePattern = messagePattern;
+        this.argCount = argCount;
+        this.params = paramArray;
+        this.throwable = argCount > 0 && paramArray[argCount - 1] instanceof Throwable
+                ? (Throwable) paramArray[argCount - 1] : null;
+    }
+
+    // see interface javadoc
+    @Override
+    public Object[] swapParameters(final Object[] emptyReplacement) {
+        if (argCount <= emptyReplacement.length) {
+            // copy params into the specified replacement array and keep our own array for the next message
+            if (argCount > 0) {
+                System.arraycopy(params, 0, emptyReplacement, 0, argCount);
+            }
+            return emptyReplacement;
+        }
+        // only a vararg array of the caller can be larger than the replacement
+        return params;
+    }
+
+    // see interface javadoc
+    @Override
+    public short getParameterCount() {
+        return (short) argCount;
+    }
+
+    @Override
+    public Message memento() {
+        return new MessageFormatMessage(locale, messagePattern, getParameters());
+    }
+
+    /**
+     * Returns the message pattern.
+     * @return the message pattern.
+     */
+    @Override
+    public String getFormat() {
+        return messagePattern;
+    }
+
+    /**
+     * Returns a copy of the message parameters.
+     * @return the message parameters.
+     */
+    @Override
+    public Object[] getParameters() {
+        return argCount == 0 ? params : Arrays.copyOf(params, argCount);
+    }
+
+    /**
+     * Returns the Throwable that was given as the last argument, if any.
+     * @return the Throwable, or null.
+     */
+    @Override
+    public Throwable getThrowable() {
+        return throwable;
+    }
+
+    /**
+     * Returns the formatted message.
+     * @return the formatted message.
+     */
+    @Override
+    public String getFormattedMessage() {
+        final StringBuilder sb = new StringBuilder(messagePattern == null ? 16 : messagePattern.length() + 16);
+        formatTo(sb);
+        return sb.toString();
+    }
+
+    @Override
+    public void formatTo(final StringBuilder buffer) {
+        if (messagePattern == null) {
+            buffer.append((String) null);
+            return;
+        }
+        try {
+            final MessageFormat format = getMessageFormat();
+            formatBuffer.setLength(0);
+            format.format(argCount == 0 ? getUnrolled(0) : params, formatBuffer, fieldPosition);
+            buffer.append(formatBuffer);
+        } catch (final IllegalArgumentException ex) {
+            LOGGER.error("Unable to format msg: " + messagePattern, ex);
+            buffer.append(messagePattern);
+        }
+    }
+
+    private MessageFormat getMessageFormat() {
+        if (messageFormat == null || !messagePattern.equals(messageFormatPattern)) {
+            messageFormat = new MessageFormat(messagePattern, locale);
+            messageFormatPattern = messagePattern;
+        }
+        return messageFormat;
+    }
+
+    @Override
+    public String toString() {
+        return "ReusableMessageFormatMessage[messagePattern=" + getFormat() + ", stringArgs="
+                + Arrays.toString(getParameters()) + ", throwable=" + getThrowable() + ']';
+    }
+}
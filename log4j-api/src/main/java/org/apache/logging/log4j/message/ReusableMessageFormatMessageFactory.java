@@ -0,0 +1,144 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.message;
+
+import java.io.Serializable;
+
+import org.apache.logging.log4j.util.PerformanceSensitive;
+
+/**
+ * Implementation of the {@link MessageFactory} interface that creates {@link ReusableMessageFormatMessage} instances,
+ * so messages with java.text.MessageFormat patterns, like those of java.util.logging, can be logged without
+ * allocating a new message each time. Message instances are cached in a ThreadLocal and reused when a new message is
+ * requested within the same thread. Messages without parameters are created by {@link ReusableMessageFactory}.
+ * @see MessageFormatMessageFactory
+ * @see ReusableMessageFactory
+ * @since 2.7
+ */
+@PerformanceSensitive("allocation")
+public final class ReusableMessageFormatMessageFactory implements MessageFactory2, Serializable {
+
+    /**
+     * Instance of ReusableMessageFormatMessageFactory.
+     */
+    public static final ReusableMessageFormatMessageFactory INSTANCE = new ReusableMessageFormatMessageFactory();
+
+    private static final long serialVersionUID = 2203618487297924712L;
+    private static ThreadLocal<ReusableMessageFormatMessage> threadLocalMessage = new ThreadLocal<>();
+
+    /**
+     * Constructs a message factory.
+     */
+    public ReusableMessageFormatMessageFactory() {
+        super();
+    }
+
+    private static ReusableMessageFormatMessage getMessage() {
+        ReusableMessageFormatMessage result = threadLocalMessage.get();
+        if (result == null) {
+            result = new ReusableMessageFormatMessage();
+            threadLocalMessage.set(result);
+        }
+        return result;
+    }
+
+    @Override
+    public Message newMessage(final CharSequence charSequence) {
+        return ReusableMessageFactory.INSTANCE.newMessage(charSequence);
+    }
+
+    /**
+     * Creates {@link ReusableMessageFormatMessage} instances.
+     *
+     * @param message The message pattern.
+     * @param params The message parameters.
+     * @return The Message.
+     *
+     * @see MessageFactory#newMessage(String, Object...)
+     */
+    @Override
+    public Message newMessage(final String message, final Object... params) {
+        return getMessage().set(message, params);
+    }
+
+    @Override
+    public Message newMessage(final String message, final Object p0) {
+        return getMessage().set(message, p0);
+    }
+
+    @Override
+    public Message newMessage(final String message, final Object p0, final Object p1) {
+        return getMessage().set(message, p0, p1);
+    }
+
+    @Override
+    public Message newMessage(final String message, final Object p0, final Object p1, final Object p2) {
+        return getMessage().set(message, p0, p1, p2);
+    }
+
+    @Override
+    public Message newMessage(final String message, final Object p0, final Object p1, final Object p2,
+            final Object p3) {
+        return getMessage().set(message, p0, p1, p2, p3);
+    }
+
+    @Override
+    public Message newMessage(final String message, final Object p0, final Object p1, final Object p2, final Object p3,
+            final Object p4) {
+        return getMessage().set(message, p0, p1, p2, p3, p4);
+    }
+
+    @Override
+    public Message newMessage(final String message, final Object p0, final Object p1, final Object p2, final Object p3,
+            final Object p4, final Object p5) {
+        return getMessage().set(message, p0, p1, p2, p3, p4, p5);
+    }
+
+    @Override
+    public Message newMessage(final String message, final Object p0, final Object p1, final Object p2, final Object p3,
+            final Object p4, final Object p5, final Object p6) {
+        return getMessage().set(message, p0, p1, p2, p3, p4, p5, p6);
+    }
+
+    @Override
+    public Message newMessage(final String message, final Object p0, final Object p1, final Object p2, final Object p3,
+            final Object p4, final Object p5, final Object p6, final Object p7) {
+        return getMessage().set(message, p0, p1, p2, p3, p4, p5, p6, p7);
+    }
+
+    @Override
+    public Message newMessage(final String message, final Object p0, final Object p1, final Object p2, final Object p3,
+            final Object p4, final Object p5, final Object p6, final Object p7, final Object p8) {
+        return getMessage().set(message, p0, p1, p2, p3, p4, p5, p6, p7, p8);
+    }
+
+    @Override
+    public Message newMessage(final String message, final Object p0, final Object p1, final Object p2, final Object p3,
+            final Object p4, final Object p5, final Object p6, final Object p7, final Object p8, final Object p9) {
+        return getMessage().set(message, p0, p1, p2, p3, p4, p5, p6, p7, p8, p9);
+    }
+
+    @Override
+    public Message newMessage(final String message) {
+        return ReusableMessageFactory.INSTANCE.newMessage(message);
+    }
+
+    @Override
+    public Message newMessage(final Object message) {
+        return ReusableMessageFactory.INSTANCE.newMessage(message);
+    }
+}
@@ -39,6 +39,7 @@ public class ReusableParameterizedMessage implements ReusableMessage {
     private int argCount;
     private int usedCount;
     private final int[] indices = new int[256];
+    private transient int parsedPattern; // ParameterFormatter.NOT_CACHED unless the pattern is cached
     private transient Object[] varargs;
     private transient Object[] params = new Object[MAX_PARMS];
     private transient Throwable throwable;
@@ -108,7 +109,9 @@ public class ReusableParameterizedMessage implements ReusableMessage {
         this.varargs = null;
         this.messagePattern = messagePattern;
         this.argCount = argCount;
-        final int placeholderCount = count(messagePattern, indices);
+        this.parsedPattern = ParameterFormatter.getParsedPattern(messagePattern);
+        final int placeholderCount = parsedPattern != ParameterFormatter.NOT_CACHED
+                ? ParameterFormatter.getPlaceholderCount(parsedPattern) : count(messagePattern, indices);
         initThrowable(paramArray, argCount, placeholderCount);
         this.usedCount = Math.min(placeholderCount, argCount);
     }
@@ -301,7 +304,9 @@ public class ReusableParameterizedMessage implements ReusableMessage {
 
     @Override
     public void formatTo(final StringBuilder builder) {
-        if (indices[0] < 0) {
+        if (parsedPattern != ParameterFormatter.NOT_CACHED) {
+            ParameterFormatter.formatTo(builder, messagePattern, parsedPattern, getParams(), usedCount);
+        } else if (indices[0] < 0) {
             ParameterFormatter.formatMessage(builder, messagePattern, getParams(), argCount);
         } else {
             ParameterFormatter.formatMessage2(builder, messagePattern, getParams(), usedCount, indices);
@@ -0,0 +1,47 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.spi;
+
+import java.util.Map;
+
+/**
+ * Extension service provider interface to implement bulk removal and restoration of keys in
+ * {@link org.apache.logging.log4j.ThreadContext}, so that implementations that copy the map on each update can apply
+ * several changes with a single copy.
+ *
+ * @see ThreadContextMap2
+ * @since 2.7
+ */
+public interface CleanableThreadContextMap extends ThreadContextMap2 {
+
+    /**
+     * Removes all given context keys from the current thread's context map.
+     *
+     * @param keys The keys to remove.
+     * @since 2.7
+     */
+    void removeAll(final Iterable<String> keys);
+
+    /**
+     * Sets each key of the given map back to its value in the current thread's context map. Keys whose value is
+     * {@code null} are removed.
+     *
+     * @param values The keys to restore and their previous values, {@code null} for keys that were absent.
+     * @since 2.7
+     */
+    void restoreAll(final Map<String, String> values);
+}
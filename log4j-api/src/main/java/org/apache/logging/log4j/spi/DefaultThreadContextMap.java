@@ -28,7 +28,7 @@ import org.apache.logging.log4j.util.PropertiesUtil;
  * expected that the Map will be passed to many more log events than the number of keys it contains the performance
  * should be much better than if the Map was copied for each event.
  */
-public class DefaultThreadContextMap implements ThreadContextMap2 {
+public class DefaultThreadContextMap implements CleanableThreadContextMap {
 
     /**
      * Property name ({@value} ) for selecting {@code InheritableThreadLocal} (value "true") or plain
@@ -103,6 +103,44 @@ public class DefaultThreadContextMap implements ThreadContextMap2 {
         }
     }
 
+    @Override
+    public void removeAll(final Iterable<String> keys) {
+        final Map<String, String> map = localMap.get();
+        if (map != null) {
+            final Map<String, String> copy = new HashMap<>(map);
+            for (final String key : keys) {
+                copy.remove(key);
+            }
+            setLocalMap(copy);
+        }
+    }
+
+    @Override
+    public void restoreAll(final Map<String, String> values) {
+        if (!useMap) {
+            return;
+        }
+        Map<String, String> map = localMap.get();
+        map = map == null ? new HashMap<String, String>(values.size()) : new HashMap<>(map);
+        for (final Map.Entry<String, String> e : values.entrySet()) {
+            if (e.getValue() == null) {
+                map.remove(e.getKey());
+            } else {
+                map.put(e.getKey(), e.getValue());
+            }
+        }
+        setLocalMap(map);
+    }
+
+    // An emptied map is dropped so that the next put does not need to copy it.
+    private void setLocalMap(final Map<String, String> map) {
+        if (map.isEmpty()) {
+            localMap.remove();
+        } else {
+            localMap.set(Collections.unmodifiableMap(map));
+        }
+    }
+
     @Override
     public void clear() {
         localMap.remove();
@@ -94,7 +94,11 @@ public class StatusConsoleListener implements StatusListener {
         if (filters == null) {
             return false;
         }
-        final String caller = data.getStackTraceElement().getClassName();
+        final StackTraceElement element = data.getStackTraceElement();
+        if (element == null) {
+            return false;
+        }
+        final String caller = element.getClassName();
         for (final String filter : filters) {
             if (caller.startsWith(filter)) {
                 return true;
@@ -18,15 +18,14 @@ package org.apache.logging.log4j.status;
 
 import java.io.Closeable;
 import java.io.IOException;
+import java.io.Serializable;
 import java.util.ArrayList;
-import java.util.Collection;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
-import java.util.Queue;
-import java.util.concurrent.ConcurrentLinkedQueue;
-import java.util.concurrent.CopyOnWriteArrayList;
-import java.util.concurrent.locks.Lock;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 import java.util.concurrent.locks.ReadWriteLock;
-import java.util.concurrent.locks.ReentrantLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 import org.apache.logging.log4j.Level;
@@ -60,25 +59,27 @@ public final class StatusLogger extends AbstractLogger {
 
     private static final String DEFAULT_STATUS_LEVEL = PROPS.getStringProperty("log4j2.StatusLogger.level");
 
+    private static final StatusListener[] NO_LISTENERS = new StatusListener[0];
+
     // LOG4J2-1176: normal parameterized message remembers param object, causing memory leaks.
     private static final StatusLogger STATUS_LOGGER = new StatusLogger(StatusLogger.class.getName(),
             ParameterizedNoReferenceMessageFactory.INSTANCE);
 
     private final SimpleLogger logger;
 
-    private final Collection<StatusListener> listeners = new CopyOnWriteArrayList<>();
+    /**
+     * Copy-on-write array of the registered listeners: it is replaced, never modified, so events are dispatched
+     * without locking.
+     */
+    private volatile StatusListener[] listeners = NO_LISTENERS;
 
     @SuppressWarnings("NonSerializableFieldInSerializableClass")
     // ReentrantReadWriteLock is Serializable
     private final ReadWriteLock listenersLock = new ReentrantReadWriteLock();
 
-    private final Queue<StatusData> messages = new BoundedQueue<>(MAX_ENTRIES);
-
-    @SuppressWarnings("NonSerializableFieldInSerializableClass")
-    // ReentrantLock is Serializable
-    private final Lock msgLock = new ReentrantLock();
+    private final StatusDataRing messages = new StatusDataRing(MAX_ENTRIES);
 
-    private int listenersLevel;
+    private volatile int listenersLevel;
 
     private StatusLogger(final String name, final MessageFactory messageFactory) {
         super(name, messageFactory);
@@ -108,7 +109,10 @@ public final class StatusLogger extends AbstractLogger {
     public void registerListener(final StatusListener listener) {
         listenersLock.writeLock().lock();
         try {
-            listeners.add(listener);
+            final StatusListener[] current = listeners;
+            final StatusListener[] copy = Arrays.copyOf(current, current.length + 1);
+            copy[current.length] = listener;
+            listeners = copy;
             final Level lvl = listener.getStatusLevel();
             if (listenersLevel < lvl.intLevel()) {
                 listenersLevel = lvl.intLevel();
@@ -127,7 +131,7 @@ public final class StatusLogger extends AbstractLogger {
         closeSilently(listener);
         listenersLock.writeLock().lock();
         try {
-            listeners.remove(listener);
+            listeners = without(listeners, listener);
             int lowest = Level.toLevel(DEFAULT_STATUS_LEVEL, Level.WARN).intLevel();
             for (final StatusListener statusListener : listeners) {
                 final int level = statusListener.getStatusLevel().intLevel();
@@ -141,6 +145,18 @@ public final class StatusLogger extends AbstractLogger {
         }
     }
 
+    private static StatusListener[] without(final StatusListener[] current, final StatusListener listener) {
+        for (int i = 0; i < current.length; i++) {
+            if (current[i].equals(listener)) {
+                final StatusListener[] copy = new StatusListener[current.length - 1];
+                System.arraycopy(current, 0, copy, 0, i);
+                System.arraycopy(current, i + 1, copy, i, copy.length - i);
+                return copy;
+            }
+        }
+        return current;
+    }
+
     public void updateListenerLevel(final Level status) {
         if (status.intLevel() > listenersLevel) {
             listenersLevel = status.intLevel();
@@ -153,7 +169,7 @@ public final class StatusLogger extends AbstractLogger {
      * @return An Iterable for the list of StatusListeners.
      */
     public Iterable<StatusListener> getListeners() {
-        return listeners;
+        return Collections.unmodifiableList(Arrays.asList(listeners));
     }
 
     /**
@@ -166,7 +182,7 @@ public final class StatusLogger extends AbstractLogger {
                 closeSilently(listener);
             }
         } finally {
-            listeners.clear();
+            listeners = NO_LISTENERS;
             listenersLock.writeLock().unlock();
             // note this should certainly come after the unlock to avoid unnecessary nested locking
             clear();
@@ -187,24 +203,14 @@ public final class StatusLogger extends AbstractLogger {
      * @return The list of StatusData objects.
      */
     public List<StatusData> getStatusData() {
-        msgLock.lock();
-        try {
-            return new ArrayList<>(messages);
-        } finally {
-            msgLock.unlock();
-        }
+        return messages.toList();
     }
 
     /**
      * Clears the list of status events.
      */
     public void clear() {
-        msgLock.lock();
-        try {
-            messages.clear();
-        } finally {
-            msgLock.unlock();
-        }
+        messages.clear();
     }
 
     @Override
@@ -224,19 +230,16 @@ public final class StatusLogger extends AbstractLogger {
     @Override
     public void logMessage(final String fqcn, final Level level, final Marker marker, final Message msg,
             final Throwable t) {
+        final StatusListener[] current = listeners;
+        // the stack is only walked for events that a listener receives; they may read the caller on any thread
         StackTraceElement element = null;
-        if (fqcn != null) {
+        if (fqcn != null && isListened(current, level)) {
             element = getStackTraceElement(fqcn, Thread.currentThread().getStackTrace());
         }
         final StatusData data = new StatusData(element, level, msg, t, null);
-        msgLock.lock();
-        try {
-            messages.add(data);
-        } finally {
-            msgLock.unlock();
-        }
-        if (listeners.size() > 0) {
-            for (final StatusListener listener : listeners) {
+        messages.add(data);
+        if (current.length > 0) {
+            for (final StatusListener listener : current) {
                 if (data.getLevel().isMoreSpecificThan(listener.getStatusLevel())) {
                     listener.log(data);
                 }
@@ -246,10 +249,16 @@ public final class StatusLogger extends AbstractLogger {
         }
     }
 
-    private StackTraceElement getStackTraceElement(final String fqcn, final StackTraceElement[] stackTrace) {
-        if (fqcn == null) {
-            return null;
+    private static boolean isListened(final StatusListener[] current, final Level level) {
+        for (final StatusListener listener : current) {
+            if (level.isMoreSpecificThan(listener.getStatusLevel())) {
+                return true;
+            }
         }
+        return false;
+    }
+
+    private static StackTraceElement getStackTraceElement(final String fqcn, final StackTraceElement[] stackTrace) {
         boolean next = false;
         for (final StackTraceElement element : stackTrace) {
             final String className = element.getClassName();
@@ -365,34 +374,54 @@ public final class StatusLogger extends AbstractLogger {
 
     @Override
     public boolean isEnabled(final Level level, final Marker marker) {
-        if (listeners.size() > 0) {
+        if (listeners.length > 0) {
             return listenersLevel >= level.intLevel();
         }
         return logger.isEnabled(level, marker);
     }
 
     /**
-     * Queues for status events.
-     *
-     * @param <E> Object type to be stored in the queue.
+     * Lock-free ring of the most recent status events. Writers claim a slot by incrementing a sequence and overwrite
+     * the oldest event; readers copy the slots of the last sequences. Events written concurrently with a read may be
+     * missing from, or out of order in, its result.
      */
-    private class BoundedQueue<E> extends ConcurrentLinkedQueue<E> {
+    private static final class StatusDataRing implements Serializable {
+
+        private static final long serialVersionUID = 1L;
 
-        private static final long serialVersionUID = -3945953719763255337L;
+        private final AtomicReferenceArray<StatusData> slots;
 
-        private final int size;
+        private final AtomicLong sequence = new AtomicLong();
 
-        BoundedQueue(final int size) {
-            this.size = size;
+        StatusDataRing(final int size) {
+            this.slots = new AtomicReferenceArray<>(Math.max(size, 0));
+        }
+
+        void add(final StatusData data) {
+            final int size = slots.length();
+            if (size > 0) {
+                slots.set((int) (sequence.getAndIncrement() % size), data);
+            }
+        }
+
+        List<StatusData> toList() {
+            final int size = slots.length();
+            final long end = sequence.get();
+            final long start = Math.max(0, end - size);
+            final List<StatusData> result = new ArrayList<>((int) (end - start));
+            for (long i = start; i < end; i++) {
+                final StatusData data = slots.get((int) (i % size));
+                if (data != null) {
+                    result.add(data);
+                }
+            }
+            return result;
         }
 
-        @Override
-        public boolean add(final E object) {
-            super.add(object);
-            while (messages.size() > size) {
-                messages.poll();
+        void clear() {
+            for (int i = 0; i < slots.length(); i++) {
+                slots.set(i, null);
             }
-            return size > 0;
         }
     }
 }
@@ -19,6 +19,9 @@ package org.apache.logging.log4j;
 import static org.hamcrest.CoreMatchers.is;
 import static org.junit.Assert.assertThat;
 
+import java.util.HashMap;
+import java.util.Map;
+
 import org.apache.logging.log4j.junit.ThreadContextRule;
 import org.junit.Rule;
 import org.junit.Test;
@@ -53,6 +56,37 @@ public class CloseableThreadContextTest {
         }
     }
 
+    @Test
+    public void shouldAddAllEntriesToTheMap() throws Exception {
+        final Map<String, String> values = new HashMap<>();
+        values.put(key, value);
+        values.put("key2", "value2");
+        try (final CloseableThreadContext.Instance ignored = CloseableThreadContext.putAll(values)) {
+            assertThat(ThreadContext.get(key), is(value));
+            assertThat(ThreadContext.get("key2"), is("value2"));
+        }
+        assertThat(ThreadContext.isEmpty(), is(true));
+    }
+
+    @Test
+    public void shouldRestoreAndRemoveEntriesWhenAutoClosed() throws Exception {
+        final String oldValue = "oldValue";
+        ThreadContext.put(key, oldValue);
+        ThreadContext.put("unrelated", "unrelatedValue");
+        final Map<String, String> values = new HashMap<>();
+        values.put(key, value);
+        values.put("key2", "value2");
+        try (final CloseableThreadContext.Instance ignored = CloseableThreadContext.putAll(values).put("key3", "value3")) {
+            assertThat(ThreadContext.get(key), is(value));
+            assertThat(ThreadContext.get("key2"), is("value2"));
+            assertThat(ThreadContext.get("key3"), is("value3"));
+        }
+        assertThat(ThreadContext.get(key), is(oldValue));
+        assertThat(ThreadContext.containsKey("key2"), is(false));
+        assertThat(ThreadContext.containsKey("key3"), is(false));
+        assertThat(ThreadContext.get("unrelated"), is("unrelatedValue"));
+    }
+
     @Test
     public void shouldNestEntries() throws Exception {
         final String oldValue = "oldValue";
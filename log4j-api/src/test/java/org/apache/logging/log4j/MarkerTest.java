@@ -103,4 +103,66 @@ public class MarkerTest {
         assertTrue("TEST1 is not an instance of PARENT", test1.isInstanceOf(parent));
         assertTrue("TEST1 is not an instance of EXISTING", test1.isInstanceOf(existing));
     }
+
+    @Test
+    public void testDeepHierarchy() {
+        Marker marker = MarkerManager.getMarker("LEVEL0");
+        final Marker root = marker;
+        for (int i = 1; i < 100; i++) {
+            marker = MarkerManager.getMarker("LEVEL" + i).addParents(marker);
+        }
+        assertTrue("LEVEL99 is not an instance of LEVEL0", marker.isInstanceOf(root));
+        assertTrue("LEVEL99 is not an instance of LEVEL0", marker.isInstanceOf("LEVEL0"));
+        assertTrue("LEVEL99 is not an instance of LEVEL50", marker.isInstanceOf("LEVEL50"));
+        assertFalse("LEVEL0 is an instance of LEVEL99", root.isInstanceOf(marker));
+        assertFalse("LEVEL99 is an instance of OTHER", marker.isInstanceOf(MarkerManager.getMarker("OTHER")));
+    }
+
+    @Test
+    public void testHierarchyChangeIsSeenByDescendants() {
+        final Marker grandParent = MarkerManager.getMarker("GRANDPARENT");
+        final Marker parent = MarkerManager.getMarker("PARENT");
+        final Marker child = MarkerManager.getMarker("CHILD").addParents(parent);
+        assertFalse("CHILD is an instance of GRANDPARENT", child.isInstanceOf(grandParent));
+        parent.addParents(grandParent);
+        assertTrue("CHILD is not an instance of GRANDPARENT", child.isInstanceOf(grandParent));
+        parent.remove(grandParent);
+        assertFalse("CHILD is still an instance of GRANDPARENT", child.isInstanceOf("GRANDPARENT"));
+        parent.setParents(grandParent);
+        assertTrue("CHILD is not an instance of GRANDPARENT", child.isInstanceOf("GRANDPARENT"));
+        parent.setParents();
+        assertFalse("CHILD is still an instance of GRANDPARENT", child.isInstanceOf(grandParent));
+    }
+
+    @Test
+    public void testSiblingChangeIsNotSeenByOtherBranch() {
+        final Marker root = MarkerManager.getMarker("ROOT");
+        final Marker left = MarkerManager.getMarker("LEFT").addParents(root);
+        final Marker right = MarkerManager.getMarker("RIGHT").addParents(root);
+        final Marker leaf = MarkerManager.getMarker("LEAF").addParents(left);
+        assertTrue("LEAF is not an instance of ROOT", leaf.isInstanceOf(root));
+        right.setParents();
+        assertTrue("LEAF is not an instance of ROOT", leaf.isInstanceOf(root));
+        assertFalse("RIGHT is still an instance of ROOT", right.isInstanceOf(root));
+        root.addParents(MarkerManager.getMarker("TOP"));
+        assertTrue("LEAF is not an instance of TOP", leaf.isInstanceOf("TOP"));
+        assertFalse("RIGHT is an instance of TOP", right.isInstanceOf("TOP"));
+    }
+
+    @Test
+    public void testManyMarkersFallBackToParentWalk() {
+        final Marker root = MarkerManager.getMarker("DYNAMIC_ROOT");
+        Marker last = null;
+        for (int i = 0; i < 3000; i++) {
+            last = MarkerManager.getMarker("DYNAMIC" + i).addParents(root);
+            assertTrue("DYNAMIC" + i + " is not an instance of DYNAMIC_ROOT", last.isInstanceOf(root));
+            assertFalse("DYNAMIC_ROOT is an instance of DYNAMIC" + i, root.isInstanceOf(last));
+        }
+        final Marker child = MarkerManager.getMarker("DYNAMIC_CHILD").addParents(last);
+        assertTrue("DYNAMIC_CHILD is not an instance of DYNAMIC2999", child.isInstanceOf(last));
+        assertTrue("DYNAMIC_CHILD is not an instance of DYNAMIC_ROOT", child.isInstanceOf("DYNAMIC_ROOT"));
+        assertFalse("DYNAMIC_CHILD is an instance of DYNAMIC0", child.isInstanceOf("DYNAMIC0"));
+        last.setParents();
+        assertFalse("DYNAMIC_CHILD is still an instance of DYNAMIC_ROOT", child.isInstanceOf(root));
+    }
 }
@@ -16,6 +16,7 @@
  */
 package org.apache.logging.log4j;
 
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -183,6 +184,22 @@ public class ThreadContextTest {
         assertTrue(ThreadContext.isEmpty());
     }
 
+    @Test
+    public void testRemoveAll() {
+        ThreadContext.clearMap();
+        ThreadContext.put("testKey1", "testValue1");
+        ThreadContext.put("testKey2", "testValue2");
+        ThreadContext.put("testKey3", "testValue3");
+
+        ThreadContext.removeAll(Arrays.asList("testKey1", "testKey2", "missingKey"));
+        assertNull(ThreadContext.get("testKey1"));
+        assertNull(ThreadContext.get("testKey2"));
+        assertEquals("testValue3", ThreadContext.get("testKey3"));
+
+        ThreadContext.removeAll(Arrays.asList("testKey3"));
+        assertTrue(ThreadContext.isEmpty());
+    }
+
     @Test
     public void testContainsKey() {
         ThreadContext.clearMap();
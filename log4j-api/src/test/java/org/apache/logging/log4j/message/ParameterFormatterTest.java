@@ -188,4 +188,61 @@ public class ParameterFormatterTest {
         final String expected = list.getClass().getName() + "@" + Integer.toHexString(System.identityHashCode(list));
         assertEquals(expected, actual);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testParsedPatternFormatsLikeFormatMessage() {
+        final String[] patterns = { "", "a", "{}", "{", "}", "\\", "{}{}", "a{}b{}c", "{{}}", "{}{}{}a{]b{}",
+                "\\{}", "\\\\{}", "\\\\\\{}x", "a\\b{}", "{}\\{}{}", "{}\\", "x\\\\", "{}{}\\{",
+                "Test message \\{}{} {}\\" };
+        final Object[] args = { "a", "b", "c" };
+        for (final String pattern : patterns) {
+            final int[] parsed = new int[1 + 2 + 2 * ParameterFormatter.parse(pattern, null, 0)];
+            ParameterFormatter.parse(pattern, parsed, 1);
+            final int[] indices = new int[pattern.length() + 1];
+            assertEquals(pattern, ParameterFormatter.countArgumentPlaceholders2(pattern, indices), parsed[1]);
+            for (int argCount = 0; argCount <= args.length; argCount++) {
+                final StringBuilder expected = new StringBuilder();
+                ParameterFormatter.formatMessage(expected, pattern, args, argCount);
+                final StringBuilder actual = new StringBuilder();
+                ParameterFormatter.formatTo(actual, pattern, parsed, 1, args, argCount);
+                assertEquals(pattern + " with " + argCount + " args", expected.toString(), actual.toString());
+            }
+        }
+    }
+
+    @Test
+    public void testParsedPatternIsCachedOnSecondUse() {
+        final String pattern = new String("cached pattern {}");
+        assertEquals(ParameterFormatter.NOT_CACHED, ParameterFormatter.getParsedPattern(pattern));
+        final int parsed = ParameterFormatter.getParsedPattern(pattern);
+        assertNotEquals(ParameterFormatter.NOT_CACHED, parsed);
+        assertEquals(parsed, ParameterFormatter.getParsedPattern(pattern));
+        assertEquals(1, ParameterFormatter.getPlaceholderCount(parsed));
+        final StringBuilder buffer = new StringBuilder();
+        ParameterFormatter.formatTo(buffer, pattern, parsed, new Object[] {"x"}, 1);
+        assertEquals("cached pattern x", buffer.toString());
+        assertEquals(ParameterFormatter.NOT_CACHED, ParameterFormatter.getParsedPattern(new String("cached pattern {}")));
+    }
+
+    @Test
+    public void testCachedPatternIsNotEvicted() {
+        final String pattern = new String("first pattern {}");
+        ParameterFormatter.getParsedPattern(pattern);
+        final int parsed = ParameterFormatter.getParsedPattern(pattern);
+        assertNotEquals(ParameterFormatter.NOT_CACHED, parsed);
+        // patterns that map to the occupied slot are not cached and do not evict it
+        final int hash = System.identityHashCode(pattern);
+        int colliding = 0;
+        for (int i = 0; i < 100000 && colliding < 2; i++) {
+            final String other = new String("other pattern {}");
+            final int otherHash = System.identityHashCode(other);
+            if (((otherHash ^ (otherHash >>> 16)) & 1023) == ((hash ^ (hash >>> 16)) & 1023)) {
+                colliding++;
+                for (int j = 0; j < 3; j++) {
+                    assertEquals(ParameterFormatter.NOT_CACHED, ParameterFormatter.getParsedPattern(other));
+                }
+            }
+        }
+        assertEquals(parsed, ParameterFormatter.getParsedPattern(pattern));
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.message;
+
+import java.util.Locale;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests ReusableMessageFormatMessage.
+ */
+public class ReusableMessageFormatMessageTest {
+
+    @Test
+    public void testNoArgs() {
+        final String testMsg = "Test message {0}";
+        final ReusableMessageFormatMessage msg = new ReusableMessageFormatMessage().set(testMsg, (Object[]) null);
+        assertEquals("Test message {0}", msg.getFormattedMessage());
+        assertEquals(0, msg.getParameterCount());
+    }
+
+    @Test
+    public void testFormatsLikeMessageFormatMessage() {
+        final String testMsg = "Test message {0} and {1}, {2,number,currency}";
+        final ReusableMessageFormatMessage msg = new ReusableMessageFormatMessage(Locale.US);
+        msg.set(testMsg, "Apache", "Log4j", 1234567890);
+        assertEquals(new MessageFormatMessage(Locale.US, testMsg, "Apache", "Log4j", 1234567890)
+                .getFormattedMessage(), msg.getFormattedMessage());
+        assertEquals(3, msg.getParameterCount());
+    }
+
+    @Test
+    public void testMissingArgumentIsNotFormatted() {
+        final ReusableMessageFormatMessage msg = new ReusableMessageFormatMessage().set("{0} {1}", "a");
+        assertEquals("a {1}", msg.getFormattedMessage());
+    }
+
+    @Test
+    public void testReuseWithAnotherPattern() {
+        final ReusableMessageFormatMessage msg = new ReusableMessageFormatMessage();
+        msg.set("first {0}", "a");
+        assertEquals("first a", msg.getFormattedMessage());
+        msg.set("second {0} {1}", "b", "c");
+        final StringBuilder sb = new StringBuilder("x");
+        msg.formatTo(sb);
+        assertEquals("xsecond b c", sb.toString());
+        assertEquals("second {0} {1}", msg.getFormat());
+    }
+
+    @Test
+    public void testException() {
+        final NullPointerException exception = new NullPointerException("Null");
+        final ReusableMessageFormatMessage msg = new ReusableMessageFormatMessage().set("Test message {0}", "Apache",
+                exception);
+        assertEquals("Test message Apache", msg.getFormattedMessage());
+        assertSame(exception, msg.getThrowable());
+    }
+
+    @Test
+    public void testSwapParameters() {
+        final ReusableMessageFormatMessage msg = new ReusableMessageFormatMessage().set("{0} {1}", "a", "b");
+        final Object[] replacement = new Object[10];
+        final Object[] swapped = msg.swapParameters(replacement);
+        assertSame(replacement, swapped);
+        assertEquals("a", swapped[0]);
+        assertEquals("b", swapped[1]);
+        msg.set("{0} {1}", "c", "d");
+        assertEquals("a", swapped[0]);
+        assertEquals("c d", msg.getFormattedMessage());
+    }
+
+    @Test
+    public void testMementoIsImmutable() {
+        final ReusableMessageFormatMessage msg = new ReusableMessageFormatMessage().set("{0}", "a");
+        final Message memento = msg.memento();
+        msg.set("{0}", "b");
+        assertEquals("a", memento.getFormattedMessage());
+    }
+}
@@ -21,6 +21,7 @@ import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -106,6 +107,38 @@ public class DefaultThreadContextMapTest {
         assertEquals("value2", map.get("key2"));
     }
 
+    @Test
+    public void testRemoveAll() {
+        final DefaultThreadContextMap map = createMap();
+        map.put("key3", "value3");
+
+        map.removeAll(Arrays.asList("key", "key3", "missing"));
+        assertFalse(map.containsKey("key"));
+        assertFalse(map.containsKey("key3"));
+        assertEquals("value2", map.get("key2"));
+
+        map.removeAll(Arrays.asList("key2"));
+        assertTrue(map.isEmpty());
+        assertNull(map.getImmutableMapOrNull());
+    }
+
+    @Test
+    public void testRestoreAll() {
+        final DefaultThreadContextMap map = createMap();
+        map.put("key3", "value3");
+
+        final Map<String, String> originalValues = new HashMap<>();
+        originalValues.put("key", "original");
+        originalValues.put("key3", null);
+        originalValues.put("key4", "value4");
+        map.restoreAll(originalValues);
+
+        assertEquals("original", map.get("key"));
+        assertEquals("value2", map.get("key2"));
+        assertFalse(map.containsKey("key3"));
+        assertEquals("value4", map.get("key4"));
+    }
+
     @Test
     public void testClear() {
         final DefaultThreadContextMap map = createMap();
@@ -0,0 +1,167 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.status;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.logging.log4j.Level;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests {@link StatusLogger}.
+ */
+public class StatusLoggerTest {
+
+    private final StatusLogger statusLogger = StatusLogger.getLogger();
+
+    private final CollectingListener listener = new CollectingListener();
+
+    @Before
+    public void before() {
+        statusLogger.clear();
+        statusLogger.registerListener(listener);
+    }
+
+    @After
+    public void after() {
+        statusLogger.removeListener(listener);
+        statusLogger.clear();
+    }
+
+    @Test
+    public void testKeepsMostRecentEntries() {
+        final int count = 250;
+        for (int i = 0; i < count; i++) {
+            statusLogger.error("Message {}", i);
+        }
+        final List<StatusData> data = statusLogger.getStatusData();
+        assertEquals(200, data.size());
+        assertEquals("Message " + (count - 200), data.get(0).getMessage().getFormattedMessage());
+        assertEquals("Message " + (count - 1), data.get(199).getMessage().getFormattedMessage());
+        assertEquals(count, listener.received.size());
+    }
+
+    @Test
+    public void testClear() {
+        statusLogger.error("Message");
+        assertEquals(1, statusLogger.getStatusData().size());
+        statusLogger.clear();
+        assertTrue(statusLogger.getStatusData().isEmpty());
+        statusLogger.error("Message");
+        assertEquals(1, statusLogger.getStatusData().size());
+    }
+
+    @Test
+    public void testCallerIsLocatedForListenedEvents() {
+        statusLogger.error("Message");
+        final StackTraceElement element = listener.received.get(0).getStackTraceElement();
+        assertNotNull(element);
+        assertEquals(StatusLoggerTest.class.getName(), element.getClassName());
+        assertEquals("testCallerIsLocatedForListenedEvents", element.getMethodName());
+        assertEquals(element, statusLogger.getStatusData().get(0).getStackTraceElement());
+    }
+
+    @Test
+    public void testCallerIsNotLocatedForUnlistenedEvents() {
+        statusLogger.warn("Message");
+        assertTrue(listener.received.isEmpty());
+        assertNull(statusLogger.getStatusData().get(0).getStackTraceElement());
+    }
+
+    @Test
+    public void testCallerIsKeptWhenHandedToAnotherThread() throws Exception {
+        statusLogger.error("Message");
+        final StatusData data = listener.received.get(0);
+        final StackTraceElement[] element = new StackTraceElement[1];
+        final Thread thread = new Thread() {
+            @Override
+            public void run() {
+                element[0] = data.getStackTraceElement();
+            }
+        };
+        thread.start();
+        thread.join();
+        assertNotNull(element[0]);
+        assertEquals("testCallerIsKeptWhenHandedToAnotherThread", element[0].getMethodName());
+    }
+
+    @Test
+    public void testRemoveListener() {
+        final CollectingListener other = new CollectingListener();
+        statusLogger.registerListener(other);
+        statusLogger.error("Message 1");
+        statusLogger.removeListener(other);
+        statusLogger.error("Message 2");
+        assertEquals(1, other.received.size());
+        assertEquals(2, listener.received.size());
+        for (final StatusListener registered : statusLogger.getListeners()) {
+            assertFalse(registered == other);
+        }
+    }
+
+    @Test
+    public void testConcurrentLogging() throws Exception {
+        final int threadCount = 4;
+        final Thread[] threads = new Thread[threadCount];
+        for (int i = 0; i < threadCount; i++) {
+            threads[i] = new Thread() {
+                @Override
+                public void run() {
+                    for (int j = 0; j < 1000; j++) {
+                        statusLogger.error("Message {}", j);
+                    }
+                }
+            };
+            threads[i].start();
+        }
+        for (final Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(200, statusLogger.getStatusData().size());
+        assertEquals(threadCount * 1000, listener.received.size());
+    }
+
+    private static class CollectingListener implements StatusListener {
+
+        final List<StatusData> received = new ArrayList<>();
+
+        @Override
+        public synchronized void log(final StatusData data) {
+            received.add(data);
+        }
+
+        @Override
+        public Level getStatusLevel() {
+            return Level.ERROR;
+        }
+
+        @Override
+        public void close() throws IOException {
+            // nothing to close
+        }
+    }
+}
@@ -377,6 +377,12 @@ public class Logger extends AbstractLogger implements Supplier<LoggerConfig> {
         private final Level loggerConfigLevel;
         private final int intLevel;
         private final Logger logger;
+        /**
+         * The configuration-level Filter when this PrivateConfig was created, or null. Taken as a snapshot so that
+         * a disabled call does not read the Configuration's volatile filter; the Configuration updates the Loggers
+         * when a filter is added or removed.
+         */
+        private final Filter configFilter;
 
         public PrivateConfig(final Configuration config, final Logger logger) {
             this.config = config;
@@ -384,6 +390,7 @@ public class Logger extends AbstractLogger implements Supplier<LoggerConfig> {
             this.loggerConfigLevel = this.loggerConfig.getLevel();
             this.intLevel = this.loggerConfigLevel.intLevel();
             this.logger = logger;
+            this.configFilter = config.getFilter();
         }
 
         public PrivateConfig(final PrivateConfig pc, final Level level) {
@@ -392,6 +399,7 @@ public class Logger extends AbstractLogger implements Supplier<LoggerConfig> {
             this.loggerConfigLevel = level;
             this.intLevel = this.loggerConfigLevel.intLevel();
             this.logger = pc.logger;
+            this.configFilter = pc.configFilter;
         }
 
         public PrivateConfig(final PrivateConfig pc, final LoggerConfig lc) {
@@ -400,6 +408,7 @@ public class Logger extends AbstractLogger implements Supplier<LoggerConfig> {
             this.loggerConfigLevel = lc.getLevel();
             this.intLevel = this.loggerConfigLevel.intLevel();
             this.logger = pc.logger;
+            this.configFilter = pc.configFilter;
         }
 
         // LOG4J2-151: changed visibility to public
@@ -408,7 +417,7 @@ public class Logger extends AbstractLogger implements Supplier<LoggerConfig> {
         }
 
         boolean filter(final Level level, final Marker marker, final String msg) {
-            final Filter filter = config.getFilter();
+            final Filter filter = configFilter;
             if (filter != null) {
                 final Filter.Result r = filter.filter(logger, level, marker, msg);
                 if (r != Filter.Result.NEUTRAL) {
@@ -419,7 +428,7 @@ public class Logger extends AbstractLogger implements Supplier<LoggerConfig> {
         }
 
         boolean filter(final Level level, final Marker marker, final String msg, final Throwable t) {
-            final Filter filter = config.getFilter();
+            final Filter filter = configFilter;
             if (filter != null) {
                 final Filter.Result r = filter.filter(logger, level, marker, (Object) msg, t);
                 if (r != Filter.Result.NEUTRAL) {
@@ -430,7 +439,7 @@ public class Logger extends AbstractLogger implements Supplier<LoggerConfig> {
         }
 
         boolean filter(final Level level, final Marker marker, final String msg, final Object... p1) {
-            final Filter filter = config.getFilter();
+            final Filter filter = configFilter;
             if (filter != null) {
                 final Filter.Result r = filter.filter(logger, level, marker, msg, p1);
                 if (r != Filter.Result.NEUTRAL) {
@@ -441,7 +450,7 @@ public class Logger extends AbstractLogger implements Supplier<LoggerConfig> {
         }
 
         boolean filter(final Level level, final Marker marker, final String msg, final Object p0) {
-            final Filter filter = config.getFilter();
+            final Filter filter = configFilter;
             if (filter != null) {
                 final Filter.Result r = filter.filter(logger, level, marker, msg, p0);
                 if (r != Filter.Result.NEUTRAL) {
@@ -453,7 +462,7 @@ public class Logger extends AbstractLogger implements Supplier<LoggerConfig> {
 
         boolean filter(final Level level, final Marker marker, final String msg, final Object p0,
                 final Object p1) {
-            final Filter filter = config.getFilter();
+            final Filter filter = configFilter;
             if (filter != null) {
                 final Filter.Result r = filter.filter(logger, level, marker, msg, p0, p1);
                 if (r != Filter.Result.NEUTRAL) {
@@ -465,7 +474,7 @@ public class Logger extends AbstractLogger implements Supplier<LoggerConfig> {
 
         boolean filter(final Level level, final Marker marker, final String msg, final Object p0,
                 final Object p1, final Object p2) {
-            final Filter filter = config.getFilter();
+            final Filter filter = configFilter;
             if (filter != null) {
                 final Filter.Result r = filter.filter(logger, level, marker, msg, p0, p1, p2);
                 if (r != Filter.Result.NEUTRAL) {
@@ -477,7 +486,7 @@ public class Logger extends AbstractLogger implements Supplier<LoggerConfig> {
 
         boolean filter(final Level level, final Marker marker, final String msg, final Object p0,
                 final Object p1, final Object p2, final Object p3) {
-            final Filter filter = config.getFilter();
+            final Filter filter = configFilter;
             if (filter != null) {
                 final Filter.Result r = filter.filter(logger, level, marker, msg, p0, p1, p2, p3);
                 if (r != Filter.Result.NEUTRAL) {
@@ -490,7 +499,7 @@ public class Logger extends AbstractLogger implements Supplier<LoggerConfig> {
         boolean filter(final Level level, final Marker marker, final String msg, final Object p0,
                 final Object p1, final Object p2, final Object p3,
                 final Object p4) {
-            final Filter filter = config.getFilter();
+            final Filter filter = configFilter;
             if (filter != null) {
                 final Filter.Result r = filter.filter(logger, level, marker, msg, p0, p1, p2, p3, p4);
                 if (r != Filter.Result.NEUTRAL) {
@@ -503,7 +512,7 @@ public class Logger extends AbstractLogger implements Supplier<LoggerConfig> {
         boolean filter(final Level level, final Marker marker, final String msg, final Object p0,
                 final Object p1, final Object p2, final Object p3,
                 final Object p4, final Object p5) {
-            final Filter filter = config.getFilter();
+            final Filter filter = configFilter;
             if (filter != null) {
                 final Filter.Result r = filter.filter(logger, level, marker, msg, p0, p1, p2, p3, p4, p5);
                 if (r != Filter.Result.NEUTRAL) {
@@ -516,7 +525,7 @@ public class Logger extends AbstractLogger implements Supplier<LoggerConfig> {
         boolean filter(final Level level, final Marker marker, final String msg, final Object p0,
                 final Object p1, final Object p2, final Object p3,
                 final Object p4, final Object p5, final Object p6) {
-            final Filter filter = config.getFilter();
+            final Filter filter = configFilter;
             if (filter != null) {
                 final Filter.Result r = filter.filter(logger, level, marker, msg, p0, p1, p2, p3, p4, p5, p6);
                 if (r != Filter.Result.NEUTRAL) {
@@ -530,7 +539,7 @@ public class Logger extends AbstractLogger implements Supplier<LoggerConfig> {
                 final Object p1, final Object p2, final Object p3,
                 final Object p4, final Object p5, final Object p6,
                 final Object p7) {
-            final Filter filter = config.getFilter();
+            final Filter filter = configFilter;
             if (filter != null) {
                 final Filter.Result r = filter.filter(logger, level, marker, msg, p0, p1, p2, p3, p4, p5, p6, p7);
                 if (r != Filter.Result.NEUTRAL) {
@@ -544,7 +553,7 @@ public class Logger extends AbstractLogger implements Supplier<LoggerConfig> {
                 final Object p1, final Object p2, final Object p3,
                 final Object p4, final Object p5, final Object p6,
                 final Object p7, final Object p8) {
-            final Filter filter = config.getFilter();
+            final Filter filter = configFilter;
             if (filter != null) {
                 final Filter.Result r = filter.filter(logger, level, marker, msg, p0, p1, p2, p3, p4, p5, p6, p7, p8);
                 if (r != Filter.Result.NEUTRAL) {
@@ -558,7 +567,7 @@ public class Logger extends AbstractLogger implements Supplier<LoggerConfig> {
                 final Object p1, final Object p2, final Object p3,
                 final Object p4, final Object p5, final Object p6,
                 final Object p7, final Object p8, final Object p9) {
-            final Filter filter = config.getFilter();
+            final Filter filter = configFilter;
             if (filter != null) {
                 final Filter.Result r = filter.filter(logger, level, marker, msg, p0, p1, p2, p3, p4, p5, p6, p7, p8,
                         p9);
@@ -570,7 +579,7 @@ public class Logger extends AbstractLogger implements Supplier<LoggerConfig> {
         }
 
         boolean filter(final Level level, final Marker marker, final CharSequence msg, final Throwable t) {
-            final Filter filter = config.getFilter();
+            final Filter filter = configFilter;
             if (filter != null) {
                 final Filter.Result r = filter.filter(logger, level, marker, msg, t);
                 if (r != Filter.Result.NEUTRAL) {
@@ -581,7 +590,7 @@ public class Logger extends AbstractLogger implements Supplier<LoggerConfig> {
         }
 
         boolean filter(final Level level, final Marker marker, final Object msg, final Throwable t) {
-            final Filter filter = config.getFilter();
+            final Filter filter = configFilter;
             if (filter != null) {
                 final Filter.Result r = filter.filter(logger, level, marker, msg, t);
                 if (r != Filter.Result.NEUTRAL) {
@@ -592,7 +601,7 @@ public class Logger extends AbstractLogger implements Supplier<LoggerConfig> {
         }
 
         boolean filter(final Level level, final Marker marker, final Message msg, final Throwable t) {
-            final Filter filter = config.getFilter();
+            final Filter filter = configFilter;
             if (filter != null) {
                 final Filter.Result r = filter.filter(logger, level, marker, msg, t);
                 if (r != Filter.Result.NEUTRAL) {
@@ -615,6 +624,8 @@ public class Logger extends AbstractLogger implements Supplier<LoggerConfig> {
             builder.append(intLevel);
             builder.append(", logger=");
             builder.append(logger);
+            builder.append(", configFilter=");
+            builder.append(configFilter);
             builder.append("]");
             return builder.toString();
         }
@@ -18,6 +18,7 @@ package org.apache.logging.log4j.core.appender;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 
@@ -49,6 +50,10 @@ public abstract class AbstractManager implements AutoCloseable {
 
     private static final Lock LOCK = new ReentrantLock();
 
+    // Managers that are being created, guarded by LOCK. Managers are created without holding LOCK so that managers
+    // that take long to create, for example because they connect to a remote system, do not delay each other.
+    private static final Map<String, CountDownLatch> CREATING = new HashMap<>();
+
     /**
      * Number of Appenders using this manager.
      */
@@ -94,24 +99,63 @@ public abstract class AbstractManager implements AutoCloseable {
      */
     public static <M extends AbstractManager, T> M getManager(final String name, final ManagerFactory<M, T> factory,
                                                               final T data) {
-        LOCK.lock();
-        try {
-            @SuppressWarnings("unchecked")
-            M manager = (M) MAP.get(name);
-            if (manager == null) {
-                manager = factory.createManager(name, data);
-                if (manager == null) {
-                    throw new IllegalStateException("ManagerFactory [" + factory + "] unable to create manager for ["
-                            + name + "] with data [" + data + "]");
+        final CountDownLatch created = new CountDownLatch(1);
+        for (;;) {
+            final CountDownLatch creating;
+            LOCK.lock();
+            try {
+                @SuppressWarnings("unchecked")
+                final M manager = (M) MAP.get(name);
+                if (manager != null) {
+                    manager.updateData(data);
+                    manager.count++;
+                    return manager;
+                }
+                creating = CREATING.get(name);
+                if (creating == null) {
+                    CREATING.put(name, created);
+                    break;
                 }
-                MAP.put(name, manager);
-            } else {
-                manager.updateData(data);
+            } finally {
+                LOCK.unlock();
             }
-            manager.count++;
-            return manager;
+            awaitUninterruptibly(creating);
+        }
+        M manager = null;
+        try {
+            manager = factory.createManager(name, data);
         } finally {
-            LOCK.unlock();
+            LOCK.lock();
+            try {
+                CREATING.remove(name);
+                if (manager != null) {
+                    MAP.put(name, manager);
+                    manager.count++;
+                }
+            } finally {
+                LOCK.unlock();
+                created.countDown();
+            }
+        }
+        if (manager == null) {
+            throw new IllegalStateException("ManagerFactory [" + factory + "] unable to create manager for ["
+                    + name + "] with data [" + data + "]");
+        }
+        return manager;
+    }
+
+    private static void awaitUninterruptibly(final CountDownLatch latch) {
+        boolean interrupted = false;
+        while (true) {
+            try {
+                latch.await();
+                break;
+            } catch (final InterruptedException ex) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
         }
     }
 
@@ -51,12 +51,19 @@ import org.apache.logging.log4j.core.util.Booleans;
  * By default, an email message will be sent when an ERROR or higher severity
  * message is appended. This can be modified by setting a filter for the
  * appender.
+ *
+ * When <b>async</b> is true, the email is sent by a background thread so an
+ * unreachable mail server does not block the thread that logged the event.
+ * Events that trigger an email while the previous one is still pending are
+ * delivered together in one digest email.
  */
 @Plugin(name = "SMTP", category = "Core", elementType = "appender", printObject = true)
 public final class SmtpAppender extends AbstractAppender {
 
     private static final int DEFAULT_BUFFER_SIZE = 512;
 
+    private static final int DEFAULT_QUEUE_SIZE = 128;
+
     /** The SMTP Manager */
     private final SmtpManager manager;
 
@@ -105,6 +112,66 @@ public final class SmtpAppender extends AbstractAppender {
      *               they are propagated to the caller.
      * @return The SmtpAppender.
      */
+    public static SmtpAppender createAppender(final Configuration config, final String name, final String to,
+            final String cc, final String bcc, final String from, final String replyTo, final String subject,
+            final String smtpProtocol, final String smtpHost, final String smtpPortStr, final String smtpUsername,
+            final String smtpPassword, final String smtpDebug, final String bufferSizeStr,
+            final Layout<? extends Serializable> layout, final Filter filter, final String ignore) {
+        return createAppender(config, name, to, cc, bcc, from, replyTo, subject, smtpProtocol, smtpHost, smtpPortStr,
+            smtpUsername, smtpPassword, smtpDebug, bufferSizeStr, null, null, null, null, layout, filter, ignore);
+    }
+
+    /**
+     * Create a SmtpAppender.
+     *
+     * @param name
+     *            The name of the Appender.
+     * @param to
+     *            The comma-separated list of recipient email addresses.
+     * @param cc
+     *            The comma-separated list of CC email addresses.
+     * @param bcc
+     *            The comma-separated list of BCC email addresses.
+     * @param from
+     *            The email address of the sender.
+     * @param replyTo
+     *            The comma-separated list of reply-to email addresses.
+     * @param subject The subject of the email message.
+     * @param smtpProtocol The SMTP transport protocol (such as "smtps", defaults to "smtp").
+     * @param smtpHost
+     *            The SMTP hostname to send to.
+     * @param smtpPortStr
+     *            The SMTP port to send to.
+     * @param smtpUsername
+     *            The username required to authenticate against the SMTP server.
+     * @param smtpPassword
+     *            The password required to authenticate against the SMTP server.
+     * @param smtpDebug
+     *            Enable mail session debuging on STDOUT.
+     * @param bufferSizeStr
+     *            How many log events should be buffered for inclusion in the
+     *            message?
+     * @param async
+     *            If {@code "true"}, emails are sent by a background thread.
+     * @param queueSizeStr
+     *            How many triggering events may wait for the background thread
+     *            (defaults to 128). Further triggering events are dropped.
+     * @param digestDelayStr
+     *            How many milliseconds the background thread waits for more
+     *            triggering events to include in the same email (defaults to 0).
+     * @param minSendIntervalStr
+     *            The minimum number of milliseconds between two emails sent by
+     *            the background thread (defaults to 0).
+     * @param layout
+     *            The layout to use (defaults to HtmlLayout).
+     * @param filter
+     *            The Filter or null (defaults to ThresholdFilter, level of
+     *            ERROR).
+     * @param ignore If {@code "true"} (default) exceptions encountered when appending events are logged; otherwise
+     *               they are propagated to the caller.
+     * @return The SmtpAppender.
+     * @since 2.7
+     */
     @PluginFactory
     public static SmtpAppender createAppender(
             @PluginConfiguration final Configuration config,
@@ -122,6 +189,10 @@ public final class SmtpAppender extends AbstractAppender {
             @PluginAttribute("smtpPassword") final String smtpPassword,
             @PluginAttribute("smtpDebug") final String smtpDebug,
             @PluginAttribute("bufferSize") final String bufferSizeStr,
+            @PluginAttribute("async") final String async,
+            @PluginAttribute("queueSize") final String queueSizeStr,
+            @PluginAttribute("digestDelay") final String digestDelayStr,
+            @PluginAttribute("minSendInterval") final String minSendIntervalStr,
             @PluginElement("Layout") Layout<? extends Serializable> layout,
             @PluginElement("Filter") Filter filter,
             @PluginAttribute("ignoreExceptions") final String ignore) {
@@ -134,6 +205,10 @@ public final class SmtpAppender extends AbstractAppender {
         final int smtpPort = AbstractAppender.parseInt(smtpPortStr, 0);
         final boolean isSmtpDebug = Boolean.parseBoolean(smtpDebug);
         final int bufferSize = bufferSizeStr == null ? DEFAULT_BUFFER_SIZE : Integer.parseInt(bufferSizeStr);
+        final boolean isAsync = Boolean.parseBoolean(async);
+        final int queueSize = AbstractAppender.parseInt(queueSizeStr, DEFAULT_QUEUE_SIZE);
+        final int digestDelay = AbstractAppender.parseInt(digestDelayStr, 0);
+        final int minSendInterval = AbstractAppender.parseInt(minSendIntervalStr, 0);
 
         if (layout == null) {
             layout = HtmlLayout.createDefaultLayout();
@@ -144,7 +219,8 @@ public final class SmtpAppender extends AbstractAppender {
         final Configuration configuration = config != null ? config : new DefaultConfiguration();
 
         final SmtpManager manager = SmtpManager.getSmtpManager(configuration, to, cc, bcc, from, replyTo, subject, smtpProtocol,
-            smtpHost, smtpPort, smtpUsername, smtpPassword, isSmtpDebug, filter.toString(),  bufferSize);
+            smtpHost, smtpPort, smtpUsername, smtpPassword, isSmtpDebug, filter.toString(),  bufferSize, isAsync,
+            queueSize, digestDelay, minSendInterval);
         if (manager == null) {
             return null;
         }
@@ -176,4 +252,13 @@ public final class SmtpAppender extends AbstractAppender {
     public void append(final LogEvent event) {
         manager.sendEvents(getLayout(), event);
     }
+
+    /**
+     * Releases the manager, which sends any emails still waiting for the background thread.
+     */
+    @Override
+    public void stop() {
+        super.stop();
+        manager.close();
+    }
 }
@@ -18,6 +18,11 @@
 package org.apache.logging.log4j.core.appender.mom;
 
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
 import javax.jms.JMSException;
 import javax.jms.Message;
 import javax.jms.MessageProducer;
@@ -35,43 +40,253 @@ import org.apache.logging.log4j.core.config.plugins.PluginBuilderAttribute;
 import org.apache.logging.log4j.core.config.plugins.PluginBuilderFactory;
 import org.apache.logging.log4j.core.config.plugins.PluginElement;
 import org.apache.logging.log4j.core.config.plugins.validation.constraints.Required;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
 import org.apache.logging.log4j.core.layout.SerializedLayout;
 import org.apache.logging.log4j.core.net.JndiManager;
+import org.apache.logging.log4j.core.util.Log4jThread;
 
 /**
  * Generic JMS Appender plugin for both queues and topics. This Appender replaces the previous split ones. However,
  * configurations set up for the 2.0 version of the JMS appenders will still work.
+ * <p>
+ * When a {@code batchSize} greater than one is configured, events are handed to a background thread that sends up to
+ * {@code batchSize} messages in one transaction of a transacted Session, so the broker persists a whole batch at once
+ * instead of one message at a time. A batch is committed when it is full or {@code batchDelay} milliseconds after its
+ * first event was queued, whichever comes first. When the appender stops, the sender is given {@code shutdownTimeout}
+ * milliseconds to send the queued messages before it is interrupted.
+ * </p>
  */
 @Plugin(name = "JMS", category = Node.CATEGORY, elementType = Appender.ELEMENT_TYPE, printObject = true)
 @PluginAliases({"JMSQueue", "JMSTopic"})
 public class JmsAppender extends AbstractAppender {
 
+    /**
+     * Default for the maximum number of milliseconds an event waits for its batch to fill.
+     */
+    public static final long DEFAULT_BATCH_DELAY_MILLIS = 100;
+
+    /**
+     * Default for the maximum number of milliseconds {@link #stop()} waits for the queued messages to be sent.
+     */
+    public static final long DEFAULT_SHUTDOWN_TIMEOUT_MILLIS = 5000;
+
+    /** Wakes up a sender that is waiting for messages when the appender is stopped. */
+    private static final PendingMessage SHUTDOWN = new PendingMessage(null, 0);
+
     private final JmsManager manager;
     private final MessageProducer producer;
+    private final int batchSize;
+    private final long batchDelayNanos;
+    private final long shutdownTimeoutMillis;
+    private final BlockingQueue<PendingMessage> queue;
+    private final BatchSender sender;
 
     protected JmsAppender(final String name, final Filter filter, final Layout<? extends Serializable> layout,
                         final boolean ignoreExceptions, final JmsManager manager)
         throws JMSException {
+        this(name, filter, layout, ignoreExceptions, manager, 0, 0, 0);
+    }
+
+    /**
+     * Constructs a JmsAppender that sends its messages in batches.
+     *
+     * @param batchSize The maximum number of messages sent in one transaction, or 1 or less to send each message as
+     *                  it is logged.
+     * @param batchDelayMillis The maximum number of milliseconds an event waits for its batch to fill.
+     * @param shutdownTimeoutMillis The maximum number of milliseconds {@link #stop()} waits for the queued messages
+     *                              to be sent before it interrupts the sender, or 0 or less to use the default.
+     * @since 2.7
+     */
+    protected JmsAppender(final String name, final Filter filter, final Layout<? extends Serializable> layout,
+                          final boolean ignoreExceptions, final JmsManager manager, final int batchSize,
+                          final long batchDelayMillis, final long shutdownTimeoutMillis)
+        throws JMSException {
         super(name, filter, layout, ignoreExceptions);
         this.manager = manager;
         this.producer = this.manager.createMessageProducer();
+        if (batchSize > 1) {
+            this.batchSize = batchSize;
+            this.batchDelayNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(batchDelayMillis, 1));
+            this.shutdownTimeoutMillis = shutdownTimeoutMillis > 0 ? shutdownTimeoutMillis
+                : DEFAULT_SHUTDOWN_TIMEOUT_MILLIS;
+            this.queue = new ArrayBlockingQueue<>(batchSize * 2);
+            this.sender = new BatchSender();
+        } else {
+            this.batchSize = 1;
+            this.batchDelayNanos = 0;
+            this.shutdownTimeoutMillis = 0;
+            this.queue = null;
+            this.sender = null;
+        }
     }
 
     @Override
     public void append(final LogEvent event) {
+        final Serializable body = getLayout().toSerializable(event);
+        if (queue != null) {
+            try {
+                queue.put(new PendingMessage(snapshot(body), event.getTimeMillis()));
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new AppenderLoggingException("Interrupted while queuing a message for " + getName(), e);
+            }
+            return;
+        }
         try {
-            final Message message = this.manager.createMessage(getLayout().toSerializable(event));
+            final Message message = this.manager.createMessage(body);
             message.setJMSTimestamp(event.getTimeMillis());
             this.producer.send(message);
+            this.manager.commit();
         } catch (final JMSException e) {
+            this.manager.rollback();
             throw new AppenderLoggingException(e);
         }
     }
 
+    /**
+     * Copies a LogEvent body, as returned by {@link SerializedLayout}, because the caller may reuse the event once
+     * append returns while the body is only serialized when its batch is sent.
+     */
+    private static Serializable snapshot(final Serializable body) {
+        if (body instanceof LogEvent && !(body instanceof Log4jLogEvent)) {
+            final LogEvent event = (LogEvent) body;
+            return Log4jLogEvent.createMemento(event, event.isIncludeLocation());
+        }
+        return body;
+    }
+
+    @Override
+    public void start() {
+        if (sender != null) {
+            sender.start();
+        }
+        super.start();
+    }
+
     @Override
     public void stop() {
-        this.manager.close();
         super.stop();
+        if (sender != null) {
+            sender.shutdown();
+            try {
+                sender.join(shutdownTimeoutMillis);
+                if (sender.isAlive()) {
+                    LOGGER.warn("{} did not send its queued messages within {} milliseconds, interrupting the sender",
+                        getName(), shutdownTimeoutMillis);
+                    sender.interrupt();
+                    sender.join(shutdownTimeoutMillis);
+                }
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                LOGGER.warn("Interrupted while waiting for {} to send its last batch", getName());
+            }
+        }
+        this.manager.close();
+    }
+
+    /**
+     * Returns the maximum number of messages sent in one transaction.
+     *
+     * @return the batch size, 1 if messages are sent as they are logged.
+     * @since 2.7
+     */
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    private void send(final List<PendingMessage> batch) {
+        try {
+            for (final PendingMessage pending : batch) {
+                if (pending == SHUTDOWN) {
+                    continue;
+                }
+                final Message message = this.manager.createMessage(pending.body);
+                message.setJMSTimestamp(pending.timeMillis);
+                this.producer.send(message);
+            }
+            this.manager.commit();
+        } catch (final JMSException e) {
+            this.manager.rollback();
+            error("Unable to send a batch of " + batch.size() + " messages", e);
+        }
+    }
+
+    /**
+     * A formatted event waiting in the queue for its batch to be sent.
+     */
+    private static class PendingMessage {
+        private final Serializable body;
+        private final long timeMillis;
+
+        PendingMessage(final Serializable body, final long timeMillis) {
+            this.body = body;
+            this.timeMillis = timeMillis;
+        }
+    }
+
+    /**
+     * Thread that owns the JMS Session in batching mode: it collects queued messages into batches and commits each
+     * batch in one transaction.
+     */
+    private class BatchSender extends Log4jThread {
+
+        private volatile boolean shutdown;
+
+        BatchSender() {
+            super("JmsBatchSender-" + JmsAppender.this.getName());
+            setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            final List<PendingMessage> batch = new ArrayList<>(batchSize);
+            while (!shutdown || !queue.isEmpty()) {
+                try {
+                    fill(batch);
+                } catch (final InterruptedException e) {
+                    // Send what has been collected and drain the queue without waiting.
+                    shutdown = true;
+                }
+                if (!batch.isEmpty()) {
+                    send(batch);
+                    batch.clear();
+                }
+            }
+        }
+
+        /**
+         * Waits for a first message, then collects messages until the batch is full, its delay has elapsed or the
+         * appender is stopping.
+         */
+        private void fill(final List<PendingMessage> batch) throws InterruptedException {
+            if (shutdown) {
+                queue.drainTo(batch, batchSize);
+                return;
+            }
+            final PendingMessage first = queue.poll(batchDelayNanos, TimeUnit.NANOSECONDS);
+            if (first == null || first == SHUTDOWN) {
+                return;
+            }
+            batch.add(first);
+            final long deadline = System.nanoTime() + batchDelayNanos;
+            while (batch.size() < batchSize) {
+                queue.drainTo(batch, batchSize - batch.size());
+                final long remaining = deadline - System.nanoTime();
+                if (batch.size() >= batchSize || shutdown || remaining <= 0) {
+                    return;
+                }
+                final PendingMessage next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                if (next == null || next == SHUTDOWN) {
+                    return;
+                }
+                batch.add(next);
+            }
+        }
+
+        void shutdown() {
+            shutdown = true;
+            queue.offer(SHUTDOWN);
+        }
     }
 
     @PluginBuilderFactory
@@ -124,6 +339,15 @@ public class JmsAppender extends AbstractAppender {
         @PluginBuilderAttribute
         private boolean ignoreExceptions = true;
 
+        @PluginBuilderAttribute
+        private int batchSize;
+
+        @PluginBuilderAttribute
+        private long batchDelay = DEFAULT_BATCH_DELAY_MILLIS;
+
+        @PluginBuilderAttribute
+        private long shutdownTimeout = DEFAULT_SHUTDOWN_TIMEOUT_MILLIS;
+
         private Builder() {
         }
 
@@ -192,14 +416,30 @@ public class JmsAppender extends AbstractAppender {
             return this;
         }
 
+        public Builder setBatchSize(final int batchSize) {
+            this.batchSize = batchSize;
+            return this;
+        }
+
+        public Builder setBatchDelay(final long batchDelay) {
+            this.batchDelay = batchDelay;
+            return this;
+        }
+
+        public Builder setShutdownTimeout(final long shutdownTimeout) {
+            this.shutdownTimeout = shutdownTimeout;
+            return this;
+        }
+
         @Override
         public JmsAppender build() {
             final JndiManager jndiManager = JndiManager.getJndiManager(factoryName, providerUrl, urlPkgPrefixes,
                 securityPrincipalName, securityCredentials, null);
             final JmsManager jmsManager = JmsManager.getJmsManager(name, jndiManager, factoryBindingName,
-                destinationBindingName, username, password);
+                destinationBindingName, username, password, batchSize > 1);
             try {
-                return new JmsAppender(name, filter, layout, ignoreExceptions, jmsManager);
+                return new JmsAppender(name, filter, layout, ignoreExceptions, jmsManager, batchSize, batchDelay,
+                    shutdownTimeout);
             } catch (final JMSException e) {
                 LOGGER.error("Error creating JmsAppender [{}].", name, e);
                 return null;
@@ -40,6 +40,13 @@ import org.apache.logging.log4j.status.StatusLogger;
  */
 public class JmsManager extends AbstractManager {
 
+    /**
+     * Appended to the name of transacted managers.
+     *
+     * @since 2.7
+     */
+    public static final String TRANSACTED_SUFFIX = ":transacted";
+
     private static final Logger LOGGER = StatusLogger.getLogger();
 
     private static final JmsManagerFactory FACTORY = new JmsManagerFactory();
@@ -48,9 +55,11 @@ public class JmsManager extends AbstractManager {
     private final Connection connection;
     private final Session session;
     private final Destination destination;
+    private final boolean transacted;
 
     private JmsManager(final String name, final JndiManager jndiManager, final String connectionFactoryName,
-                       final String destinationName, final String username, final String password)
+                       final String destinationName, final String username, final String password,
+                       final boolean transacted)
         throws NamingException, JMSException {
         super(null, name);
         this.jndiManager = jndiManager;
@@ -60,7 +69,9 @@ public class JmsManager extends AbstractManager {
         } else {
             this.connection = connectionFactory.createConnection();
         }
-        this.session = this.connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
+        this.transacted = transacted;
+        this.session = this.connection.createSession(transacted,
+            transacted ? Session.SESSION_TRANSACTED : Session.AUTO_ACKNOWLEDGE);
         this.destination = this.jndiManager.lookup(destinationName);
         this.connection.start();
     }
@@ -79,9 +90,67 @@ public class JmsManager extends AbstractManager {
     public static JmsManager getJmsManager(final String name, final JndiManager jndiManager,
                                            final String connectionFactoryName, final String destinationName,
                                            final String username, final String password) {
+        return getJmsManager(name, jndiManager, connectionFactoryName, destinationName, username, password, false);
+    }
+
+    /**
+     * Gets a JmsManager using the specified configuration parameters. A transacted manager is never shared with a
+     * manager of the same name that is not transacted, so its name is the given name followed by
+     * {@value #TRANSACTED_SUFFIX}.
+     *
+     * @param name                  The name to use for this JmsManager.
+     * @param jndiManager           The JndiManager to look up JMS information through.
+     * @param connectionFactoryName The binding name for the {@link javax.jms.ConnectionFactory}.
+     * @param destinationName       The binding name for the {@link javax.jms.Destination}.
+     * @param username              The username to connect with or {@code null} for no authentication.
+     * @param password              The password to use with the given username or {@code null} for no authentication.
+     * @param transacted            Whether messages are only delivered when {@link #commit()} is called.
+     * @return The JmsManager as configured.
+     * @since 2.7
+     */
+    public static JmsManager getJmsManager(final String name, final JndiManager jndiManager,
+                                           final String connectionFactoryName, final String destinationName,
+                                           final String username, final String password, final boolean transacted) {
         final JmsConfiguration configuration = new JmsConfiguration(jndiManager, connectionFactoryName, destinationName,
-            username, password);
-        return getManager(name, FACTORY, configuration);
+            username, password, transacted);
+        return getManager(transacted ? name + TRANSACTED_SUFFIX : name, FACTORY, configuration);
+    }
+
+    /**
+     * Returns whether the Session of this manager is transacted.
+     *
+     * @return true if messages are only delivered when {@link #commit()} is called.
+     * @since 2.7
+     */
+    public boolean isTransacted() {
+        return transacted;
+    }
+
+    /**
+     * Commits all messages sent in the current transaction. Does nothing if the Session is not transacted.
+     *
+     * @throws JMSException
+     * @since 2.7
+     */
+    public void commit() throws JMSException {
+        if (transacted) {
+            this.session.commit();
+        }
+    }
+
+    /**
+     * Discards all messages sent in the current transaction. Does nothing if the Session is not transacted.
+     *
+     * @since 2.7
+     */
+    public void rollback() {
+        if (transacted) {
+            try {
+                this.session.rollback();
+            } catch (final JMSException e) {
+                LOGGER.error("Unable to roll back the JMS transaction of {}", getName(), e);
+            }
+        }
     }
 
     /**
@@ -141,14 +210,16 @@ public class JmsManager extends AbstractManager {
         private final String destinationName;
         private final String username;
         private final String password;
+        private final boolean transacted;
 
         private JmsConfiguration(final JndiManager jndiManager, final String connectionFactoryName, final String destinationName,
-                                 final String username, final String password) {
+                                 final String username, final String password, final boolean transacted) {
             this.jndiManager = jndiManager;
             this.connectionFactoryName = connectionFactoryName;
             this.destinationName = destinationName;
             this.username = username;
             this.password = password;
+            this.transacted = transacted;
         }
     }
 
@@ -158,7 +229,7 @@ public class JmsManager extends AbstractManager {
         public JmsManager createManager(final String name, final JmsConfiguration data) {
             try {
                 return new JmsManager(name, data.jndiManager, data.connectionFactoryName, data.destinationName,
-                    data.username, data.password);
+                    data.username, data.password, data.transacted);
             } catch (final Exception e) {
                 LOGGER.error("Error creating JmsManager using ConnectionFactory [{}] and Destination [{}].",
                     data.connectionFactoryName, data.destinationName, e);
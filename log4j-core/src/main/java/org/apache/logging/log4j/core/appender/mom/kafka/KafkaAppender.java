@@ -20,6 +20,8 @@ package org.apache.logging.log4j.core.appender.mom.kafka;
 import java.io.Serializable;
 import java.nio.charset.StandardCharsets;
 
+import org.apache.kafka.clients.producer.Callback;
+import org.apache.kafka.clients.producer.RecordMetadata;
 import org.apache.logging.log4j.core.Appender;
 import org.apache.logging.log4j.core.Filter;
 import org.apache.logging.log4j.core.Layout;
@@ -51,17 +53,46 @@ public final class KafkaAppender extends AbstractAppender {
             @Required(message = "No name provided for KafkaAppender") @PluginAttribute("name") final String name,
             @PluginAttribute(value = "ignoreExceptions", defaultBoolean = true) final boolean ignoreExceptions,
             @Required(message = "No topic provided for KafkaAppender") @PluginAttribute("topic") final String topic,
+            @PluginAttribute(value = "syncSend", defaultBoolean = true) final boolean syncSend,
+            @PluginAttribute(value = "maxInFlightRecords", defaultInt = KafkaManager.DEFAULT_MAX_IN_FLIGHT_RECORDS)
+            final int maxInFlightRecords,
+            @PluginAttribute(value = "maxInFlightBytes", defaultInt = KafkaManager.DEFAULT_MAX_IN_FLIGHT_BYTES)
+            final int maxInFlightBytes,
+            @PluginAttribute("overflowPolicy") final KafkaManager.OverflowPolicy overflowPolicy,
+            @PluginAttribute("key") final String key,
             @PluginElement("Properties") final Property[] properties,
             @PluginConfiguration final Configuration configuration) {
-        final KafkaManager kafkaManager = new KafkaManager(configuration.getLoggerContext(), name, topic, properties);
-        return new KafkaAppender(name, layout, filter, ignoreExceptions, kafkaManager);
+        final KafkaManager kafkaManager = new KafkaManager(configuration.getLoggerContext(), name, topic, syncSend,
+                maxInFlightRecords, maxInFlightBytes, overflowPolicy, properties);
+        return new KafkaAppender(name, layout, filter, ignoreExceptions, kafkaManager,
+                RecordPattern.createPattern(topic, configuration), RecordPattern.createPattern(key, configuration));
     }
 
     private final KafkaManager manager;
+    private final RecordPattern topicPattern;
+    private final RecordPattern keyPattern;
 
-    private KafkaAppender(final String name, final Layout<? extends Serializable> layout, final Filter filter, final boolean ignoreExceptions, final KafkaManager manager) {
+    /**
+     * Reports asynchronous send failures to the error handler; these happen on the producer's I/O thread, after
+     * append has returned.
+     */
+    private final Callback sendCallback = new Callback() {
+        @Override
+        public void onCompletion(final RecordMetadata metadata, final Exception exception) {
+            if (exception != null) {
+                error("Unable to write to Kafka [" + manager.getName() + "] for appender [" + getName() + "], "
+                        + manager.getFailedCount() + " failed sends", exception);
+            }
+        }
+    };
+
+    private KafkaAppender(final String name, final Layout<? extends Serializable> layout, final Filter filter,
+            final boolean ignoreExceptions, final KafkaManager manager, final RecordPattern topicPattern,
+            final RecordPattern keyPattern) {
         super(name, filter, layout, ignoreExceptions);
         this.manager = manager;
+        this.topicPattern = topicPattern;
+        this.keyPattern = keyPattern;
     }
 
     @Override
@@ -85,7 +116,12 @@ public final class KafkaAppender extends AbstractAppender {
                 } else {
                     data = StringEncoder.toBytes(event.getMessage().getFormattedMessage(), StandardCharsets.UTF_8);
                 }
-                manager.send(data);
+                final String topic = topicPattern.toTopic(event);
+                final byte[] key = keyPattern == null ? null : keyPattern.toKey(event);
+                if (!manager.send(topic, key, data, sendCallback)) {
+                    error("In-flight window full, discarded a record for Kafka [" + manager.getName()
+                            + "] in appender [" + getName() + "], " + manager.getDiscardedCount() + " discarded");
+                }
             } catch (final Exception e) {
                 LOGGER.error("Unable to write to Kafka [{}] for appender [{}].", manager.getName(), getName(), e);
                 throw new AppenderLoggingException("Unable to write to Kafka in appender: " + e.getMessage(), e);
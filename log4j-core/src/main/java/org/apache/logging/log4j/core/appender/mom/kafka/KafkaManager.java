@@ -19,11 +19,15 @@ package org.apache.logging.log4j.core.appender.mom.kafka;
 
 import java.util.Properties;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
 
+import org.apache.kafka.clients.producer.Callback;
 import org.apache.kafka.clients.producer.Producer;
 import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
 import org.apache.logging.log4j.core.LoggerContext;
 import org.apache.logging.log4j.core.appender.AbstractManager;
 import org.apache.logging.log4j.core.config.Property;
@@ -32,6 +36,26 @@ public class KafkaManager extends AbstractManager {
 
     public static final String DEFAULT_TIMEOUT_MILLIS = "30000";
 
+    /**
+     * Default maximum number of records sent asynchronously and not yet acknowledged.
+     */
+    public static final int DEFAULT_MAX_IN_FLIGHT_RECORDS = 10000;
+
+    /**
+     * Default maximum number of bytes sent asynchronously and not yet acknowledged.
+     */
+    public static final int DEFAULT_MAX_IN_FLIGHT_BYTES = 32 * 1024 * 1024;
+
+    /**
+     * What to do with a record sent asynchronously when the in-flight window is full.
+     */
+    public enum OverflowPolicy {
+        /** Wait up to {@code timeout.ms} for room in the window, then fail the send. */
+        BLOCK,
+        /** Drop the record. */
+        DISCARD
+    }
+
     /**
      * package-private access for testing.
      */
@@ -42,13 +66,38 @@ public class KafkaManager extends AbstractManager {
     private final int timeoutMillis;
 
     private final String topic;
+    private final boolean syncSend;
+    private final OverflowPolicy overflowPolicy;
+    private final int maxInFlightRecords;
+    private final int maxInFlightBytes;
+    private final Semaphore inFlightRecords;
+    private final Semaphore inFlightBytes;
+    private final AtomicLong failedCount = new AtomicLong();
+    private final AtomicLong discardedCount = new AtomicLong();
+
+    public KafkaManager(final LoggerContext loggerContext, final String name, final String topic,
+            final Property[] properties) {
+        this(loggerContext, name, topic, true, DEFAULT_MAX_IN_FLIGHT_RECORDS, DEFAULT_MAX_IN_FLIGHT_BYTES,
+                OverflowPolicy.BLOCK, properties);
+    }
 
-    public KafkaManager(LoggerContext loggerContext, final String name, final String topic, final Property[] properties) {
+    public KafkaManager(final LoggerContext loggerContext, final String name, final String topic,
+            final boolean syncSend, final int maxInFlightRecords, final int maxInFlightBytes,
+            final OverflowPolicy overflowPolicy, final Property[] properties) {
         super(loggerContext, name);
         this.topic = topic;
+        this.syncSend = syncSend;
+        this.overflowPolicy = overflowPolicy == null ? OverflowPolicy.BLOCK : overflowPolicy;
+        this.maxInFlightRecords = maxInFlightRecords > 0 ? maxInFlightRecords : DEFAULT_MAX_IN_FLIGHT_RECORDS;
+        this.maxInFlightBytes = maxInFlightBytes > 0 ? maxInFlightBytes : DEFAULT_MAX_IN_FLIGHT_BYTES;
+        this.inFlightRecords = new Semaphore(this.maxInFlightRecords);
+        this.inFlightBytes = new Semaphore(this.maxInFlightBytes);
         config.setProperty("key.serializer", "org.apache.kafka.common.serialization.ByteArraySerializer");
         config.setProperty("value.serializer", "org.apache.kafka.common.serialization.ByteArraySerializer");
-        config.setProperty("batch.size", "0");
+        if (syncSend) {
+            // each send waits for its acknowledgment, so there is nothing to batch
+            config.setProperty("batch.size", "0");
+        }
         for (final Property property : properties) {
             config.setProperty(property.getName(), property.getValue());
         }
@@ -63,6 +112,9 @@ public class KafkaManager extends AbstractManager {
                 @Override
                 public void run() {
                     if (producer != null) {
+                        if (!syncSend) {
+                            producer.flush();
+                        }
                         producer.close();
                     }
                 }
@@ -72,13 +124,103 @@ public class KafkaManager extends AbstractManager {
             } catch (InterruptedException | ExecutionException | TimeoutException e) {
                 // ignore
             }
+            final int unacknowledged = getInFlightCount();
+            if (unacknowledged > 0) {
+                LOGGER.warn("{} records to Kafka topic {} were not acknowledged within {} ms of stopping {}",
+                        unacknowledged, topic, timeoutMillis, getName());
+            }
         }
     }
 
     public void send(final byte[] msg) throws ExecutionException, InterruptedException, TimeoutException {
-        if (producer != null) {
-            producer.send(new ProducerRecord<byte[], byte[]>(topic, msg)).get(timeoutMillis, TimeUnit.MILLISECONDS);
+        send(msg, null);
+    }
+
+    /**
+     * Sends a record. In synchronous mode this waits for the acknowledgment. In asynchronous mode it returns once the
+     * record is handed to the producer, and the callback is invoked when the send completes.
+     *
+     * @param msg The record value.
+     * @param callback Invoked on completion of an asynchronous send, may be null.
+     * @return false if the record was discarded because the in-flight window was full.
+     * @throws ExecutionException if a synchronous send fails.
+     * @throws InterruptedException if the thread is interrupted while waiting.
+     * @throws TimeoutException if a synchronous send is not acknowledged, or no room is made in the in-flight
+     * window, within {@code timeout.ms}.
+     */
+    public boolean send(final byte[] msg, final Callback callback)
+            throws ExecutionException, InterruptedException, TimeoutException {
+        return send(topic, null, msg, callback);
+    }
+
+    /**
+     * Sends a record to the given topic with the given key. The producer is shared by all topics.
+     *
+     * @param recordTopic The topic of the record.
+     * @param key The record key, or null to let the producer spread records over the partitions.
+     * @param msg The record value.
+     * @param callback Invoked on completion of an asynchronous send, may be null.
+     * @return false if the record was discarded because the in-flight window was full.
+     * @throws ExecutionException if a synchronous send fails.
+     * @throws InterruptedException if the thread is interrupted while waiting.
+     * @throws TimeoutException if a synchronous send is not acknowledged, or no room is made in the in-flight
+     * window, within {@code timeout.ms}.
+     * @see #send(byte[], Callback)
+     */
+    public boolean send(final String recordTopic, final byte[] key, final byte[] msg, final Callback callback)
+            throws ExecutionException, InterruptedException, TimeoutException {
+        if (producer == null) {
+            return true;
         }
+        final ProducerRecord<byte[], byte[]> record = new ProducerRecord<>(recordTopic, key, msg);
+        if (syncSend) {
+            producer.send(record).get(timeoutMillis, TimeUnit.MILLISECONDS);
+            return true;
+        }
+        // a record larger than the whole window only needs the window to itself
+        final int bytes = Math.min(msg.length + (key == null ? 0 : key.length), maxInFlightBytes);
+        if (!acquire(bytes)) {
+            if (overflowPolicy == OverflowPolicy.DISCARD) {
+                discardedCount.incrementAndGet();
+                return false;
+            }
+            throw new TimeoutException("No room for a record to Kafka topic " + recordTopic + " after " + timeoutMillis
+                    + " ms, " + getInFlightCount() + " records are in flight");
+        }
+        try {
+            producer.send(record, new InFlightCallback(bytes, callback));
+        } catch (final RuntimeException e) {
+            release(bytes);
+            throw e;
+        }
+        return true;
+    }
+
+    private boolean acquire(final int bytes) throws InterruptedException {
+        if (overflowPolicy == OverflowPolicy.DISCARD) {
+            if (!inFlightRecords.tryAcquire()) {
+                return false;
+            }
+            if (!inFlightBytes.tryAcquire(bytes)) {
+                inFlightRecords.release();
+                return false;
+            }
+            return true;
+        }
+        final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        if (!inFlightRecords.tryAcquire(timeoutMillis, TimeUnit.MILLISECONDS)) {
+            return false;
+        }
+        if (!inFlightBytes.tryAcquire(bytes, deadline - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+            inFlightRecords.release();
+            return false;
+        }
+        return true;
+    }
+
+    private void release(final int bytes) {
+        inFlightBytes.release(bytes);
+        inFlightRecords.release();
     }
 
     public void startup() {
@@ -89,4 +231,56 @@ public class KafkaManager extends AbstractManager {
         return topic;
     }
 
+    /**
+     * Returns the number of records sent asynchronously and not yet acknowledged.
+     *
+     * @return the number of records in flight.
+     */
+    public int getInFlightCount() {
+        return maxInFlightRecords - inFlightRecords.availablePermits();
+    }
+
+    /**
+     * Returns the number of asynchronous sends that completed with an error.
+     *
+     * @return the number of failed sends.
+     */
+    public long getFailedCount() {
+        return failedCount.get();
+    }
+
+    /**
+     * Returns the number of records dropped because the in-flight window was full.
+     *
+     * @return the number of discarded records.
+     */
+    public long getDiscardedCount() {
+        return discardedCount.get();
+    }
+
+    /**
+     * Frees the window space of a record when its send completes, and counts failures.
+     */
+    private class InFlightCallback implements Callback {
+
+        private final int bytes;
+        private final Callback callback;
+
+        InFlightCallback(final int bytes, final Callback callback) {
+            this.bytes = bytes;
+            this.callback = callback;
+        }
+
+        @Override
+        public void onCompletion(final RecordMetadata metadata, final Exception exception) {
+            release(bytes);
+            if (exception != null) {
+                failedCount.incrementAndGet();
+            }
+            if (callback != null) {
+                callback.onCompletion(metadata, exception);
+            }
+        }
+    }
+
 }
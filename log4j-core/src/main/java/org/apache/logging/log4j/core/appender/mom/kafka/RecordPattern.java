@@ -0,0 +1,127 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+
+package org.apache.logging.log4j.core.appender.mom.kafka;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.config.Configuration;
+import org.apache.logging.log4j.core.layout.PatternLayout;
+import org.apache.logging.log4j.core.pattern.PatternFormatter;
+
+/**
+ * Formats the key or topic of a Kafka record from a log event with a PatternLayout pattern, for example
+ * {@code %X{traceId}} or {@code logs-%level}. A pattern without conversions or lookups is constant and is only
+ * formatted once.
+ */
+final class RecordPattern {
+
+    private static final ThreadLocal<StringBuilder> STRING_BUILDER = new ThreadLocal<>();
+
+    private final PatternFormatter[] formatters;
+    private final String constant;
+    private final byte[] constantBytes;
+
+    /** The last topic formatted on each thread, reused while events keep selecting the same topic. */
+    private final ThreadLocal<String> lastText = new ThreadLocal<>();
+
+    private RecordPattern(final PatternFormatter[] formatters, final String constant) {
+        this.formatters = formatters;
+        this.constant = constant;
+        this.constantBytes = constant == null || constant.isEmpty() ? null : toBytes(constant);
+    }
+
+    /**
+     * Creates a RecordPattern.
+     *
+     * @param pattern The pattern, may be null.
+     * @param configuration The Configuration used to parse the pattern.
+     * @return the RecordPattern or null if the pattern is null.
+     */
+    static RecordPattern createPattern(final String pattern, final Configuration configuration) {
+        if (pattern == null) {
+            return null;
+        }
+        if (pattern.indexOf('%') < 0 && !pattern.contains("${")) {
+            return new RecordPattern(null, pattern);
+        }
+        final List<PatternFormatter> list = PatternLayout.createPatternParser(configuration).parse(pattern);
+        return new RecordPattern(list.toArray(new PatternFormatter[list.size()]), null);
+    }
+
+    /**
+     * Formats the pattern as a record key.
+     *
+     * @param event The LogEvent.
+     * @return the UTF-8 encoded key, or null if it is empty so that the record is sent without a key.
+     */
+    byte[] toKey(final LogEvent event) {
+        if (formatters == null) {
+            return constantBytes;
+        }
+        final StringBuilder text = format(event);
+        return text.length() == 0 ? null : toBytes(text);
+    }
+
+    /**
+     * Formats the pattern as a topic name.
+     *
+     * @param event The LogEvent.
+     * @return the topic.
+     */
+    String toTopic(final LogEvent event) {
+        if (formatters == null) {
+            return constant;
+        }
+        final StringBuilder text = format(event);
+        final String last = lastText.get();
+        if (last != null && last.contentEquals(text)) {
+            return last;
+        }
+        final String topic = text.toString();
+        lastText.set(topic);
+        return topic;
+    }
+
+    private StringBuilder format(final LogEvent event) {
+        StringBuilder text = STRING_BUILDER.get();
+        if (text == null) {
+            text = new StringBuilder(64);
+            STRING_BUILDER.set(text);
+        }
+        text.setLength(0);
+        for (final PatternFormatter formatter : formatters) {
+            formatter.format(event, text);
+        }
+        return text;
+    }
+
+    private static byte[] toBytes(final CharSequence text) {
+        final int length = text.length();
+        final byte[] result = new byte[length];
+        for (int i = 0; i < length; i++) {
+            final char c = text.charAt(i);
+            if (c >= 0x80) {
+                return text.toString().getBytes(StandardCharsets.UTF_8);
+            }
+            result[i] = (byte) c;
+        }
+        return result;
+    }
+}
@@ -30,6 +30,7 @@ import org.apache.logging.log4j.core.config.plugins.PluginConfiguration;
 import org.apache.logging.log4j.core.config.plugins.PluginElement;
 import org.apache.logging.log4j.core.config.plugins.PluginFactory;
 import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.core.lookup.StrTemplate;
 import org.apache.logging.log4j.status.StatusLogger;
 
 /**
@@ -42,16 +43,14 @@ public final class PropertiesRewritePolicy implements RewritePolicy {
      */
     protected static final Logger LOGGER = StatusLogger.getLogger();
 
-    private final Map<Property, Boolean> properties;
-
-    private final Configuration config;
+    /** The properties and their compiled values, null for values without variables. */
+    private final Map<Property, StrTemplate> properties;
 
     private PropertiesRewritePolicy(final Configuration config, final List<Property> props) {
-        this.config = config;
         this.properties = new HashMap<>(props.size());
         for (final Property property : props) {
-            final Boolean interpolate = Boolean.valueOf(property.getValue().contains("${"));
-            properties.put(property, interpolate);
+            final boolean interpolate = property.getValue().contains("${");
+            properties.put(property, interpolate ? config.getStrSubstitutor().compile(property.getValue()) : null);
         }
     }
 
@@ -64,10 +63,9 @@ public final class PropertiesRewritePolicy implements RewritePolicy {
     @Override
     public LogEvent rewrite(final LogEvent source) {
         final Map<String, String> props = new HashMap<>(source.getContextMap());
-        for (final Map.Entry<Property, Boolean> entry : properties.entrySet()) {
+        for (final Map.Entry<Property, StrTemplate> entry : properties.entrySet()) {
             final Property prop = entry.getKey();
-            props.put(prop.getName(), entry.getValue().booleanValue() ?
-                config.getStrSubstitutor().replace(prop.getValue()) : prop.getValue());
+            props.put(prop.getName(), entry.getValue() != null ? entry.getValue().replace(null) : prop.getValue());
         }
 
         final LogEvent result = new Log4jLogEvent.Builder(source).setContextMap(props).build();
@@ -79,7 +77,7 @@ public final class PropertiesRewritePolicy implements RewritePolicy {
         final StringBuilder sb = new StringBuilder();
         sb.append(" {");
         boolean first = true;
-        for (final Map.Entry<Property, Boolean> entry : properties.entrySet()) {
+        for (final Map.Entry<Property, StrTemplate> entry : properties.entrySet()) {
             if (!first) {
                 sb.append(", ");
             }
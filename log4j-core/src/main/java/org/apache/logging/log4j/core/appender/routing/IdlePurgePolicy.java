@@ -21,6 +21,7 @@ import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.logging.log4j.Logger;
 import org.apache.logging.log4j.core.AbstractLifeCycle;
@@ -35,7 +36,9 @@ import org.apache.logging.log4j.core.config.plugins.PluginFactory;
 import org.apache.logging.log4j.status.StatusLogger;
 
 /**
- * Policy is purging appenders that were not in use specified time in minutes
+ * Policy is purging appenders that were not in use specified time in minutes. When <code>maxRoutes</code> is set,
+ * creating a route beyond that number also purges the least recently used route, which caps the number of open
+ * Appenders.
  */
 @Plugin(name = "IdlePurgePolicy", category = "Core", printObject = true)
 @Scheduled
@@ -43,15 +46,31 @@ public class IdlePurgePolicy extends AbstractLifeCycle implements PurgePolicy, R
 
     private static final Logger LOGGER = StatusLogger.getLogger();
     private final long timeToLive;
-    private final long checkInterval;    
-    private final ConcurrentMap<String, Long> appendersUsage = new ConcurrentHashMap<>();
+    private final long checkInterval;
+    private final int maxRoutes;
+    private final ConcurrentMap<String, AtomicLong> appendersUsage = new ConcurrentHashMap<>();
     private RoutingAppender routingAppender;
     private final ConfigurationScheduler scheduler;
     private volatile ScheduledFuture<?> future = null;
 
     public IdlePurgePolicy(final long timeToLive, final long checkInterval, final ConfigurationScheduler scheduler) {
+        this(timeToLive, checkInterval, 0, scheduler);
+    }
+
+    /**
+     * Creates an IdlePurgePolicy that also limits the number of routes.
+     *
+     * @param timeToLive    the number of milliseconds an Appender may be idle before it is purged.
+     * @param checkInterval the number of milliseconds between checks when all Appenders were purged.
+     * @param maxRoutes     the maximum number of routes, 0 or less for no limit.
+     * @param scheduler     the scheduler that runs the purge.
+     * @since 2.7
+     */
+    public IdlePurgePolicy(final long timeToLive, final long checkInterval, final int maxRoutes,
+                           final ConfigurationScheduler scheduler) {
         this.timeToLive = timeToLive;
         this.checkInterval = checkInterval;
+        this.maxRoutes = maxRoutes;
         this.scheduler = scheduler;
     }
 
@@ -74,20 +93,64 @@ public class IdlePurgePolicy extends AbstractLifeCycle implements PurgePolicy, R
     @Override
     public void purge() {
         final long createTime = System.currentTimeMillis() - timeToLive;
-        for (final Entry<String, Long> entry : appendersUsage.entrySet()) {
-            if (entry.getValue() < createTime) {
+        for (final Entry<String, AtomicLong> entry : appendersUsage.entrySet()) {
+            if (entry.getValue().get() < createTime) {
                 LOGGER.debug("Removing appender " + entry.getKey());
-                if (appendersUsage.remove(entry.getKey(), entry.getValue())) {
-                    routingAppender.deleteAppender(entry.getKey());
+                remove(entry.getKey(), entry.getValue(), createTime);
+            }
+        }
+    }
+
+    /**
+     * Purges the route if it was not used since the given time.
+     */
+    private void remove(final String key, final AtomicLong usage, final long createTime) {
+        if (appendersUsage.remove(key, usage)) {
+            if (usage.get() >= createTime) {
+                // used while it was removed
+                appendersUsage.putIfAbsent(key, usage);
+            } else {
+                routingAppender.deleteAppender(key);
+            }
+        }
+    }
+
+    /**
+     * Purges the least recently used routes until there are no more than maxRoutes.
+     */
+    private synchronized void purgeLeastRecentlyUsed(final String newKey) {
+        while (appendersUsage.size() > maxRoutes) {
+            String oldestKey = null;
+            AtomicLong oldest = null;
+            long oldestTime = Long.MAX_VALUE;
+            for (final Entry<String, AtomicLong> entry : appendersUsage.entrySet()) {
+                final long time = entry.getValue().get();
+                if (time < oldestTime && !entry.getKey().equals(newKey)) {
+                    oldestKey = entry.getKey();
+                    oldest = entry.getValue();
+                    oldestTime = time;
                 }
             }
+            if (oldestKey == null) {
+                return;
+            }
+            LOGGER.debug("Removing least recently used appender {}, more than {} routes", oldestKey, maxRoutes);
+            remove(oldestKey, oldest, oldestTime + 1);
         }
     }
 
     @Override
     public void update(final String key, final LogEvent event) {
         final long now = System.currentTimeMillis();
-        appendersUsage.put(key, now);
+        final AtomicLong usage = appendersUsage.get(key);
+        if (usage != null) {
+            if (usage.get() != now) {
+                usage.set(now);
+            }
+        } else if (appendersUsage.putIfAbsent(key, new AtomicLong(now)) == null && maxRoutes > 0
+                && appendersUsage.size() > maxRoutes) {
+            purgeLeastRecentlyUsed(key);
+        }
         if (future == null) {
             synchronized (this) {
                 if (future == null) {
@@ -106,9 +169,10 @@ public class IdlePurgePolicy extends AbstractLifeCycle implements PurgePolicy, R
 
     private void scheduleNext() {
         long updateTime = Long.MAX_VALUE;
-        for (final Entry<String, Long> entry : appendersUsage.entrySet()) {
-            if (entry.getValue() < updateTime) {
-                updateTime = entry.getValue();
+        for (final Entry<String, AtomicLong> entry : appendersUsage.entrySet()) {
+            final long time = entry.getValue().get();
+            if (time < updateTime) {
+                updateTime = time;
             }
         }
 
@@ -127,6 +191,7 @@ public class IdlePurgePolicy extends AbstractLifeCycle implements PurgePolicy, R
      * @param timeToLive    the number of increments of timeUnit before the Appender should be purged.
      * @param checkInterval when all appenders purged, the number of increments of timeUnit to check if any appenders appeared  
      * @param timeUnit      the unit of time the timeToLive and the checkInterval is expressed in.
+     * @param maxRoutes     the maximum number of routes; creating more purges the least recently used ones.
      * @return The Routes container.
      */
     @PluginFactory
@@ -134,6 +199,7 @@ public class IdlePurgePolicy extends AbstractLifeCycle implements PurgePolicy, R
         @PluginAttribute("timeToLive") final String timeToLive,
         @PluginAttribute("checkInterval") final String checkInterval,
         @PluginAttribute("timeUnit") final String timeUnit,
+        @PluginAttribute("maxRoutes") final String maxRoutes,
         @PluginConfiguration final Configuration configuration) {
 
         if (timeToLive == null) {
@@ -169,12 +235,31 @@ public class IdlePurgePolicy extends AbstractLifeCycle implements PurgePolicy, R
             }
         }
 
-        return new IdlePurgePolicy(ttl, ci, configuration.getScheduler());
+        int max = 0;
+        if (maxRoutes != null) {
+            max = Integer.parseInt(maxRoutes);
+            if (max < 0) {
+                LOGGER.error("maxRoutes must be positive. The number of routes is not limited");
+                max = 0;
+            }
+        }
+
+        return new IdlePurgePolicy(ttl, ci, max, configuration.getScheduler());
+    }
+
+    /**
+     * Returns the maximum number of routes.
+     *
+     * @return the maximum number of routes, 0 if the number is not limited.
+     * @since 2.7
+     */
+    public int getMaxRoutes() {
+        return maxRoutes;
     }
 
     @Override
     public String toString() {
-        return "timeToLive=" + timeToLive;
+        return maxRoutes > 0 ? "timeToLive=" + timeToLive + ", maxRoutes=" + maxRoutes : "timeToLive=" + timeToLive;
     }
 
 }
@@ -20,6 +20,7 @@ import java.util.Collections;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.logging.log4j.core.Appender;
 import org.apache.logging.log4j.core.Filter;
@@ -34,6 +35,7 @@ import org.apache.logging.log4j.core.config.plugins.PluginAttribute;
 import org.apache.logging.log4j.core.config.plugins.PluginConfiguration;
 import org.apache.logging.log4j.core.config.plugins.PluginElement;
 import org.apache.logging.log4j.core.config.plugins.PluginFactory;
+import org.apache.logging.log4j.core.lookup.StrTemplate;
 import org.apache.logging.log4j.core.util.Booleans;
 
 /**
@@ -43,14 +45,23 @@ import org.apache.logging.log4j.core.util.Booleans;
  * the Routing appender declaration. The pattern should contain one or more substitution patterns of
  * the form "$${[key:]token}". The pattern will be resolved each time the Appender is called using
  * the built in StrSubstitutor and the StrLookup plugin that matches the specified key.
+ * <p>
+ * Events for routes whose Appender already exists are dispatched without locking. Appenders for new routes are
+ * created under a lock for their key only, so that creating the Appender of one route does not block events for
+ * other routes.
+ * </p>
  */
 @Plugin(name = "Routing", category = "Core", elementType = "appender", printObject = true)
 public final class RoutingAppender extends AbstractAppender {
     private static final String DEFAULT_KEY = "ROUTING_APPENDER_DEFAULT";
     private final Routes routes;
+    private final StrTemplate pattern;
     private final Route defaultRoute;
     private final Configuration config;
     private final ConcurrentMap<String, AppenderControl> appenders = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Object> creationLocks = new ConcurrentHashMap<>();
+    private final AtomicLong routesCreated = new AtomicLong();
+    private final AtomicLong routesDeleted = new AtomicLong();
     private final RewritePolicy rewritePolicy;
     private final PurgePolicy purgePolicy;
 
@@ -59,6 +70,7 @@ public final class RoutingAppender extends AbstractAppender {
         super(name, filter, null, ignoreExceptions);
         this.routes = routes;
         this.config = config;
+        this.pattern = config.getStrSubstitutor().compile(routes.getPattern());
         this.rewritePolicy = rewritePolicy;
         this.purgePolicy = purgePolicy;
         if (this.purgePolicy != null) {
@@ -111,7 +123,7 @@ public final class RoutingAppender extends AbstractAppender {
         if (rewritePolicy != null) {
             event = rewritePolicy.rewrite(event);
         }
-        final String key = config.getStrSubstitutor().replace(event, routes.getPattern());
+        final String key = pattern.replace(event);
         final AppenderControl control = getControl(key, event);
         if (control != null) {
             control.callAppender(event);
@@ -122,18 +134,59 @@ public final class RoutingAppender extends AbstractAppender {
         }
     }
 
-    private synchronized AppenderControl getControl(final String key, final LogEvent event) {
+    private AppenderControl getControl(final String key, final LogEvent event) {
+        final AppenderControl control = appenders.get(key);
+        if (control != null) {
+            return control;
+        }
+        final Object lock = new Object();
+        final Object existing;
+        synchronized (lock) {
+            existing = creationLocks.putIfAbsent(key, lock);
+            if (existing == null) {
+                try {
+                    return createControl(key, event);
+                } finally {
+                    creationLocks.remove(key, lock);
+                }
+            }
+        }
+        if (Thread.holdsLock(existing)) {
+            // an event logged while this thread creates the Appender of the same route
+            return null;
+        }
+        // another thread is creating the route; wait for it and use its Appender
+        synchronized (existing) {
+            final AppenderControl created = appenders.get(key);
+            if (created != null) {
+                return created;
+            }
+        }
+        return getControl(key, event);
+    }
+
+    private AppenderControl createControl(final String key, final LogEvent event) {
         AppenderControl control = appenders.get(key);
         if (control != null) {
             return control;
         }
         Route route = null;
         for (final Route r : routes.getRoutes()) {
-            if (r.getAppenderRef() == null && key.equals(r.getKey())) {
+            if (key.equals(r.getKey())) {
                 route = r;
                 break;
             }
         }
+        if (route != null && route.getAppenderRef() != null) {
+            // a static route that was deleted
+            final Appender appender = config.getAppender(route.getAppenderRef());
+            if (appender != null) {
+                control = new AppenderControl(appender, null, null);
+                appenders.put(key, control);
+                return control;
+            }
+            route = null;
+        }
         if (route == null) {
             route = defaultRoute;
             control = appenders.get(DEFAULT_KEY);
@@ -148,6 +201,7 @@ public final class RoutingAppender extends AbstractAppender {
             }
             control = new AppenderControl(app, null, null);
             appenders.put(key, control);
+            routesCreated.incrementAndGet();
         }
 
         return control;
@@ -176,6 +230,46 @@ public final class RoutingAppender extends AbstractAppender {
         return Collections.unmodifiableMap(appenders);
     }
 
+    /**
+     * Returns the pattern that selects the route of an event.
+     *
+     * @return The route pattern.
+     * @since 2.7
+     */
+    public String getPattern() {
+        return routes.getPattern();
+    }
+
+    /**
+     * Returns the PurgePolicy of this appender.
+     *
+     * @return The PurgePolicy or null.
+     * @since 2.7
+     */
+    public PurgePolicy getPurgePolicy() {
+        return purgePolicy;
+    }
+
+    /**
+     * Returns the number of Appenders that were created for routes since this appender was created.
+     *
+     * @return The number of created routes.
+     * @since 2.7
+     */
+    public long getRoutesCreated() {
+        return routesCreated.get();
+    }
+
+    /**
+     * Returns the number of routes that were deleted, by the PurgePolicy or by {@link #deleteAppender(String)}.
+     *
+     * @return The number of deleted routes.
+     * @since 2.7
+     */
+    public long getRoutesDeleted() {
+        return routesDeleted.get();
+    }
+
     /**
      * Delete specified appender
      *
@@ -185,8 +279,14 @@ public final class RoutingAppender extends AbstractAppender {
         LOGGER.debug("Deleting route with " + key + " key ");
         final AppenderControl control = appenders.remove(key);
         if (null != control) {
+            routesDeleted.incrementAndGet();
+            final Appender appender = control.getAppender();
+            if (config.getAppenders().get(appender.getName()) == appender) {
+                // the route refers to an Appender of the configuration, which stays in use
+                return;
+            }
             LOGGER.debug("Stopping route with " + key + " key");
-            control.getAppender().stop();
+            appender.stop();
         } else {
             LOGGER.debug("Route with " + key + " key already deleted");
         }
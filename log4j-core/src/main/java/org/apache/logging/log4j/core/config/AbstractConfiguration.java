@@ -50,6 +50,8 @@ import org.apache.logging.log4j.core.config.plugins.util.PluginBuilder;
 import org.apache.logging.log4j.core.config.plugins.util.PluginManager;
 import org.apache.logging.log4j.core.config.plugins.util.PluginType;
 import org.apache.logging.log4j.core.filter.AbstractFilterable;
+import org.apache.logging.log4j.core.filter.CompositeFilter;
+import org.apache.logging.log4j.core.filter.SamplingFilter;
 import org.apache.logging.log4j.core.layout.PatternLayout;
 import org.apache.logging.log4j.core.lookup.Interpolator;
 import org.apache.logging.log4j.core.lookup.MapLookup;
@@ -125,6 +127,7 @@ public abstract class AbstractConfiguration extends AbstractFilterable implement
     private AsyncLoggerConfigDisruptor asyncLoggerConfigDisruptor;
     private NanoClock nanoClock = new DummyNanoClock();
     private WeakReference<LoggerContext> loggerContext;
+    private final AppenderStartup appenderStartup = AppenderStartup.fromProperties();
     
     /**
      * Constructor.
@@ -249,8 +252,14 @@ public abstract class AbstractConfiguration extends AbstractFilterable implement
             logger.start();
             alreadyStarted.add(logger);
         }
-        for (final Appender appender : appenders.values()) {
-            appender.start();
+        if (appenderStartup != null) {
+            for (final String name : appenderStartup.startAppenders(appenders)) {
+                detachAppender(name);
+            }
+        } else {
+            for (final Appender appender : appenders.values()) {
+                appender.start();
+            }
         }
         if (!alreadyStarted.contains(root)) { // LOG4J2-392
             root.start(); // LOG4J2-336
@@ -483,7 +492,13 @@ public abstract class AbstractConfiguration extends AbstractFilterable implement
                 }
                 continue;
             }
-            createConfiguration(child, null);
+            if (appenderStartup != null && child.getType() != null
+                    && child.getName().equalsIgnoreCase("Appenders")) {
+                appenderStartup.createAppenders(this, child);
+                child.setObject(createPluginObject(child.getType(), child, null));
+            } else {
+                createConfiguration(child, null);
+            }
             if (child.getObject() == null) {
                 continue;
             }
@@ -499,7 +514,13 @@ public abstract class AbstractConfiguration extends AbstractFilterable implement
             } else if (child.getName().equalsIgnoreCase("Appenders")) {
                 appenders = child.getObject();
             } else if (child.isInstanceOf(Filter.class)) {
-                addFilter(child.getObject(Filter.class));
+                final Filter filter = child.getObject(Filter.class);
+                if (requiresLogEvent(filter)) {
+                    LOGGER.error("A SamplingFilter without a key cannot be used as a context-wide filter because "
+                            + "it samples every call independently; configure it on a Logger or an Appender");
+                } else {
+                    addFilter(filter);
+                }
             } else if (child.getName().equalsIgnoreCase("Loggers")) {
                 final Loggers l = child.getObject();
                 loggerConfigs = l.getMap();
@@ -718,6 +739,53 @@ public abstract class AbstractConfiguration extends AbstractFilterable implement
         }
     }
 
+    /**
+     * Returns true if the Filter can only make its decision once per LogEvent, so it would reach a different decision
+     * for the level check and the logging call if it were used as a context-wide filter.
+     */
+    private static boolean requiresLogEvent(final Filter filter) {
+        if (filter instanceof CompositeFilter) {
+            for (final Filter child : ((CompositeFilter) filter).getFiltersArray()) {
+                if (requiresLogEvent(child)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        return filter instanceof SamplingFilter && ((SamplingFilter) filter).getKey() == null;
+    }
+
+    /**
+     * Adds a configuration-level Filter. Loggers keep a snapshot of this Filter, so they are updated if this is the
+     * active Configuration of its LoggerContext.
+     *
+     * @param filter The Filter to add.
+     */
+    @Override
+    public void addFilter(final Filter filter) {
+        super.addFilter(filter);
+        updateLoggersIfActive();
+    }
+
+    /**
+     * Removes a configuration-level Filter. Loggers keep a snapshot of the Filter, so they are updated if this is the
+     * active Configuration of its LoggerContext.
+     *
+     * @param filter The Filter to remove.
+     */
+    @Override
+    public void removeFilter(final Filter filter) {
+        super.removeFilter(filter);
+        updateLoggersIfActive();
+    }
+
+    private void updateLoggersIfActive() {
+        final LoggerContext ctx = getLoggerContext();
+        if (ctx != null && ctx.getConfiguration() == this) {
+            ctx.updateLoggers();
+        }
+    }
+
     /**
      * Marks a LoggerConfig as additive. This method is synchronized in case a Logger with the same name is being
      * updated at the same time.
@@ -750,16 +818,21 @@ public abstract class AbstractConfiguration extends AbstractFilterable implement
      * @param appenderName the name of the appender to remove.
      */
     public synchronized void removeAppender(final String appenderName) {
-        for (final LoggerConfig logger : loggerConfigs.values()) {
-            logger.removeAppender(appenderName);
-        }
-        final Appender app = appenders.remove(appenderName);
+        final Appender app = detachAppender(appenderName);
 
         if (app != null) {
             app.stop();
         }
     }
 
+    private synchronized Appender detachAppender(final String appenderName) {
+        for (final LoggerConfig logger : loggerConfigs.values()) {
+            logger.removeAppender(appenderName);
+        }
+        root.removeAppender(appenderName);
+        return appenders.remove(appenderName);
+    }
+
     /*
      * (non-Javadoc)
      *
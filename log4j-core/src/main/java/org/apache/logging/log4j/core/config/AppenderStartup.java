@@ -0,0 +1,418 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.config;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.core.Appender;
+import org.apache.logging.log4j.core.LifeCycle;
+import org.apache.logging.log4j.core.lookup.StrSubstitutor;
+import org.apache.logging.log4j.core.util.Log4jThreadFactory;
+import org.apache.logging.log4j.status.StatusLogger;
+import org.apache.logging.log4j.util.PropertiesUtil;
+
+/**
+ * Creates and starts the Appenders of a configuration on a bounded pool of threads, so that Appenders that connect to
+ * remote systems or allocate large resources do not wait for each other.
+ * <p>
+ * An Appender that refers to other Appenders, such as an AsyncAppender or a FailoverAppender, is started after them.
+ * The references are taken from the configuration nodes before the Appenders are created: an Appender refers to every
+ * other Appender whose name is the value of an attribute anywhere in its configuration. Appenders that refer to each
+ * other in a cycle are started one after the other once all the others have started.
+ * </p>
+ * <p>
+ * Each of the two phases must complete within the configured timeout. When it expires the pending tasks are
+ * cancelled and the pool is given the same timeout again to terminate. Appenders that are not created or started in
+ * time are reported through the status logger and removed from the configuration; an Appender whose task ends after
+ * the timeout is stopped by that task, so its manager is released.
+ * </p>
+ */
+final class AppenderStartup {
+
+    /**
+     * System property that sets the number of threads used to create and start Appenders. Values below 2 keep the
+     * sequential startup.
+     */
+    static final String THREADS_PROPERTY = "log4j.Configuration.startThreads";
+
+    /**
+     * System property that sets the time in milliseconds within which the Appenders must be created, and then started.
+     */
+    static final String TIMEOUT_PROPERTY = "log4j.Configuration.startTimeoutMillis";
+
+    private static final long DEFAULT_TIMEOUT_MILLIS = 30000;
+
+    private static final Logger LOGGER = StatusLogger.getLogger();
+
+    private final int threads;
+
+    private final long timeoutMillis;
+
+    private final Map<String, Set<String>> references = new HashMap<>();
+
+    AppenderStartup(final int threads, final long timeoutMillis) {
+        this.threads = threads;
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    /**
+     * Returns an AppenderStartup configured by the system properties, or null if Appenders should be started
+     * sequentially.
+     */
+    static AppenderStartup fromProperties() {
+        final PropertiesUtil props = PropertiesUtil.getProperties();
+        final int threads = props.getIntegerProperty(THREADS_PROPERTY, 0);
+        if (threads < 2) {
+            return null;
+        }
+        return new AppenderStartup(threads, props.getLongProperty(TIMEOUT_PROPERTY, DEFAULT_TIMEOUT_MILLIS));
+    }
+
+    /**
+     * Creates the Appenders declared as children of the given node and records the references between them. The node
+     * itself is not created. The nodes of Appenders that are not created in time are removed from its children.
+     *
+     * @param config The Configuration.
+     * @param appendersNode The Appenders node.
+     */
+    void createAppenders(final AbstractConfiguration config, final Node appendersNode) {
+        final StrSubstitutor subst = config.getStrSubstitutor();
+        final Map<String, Node> nodes = new LinkedHashMap<>();
+        for (final Node child : appendersNode.getChildren()) {
+            final String name = subst.replace(getAttribute(child, "name"));
+            nodes.put(name == null || nodes.containsKey(name) ? child.getName() + '#' + nodes.size() : name, child);
+        }
+        final Map<String, Runnable> tasks = new LinkedHashMap<>();
+        final Map<String, Runnable> timeoutHandlers = new HashMap<>();
+        for (final Map.Entry<String, Node> entry : nodes.entrySet()) {
+            final Set<String> refs = new HashSet<>();
+            collectReferences(entry.getValue(), subst, nodes.keySet(), refs);
+            refs.remove(entry.getKey());
+            references.put(entry.getKey(), refs);
+            final Node node = entry.getValue();
+            tasks.put(entry.getKey(), new Runnable() {
+                @Override
+                public void run() {
+                    config.createConfiguration(node, null);
+                }
+            });
+            timeoutHandlers.put(entry.getKey(), new Runnable() {
+                @Override
+                public void run() {
+                    final Object object = node.getObject();
+                    node.setObject(null);
+                    if (object instanceof LifeCycle) {
+                        ((LifeCycle) object).stop();
+                    }
+                }
+            });
+        }
+        for (final String name : run("create", tasks, Collections.<String, Set<String>>emptyMap(), timeoutHandlers)) {
+            appendersNode.getChildren().remove(nodes.get(name));
+        }
+    }
+
+    /**
+     * Starts the given Appenders, each one after the Appenders it refers to. Appenders that are not started in time are
+     * stopped, at once if they were never started or by their task when it ends.
+     *
+     * @param appenders The Appenders by name.
+     * @return the names of the Appenders that were not started in time, which the caller must remove from the
+     *         configuration without stopping them.
+     */
+    Set<String> startAppenders(final Map<String, Appender> appenders) {
+        final Map<String, Runnable> tasks = new LinkedHashMap<>();
+        final Map<String, Runnable> timeoutHandlers = new HashMap<>();
+        for (final Map.Entry<String, Appender> entry : appenders.entrySet()) {
+            final Appender appender = entry.getValue();
+            tasks.put(entry.getKey(), new Runnable() {
+                @Override
+                public void run() {
+                    appender.start();
+                }
+            });
+            timeoutHandlers.put(entry.getKey(), new Runnable() {
+                @Override
+                public void run() {
+                    appender.stop();
+                }
+            });
+        }
+        return run("start", tasks, references, timeoutHandlers);
+    }
+
+    private static String getAttribute(final Node node, final String name) {
+        for (final Map.Entry<String, String> entry : node.getAttributes().entrySet()) {
+            if (entry.getKey().equalsIgnoreCase(name)) {
+                return entry.getValue();
+            }
+        }
+        return null;
+    }
+
+    private static void collectReferences(final Node node, final StrSubstitutor subst, final Set<String> names,
+                                          final Set<String> refs) {
+        for (final String value : node.getAttributes().values()) {
+            final String name = subst.replace(value);
+            if (names.contains(name)) {
+                refs.add(name);
+            }
+        }
+        for (final Node child : node.getChildren()) {
+            collectReferences(child, subst, names, refs);
+        }
+    }
+
+    /**
+     * Runs the tasks on the thread pool, each one after the tasks it depends on. Dependencies on unknown tasks are
+     * ignored, and tasks whose dependencies form a cycle are run in the calling thread once nothing else is running.
+     * <p>
+     * If the tasks do not complete within the timeout, the pending tasks are cancelled and the pool is given the
+     * timeout again to terminate. The timeout handler of each task that did not complete is run exactly once: in the
+     * calling thread if the task never ran, otherwise in the pool thread when the task ends. The tasks that completed
+     * happen-before this method returns.
+     * </p>
+     *
+     * @param action The action performed by the tasks, for the status log.
+     * @param tasks The tasks by name.
+     * @param dependencies The names of the tasks each task depends on.
+     * @param timeoutHandlers The actions that undo the tasks that do not complete in time, by task name.
+     * @return the names of the tasks that did not complete within the timeout, empty if all of them completed.
+     */
+    Set<String> run(final String action, final Map<String, Runnable> tasks,
+                    final Map<String, Set<String>> dependencies, final Map<String, Runnable> timeoutHandlers) {
+        if (tasks.isEmpty()) {
+            return Collections.emptySet();
+        }
+        final long startNanos = System.nanoTime();
+        final long deadline = startNanos + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        final Map<String, Set<String>> waiting = new LinkedHashMap<>();
+        final List<String> ready = new ArrayList<>();
+        for (final String name : tasks.keySet()) {
+            final Set<String> pending = new HashSet<>();
+            final Set<String> deps = dependencies.get(name);
+            if (deps != null) {
+                pending.addAll(deps);
+                pending.retainAll(tasks.keySet());
+                pending.remove(name);
+            }
+            if (pending.isEmpty()) {
+                ready.add(name);
+            } else {
+                waiting.put(name, pending);
+            }
+        }
+        final ExecutorService executor = Executors.newFixedThreadPool(Math.min(threads, tasks.size()),
+                Log4jThreadFactory.createDaemonThreadFactory("AppenderStartup"));
+        final CompletionService<String> completion = new ExecutorCompletionService<>(executor);
+        final List<RuntimeException> failures = Collections.synchronizedList(new ArrayList<RuntimeException>());
+        final Map<String, TimedTask> running = new HashMap<>();
+        boolean completed = false;
+        try {
+            for (final String name : ready) {
+                running.put(name, submit(completion, action, name, tasks, timeoutHandlers, failures));
+            }
+            while (!running.isEmpty() || !waiting.isEmpty()) {
+                if (running.isEmpty()) {
+                    LOGGER.warn("Appenders {} refer to each other, they will {} one after the other", waiting.keySet(),
+                            action);
+                    for (final String name : waiting.keySet()) {
+                        timed(action, name, tasks.get(name), null, failures).call();
+                    }
+                    waiting.clear();
+                    break;
+                }
+                final long remaining = deadline - System.nanoTime();
+                final Future<String> future = remaining > 0 ? completion.poll(remaining, TimeUnit.NANOSECONDS) : null;
+                if (future == null) {
+                    break;
+                }
+                final String done = getResult(future);
+                running.remove(done);
+                for (final Map.Entry<String, Set<String>> entry : new ArrayList<>(waiting.entrySet())) {
+                    final Set<String> pending = entry.getValue();
+                    if (pending.remove(done) && pending.isEmpty()) {
+                        waiting.remove(entry.getKey());
+                        running.put(entry.getKey(),
+                                submit(completion, action, entry.getKey(), tasks, timeoutHandlers, failures));
+                    }
+                }
+            }
+            completed = running.isEmpty() && waiting.isEmpty();
+        } catch (final InterruptedException ex) {
+            LOGGER.error("Interrupted while waiting for Appenders to {}", action);
+            Thread.currentThread().interrupt();
+        } finally {
+            if (completed) {
+                executor.shutdown();
+            }
+        }
+        if (!completed) {
+            return abandon(action, executor, running, waiting.keySet(), timeoutHandlers);
+        }
+        LOGGER.debug("Took {} ms to {} {} Appenders on {} threads", elapsedMillis(startNanos), action, tasks.size(),
+                Math.min(threads, tasks.size()));
+        if (!failures.isEmpty()) {
+            throw failures.get(0);
+        }
+        return Collections.emptySet();
+    }
+
+    private static TimedTask submit(final CompletionService<String> completion, final String action,
+                                    final String name, final Map<String, Runnable> tasks,
+                                    final Map<String, Runnable> timeoutHandlers,
+                                    final List<RuntimeException> failures) {
+        final TimedTask task = timed(action, name, tasks.get(name), timeoutHandlers.get(name), failures);
+        completion.submit(task);
+        return task;
+    }
+
+    /**
+     * Cancels the tasks that did not complete and waits for the pool to terminate.
+     *
+     * @return the names of the tasks that did not complete.
+     */
+    private Set<String> abandon(final String action, final ExecutorService executor,
+                                final Map<String, TimedTask> running, final Set<String> waiting,
+                                final Map<String, Runnable> timeoutHandlers) {
+        final Set<String> incomplete = new HashSet<>(waiting);
+        for (final Map.Entry<String, TimedTask> entry : running.entrySet()) {
+            if (entry.getValue().abandon()) {
+                incomplete.add(entry.getKey());
+            }
+        }
+        for (final String name : waiting) {
+            final Runnable handler = timeoutHandlers.get(name);
+            if (handler != null) {
+                handler.run();
+            }
+        }
+        LOGGER.error("Unable to {} Appenders {} within {} ms, they are removed from the configuration", action,
+                incomplete, timeoutMillis);
+        executor.shutdownNow();
+        try {
+            if (!executor.awaitTermination(timeoutMillis, TimeUnit.MILLISECONDS)) {
+                LOGGER.warn("Appenders {} did not respond to interruption, they will be stopped when they {}",
+                        incomplete, action);
+            }
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        return incomplete;
+    }
+
+    private static TimedTask timed(final String action, final String name, final Runnable task,
+                                   final Runnable timeoutHandler, final List<RuntimeException> failures) {
+        return new TimedTask(action, name, task, timeoutHandler, failures);
+    }
+
+    private static String getResult(final Future<String> future) throws InterruptedException {
+        try {
+            return future.get();
+        } catch (final ExecutionException ex) {
+            final Throwable cause = ex.getCause();
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    private static long elapsedMillis(final long startNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Runs a task and reports its duration and failure through the status logger. A task that is abandoned before it
+     * runs is skipped; one that is abandoned while running runs its timeout handler when it ends.
+     */
+    private static final class TimedTask implements Callable<String> {
+
+        private static final int QUEUED = 0;
+        private static final int RUNNING = 1;
+        private static final int DONE = 2;
+        private static final int ABANDONED = 3;
+
+        private final String action;
+        private final String name;
+        private final Runnable task;
+        private final Runnable timeoutHandler;
+        private final List<RuntimeException> failures;
+        private final AtomicInteger state = new AtomicInteger(QUEUED);
+
+        TimedTask(final String action, final String name, final Runnable task, final Runnable timeoutHandler,
+                  final List<RuntimeException> failures) {
+            this.action = action;
+            this.name = name;
+            this.task = task;
+            this.timeoutHandler = timeoutHandler;
+            this.failures = failures;
+        }
+
+        @Override
+        public String call() {
+            if (!state.compareAndSet(QUEUED, RUNNING)) {
+                return name;
+            }
+            final long startNanos = System.nanoTime();
+            try {
+                task.run();
+            } catch (final RuntimeException ex) {
+                LOGGER.error("Unable to {} Appender {}: {}", action, name, ex.getMessage());
+                failures.add(ex);
+            }
+            LOGGER.debug("Took {} ms to {} Appender {}", elapsedMillis(startNanos), action, name);
+            if (!state.compareAndSet(RUNNING, DONE) && timeoutHandler != null) {
+                LOGGER.warn("Appender {} completed after the timeout, it is stopped", name);
+                timeoutHandler.run();
+            }
+            return name;
+        }
+
+        /**
+         * Marks this task as not completed in time. Its timeout handler is run here if the task never ran.
+         *
+         * @return false if the task completed in the meantime.
+         */
+        boolean abandon() {
+            if (state.compareAndSet(QUEUED, ABANDONED)) {
+                if (timeoutHandler != null) {
+                    timeoutHandler.run();
+                }
+                return true;
+            }
+            return state.compareAndSet(RUNNING, ABANDONED);
+        }
+    }
+}
@@ -63,6 +63,15 @@ public class ConfigurationScheduler extends AbstractLifeCycle {
         super.stop();
     }
 
+    /**
+     * Returns whether the scheduler has threads to run tasks on. No threads are created when no component of the
+     * configuration was annotated with {@link Scheduled}.
+     * @return true if tasks can be scheduled.
+     */
+    public boolean isExecutorServiceSet() {
+        return executorService != null;
+    }
+
     /**
      * Increment the number of threads in the pool.
      */
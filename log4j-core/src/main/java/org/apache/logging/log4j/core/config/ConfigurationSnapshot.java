@@ -0,0 +1,301 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.config;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.core.config.plugins.processor.PluginProcessor;
+import org.apache.logging.log4j.core.config.plugins.util.PluginManager;
+import org.apache.logging.log4j.core.config.plugins.util.PluginType;
+import org.apache.logging.log4j.core.util.Loader;
+import org.apache.logging.log4j.status.StatusLogger;
+import org.apache.logging.log4j.util.PropertiesUtil;
+
+/**
+ * A binary copy of the Node hierarchy of a configuration, which lets the next start of the application skip parsing
+ * the configuration file.
+ * <p>
+ * Snapshots are only used when the {@value #DIRECTORY_PROPERTY} system property names the directory in which they are
+ * kept. A snapshot file is named after a digest of the location and content of the configuration and of the plugin
+ * listings on the class path, so a snapshot is never used for a configuration or a set of plugins that changed since
+ * it was written.
+ * </p>
+ * <p>
+ * The snapshot holds the hierarchy before any plugin is created: variables are substituted and plugins are created
+ * when the configuration starts, exactly as for a parsed configuration.
+ * </p>
+ *
+ * @since 2.7
+ */
+public final class ConfigurationSnapshot {
+
+    /**
+     * System property that names the directory in which configuration snapshots are kept.
+     */
+    public static final String DIRECTORY_PROPERTY = "log4j.configurationSnapshotDirectory";
+
+    private static final Logger LOGGER = StatusLogger.getLogger();
+
+    private static final int MAGIC = 0x4C344A53;
+
+    private static final int VERSION = 1;
+
+    private static final int MASK = 0xff;
+
+    private final File file;
+
+    private Element root;
+
+    private ConfigurationSnapshot(final File file) {
+        this.file = file;
+    }
+
+    /**
+     * Returns the snapshot of the given configuration, or null if snapshots are not enabled.
+     *
+     * @param source The source of the configuration.
+     * @param content The content of the configuration.
+     * @return The snapshot, which may not have been written yet, or null.
+     */
+    public static ConfigurationSnapshot forConfiguration(final ConfigurationSource source, final byte[] content) {
+        final String directory = PropertiesUtil.getProperties().getStringProperty(DIRECTORY_PROPERTY);
+        if (directory == null || content == null) {
+            return null;
+        }
+        try {
+            final MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            final String location = source.getLocation();
+            if (location != null) {
+                digest.update(location.getBytes(StandardCharsets.UTF_8));
+            }
+            digest.update(content);
+            final Enumeration<URL> resources = Loader.getClassLoader().getResources(PluginProcessor.PLUGIN_CACHE_FILE);
+            while (resources.hasMoreElements()) {
+                final URL url = resources.nextElement();
+                digest.update(url.toString().getBytes(StandardCharsets.UTF_8));
+                try (final InputStream in = url.openStream()) {
+                    final byte[] buffer = new byte[4096];
+                    int count;
+                    while ((count = in.read(buffer)) >= 0) {
+                        digest.update(buffer, 0, count);
+                    }
+                }
+            }
+            final StringBuilder name = new StringBuilder("log4j2-");
+            for (final byte b : digest.digest()) {
+                final String hex = Integer.toHexString(MASK & b);
+                if (hex.length() == 1) {
+                    name.append('0');
+                }
+                name.append(hex);
+            }
+            return new ConfigurationSnapshot(new File(directory, name.append(".snapshot").toString()));
+        } catch (final IOException | NoSuchAlgorithmException ex) {
+            LOGGER.warn("Unable to identify the snapshot of configuration {}: {}", source, ex.toString());
+            return null;
+        }
+    }
+
+    /**
+     * Returns the file of this snapshot.
+     *
+     * @return The snapshot file.
+     */
+    public File getFile() {
+        return file;
+    }
+
+    /**
+     * Reads this snapshot if it was written before.
+     *
+     * @return true if the snapshot was read.
+     */
+    public boolean load() {
+        if (!file.isFile()) {
+            return false;
+        }
+        try (final DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                LOGGER.warn("Ignoring configuration snapshot {} written by another version", file);
+                return false;
+            }
+            root = readElement(in);
+            LOGGER.debug("Read configuration snapshot {}", file);
+            return true;
+        } catch (final IOException ex) {
+            LOGGER.warn("Unable to read configuration snapshot {}: {}", file, ex.toString());
+            return false;
+        }
+    }
+
+    /**
+     * Returns true if this snapshot was read.
+     *
+     * @return true if the snapshot was read.
+     */
+    public boolean isLoaded() {
+        return root != null;
+    }
+
+    /**
+     * Returns the attributes of the root node of the snapshot.
+     *
+     * @return The root attributes, empty if the snapshot was not read.
+     */
+    public Map<String, String> getRootAttributes() {
+        return root == null ? new LinkedHashMap<String, String>() : root.attributes;
+    }
+
+    /**
+     * Copies the snapshot into the given root node. Plugin types are resolved through the given PluginManager.
+     *
+     * @param rootNode The root node of the configuration.
+     * @param pluginManager The PluginManager of the configuration.
+     */
+    public void restore(final Node rootNode, final PluginManager pluginManager) {
+        if (root != null) {
+            restore(root, rootNode, pluginManager);
+        }
+    }
+
+    private void restore(final Element element, final Node node, final PluginManager pluginManager) {
+        node.getAttributes().putAll(element.attributes);
+        if (element.value != null) {
+            node.setValue(element.value);
+        }
+        for (final Element childElement : element.children) {
+            final PluginType<?> type = pluginManager.getPluginType(childElement.name);
+            if (type == null) {
+                LOGGER.error("Unable to locate plugin for {} in configuration snapshot {}", childElement.name, file);
+                continue;
+            }
+            final Node child = new Node(node, childElement.name, type);
+            restore(childElement, child, pluginManager);
+            node.getChildren().add(child);
+        }
+    }
+
+    /**
+     * Writes the given Node hierarchy to this snapshot. The nodes must not have been used to create plugins yet.
+     *
+     * @param rootNode The root node of the configuration.
+     */
+    public void save(final Node rootNode) {
+        final File directory = file.getParentFile();
+        try {
+            if (directory != null && !directory.isDirectory() && !directory.mkdirs()) {
+                throw new IOException("Unable to create directory " + directory);
+            }
+            final File temp = File.createTempFile(file.getName(), ".tmp", directory);
+            try (final DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                    new FileOutputStream(temp)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                writeNode(out, rootNode);
+            }
+            if (!temp.renameTo(file)) {
+                temp.delete();
+                if (!file.isFile()) {
+                    throw new IOException("Unable to rename " + temp + " to " + file);
+                }
+            }
+            LOGGER.debug("Wrote configuration snapshot {}", file);
+        } catch (final IOException ex) {
+            LOGGER.warn("Unable to write configuration snapshot {}: {}", file, ex.toString());
+        }
+    }
+
+    private static void writeNode(final DataOutputStream out, final Node node) throws IOException {
+        writeString(out, node.getName());
+        writeString(out, node.getValue());
+        out.writeInt(node.getAttributes().size());
+        for (final Map.Entry<String, String> entry : node.getAttributes().entrySet()) {
+            writeString(out, entry.getKey());
+            writeString(out, entry.getValue());
+        }
+        out.writeInt(node.getChildren().size());
+        for (final Node child : node.getChildren()) {
+            writeNode(out, child);
+        }
+    }
+
+    private static Element readElement(final DataInputStream in) throws IOException {
+        final Element element = new Element(readString(in), readString(in));
+        final int attributeCount = in.readInt();
+        for (int i = 0; i < attributeCount; i++) {
+            element.attributes.put(readString(in), readString(in));
+        }
+        final int childCount = in.readInt();
+        for (int i = 0; i < childCount; i++) {
+            element.children.add(readElement(in));
+        }
+        return element;
+    }
+
+    private static void writeString(final DataOutputStream out, final String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(final DataInputStream in) throws IOException {
+        final int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        final byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * A node of the snapshot.
+     */
+    private static final class Element {
+        private final String name;
+        private final String value;
+        private final Map<String, String> attributes = new LinkedHashMap<>();
+        private final List<Element> children = new ArrayList<>();
+
+        Element(final String name, final String value) {
+            this.name = name;
+            this.value = value;
+        }
+    }
+}
@@ -42,6 +42,7 @@ import org.apache.logging.log4j.core.impl.Log4jLogEvent;
 import org.apache.logging.log4j.core.impl.LogEventFactory;
 import org.apache.logging.log4j.core.impl.ReusableLogEventFactory;
 import org.apache.logging.log4j.core.lookup.StrSubstitutor;
+import org.apache.logging.log4j.core.lookup.StrTemplate;
 import org.apache.logging.log4j.core.util.Booleans;
 import org.apache.logging.log4j.core.util.Constants;
 import org.apache.logging.log4j.core.util.Loader;
@@ -68,6 +69,9 @@ public class LoggerConfig extends AbstractFilterable {
     private boolean includeLocation = true;
     private LoggerConfig parent;
     private final Map<Property, Boolean> properties;
+    private final Property[] propertyArray;
+    /** The compiled property values, null for values without variables. */
+    private final StrTemplate[] propertyTemplates;
     private final Configuration config;
     private final ReliabilityStrategy reliabilityStrategy;
 
@@ -98,6 +102,8 @@ public class LoggerConfig extends AbstractFilterable {
         this.level = Level.ERROR;
         this.name = Strings.EMPTY;
         this.properties = null;
+        this.propertyArray = null;
+        this.propertyTemplates = null;
         this.config = null;
         this.reliabilityStrategy = new DefaultReliabilityStrategy(this);
     }
@@ -115,6 +121,8 @@ public class LoggerConfig extends AbstractFilterable {
         this.level = level;
         this.additive = additive;
         this.properties = null;
+        this.propertyArray = null;
+        this.propertyTemplates = null;
         this.config = null;
         this.reliabilityStrategy = new DefaultReliabilityStrategy(this);
     }
@@ -132,13 +140,21 @@ public class LoggerConfig extends AbstractFilterable {
         this.config = config;
         if (properties != null && properties.length > 0) {
             final Map<Property, Boolean> map = new HashMap<>(properties.length);
-            for (final Property prop : properties) {
+            this.propertyArray = properties.clone();
+            this.propertyTemplates = new StrTemplate[properties.length];
+            for (int i = 0; i < properties.length; i++) {
+                final Property prop = properties[i];
                 final boolean interpolate = prop.getValue().contains("${");
                 map.put(prop, interpolate);
+                if (interpolate) {
+                    propertyTemplates[i] = config.getStrSubstitutor().compile(prop.getValue());
+                }
             }
             this.properties = Collections.unmodifiableMap(map);
         } else {
             this.properties = null;
+            this.propertyArray = null;
+            this.propertyTemplates = null;
         }
         this.reliabilityStrategy = config.getReliabilityStrategy(this);
     }
@@ -329,8 +345,8 @@ public class LoggerConfig extends AbstractFilterable {
     public void log(final String loggerName, final String fqcn, final Marker marker, final Level level,
             final Message data, final Throwable t) {
         List<Property> props = null;
-        if (properties != null) {
-            props = new ArrayList<>(properties.size());
+        if (propertyArray != null) {
+            props = new ArrayList<>(propertyArray.length);
             final LogEvent event = Log4jLogEvent.newBuilder()
                 .setMessage(data)
                 .setMarker(marker)
@@ -339,9 +355,9 @@ public class LoggerConfig extends AbstractFilterable {
                 .setLoggerFqcn(fqcn)
                 .setThrown(t)
                 .build();
-            for (final Map.Entry<Property, Boolean> entry : properties.entrySet()) {
-                final Property prop = entry.getKey();
-                final String value = entry.getValue() ? config.getStrSubstitutor().replace(event, prop.getValue())
+            for (int i = 0; i < propertyArray.length; i++) {
+                final Property prop = propertyArray[i];
+                final String value = propertyTemplates[i] != null ? propertyTemplates[i].replace(event)
                         : prop.getValue();
                 props.add(Property.createProperty(prop.getName(), value));
             }
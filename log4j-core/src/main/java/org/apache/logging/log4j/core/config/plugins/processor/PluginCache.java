@@ -21,11 +21,14 @@ import java.io.BufferedInputStream;
 import java.io.BufferedOutputStream;
 import java.io.DataInputStream;
 import java.io.DataOutputStream;
+import java.io.EOFException;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.net.URL;
+import java.util.ArrayList;
 import java.util.Enumeration;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -84,6 +87,21 @@ public class PluginCache {
                     out.writeBoolean(plugin.isDefer());
                 }
             }
+            // Optional trailing section: the generated factory of each plugin class. Readers that predate it stop
+            // before this section, and files without it end here.
+            final Map<String, String> factories = new LinkedHashMap<>();
+            for (final Map<String, PluginEntry> m : categories.values()) {
+                for (final PluginEntry plugin : m.values()) {
+                    if (plugin.getFactoryClassName() != null) {
+                        factories.put(plugin.getClassName(), plugin.getFactoryClassName());
+                    }
+                }
+            }
+            out.writeInt(factories.size());
+            for (final Map.Entry<String, String> factory : factories.entrySet()) {
+                out.writeUTF(factory.getKey());
+                out.writeUTF(factory.getValue());
+            }
         }
     }
 
@@ -98,6 +116,7 @@ public class PluginCache {
         while (resources.hasMoreElements()) {
             final URL url = resources.nextElement();
             try (final DataInputStream in = new DataInputStream(new BufferedInputStream(url.openStream()))) {
+                final List<PluginEntry> loaded = new ArrayList<>();
                 final int count = in.readInt();
                 for (int i = 0; i < count; i++) {
                     final String category = in.readUTF();
@@ -113,13 +132,35 @@ public class PluginCache {
                         entry.setCategory(category);
                         if (!m.containsKey(entry.getKey())) {
                             m.put(entry.getKey(), entry);
+                            loaded.add(entry);
                         }
                     }
                 }
+                readFactories(in, loaded);
             }
         }
     }
 
+    private static void readFactories(final DataInputStream in, final List<PluginEntry> loaded) throws IOException {
+        final int count;
+        try {
+            count = in.readInt();
+        } catch (final EOFException e) {
+            return; // written before generated factories were recorded
+        }
+        if (count == 0) {
+            return;
+        }
+        final Map<String, String> factories = new LinkedHashMap<>(count * 2);
+        for (int i = 0; i < count; i++) {
+            final String className = in.readUTF();
+            factories.put(className, in.readUTF());
+        }
+        for (final PluginEntry entry : loaded) {
+            entry.setFactoryClassName(factories.get(entry.getClassName()));
+        }
+    }
+
     /**
      * Gets the number of plugin categories registered.
      *
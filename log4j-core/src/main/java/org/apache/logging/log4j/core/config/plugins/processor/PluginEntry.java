@@ -30,6 +30,7 @@ public class PluginEntry implements Serializable {
     private String name;
     private boolean printable;
     private boolean defer;
+    private String factoryClassName;
     private transient String category;
 
     public String getKey() {
@@ -72,6 +73,23 @@ public class PluginEntry implements Serializable {
         this.defer = defer;
     }
 
+    /**
+     * Returns the name of the factory class generated for this plugin by the {@link PluginProcessor}.
+     *
+     * @return the generated factory class name or {@code null} if the plugin must be created reflectively.
+     * @since 2.7
+     */
+    public String getFactoryClassName() {
+        return factoryClassName;
+    }
+
+    /**
+     * @since 2.7
+     */
+    public void setFactoryClassName(final String factoryClassName) {
+        this.factoryClassName = factoryClassName;
+    }
+
     public String getCategory() {
         return category;
     }
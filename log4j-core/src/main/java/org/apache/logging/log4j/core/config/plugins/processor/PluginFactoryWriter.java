@@ -0,0 +1,330 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.config.plugins.processor;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import javax.annotation.processing.Filer;
+import javax.annotation.processing.FilerException;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.MirroredTypeException;
+import javax.lang.model.type.PrimitiveType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+
+import org.apache.logging.log4j.core.config.plugins.PluginAliases;
+import org.apache.logging.log4j.core.config.plugins.PluginAttribute;
+import org.apache.logging.log4j.core.config.plugins.PluginBuilderFactory;
+import org.apache.logging.log4j.core.config.plugins.PluginConfiguration;
+import org.apache.logging.log4j.core.config.plugins.PluginElement;
+import org.apache.logging.log4j.core.config.plugins.PluginFactory;
+import org.apache.logging.log4j.core.config.plugins.PluginNode;
+import org.apache.logging.log4j.core.config.plugins.PluginValue;
+import org.apache.logging.log4j.core.config.plugins.PluginVisitorStrategy;
+import org.apache.logging.log4j.core.config.plugins.validation.Constraint;
+import org.apache.logging.log4j.core.config.plugins.validation.constraints.Required;
+
+/**
+ * Writes the source of a {@link org.apache.logging.log4j.core.config.plugins.util.GeneratedPluginFactory} for a plugin
+ * with a static {@link PluginFactory} method. Plugins created through a {@link PluginBuilderFactory}, factory methods
+ * that are not accessible from the plugin's package, and parameters with annotations other than the ones of this
+ * package are left to the reflective {@link org.apache.logging.log4j.core.config.plugins.util.PluginBuilder}.
+ */
+final class PluginFactoryWriter {
+
+    private static final String SUFFIX = "_PluginFactory";
+    private static final String ARGUMENTS = "org.apache.logging.log4j.core.config.plugins.visitors.PluginArguments";
+
+    private final Filer filer;
+    private final Elements elements;
+    private final Types types;
+
+    PluginFactoryWriter(final Filer filer, final Elements elements, final Types types) {
+        this.filer = filer;
+        this.elements = elements;
+        this.types = types;
+    }
+
+    /**
+     * Writes the factory of a plugin.
+     *
+     * @param plugin the plugin class.
+     * @return the name of the factory class, or {@code null} if the plugin has to be created reflectively.
+     * @throws IOException if the source file cannot be written.
+     */
+    String write(final TypeElement plugin) throws IOException {
+        final PackageElement pkg = elements.getPackageOf(plugin);
+        if (!isAccessible(plugin, pkg)) {
+            return null;
+        }
+        final ExecutableElement factory = findFactoryMethod(plugin);
+        if (factory == null || factory.getModifiers().contains(Modifier.PRIVATE)
+                || !factory.getTypeParameters().isEmpty()) {
+            return null;
+        }
+        final List<String> statements = new ArrayList<>();
+        final StringBuilder call = new StringBuilder();
+        int i = 0;
+        for (final VariableElement parameter : factory.getParameters()) {
+            final String variable = "p" + i++;
+            final String statement = argument(parameter, variable, pkg);
+            if (statement == null) {
+                return null;
+            }
+            statements.add(statement);
+            final Required required = parameter.getAnnotation(Required.class);
+            if (required != null) {
+                statements.add("args.require(" + variable + ", " + literal(required.message()) + ");");
+            }
+            call.append(call.length() == 0 ? "" : ", ").append(variable);
+        }
+        final StringBuilder simpleName = new StringBuilder();
+        for (Element e = plugin; e.getKind() != ElementKind.PACKAGE; e = e.getEnclosingElement()) {
+            simpleName.insert(0, e.getSimpleName() + (simpleName.length() == 0 ? SUFFIX : "_"));
+        }
+        final String packageName = pkg.isUnnamed() ? "" : pkg.getQualifiedName().toString();
+        final String className = packageName.isEmpty() ? simpleName.toString() : packageName + '.' + simpleName;
+        try (final Writer out = filer.createSourceFile(className, plugin).openWriter()) {
+            if (!packageName.isEmpty()) {
+                out.write("package " + packageName + ";\n\n");
+            }
+            out.write("/**\n * Creates " + plugin.getQualifiedName() + " plugins without reflection."
+                + " Generated by the Log4j PluginProcessor.\n */\n");
+            out.write("@SuppressWarnings({\"unchecked\", \"rawtypes\", \"deprecation\"})\n");
+            out.write("public final class " + simpleName
+                + " implements org.apache.logging.log4j.core.config.plugins.util.GeneratedPluginFactory {\n\n");
+            out.write("    @Override\n    public Object createPlugin("
+                + "final org.apache.logging.log4j.core.config.Configuration configuration,\n"
+                + "            final org.apache.logging.log4j.core.config.Node node,\n"
+                + "            final org.apache.logging.log4j.core.LogEvent event) throws Exception {\n");
+            out.write("        final " + ARGUMENTS + " args = new " + ARGUMENTS + "(configuration, node, event, "
+                + literal(factory.getSimpleName().toString()) + ");\n");
+            for (final String statement : statements) {
+                out.write("        " + statement + "\n");
+            }
+            out.write("        args.validate();\n");
+            out.write("        return " + plugin.getQualifiedName() + '.' + factory.getSimpleName() + '(' + call
+                + ");\n");
+            out.write("    }\n}\n");
+        } catch (final FilerException e) {
+            // the factory was written by an earlier compilation and is compiled as a source file now
+        }
+        return className;
+    }
+
+    private ExecutableElement findFactoryMethod(final TypeElement plugin) {
+        ExecutableElement factory = null;
+        for (final ExecutableElement method : ElementFilter.methodsIn(plugin.getEnclosedElements())) {
+            if (!method.getModifiers().contains(Modifier.STATIC)) {
+                continue;
+            }
+            if (method.getAnnotation(PluginBuilderFactory.class) != null) {
+                return null;
+            }
+            if (method.getAnnotation(PluginFactory.class) != null) {
+                if (factory != null) {
+                    return null;
+                }
+                factory = method;
+            }
+        }
+        return factory;
+    }
+
+    /**
+     * Returns the statement that declares the argument of a parameter, or {@code null} if the parameter cannot be
+     * injected by the generated code.
+     */
+    private String argument(final VariableElement parameter, final String variable, final PackageElement pkg) {
+        final TypeMirror type = types.erasure(parameter.asType());
+        if (!isAccessible(type, pkg)) {
+            return null;
+        }
+        String value = null;
+        int injections = 0;
+        for (final AnnotationMirror mirror : parameter.getAnnotationMirrors()) {
+            final Element annotationType = mirror.getAnnotationType().asElement();
+            final String name = ((TypeElement) annotationType).getQualifiedName().toString();
+            if (name.equals(PluginAttribute.class.getName())) {
+                value = attribute(parameter.getAnnotation(PluginAttribute.class), type, aliases(parameter), pkg);
+            } else if (name.equals(PluginElement.class.getName())) {
+                value = "args.element(" + literal(parameter.getAnnotation(PluginElement.class).value()) + ", "
+                    + type + ".class)";
+            } else if (name.equals(PluginValue.class.getName())) {
+                value = "args.value(" + literal(parameter.getAnnotation(PluginValue.class).value()) + ")";
+            } else if (name.equals(PluginConfiguration.class.getName())) {
+                value = "args.configuration(" + type + ".class)";
+            } else if (name.equals(PluginNode.class.getName())) {
+                value = "args.node(" + type + ".class)";
+            } else if (name.equals(PluginAliases.class.getName()) || name.equals(Required.class.getName())) {
+                continue;
+            } else if (annotationType.getAnnotation(PluginVisitorStrategy.class) != null
+                    || annotationType.getAnnotation(Constraint.class) != null) {
+                return null;
+            } else {
+                continue;
+            }
+            injections++;
+        }
+        if (injections != 1 || value == null) {
+            return null;
+        }
+        return "final " + type + ' ' + variable + " = (" + boxed(type) + ") " + value + ';';
+    }
+
+    /**
+     * Returns the call that injects a {@link PluginAttribute}, with the default value that the
+     * {@link org.apache.logging.log4j.core.config.plugins.visitors.PluginAttributeVisitor} uses for the type.
+     */
+    private String attribute(final PluginAttribute attribute, final TypeMirror type, final String aliases,
+                             final PackageElement pkg) {
+        final String defaultValue;
+        switch (boxed(type)) {
+        case "java.lang.Integer":
+            defaultValue = Integer.toString(attribute.defaultInt());
+            break;
+        case "java.lang.Long":
+            defaultValue = attribute.defaultLong() + "L";
+            break;
+        case "java.lang.Boolean":
+            defaultValue = Boolean.toString(attribute.defaultBoolean());
+            break;
+        case "java.lang.Float":
+            final float f = attribute.defaultFloat();
+            defaultValue = Float.isNaN(f) || Float.isInfinite(f)
+                ? "Float.intBitsToFloat(" + Float.floatToRawIntBits(f) + ')' : f + "f";
+            break;
+        case "java.lang.Double":
+            final double d = attribute.defaultDouble();
+            defaultValue = Double.isNaN(d) || Double.isInfinite(d)
+                ? "Double.longBitsToDouble(" + Double.doubleToRawLongBits(d) + "L)" : d + "d";
+            break;
+        case "java.lang.Byte":
+            defaultValue = "(byte) " + attribute.defaultByte();
+            break;
+        case "java.lang.Character":
+            defaultValue = "(char) " + (int) attribute.defaultChar();
+            break;
+        case "java.lang.Short":
+            defaultValue = "(short) " + attribute.defaultShort();
+            break;
+        case "java.lang.Class":
+            TypeMirror defaultClass;
+            try {
+                attribute.defaultClass();
+                return null;
+            } catch (final MirroredTypeException e) {
+                defaultClass = types.erasure(e.getTypeMirror());
+            }
+            if (!isAccessible(defaultClass, pkg)) {
+                return null;
+            }
+            defaultValue = defaultClass + ".class";
+            break;
+        default:
+            defaultValue = literal(attribute.defaultString());
+            break;
+        }
+        return "args.attribute(" + literal(attribute.value()) + ", " + type + ".class, " + defaultValue + ", "
+            + attribute.sensitive() + aliases + ')';
+    }
+
+    private static String aliases(final VariableElement parameter) {
+        final PluginAliases aliases = parameter.getAnnotation(PluginAliases.class);
+        final StringBuilder sb = new StringBuilder();
+        if (aliases != null) {
+            for (final String alias : aliases.value()) {
+                sb.append(", ").append(literal(alias));
+            }
+        }
+        return sb.toString();
+    }
+
+    private String boxed(final TypeMirror type) {
+        if (type.getKind().isPrimitive()) {
+            return types.boxedClass((PrimitiveType) type).getQualifiedName().toString();
+        }
+        return type.toString();
+    }
+
+    /**
+     * Returns true if the generated class in the given package can refer to the type.
+     */
+    private boolean isAccessible(final TypeMirror type, final PackageElement pkg) {
+        if (type.getKind().isPrimitive()) {
+            return true;
+        }
+        if (type.getKind() == TypeKind.ARRAY) {
+            return isAccessible(((ArrayType) type).getComponentType(), pkg);
+        }
+        return type.getKind() == TypeKind.DECLARED && isAccessible(((DeclaredType) type).asElement(), pkg);
+    }
+
+    private boolean isAccessible(final Element type, final PackageElement pkg) {
+        for (Element e = type; e.getKind() != ElementKind.PACKAGE; e = e.getEnclosingElement()) {
+            if (!e.getKind().isClass() && !e.getKind().isInterface()) {
+                return false; // local or anonymous class
+            }
+            if (e.getModifiers().contains(Modifier.PRIVATE)) {
+                return false;
+            }
+            if (!e.getModifiers().contains(Modifier.PUBLIC) && !pkg.equals(elements.getPackageOf(e))) {
+                return false;
+            }
+            if (e.getKind() == ElementKind.CLASS && e.getEnclosingElement().getKind() != ElementKind.PACKAGE
+                    && !e.getModifiers().contains(Modifier.STATIC)) {
+                return false; // inner class
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns a Java string literal. Control characters are written as octal escapes because a unicode escape of a
+     * line terminator would end the literal.
+     */
+    static String literal(final String value) {
+        final StringBuilder sb = new StringBuilder(value.length() + 2).append('"');
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                sb.append('\\').append(c);
+            } else if (c < ' ') {
+                sb.append('\\').append(Integer.toOctalString(0x100 | c).substring(1));
+            } else if (c > '~') {
+                sb.append(String.format("\\u%04x", (int) c));
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.append('"').toString();
+    }
+}
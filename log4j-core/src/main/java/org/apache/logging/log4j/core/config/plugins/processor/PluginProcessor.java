@@ -43,7 +43,9 @@ import org.apache.logging.log4j.core.config.plugins.PluginAliases;
 import org.apache.logging.log4j.util.Strings;
 
 /**
- * Annotation processor for pre-scanning Log4j 2 plugins.
+ * Annotation processor for pre-scanning Log4j 2 plugins. Besides the plugin cache file, it generates a
+ * {@link org.apache.logging.log4j.core.config.plugins.util.GeneratedPluginFactory} for each plugin whose
+ * {@link org.apache.logging.log4j.core.config.plugins.PluginFactory} method can be invoked without reflection.
  */
 @SupportedAnnotationTypes("org.apache.logging.log4j.core.config.plugins.*")
 public class PluginProcessor extends AbstractProcessor {
@@ -84,8 +86,10 @@ public class PluginProcessor extends AbstractProcessor {
         processingEnv.getMessager().printMessage(Kind.ERROR, message);
     }
 
-    private void collectPlugins(final Iterable<? extends Element> elements) {
+    private void collectPlugins(final Iterable<? extends Element> elements) throws IOException {
         final Elements elementUtils = processingEnv.getElementUtils();
+        final PluginFactoryWriter factoryWriter = new PluginFactoryWriter(processingEnv.getFiler(), elementUtils,
+                processingEnv.getTypeUtils());
         final ElementVisitor<PluginEntry, Plugin> pluginVisitor = new PluginElementVisitor(elementUtils);
         final ElementVisitor<Collection<PluginEntry>, Plugin> pluginAliasesVisitor = new PluginAliasesElementVisitor(
                 elementUtils);
@@ -95,10 +99,14 @@ public class PluginProcessor extends AbstractProcessor {
                 continue;
             }
             final PluginEntry entry = element.accept(pluginVisitor, plugin);
+            final String factoryClassName = element instanceof TypeElement ?
+                    factoryWriter.write((TypeElement) element) : null;
+            entry.setFactoryClassName(factoryClassName);
             final Map<String, PluginEntry> category = pluginCache.getCategory(entry.getCategory());
             category.put(entry.getKey(), entry);
             final Collection<PluginEntry> entries = element.accept(pluginAliasesVisitor, plugin);
             for (final PluginEntry pluginEntry : entries) {
+                pluginEntry.setFactoryClassName(factoryClassName);
                 category.put(pluginEntry.getKey(), pluginEntry);
             }
         }
@@ -0,0 +1,43 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.config.plugins.util;
+
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.config.Configuration;
+import org.apache.logging.log4j.core.config.Node;
+
+/**
+ * Factory generated by the {@link org.apache.logging.log4j.core.config.plugins.processor.PluginProcessor} for a plugin
+ * with a {@link org.apache.logging.log4j.core.config.plugins.PluginFactory} method. It gathers the method arguments
+ * through {@link org.apache.logging.log4j.core.config.plugins.visitors.PluginArguments} and invokes the method
+ * directly, so {@link PluginBuilder} does not need reflection to create the plugin.
+ *
+ * @since 2.7
+ */
+public interface GeneratedPluginFactory {
+
+    /**
+     * Creates the plugin.
+     *
+     * @param configuration the configuration being built.
+     * @param node the node of the plugin.
+     * @param event the LogEvent used for substitutions, may be {@code null}.
+     * @return the plugin object as returned by the factory method.
+     * @throws Exception if the arguments are invalid or the factory method throws an exception.
+     */
+    Object createPlugin(Configuration configuration, Node node, LogEvent event) throws Exception;
+}
@@ -112,7 +112,23 @@ public class PluginBuilder implements Builder<Object> {
     @Override
     public Object build() {
         verify();
-        // first try to use a builder class if one is available
+        // use the factory generated by the annotation processor if there is one
+        final GeneratedPluginFactory generatedFactory = pluginType.getGeneratedFactory();
+        if (generatedFactory != null) {
+            LOGGER.debug("Building Plugin[name={}, class={}] with {}.", pluginType.getElementName(),
+                    pluginType.getPluginClass().getName(), generatedFactory.getClass().getName());
+            try {
+                return generatedFactory.createPlugin(configuration, node, event);
+            } catch (final Exception e) {
+                LOGGER.error("Unable to invoke factory method in class {} for element {}.", this.clazz,
+                    this.node.getName(), e);
+                return null;
+            } finally {
+                checkForRemainingAttributes();
+                verifyNodeChildrenUsed();
+            }
+        }
+        // then try to use a builder class if one is available
         try {
             LOGGER.debug("Building Plugin[name={}, class={}].", pluginType.getElementName(),
                     pluginType.getPluginClass().getName());
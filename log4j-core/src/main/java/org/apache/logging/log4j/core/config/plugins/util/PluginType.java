@@ -17,7 +17,10 @@
 package org.apache.logging.log4j.core.config.plugins.util;
 
 
+import org.apache.logging.log4j.Logger;
 import org.apache.logging.log4j.core.config.plugins.processor.PluginEntry;
+import org.apache.logging.log4j.core.util.Loader;
+import org.apache.logging.log4j.status.StatusLogger;
 
 /**
  * Plugin Descriptor. This is a memento object for Plugin annotations paired to their annotated classes.
@@ -27,9 +30,13 @@ import org.apache.logging.log4j.core.config.plugins.processor.PluginEntry;
  */
 public class PluginType<T> {
 
+    private static final Logger LOGGER = StatusLogger.getLogger();
+
     private final PluginEntry pluginEntry;
     private final Class<T> pluginClass;
     private final String elementName;
+    private volatile boolean generatedFactoryLoaded;
+    private volatile GeneratedPluginFactory generatedFactory;
 
     /**
      * @since 2.1
@@ -70,6 +77,36 @@ public class PluginType<T> {
         return this.pluginEntry.getCategory();
     }
 
+    /**
+     * Returns the factory generated for this plugin by the annotation processor.
+     *
+     * @return the generated factory or {@code null} if the plugin must be created reflectively.
+     * @since 2.7
+     */
+    public GeneratedPluginFactory getGeneratedFactory() {
+        if (!generatedFactoryLoaded) {
+            generatedFactory = loadGeneratedFactory();
+            generatedFactoryLoaded = true;
+        }
+        return generatedFactory;
+    }
+
+    private GeneratedPluginFactory loadGeneratedFactory() {
+        final String className = this.pluginEntry.getFactoryClassName();
+        if (className == null) {
+            return null;
+        }
+        final ClassLoader loader = pluginClass.getClassLoader() != null ? pluginClass.getClassLoader() :
+            Loader.getClassLoader();
+        try {
+            return loader.loadClass(className).asSubclass(GeneratedPluginFactory.class).newInstance();
+        } catch (final Exception | LinkageError e) {
+            LOGGER.debug("Unable to load generated factory {} for plugin {}, using reflection.", className,
+                pluginClass.getName(), e);
+            return null;
+        }
+    }
+
     @Override
     public String toString() {
         return "PluginType [pluginClass=" + pluginClass +
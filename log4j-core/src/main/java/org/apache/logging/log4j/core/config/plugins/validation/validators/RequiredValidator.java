@@ -49,25 +49,33 @@ public class RequiredValidator implements ConstraintValidator<Required> {
 
     @Override
     public boolean isValid(final String name, final Object value) {
+        return isPresent(value) || err(name);
+    }
+
+    /**
+     * Returns whether a value satisfies the {@link Required} constraint: it is not {@code null} and, if it is a
+     * CharSequence, array, Collection or Map, it is not empty.
+     *
+     * @param value the value to check.
+     * @return {@code true} if the value is present.
+     * @since 2.7
+     */
+    public static boolean isPresent(final Object value) {
         if (value == null) {
-            return err(name);
+            return false;
         }
         if (value instanceof CharSequence) {
-            final CharSequence sequence = (CharSequence) value;
-            return sequence.length() != 0 || err(name);
+            return ((CharSequence) value).length() != 0;
         }
         final Class<?> clazz = value.getClass();
         if (clazz.isArray()) {
-            final Object[] array = (Object[]) value;
-            return array.length != 0 || err(name);
+            return ((Object[]) value).length != 0;
         }
         if (Collection.class.isAssignableFrom(clazz)) {
-            final Collection<?> collection = (Collection<?>) value;
-            return collection.size() != 0 || err(name);
+            return ((Collection<?>) value).size() != 0;
         }
         if (Map.class.isAssignableFrom(clazz)) {
-            final Map<?, ?> map = (Map<?, ?>) value;
-            return map.size() != 0 || err(name);
+            return ((Map<?, ?>) value).size() != 0;
         }
         // LOGGER.debug("Encountered type [{}] which can only be checked for null.", clazz.getName());
         return true;
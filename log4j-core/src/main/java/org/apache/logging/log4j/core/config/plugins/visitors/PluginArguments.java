@@ -0,0 +1,200 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.config.plugins.visitors;
+
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.config.Configuration;
+import org.apache.logging.log4j.core.config.ConfigurationException;
+import org.apache.logging.log4j.core.config.Node;
+import org.apache.logging.log4j.core.config.plugins.convert.TypeConverters;
+import org.apache.logging.log4j.core.config.plugins.validation.validators.RequiredValidator;
+import org.apache.logging.log4j.core.lookup.StrSubstitutor;
+import org.apache.logging.log4j.core.util.NameUtil;
+import org.apache.logging.log4j.status.StatusLogger;
+import org.apache.logging.log4j.util.Strings;
+import org.apache.logging.log4j.util.StringBuilders;
+
+/**
+ * Supplies the arguments of a plugin factory method to the factory classes generated by the
+ * {@link org.apache.logging.log4j.core.config.plugins.processor.PluginProcessor}. Each method does what the
+ * {@link PluginVisitor} of the corresponding annotation does, with the annotation values compiled into the call, and
+ * must be called in the order of the factory method parameters.
+ *
+ * @since 2.7
+ */
+public final class PluginArguments {
+
+    private static final Logger LOGGER = StatusLogger.getLogger();
+
+    private final Configuration configuration;
+    private final Node node;
+    private final LogEvent event;
+    private final StrSubstitutor substitutor;
+    private final String factoryName;
+    private final StringBuilder log = new StringBuilder();
+    private int index;
+    private boolean invalid;
+
+    /**
+     * Constructs the arguments of one plugin factory method invocation.
+     *
+     * @param configuration the configuration being built.
+     * @param node the node of the plugin to create.
+     * @param event the LogEvent used for substitutions, may be {@code null}.
+     * @param factoryName the name of the factory method, used in the debug output.
+     */
+    public PluginArguments(final Configuration configuration, final Node node, final LogEvent event,
+                           final String factoryName) {
+        this.configuration = configuration;
+        this.node = node;
+        this.event = event;
+        this.substitutor = configuration.getStrSubstitutor();
+        this.factoryName = factoryName;
+    }
+
+    private void next() {
+        log.append(index++ == 0 ? factoryName + "(" : ", ");
+    }
+
+    /**
+     * Returns the value of a {@link org.apache.logging.log4j.core.config.plugins.PluginAttribute}.
+     *
+     * @param name the attribute name.
+     * @param type the parameter type.
+     * @param defaultValue the default value for the parameter type; a String default is substituted first.
+     * @param sensitive whether the value must not appear in the debug output.
+     * @param aliases the aliases of the attribute name.
+     * @return the converted value.
+     */
+    public Object attribute(final String name, final Class<?> type, final Object defaultValue,
+                            final boolean sensitive, final String... aliases) {
+        next();
+        final String rawValue = AbstractPluginVisitor.removeAttributeValue(node.getAttributes(), name, aliases);
+        final String replacedValue = substitutor.replace(event, rawValue);
+        final Object value;
+        if (defaultValue instanceof String) {
+            value = TypeConverters.convert(replacedValue, type,
+                Strings.trimToNull(substitutor.replace(event, (String) defaultValue)));
+        } else {
+            value = TypeConverters.convert(replacedValue, type, defaultValue);
+        }
+        final Object debugValue = sensitive ? NameUtil.md5(value + PluginAttributeVisitor.class.getName()) : value;
+        StringBuilders.appendKeyDqValue(log, name, debugValue);
+        return value;
+    }
+
+    /**
+     * Returns the value of a {@link org.apache.logging.log4j.core.config.plugins.PluginElement}.
+     *
+     * @param name the element name.
+     * @param type the parameter type, an array type to receive all matching elements.
+     * @return the matching element or elements.
+     */
+    public Object element(final String name, final Class<?> type) {
+        next();
+        return PluginElementVisitor.visitElement(name, type, node, log);
+    }
+
+    /**
+     * Returns the value of a {@link org.apache.logging.log4j.core.config.plugins.PluginValue}.
+     *
+     * @param name the name used in the debug output.
+     * @return the substituted value of the node.
+     */
+    public String value(final String name) {
+        next();
+        final String rawValue = Strings.isNotEmpty(node.getValue()) ? node.getValue() :
+                AbstractPluginVisitor.removeAttributeValue(node.getAttributes(), "value");
+        final String value = substitutor.replace(event, rawValue);
+        StringBuilders.appendKeyDqValue(log, name, value);
+        return value;
+    }
+
+    /**
+     * Returns the value of a {@link org.apache.logging.log4j.core.config.plugins.PluginConfiguration}.
+     *
+     * @param type the parameter type.
+     * @return the configuration or {@code null} if it is not an instance of the parameter type.
+     */
+    public Object configuration(final Class<?> type) {
+        next();
+        if (type.isInstance(configuration)) {
+            log.append("Configuration");
+            if (configuration.getName() != null) {
+                log.append('(').append(configuration.getName()).append(')');
+            }
+            return configuration;
+        }
+        LOGGER.warn("Variable annotated with @PluginConfiguration is not compatible with type {}.",
+            configuration.getClass());
+        return null;
+    }
+
+    /**
+     * Returns the value of a {@link org.apache.logging.log4j.core.config.plugins.PluginNode}.
+     *
+     * @param type the parameter type.
+     * @return the node or {@code null} if it is not an instance of the parameter type.
+     */
+    public Object node(final Class<?> type) {
+        next();
+        if (type.isInstance(node)) {
+            log.append("Node=").append(node.getName());
+            return node;
+        }
+        LOGGER.warn("Variable annotated with @PluginNode is not compatible with the type {}.", node.getClass());
+        return null;
+    }
+
+    /**
+     * Checks a value against a {@link org.apache.logging.log4j.core.config.plugins.validation.constraints.Required}
+     * constraint of the last parameter.
+     *
+     * @param value the value of the last parameter.
+     * @param message the message of the constraint.
+     */
+    public void require(final Object value, final String message) {
+        if (!RequiredValidator.isPresent(value)) {
+            LOGGER.error(message + ": arg[" + (index - 1) + "](" + simpleName(value) + ")");
+            invalid = true;
+        }
+    }
+
+    private static String simpleName(final Object object) {
+        if (object == null) {
+            return "null";
+        }
+        final String cls = object.getClass().getName();
+        final int index = cls.lastIndexOf('.');
+        return index < 0 ? cls : cls.substring(index + 1);
+    }
+
+    /**
+     * Ends the arguments: logs them and throws an exception if a constraint was violated. Must be called before the
+     * factory method is invoked.
+     *
+     * @throws ConfigurationException if a constraint was violated.
+     */
+    public void validate() {
+        log.append(index == 0 ? factoryName + "()" : ")");
+        LOGGER.debug(log.toString());
+        if (invalid) {
+            throw new ConfigurationException("Arguments given for element " + node.getName() + " are invalid");
+        }
+    }
+}
@@ -40,9 +40,21 @@ public class PluginElementVisitor extends AbstractPluginVisitor<PluginElement> {
     @Override
     public Object visit(final Configuration configuration, final Node node, final LogEvent event,
                         final StringBuilder log) {
-        final String name = this.annotation.value();
-        if (this.conversionType.isArray()) {
-            setConversionType(this.conversionType.getComponentType());
+        return visitElement(this.annotation.value(), this.conversionType, node, log);
+    }
+
+    /**
+     * Removes the child nodes matching a plugin element from the given node and returns their objects.
+     *
+     * @param name the element name.
+     * @param type the type of the injected value, an array type to inject all matching children.
+     * @param node the node of the plugin being built.
+     * @param log the builder for the debug representation of the plugin arguments.
+     * @return the object of the matching child, an array of the objects of all matching children, or {@code null}.
+     */
+    static Object visitElement(final String name, final Class<?> type, final Node node, final StringBuilder log) {
+        if (type.isArray()) {
+            final Class<?> conversionType = type.getComponentType();
             final List<Object> values = new ArrayList<>();
             final Collection<Node> used = new ArrayList<>();
             log.append("={");
@@ -50,7 +62,7 @@ public class PluginElementVisitor extends AbstractPluginVisitor<PluginElement> {
             for (final Node child : node.getChildren()) {
                 final PluginType<?> childType = child.getType();
                 if (name.equalsIgnoreCase(childType.getElementName()) ||
-                    this.conversionType.isAssignableFrom(childType.getPluginClass())) {
+                    conversionType.isAssignableFrom(childType.getPluginClass())) {
                     if (!first) {
                         log.append(", ");
                     }
@@ -71,20 +83,20 @@ public class PluginElementVisitor extends AbstractPluginVisitor<PluginElement> {
             }
             log.append('}');
             // note that we need to return an empty array instead of null if the types are correct
-            if (!values.isEmpty() && !this.conversionType.isAssignableFrom(values.get(0).getClass())) {
+            if (!values.isEmpty() && !conversionType.isAssignableFrom(values.get(0).getClass())) {
                 LOGGER.error("Attempted to assign attribute {} to list of type {} which is incompatible with {}.",
-                    name, values.get(0).getClass(), this.conversionType);
+                    name, values.get(0).getClass(), conversionType);
                 return null;
             }
             node.getChildren().removeAll(used);
             // we need to use reflection here because values.toArray() will cause type errors at runtime
-            final Object[] array = (Object[]) Array.newInstance(this.conversionType, values.size());
+            final Object[] array = (Object[]) Array.newInstance(conversionType, values.size());
             for (int i = 0; i < array.length; i++) {
                 array[i] = values.get(i);
             }
             return array;
         }
-        final Node namedNode = findNamedNode(name, node.getChildren());
+        final Node namedNode = findNamedNode(name, type, node.getChildren());
         if (namedNode == null) {
             log.append(name).append("=null");
             return null;
@@ -94,11 +106,11 @@ public class PluginElementVisitor extends AbstractPluginVisitor<PluginElement> {
         return namedNode.getObject();
     }
 
-    private Node findNamedNode(final String name, final Iterable<Node> children) {
+    private static Node findNamedNode(final String name, final Class<?> type, final Iterable<Node> children) {
         for (final Node child : children) {
             final PluginType<?> childType = child.getType();
             if (name.equalsIgnoreCase(childType.getElementName()) ||
-                this.conversionType.isAssignableFrom(childType.getPluginClass())) {
+                type.isAssignableFrom(childType.getPluginClass())) {
                 // FIXME: check child.getObject() for null?
                 // doing so would be more consistent with the array version
                 return child;
@@ -20,6 +20,7 @@ import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -29,6 +30,10 @@ import javax.xml.XMLConstants;
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 import javax.xml.transform.Source;
 import javax.xml.transform.stream.StreamSource;
 import javax.xml.validation.Schema;
@@ -38,6 +43,7 @@ import javax.xml.validation.Validator;
 import org.apache.logging.log4j.core.LoggerContext;
 import org.apache.logging.log4j.core.config.AbstractConfiguration;
 import org.apache.logging.log4j.core.config.Configuration;
+import org.apache.logging.log4j.core.config.ConfigurationSnapshot;
 import org.apache.logging.log4j.core.config.ConfigurationSource;
 import org.apache.logging.log4j.core.config.ConfiguratonFileWatcher;
 import org.apache.logging.log4j.core.config.Node;
@@ -50,6 +56,7 @@ import org.apache.logging.log4j.core.util.FileWatcher;
 import org.apache.logging.log4j.core.util.Loader;
 import org.apache.logging.log4j.core.util.Patterns;
 import org.apache.logging.log4j.core.util.Throwables;
+import org.apache.logging.log4j.util.PropertiesUtil;
 import org.w3c.dom.Attr;
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
@@ -61,25 +68,41 @@ import org.xml.sax.SAXException;
 
 /**
  * Creates a Node hierarchy from an XML file.
+ * <p>
+ * By default the file is parsed into a DOM which is then walked to create the Nodes. When the
+ * {@value #STREAMING_PROPERTY} system property is {@code true}, files that do not use XInclude are instead read with a
+ * StAX stream reader that creates the Nodes directly, without holding the whole document in memory.
+ * </p>
  */
 public class XmlConfiguration extends AbstractConfiguration implements Reconfigurable {
 
+    /**
+     * System property that enables the streaming parser.
+     *
+     * @since 2.7
+     */
+    public static final String STREAMING_PROPERTY = "log4j.XmlConfiguration.streaming";
+
     private static final String XINCLUDE_FIXUP_LANGUAGE =
             "http://apache.org/xml/features/xinclude/fixup-language";
     private static final String XINCLUDE_FIXUP_BASE_URIS =
             "http://apache.org/xml/features/xinclude/fixup-base-uris";
     private static final String[] VERBOSE_CLASSES = new String[] {ResolverUtil.class.getName()};
     private static final String LOG4J_XSD = "Log4j-config.xsd";
+    private static final String XINCLUDE_NAMESPACE = "http://www.w3.org/2001/XInclude";
 
     private final List<Status> status = new ArrayList<>();
     private Element rootElement;
     private boolean strict;
     private String schemaResource;
+    private ConfigurationSnapshot snapshot;
+    private boolean streamed;
 
     public XmlConfiguration(final LoggerContext loggerContext, final ConfigurationSource configSource) {
         super(loggerContext, configSource);
         final File configFile = configSource.getFile();
         byte[] buffer = null;
+        XMLStreamReader reader = null;
 
         try {
             final InputStream configStream = configSource.getInputStream();
@@ -88,27 +111,23 @@ public class XmlConfiguration extends AbstractConfiguration implements Reconfigu
             } finally {
                 Closer.closeSilently(configStream);
             }
-            final InputSource source = new InputSource(new ByteArrayInputStream(buffer));
-            source.setSystemId(configSource.getLocation());
-            final DocumentBuilder documentBuilder = newDocumentBuilder(true);
-            Document document;
-            try {
-                document = documentBuilder.parse(source);
-            } catch (final Exception e) {
-                // LOG4J2-1127
-                final Throwable throwable = Throwables.getRootCause(e);
-                if (throwable instanceof UnsupportedOperationException) {
-                    LOGGER.warn(
-                            "The DocumentBuilder {} does not support an operation: {}."
-                            + "Trying again without XInclude...",
-                            documentBuilder, e);
-                    document = newDocumentBuilder(false).parse(source);
-                } else {
-                    throw e;
-                }
+            // Included documents are not part of the snapshot key, so configurations that use XInclude are parsed.
+            // The stream reader does not support XInclude either.
+            final boolean xInclude = new String(buffer, StandardCharsets.UTF_8).contains(XINCLUDE_NAMESPACE);
+            if (!xInclude) {
+                snapshot = ConfigurationSnapshot.forConfiguration(configSource, buffer);
+            }
+            final Map<String, String> attrs;
+            if (snapshot != null && snapshot.load()) {
+                attrs = rootNode.getAttributes();
+                attrs.putAll(snapshot.getRootAttributes());
+            } else if (!xInclude && PropertiesUtil.getProperties().getBooleanProperty(STREAMING_PROPERTY)) {
+                reader = newStreamReader(buffer, configSource);
+                attrs = processAttributes(rootNode, reader, -1);
+            } else {
+                rootElement = parse(buffer, configSource);
+                attrs = processAttributes(rootNode, rootElement);
             }
-            rootElement = document.getDocumentElement();
-            final Map<String, String> attrs = processAttributes(rootNode, rootElement);
             final StatusConfiguration statusConfig = new StatusConfiguration().withVerboseClasses(VERBOSE_CLASSES)
                     .withStatus(getDefaultStatus());
             for (final Map.Entry<String, String> entry : attrs.entrySet()) {
@@ -144,10 +163,26 @@ public class XmlConfiguration extends AbstractConfiguration implements Reconfigu
                 }
             }
             statusConfig.initialize();
-        } catch (final SAXException | IOException | ParserConfigurationException e) {
+            if (reader != null) {
+                // The root attributes name the packages to scan for plugins, the stream reader creates the Nodes with
+                // their plugin types as it goes.
+                pluginManager.collectPlugins(pluginPackages);
+                constructHierarchy(rootNode, reader);
+                streamed = true;
+            }
+        } catch (final SAXException | IOException | ParserConfigurationException | XMLStreamException e) {
+            rootNode.getChildren().clear();
             LOGGER.error("Error parsing " + configSource.getLocation(), e);
+        } finally {
+            if (reader != null) {
+                try {
+                    reader.close();
+                } catch (final XMLStreamException e) {
+                    LOGGER.debug("Unable to close stream reader for {}", configSource.getLocation(), e);
+                }
+            }
         }
-        if (strict && schemaResource != null && buffer != null) {
+        if (strict && schemaResource != null && buffer != null && (snapshot == null || !snapshot.isLoaded())) {
             try (InputStream is = Loader.getResourceAsStream(schemaResource, XmlConfiguration.class.getClassLoader())) {
                 if (is != null) {
                     final Source src = new StreamSource(is, LOG4J_XSD);
@@ -179,6 +214,41 @@ public class XmlConfiguration extends AbstractConfiguration implements Reconfigu
         }
     }
 
+    private static Element parse(final byte[] buffer, final ConfigurationSource configSource)
+            throws SAXException, IOException, ParserConfigurationException {
+        final InputSource source = new InputSource(new ByteArrayInputStream(buffer));
+        source.setSystemId(configSource.getLocation());
+        final DocumentBuilder documentBuilder = newDocumentBuilder(true);
+        Document document;
+        try {
+            document = documentBuilder.parse(source);
+        } catch (final Exception e) {
+            // LOG4J2-1127
+            final Throwable throwable = Throwables.getRootCause(e);
+            if (throwable instanceof UnsupportedOperationException) {
+                LOGGER.warn(
+                        "The DocumentBuilder {} does not support an operation: {}."
+                        + "Trying again without XInclude...",
+                        documentBuilder, e);
+                document = newDocumentBuilder(false).parse(source);
+            } else {
+                throw e;
+            }
+        }
+        return document.getDocumentElement();
+    }
+
+    private static XMLStreamReader newStreamReader(final byte[] buffer, final ConfigurationSource configSource)
+            throws XMLStreamException {
+        final XMLInputFactory factory = XMLInputFactory.newInstance();
+        final XMLStreamReader reader = factory.createXMLStreamReader(configSource.getLocation(),
+                new ByteArrayInputStream(buffer));
+        while (reader.next() != XMLStreamConstants.START_ELEMENT) {
+            // skip the prolog
+        }
+        return reader;
+    }
+
     /**
      * Creates a new DocumentBuilder suitable for parsing a configuration file.
      * 
@@ -235,17 +305,26 @@ public class XmlConfiguration extends AbstractConfiguration implements Reconfigu
 
     @Override
     public void setup() {
-        if (rootElement == null) {
-            LOGGER.error("No logging configuration");
+        if (snapshot != null && snapshot.isLoaded()) {
+            snapshot.restore(rootNode, pluginManager);
             return;
         }
-        constructHierarchy(rootNode, rootElement);
+        if (!streamed) {
+            if (rootElement == null) {
+                LOGGER.error("No logging configuration");
+                return;
+            }
+            constructHierarchy(rootNode, rootElement);
+        }
         if (status.size() > 0) {
             for (final Status s : status) {
                 LOGGER.error("Error processing element {} ({}): {}", s.name, s.element, s.errorType);
             }
             return;
         }
+        if (snapshot != null) {
+            snapshot.save(rootNode);
+        }
         rootElement = null;
     }
 
@@ -257,7 +336,8 @@ public class XmlConfiguration extends AbstractConfiguration implements Reconfigu
                 return null;
             }
             final XmlConfiguration config = new XmlConfiguration(getLoggerContext(), source);
-            return config.rootElement == null ? null : config;
+            return config.rootElement == null && !config.streamed
+                    && (config.snapshot == null || !config.snapshot.isLoaded()) ? null : config;
         } catch (final IOException ex) {
             LOGGER.error("Cannot locate file {}", getConfigurationSource(), ex);
         }
@@ -282,7 +362,7 @@ public class XmlConfiguration extends AbstractConfiguration implements Reconfigu
                     if (!childNode.hasChildren() && value != null) {
                         node.getAttributes().put(name, value);
                     } else {
-                        status.add(new Status(name, element, ErrorType.CLASS_NOT_FOUND));
+                        status.add(new Status(name, element.getTagName(), ErrorType.CLASS_NOT_FOUND));
                     }
                 } else {
                     children.add(childNode);
@@ -299,20 +379,116 @@ public class XmlConfiguration extends AbstractConfiguration implements Reconfigu
         }
     }
 
+    /**
+     * Creates the children of the given node from the stream reader, which is positioned at the start of the element
+     * of the node, and leaves the reader at the end of that element.
+     */
+    private void constructHierarchy(final Node node, final XMLStreamReader reader) throws XMLStreamException {
+        final String elementName = getQualifiedName(reader.getPrefix(), reader.getLocalName());
+        final StringBuilder buffer = new StringBuilder();
+        final List<Node> children = node.getChildren();
+        while (reader.hasNext()) {
+            switch (reader.next()) {
+            case XMLStreamConstants.START_ELEMENT:
+                final int typeIndex = getTypeIndex(reader);
+                final String name = typeIndex < 0 ? getQualifiedName(reader.getPrefix(), reader.getLocalName())
+                        : reader.getAttributeValue(typeIndex);
+                final PluginType<?> type = pluginManager.getPluginType(name);
+                final Node childNode = new Node(node, name, type);
+                processAttributes(childNode, reader, typeIndex);
+                constructHierarchy(childNode, reader);
+                if (type == null) {
+                    final String value = childNode.getValue();
+                    if (!childNode.hasChildren() && value != null) {
+                        node.getAttributes().put(name, value);
+                    } else {
+                        status.add(new Status(name, elementName, ErrorType.CLASS_NOT_FOUND));
+                    }
+                } else {
+                    children.add(childNode);
+                }
+                break;
+            case XMLStreamConstants.CHARACTERS:
+            case XMLStreamConstants.CDATA:
+            case XMLStreamConstants.SPACE:
+                buffer.append(reader.getText());
+                break;
+            case XMLStreamConstants.END_ELEMENT:
+                final String text = buffer.toString().trim();
+                if (text.length() > 0 || (!node.hasChildren() && !node.isRoot())) {
+                    node.setValue(text);
+                }
+                return;
+            default:
+                break;
+            }
+        }
+    }
+
+    /**
+     * Returns the index of the attribute that names the plugin type of the current element in strict mode, or -1 if
+     * the element name is the plugin type. As in {@link #getType(Element)}, the first type attribute in name order is
+     * used and the others are kept.
+     */
+    private int getTypeIndex(final XMLStreamReader reader) {
+        int index = -1;
+        if (strict) {
+            String typeName = null;
+            for (int i = 0; i < reader.getAttributeCount(); ++i) {
+                final String name = getQualifiedName(reader.getAttributePrefix(i), reader.getAttributeLocalName(i));
+                if (name.equalsIgnoreCase("type") && (typeName == null || name.compareTo(typeName) < 0)) {
+                    typeName = name;
+                    index = i;
+                }
+            }
+        }
+        return index;
+    }
+
+    private static String getQualifiedName(final String prefix, final String localName) {
+        return prefix == null || prefix.isEmpty() ? localName : prefix + ':' + localName;
+    }
+
+    /**
+     * Adds the attributes of the current element to the node, except the one at the given index. The namespace
+     * declarations are added as {@code xmlns} attributes, as the DOM parser reports them.
+     */
+    private static Map<String, String> processAttributes(final Node node, final XMLStreamReader reader,
+                                                         final int skippedIndex) {
+        final Map<String, String> attributes = node.getAttributes();
+        for (int i = 0; i < reader.getNamespaceCount(); ++i) {
+            final String prefix = reader.getNamespacePrefix(i);
+            final String uri = reader.getNamespaceURI(i);
+            attributes.put(prefix == null || prefix.isEmpty() ? "xmlns" : "xmlns:" + prefix, uri == null ? "" : uri);
+        }
+        for (int i = 0; i < reader.getAttributeCount(); ++i) {
+            final String name = getQualifiedName(reader.getAttributePrefix(i), reader.getAttributeLocalName(i));
+            if (name.equals("xml:base") || i == skippedIndex) {
+                continue;
+            }
+            attributes.put(name, reader.getAttributeValue(i));
+        }
+        return attributes;
+    }
+
     private String getType(final Element element) {
         if (strict) {
             final NamedNodeMap attrs = element.getAttributes();
+            Attr typeAttr = null;
             for (int i = 0; i < attrs.getLength(); ++i) {
                 final org.w3c.dom.Node w3cNode = attrs.item(i);
                 if (w3cNode instanceof Attr) {
                     final Attr attr = (Attr) w3cNode;
-                    if (attr.getName().equalsIgnoreCase("type")) {
-                        final String type = attr.getValue();
-                        attrs.removeNamedItem(attr.getName());
-                        return type;
+                    if (attr.getName().equalsIgnoreCase("type")
+                            && (typeAttr == null || attr.getName().compareTo(typeAttr.getName()) < 0)) {
+                        typeAttr = attr;
                     }
                 }
             }
+            if (typeAttr != null) {
+                attrs.removeNamedItem(typeAttr.getName());
+                return typeAttr.getValue();
+            }
         }
         return element.getTagName();
     }
@@ -350,11 +526,11 @@ public class XmlConfiguration extends AbstractConfiguration implements Reconfigu
      * Status for recording errors.
      */
     private static class Status {
-        private final Element element;
+        private final String element;
         private final String name;
         private final ErrorType errorType;
 
-        public Status(final String name, final Element element, final ErrorType errorType) {
+        public Status(final String name, final String element, final ErrorType errorType) {
             this.name = name;
             this.element = element;
             this.errorType = errorType;
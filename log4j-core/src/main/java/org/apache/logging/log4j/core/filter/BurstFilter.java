@@ -17,14 +17,15 @@
 
 package org.apache.logging.log4j.core.filter;
 
-import java.util.Queue;
-import java.util.concurrent.ConcurrentLinkedQueue;
-import java.util.concurrent.DelayQueue;
-import java.util.concurrent.Delayed;
-import java.util.concurrent.TimeUnit;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.Marker;
+import org.apache.logging.log4j.ThreadContext;
 import org.apache.logging.log4j.core.Filter;
 import org.apache.logging.log4j.core.LogEvent;
 import org.apache.logging.log4j.core.Logger;
@@ -32,6 +33,8 @@ import org.apache.logging.log4j.core.config.Node;
 import org.apache.logging.log4j.core.config.plugins.Plugin;
 import org.apache.logging.log4j.core.config.plugins.PluginBuilderAttribute;
 import org.apache.logging.log4j.core.config.plugins.PluginBuilderFactory;
+import org.apache.logging.log4j.core.util.NanoClock;
+import org.apache.logging.log4j.core.util.SystemNanoClock;
 import org.apache.logging.log4j.message.Message;
 
 /**
@@ -51,18 +54,42 @@ import org.apache.logging.log4j.message.Message;
  * &nbsp;&lt;/filters&gt;<br>
  * &lt;/Console&gt;<br>
  * </code><br>
+ * <p>
+ * The filter is implemented as a token bucket holding up to <code>maxBurst</code> tokens that is refilled at
+ * <code>rate</code> tokens per second. The state of a bucket is a single atomic value, so filtering an event never
+ * blocks. When a <code>keyType</code> is configured, each distinct key (logger name, marker name, ThreadContext value
+ * or message format) gets its own bucket so that one chatty component cannot use up the budget of the others. The
+ * number of per-key buckets is bounded by <code>maxKeys</code>; events for keys that do not fit share the default
+ * bucket.
+ * </p>
  */
 
 @Plugin(name = "BurstFilter", category = Node.CATEGORY, elementType = Filter.ELEMENT_TYPE, printObject = true)
 public final class BurstFilter extends AbstractFilter {
 
+    /**
+     * Determines which part of an event is used to select the token bucket it is charged to.
+     */
+    public enum KeyType {
+        /** All events share a single bucket. */
+        NONE,
+        /** One bucket per logger name. */
+        LOGGER,
+        /** One bucket per marker name. Events without a marker use the default bucket. */
+        MARKER,
+        /** One bucket per value of the ThreadContext key named by <code>contextKey</code>. */
+        CONTEXT,
+        /** One bucket per message format string. */
+        MESSAGE
+    }
+
     private static final long NANOS_IN_SECONDS = 1000000000;
 
     private static final int DEFAULT_RATE = 10;
 
     private static final int DEFAULT_RATE_MULTIPLE = 100;
 
-    private static final int HASH_SHIFT = 32;
+    private static final int DEFAULT_MAX_KEYS = 1000;
 
     /**
      * Level of messages to be filtered. Anything at or below this level will be
@@ -72,47 +99,135 @@ public final class BurstFilter extends AbstractFilter {
      */
     private final Level level;
 
+    private final long maxBurst;
+
+    private final long nanosPerToken;
+
     private final long burstInterval;
 
-    private final DelayQueue<LogDelay> history = new DelayQueue<>();
+    private final KeyType keyType;
 
-    private final Queue<LogDelay> available = new ConcurrentLinkedQueue<>();
+    private final String contextKey;
 
-    static LogDelay createLogDelay(final long expireTime) {
-        return new LogDelay(expireTime);
-    }
-    
-    private BurstFilter(final Level level, final float rate, final long maxBurst, final Result onMatch,
-                        final Result onMismatch) {
+    private final int maxKeys;
+
+    private final NanoClock nanoClock;
+
+    private final TokenBucket defaultBucket;
+
+    private final ConcurrentMap<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+
+    private final AtomicLong nextPurge;
+
+    private BurstFilter(final Level level, final float rate, final long maxBurst, final KeyType keyType,
+                        final String contextKey, final int maxKeys, final NanoClock nanoClock,
+                        final Result onMatch, final Result onMismatch) {
         super(onMatch, onMismatch);
         this.level = level;
-        this.burstInterval = (long) (NANOS_IN_SECONDS * (maxBurst / rate));
-        for (int i = 0; i < maxBurst; ++i) {
-            available.add(createLogDelay(0));
-        }
+        this.maxBurst = maxBurst;
+        this.nanosPerToken = Math.max(1, (long) (NANOS_IN_SECONDS / rate));
+        this.burstInterval = nanosPerToken * maxBurst;
+        this.keyType = keyType;
+        this.contextKey = contextKey;
+        this.maxKeys = maxKeys;
+        this.nanoClock = nanoClock;
+        final long now = nanoClock.nanoTime();
+        this.defaultBucket = new TokenBucket(now - burstInterval);
+        this.nextPurge = new AtomicLong(now);
     }
 
     @Override
     public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
                          final Object... params) {
-        return filter(level);
+        return filter(level, logger.getName(), marker, null, msg);
     }
 
     @Override
     public Result filter(final Logger logger, final Level level, final Marker marker, final Object msg,
                          final Throwable t) {
-        return filter(level);
+        return filter(level, logger.getName(), marker, null, msg == null ? null : msg.toString());
     }
 
     @Override
     public Result filter(final Logger logger, final Level level, final Marker marker, final Message msg,
                          final Throwable t) {
-        return filter(level);
+        return filter(level, logger.getName(), marker, null, msg == null ? null : msg.getFormat());
     }
 
     @Override
     public Result filter(final LogEvent event) {
-        return filter(event.getLevel());
+        final Message msg = event.getMessage();
+        return filter(event.getLevel(), event.getLoggerName(), event.getMarker(), event.getContextMap(),
+                msg == null ? null : msg.getFormat());
+    }
+
+    @Override
+    public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
+            final Object p0) {
+        return filter(level, logger.getName(), marker, null, msg);
+    }
+
+    @Override
+    public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
+            final Object p0, final Object p1) {
+        return filter(level, logger.getName(), marker, null, msg);
+    }
+
+    @Override
+    public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
+            final Object p0, final Object p1, final Object p2) {
+        return filter(level, logger.getName(), marker, null, msg);
+    }
+
+    @Override
+    public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
+            final Object p0, final Object p1, final Object p2, final Object p3) {
+        return filter(level, logger.getName(), marker, null, msg);
+    }
+
+    @Override
+    public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
+            final Object p0, final Object p1, final Object p2, final Object p3,
+            final Object p4) {
+        return filter(level, logger.getName(), marker, null, msg);
+    }
+
+    @Override
+    public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
+            final Object p0, final Object p1, final Object p2, final Object p3,
+            final Object p4, final Object p5) {
+        return filter(level, logger.getName(), marker, null, msg);
+    }
+
+    @Override
+    public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
+            final Object p0, final Object p1, final Object p2, final Object p3,
+            final Object p4, final Object p5, final Object p6) {
+        return filter(level, logger.getName(), marker, null, msg);
+    }
+
+    @Override
+    public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
+            final Object p0, final Object p1, final Object p2, final Object p3,
+            final Object p4, final Object p5, final Object p6,
+            final Object p7) {
+        return filter(level, logger.getName(), marker, null, msg);
+    }
+
+    @Override
+    public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
+            final Object p0, final Object p1, final Object p2, final Object p3,
+            final Object p4, final Object p5, final Object p6,
+            final Object p7, final Object p8) {
+        return filter(level, logger.getName(), marker, null, msg);
+    }
+
+    @Override
+    public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
+            final Object p0, final Object p1, final Object p2, final Object p3,
+            final Object p4, final Object p5, final Object p6,
+            final Object p7, final Object p8, final Object p9) {
+        return filter(level, logger.getName(), marker, null, msg);
     }
 
     /**
@@ -120,25 +235,72 @@ public final class BurstFilter extends AbstractFilter {
      * maximum burst of log statements has been exceeded.
      *
      * @param level The log level.
+     * @param loggerName The name of the logger.
+     * @param marker The marker, may be null.
+     * @param contextMap The context map of the event, or null to use the current ThreadContext.
+     * @param format The message format string, may be null.
      * @return The onMatch value if the filter passes, onMismatch otherwise.
      */
-    private Result filter(final Level level) {
+    private Result filter(final Level level, final String loggerName, final Marker marker,
+                          final Map<String, String> contextMap, final String format) {
         if (this.level.isMoreSpecificThan(level)) {
-            LogDelay delay = history.poll();
-            while (delay != null) {
-                available.add(delay);
-                delay = history.poll();
-            }
-            delay = available.poll();
-            if (delay != null) {
-                delay.setDelay(burstInterval);
-                history.add(delay);
-                return onMatch;
-            }
-            return onMismatch;
+            final long now = nanoClock.nanoTime();
+            final TokenBucket bucket = getBucket(key(loggerName, marker, contextMap, format), now);
+            return bucket.tryAcquire(now) ? onMatch : onMismatch;
         }
         return onMatch;
+    }
 
+    private String key(final String loggerName, final Marker marker, final Map<String, String> contextMap,
+                       final String format) {
+        switch (keyType) {
+        case LOGGER:
+            return loggerName;
+        case MARKER:
+            return marker == null ? null : marker.getName();
+        case CONTEXT:
+            return contextMap == null ? ThreadContext.get(contextKey) : contextMap.get(contextKey);
+        case MESSAGE:
+            return format;
+        default:
+            return null;
+        }
+    }
+
+    private TokenBucket getBucket(final String key, final long now) {
+        if (key == null) {
+            return defaultBucket;
+        }
+        final TokenBucket bucket = buckets.get(key);
+        if (bucket != null) {
+            return bucket;
+        }
+        if (buckets.size() >= maxKeys && !purgeIdleBuckets(now)) {
+            return defaultBucket;
+        }
+        final TokenBucket created = new TokenBucket(now - burstInterval);
+        final TokenBucket existing = buckets.putIfAbsent(key, created);
+        return existing == null ? created : existing;
+    }
+
+    /**
+     * Removes the buckets that have been refilled completely; they behave exactly like a newly created bucket.
+     * At most one purge is done per token interval so that a full map of busy keys does not cause a scan per event.
+     *
+     * @param now the current time in nanoseconds.
+     * @return true if there is room for a new bucket after the purge.
+     */
+    private boolean purgeIdleBuckets(final long now) {
+        final long next = nextPurge.get();
+        if (now - next < 0 || !nextPurge.compareAndSet(next, now + nanosPerToken)) {
+            return false;
+        }
+        for (final Iterator<TokenBucket> iter = buckets.values().iterator(); iter.hasNext();) {
+            if (iter.next().isFull(now)) {
+                iter.remove();
+            }
+        }
+        return buckets.size() < maxKeys;
     }
 
     /**
@@ -146,73 +308,74 @@ public final class BurstFilter extends AbstractFilter {
      * @return The number of available slots.
      */
     public int getAvailable() {
-        return available.size();
+        return (int) defaultBucket.available(nanoClock.nanoTime());
+    }
+
+    /**
+     * Returns the number of available slots for the given key. Used for unit testing.
+     * @param key The bucket key.
+     * @return The number of available slots.
+     */
+    public int getAvailable(final String key) {
+        final TokenBucket bucket = key == null ? null : buckets.get(key);
+        return bucket == null ? getAvailable() : (int) bucket.available(nanoClock.nanoTime());
     }
 
     /**
      * Clear the history. Used for unit testing.
      */
     public void clear() {
-        for (final LogDelay delay : history) {
-            history.remove(delay);
-            available.add(delay);
-        }
+        defaultBucket.fill(nanoClock.nanoTime());
+        buckets.clear();
     }
 
     @Override
     public String toString() {
-        return "level=" + level.toString() + ", interval=" + burstInterval + ", max=" + history.size();
+        return "level=" + level.toString() + ", interval=" + burstInterval + ", max=" + maxBurst + ", keyType="
+                + keyType;
     }
 
     /**
-     * Delay object to represent each log event that has occurred within the timespan.
-     * 
-     * Consider this class private, package visibility for testing.
+     * A lock-free token bucket. Instead of a token count, the bucket stores the (virtual) time at which it was last
+     * empty; the number of tokens is the time elapsed since then divided by the time it takes to create a token,
+     * capped at <code>maxBurst</code>. Taking a token advances that time by one token interval.
      */
-    private static class LogDelay implements Delayed {
-
-        LogDelay(final long expireTime) {
-            this.expireTime = expireTime;
-        }
+    private final class TokenBucket {
 
-        private long expireTime;
+        private final AtomicLong emptyTime;
 
-        public void setDelay(final long delay) {
-            this.expireTime = delay + System.nanoTime();
+        TokenBucket(final long emptyTime) {
+            this.emptyTime = new AtomicLong(emptyTime);
         }
 
-        @Override
-        public long getDelay(final TimeUnit timeUnit) {
-            return timeUnit.convert(expireTime - System.nanoTime(), TimeUnit.NANOSECONDS);
+        boolean tryAcquire(final long now) {
+            for (;;) {
+                final long current = emptyTime.get();
+                final long next = start(current, now) + nanosPerToken;
+                if (next - now > 0) {
+                    return false;
+                }
+                if (emptyTime.compareAndSet(current, next)) {
+                    return true;
+                }
+            }
         }
 
-        @Override
-        public int compareTo(final Delayed delayed) {
-            final long diff = this.expireTime - ((LogDelay) delayed).expireTime;
-            return Long.signum(diff);
+        long available(final long now) {
+            return (now - start(emptyTime.get(), now)) / nanosPerToken;
         }
 
-        @Override
-        public boolean equals(final Object o) {
-            if (this == o) {
-                return true;
-            }
-            if (o == null || getClass() != o.getClass()) {
-                return false;
-            }
-
-            final LogDelay logDelay = (LogDelay) o;
-
-            if (expireTime != logDelay.expireTime) {
-                return false;
-            }
+        boolean isFull(final long now) {
+            return emptyTime.get() - (now - burstInterval) <= 0;
+        }
 
-            return true;
+        void fill(final long now) {
+            emptyTime.set(now - burstInterval);
         }
 
-        @Override
-        public int hashCode() {
-            return (int) (expireTime ^ (expireTime >>> HASH_SHIFT));
+        private long start(final long current, final long now) {
+            final long full = now - burstInterval;
+            return current - full < 0 ? full : current;
         }
     }
 
@@ -232,12 +395,23 @@ public final class BurstFilter extends AbstractFilter {
         @PluginBuilderAttribute
         private long maxBurst;
 
+        @PluginBuilderAttribute
+        private KeyType keyType = KeyType.NONE;
+
+        @PluginBuilderAttribute
+        private String contextKey;
+
+        @PluginBuilderAttribute
+        private int maxKeys = DEFAULT_MAX_KEYS;
+
         @PluginBuilderAttribute
         private Result onMatch = Result.NEUTRAL;
 
         @PluginBuilderAttribute
         private Result onMismatch = Result.DENY;
 
+        private NanoClock nanoClock = new SystemNanoClock();
+
         /**
          * Sets the logging level to use.
          */
@@ -263,6 +437,30 @@ public final class BurstFilter extends AbstractFilter {
             return this;
         }
 
+        /**
+         * Sets what the rate is limited by. The default is {@link KeyType#NONE}, a single rate for all events.
+         */
+        public Builder setKeyType(final KeyType keyType) {
+            this.keyType = keyType;
+            return this;
+        }
+
+        /**
+         * Sets the ThreadContext key whose value selects the bucket when the key type is {@link KeyType#CONTEXT}.
+         */
+        public Builder setContextKey(final String contextKey) {
+            this.contextKey = contextKey;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of keys that are rate limited separately. Defaults to 1000.
+         */
+        public Builder setMaxKeys(final int maxKeys) {
+            this.maxKeys = maxKeys;
+            return this;
+        }
+
         /**
          * Sets the Result to return when the filter matches. Defaults to Result.NEUTRAL.
          */
@@ -279,6 +477,14 @@ public final class BurstFilter extends AbstractFilter {
             return this;
         }
 
+        /**
+         * Sets the clock used to refill the buckets. Used for unit testing.
+         */
+        Builder setNanoClock(final NanoClock nanoClock) {
+            this.nanoClock = nanoClock;
+            return this;
+        }
+
         @Override
         public BurstFilter build() {
             if (this.rate <= 0) {
@@ -287,7 +493,18 @@ public final class BurstFilter extends AbstractFilter {
             if (this.maxBurst <= 0) {
                 this.maxBurst = (long) (this.rate * DEFAULT_RATE_MULTIPLE);
             }
-            return new BurstFilter(this.level, this.rate, this.maxBurst, this.onMatch, this.onMismatch);
+            if (this.keyType == null) {
+                this.keyType = KeyType.NONE;
+            }
+            if (this.keyType == KeyType.CONTEXT && this.contextKey == null) {
+                LOGGER.warn("BurstFilter keyType CONTEXT requires a contextKey, rate limiting all events together");
+                this.keyType = KeyType.NONE;
+            }
+            if (this.maxKeys < 0) {
+                this.maxKeys = 0;
+            }
+            return new BurstFilter(this.level, this.rate, this.maxBurst, this.keyType, this.contextKey, this.maxKeys,
+                    this.nanoClock, this.onMatch, this.onMismatch);
         }
     }
 }
@@ -0,0 +1,411 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.filter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.Marker;
+import org.apache.logging.log4j.ThreadContext;
+import org.apache.logging.log4j.core.Filter;
+import org.apache.logging.log4j.core.Filter.Result;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.Logger;
+import org.apache.logging.log4j.message.Message;
+
+/**
+ * Compiles the filters of a {@link CompositeFilter} for faster evaluation.
+ * <p>
+ * Consecutive {@link ThresholdFilter}s, {@link MarkerFilter}s and single key {@link ThreadContextMapFilter}s are
+ * replaced by a group that computes the result of the whole run at once: level thresholds are folded into a table
+ * indexed by level, marker names into a hash lookup and context values into one map lookup per key. Each group
+ * returns the result of the first filter of the run that would not have returned NEUTRAL, so the semantics of
+ * evaluating the filters one after the other are preserved. All other filters are evaluated as they are.
+ * </p>
+ */
+final class CompiledFilters {
+
+    private CompiledFilters() {
+    }
+
+    /**
+     * Returns the filters to evaluate in place of the given filters.
+     *
+     * @param filters The filters of a CompositeFilter.
+     * @return An array of filters that returns the same results as the given filters.
+     */
+    static Filter[] compile(final Filter[] filters) {
+        final List<Filter> compiled = new ArrayList<>(filters.length);
+        int start = 0;
+        while (start < filters.length) {
+            final Class<?> kind = kindOf(filters[start]);
+            int end = start + 1;
+            if (kind != null) {
+                while (end < filters.length && kindOf(filters[end]) == kind) {
+                    end++;
+                }
+            }
+            if (end - start == 1) {
+                compiled.add(filters[start]);
+            } else {
+                final Filter[] run = Arrays.copyOfRange(filters, start, end);
+                if (kind == ThresholdFilter.class) {
+                    compiled.add(new ThresholdGroup(run));
+                } else if (kind == MarkerFilter.class) {
+                    compiled.add(new MarkerGroup(run));
+                } else {
+                    compiled.add(new ContextMapGroup(run));
+                }
+            }
+            start = end;
+        }
+        return compiled.size() == filters.length ? filters : compiled.toArray(new Filter[compiled.size()]);
+    }
+
+    private static Class<?> kindOf(final Filter filter) {
+        if (filter instanceof ThresholdFilter || filter instanceof MarkerFilter) {
+            return filter.getClass();
+        }
+        if (filter != null && filter.getClass() == ThreadContextMapFilter.class
+                && ((ThreadContextMapFilter) filter).getSingleKey() != null) {
+            return ThreadContextMapFilter.class;
+        }
+        return null;
+    }
+
+    private static int firstNonNeutral(final Result[] results) {
+        for (int i = 0; i < results.length; i++) {
+            if (results[i] != Result.NEUTRAL) {
+                return i;
+            }
+        }
+        return results.length;
+    }
+
+    /**
+     * A compiled run of filters whose result only depends on the level, marker and context map of the event.
+     */
+    abstract static class Group extends AbstractFilter {
+
+        private final Filter[] filters;
+
+        Group(final Filter[] filters) {
+            this.filters = filters;
+        }
+
+        /**
+         * Returns the result of the first filter of the run that does not return NEUTRAL.
+         *
+         * @param level The event level.
+         * @param marker The event marker, may be null.
+         * @param contextMap The context map of the event, or null to use the current ThreadContext.
+         * @return The result of the run.
+         */
+        abstract Result filter(Level level, Marker marker, Map<String, String> contextMap);
+
+        @Override
+        public Result filter(final LogEvent event) {
+            final Map<String, String> contextMap = event.getContextMap();
+            return filter(event.getLevel(), event.getMarker(),
+                    contextMap == null ? Collections.<String, String>emptyMap() : contextMap);
+        }
+
+        @Override
+        public Result filter(final Logger logger, final Level level, final Marker marker, final Message msg,
+                             final Throwable t) {
+            return filter(level, marker, null);
+        }
+
+        @Override
+        public Result filter(final Logger logger, final Level level, final Marker marker, final Object msg,
+                             final Throwable t) {
+            return filter(level, marker, null);
+        }
+
+        @Override
+        public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
+                             final Object... params) {
+            return filter(level, marker, null);
+        }
+
+        @Override
+        public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
+                final Object p0) {
+            return filter(level, marker, null);
+        }
+
+        @Override
+        public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
+                final Object p0, final Object p1) {
+            return filter(level, marker, null);
+        }
+
+        @Override
+        public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
+                final Object p0, final Object p1, final Object p2) {
+            return filter(level, marker, null);
+        }
+
+        @Override
+        public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
+                final Object p0, final Object p1, final Object p2, final Object p3) {
+            return filter(level, marker, null);
+        }
+
+        @Override
+        public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
+                final Object p0, final Object p1, final Object p2, final Object p3,
+                final Object p4) {
+            return filter(level, marker, null);
+        }
+
+        @Override
+        public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
+                final Object p0, final Object p1, final Object p2, final Object p3,
+                final Object p4, final Object p5) {
+            return filter(level, marker, null);
+        }
+
+        @Override
+        public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
+                final Object p0, final Object p1, final Object p2, final Object p3,
+                final Object p4, final Object p5, final Object p6) {
+            return filter(level, marker, null);
+        }
+
+        @Override
+        public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
+                final Object p0, final Object p1, final Object p2, final Object p3,
+                final Object p4, final Object p5, final Object p6,
+                final Object p7) {
+            return filter(level, marker, null);
+        }
+
+        @Override
+        public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
+                final Object p0, final Object p1, final Object p2, final Object p3,
+                final Object p4, final Object p5, final Object p6,
+                final Object p7, final Object p8) {
+            return filter(level, marker, null);
+        }
+
+        @Override
+        public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
+                final Object p0, final Object p1, final Object p2, final Object p3,
+                final Object p4, final Object p5, final Object p6,
+                final Object p7, final Object p8, final Object p9) {
+            return filter(level, marker, null);
+        }
+
+        @Override
+        public String toString() {
+            return Arrays.toString(filters);
+        }
+    }
+
+    /**
+     * A run of ThresholdFilters. The result only changes at the configured thresholds, so it is precomputed for
+     * each interval between two thresholds.
+     */
+    static final class ThresholdGroup extends Group {
+
+        private final int[] bounds;
+        private final Result[] results;
+
+        ThresholdGroup(final Filter[] filters) {
+            super(filters);
+            final TreeSet<Integer> thresholds = new TreeSet<>();
+            for (final Filter filter : filters) {
+                thresholds.add(((ThresholdFilter) filter).getLevel().intLevel());
+            }
+            bounds = new int[thresholds.size()];
+            int i = 0;
+            for (final Integer threshold : thresholds) {
+                bounds[i++] = threshold;
+            }
+            results = new Result[bounds.length + 1];
+            for (i = 0; i < results.length; i++) {
+                final int intLevel = i < bounds.length ? bounds[i] : bounds[bounds.length - 1] + 1;
+                results[i] = evaluate(filters, intLevel);
+            }
+        }
+
+        private static Result evaluate(final Filter[] filters, final int intLevel) {
+            for (final Filter filter : filters) {
+                final ThresholdFilter threshold = (ThresholdFilter) filter;
+                final Result result = intLevel <= threshold.getLevel().intLevel()
+                        ? threshold.getOnMatch() : threshold.getOnMismatch();
+                if (result != Result.NEUTRAL) {
+                    return result;
+                }
+            }
+            return Result.NEUTRAL;
+        }
+
+        @Override
+        Result filter(final Level level, final Marker marker, final Map<String, String> contextMap) {
+            final int intLevel = level.intLevel();
+            int i = 0;
+            while (i < bounds.length && intLevel > bounds[i]) {
+                i++;
+            }
+            return results[i];
+        }
+    }
+
+    /**
+     * A run of MarkerFilters. The marker and its ancestors are looked up by name to find the first filter that
+     * matches with a result other than NEUTRAL. Filters before the first one that does not return NEUTRAL on a
+     * mismatch cannot stop the run by not matching, so only the filters from that one on are evaluated one by one,
+     * and only when no earlier filter matched.
+     */
+    static final class MarkerGroup extends Group {
+
+        private final String[] names;
+        private final Result[] onMatch;
+        private final Result[] onMismatch;
+        private final Map<String, Integer> firstMatch = new HashMap<>();
+        private final int barrier;
+
+        MarkerGroup(final Filter[] filters) {
+            super(filters);
+            names = new String[filters.length];
+            onMatch = new Result[filters.length];
+            onMismatch = new Result[filters.length];
+            for (int i = 0; i < filters.length; i++) {
+                final MarkerFilter filter = (MarkerFilter) filters[i];
+                names[i] = filter.getMarkerName();
+                onMatch[i] = filter.getOnMatch();
+                onMismatch[i] = filter.getOnMismatch();
+                if (onMatch[i] != Result.NEUTRAL && !firstMatch.containsKey(names[i])) {
+                    firstMatch.put(names[i], i);
+                }
+            }
+            barrier = firstNonNeutral(onMismatch);
+        }
+
+        @Override
+        Result filter(final Level level, final Marker marker, final Map<String, String> contextMap) {
+            if (marker != null) {
+                final int first = firstMatch(marker, barrier);
+                if (first < barrier) {
+                    return onMatch[first];
+                }
+            }
+            for (int i = barrier; i < names.length; i++) {
+                final Result result = marker != null && marker.isInstanceOf(names[i]) ? onMatch[i] : onMismatch[i];
+                if (result != Result.NEUTRAL) {
+                    return result;
+                }
+            }
+            return Result.NEUTRAL;
+        }
+
+        private int firstMatch(final Marker marker, final int limit) {
+            int first = limit;
+            final Integer index = firstMatch.get(marker.getName());
+            if (index != null && index < first) {
+                first = index;
+            }
+            if (marker.hasParents()) {
+                for (final Marker parent : marker.getParents()) {
+                    first = firstMatch(parent, first);
+                }
+            }
+            return first;
+        }
+    }
+
+    /**
+     * A run of ThreadContextMapFilters that each match a single key and value. Every key is looked up once and its
+     * value is mapped to the first filter that matches with a result other than NEUTRAL.
+     */
+    static final class ContextMapGroup extends Group {
+
+        private final String[] keys;
+        private final String[] values;
+        private final Result[] onMatch;
+        private final Result[] onMismatch;
+        private final String[] distinctKeys;
+        private final Map<String, Integer>[] firstMatch;
+        private final int barrier;
+
+        ContextMapGroup(final Filter[] filters) {
+            super(filters);
+            keys = new String[filters.length];
+            values = new String[filters.length];
+            onMatch = new Result[filters.length];
+            onMismatch = new Result[filters.length];
+            final Map<String, Map<String, Integer>> index = new LinkedHashMap<>();
+            for (int i = 0; i < filters.length; i++) {
+                final ThreadContextMapFilter filter = (ThreadContextMapFilter) filters[i];
+                keys[i] = filter.getSingleKey();
+                values[i] = filter.getSingleValue();
+                onMatch[i] = filter.getOnMatch();
+                onMismatch[i] = filter.getOnMismatch();
+                Map<String, Integer> valueIndex = index.get(keys[i]);
+                if (valueIndex == null) {
+                    valueIndex = new HashMap<>();
+                    index.put(keys[i], valueIndex);
+                }
+                if (onMatch[i] != Result.NEUTRAL && !valueIndex.containsKey(values[i])) {
+                    valueIndex.put(values[i], i);
+                }
+            }
+            distinctKeys = index.keySet().toArray(new String[index.size()]);
+            @SuppressWarnings({"unchecked", "rawtypes"}) // generic arrays cannot be created directly
+            final Map<String, Integer>[] valueIndexes = index.values().toArray(new Map[index.size()]);
+            firstMatch = valueIndexes;
+            barrier = firstNonNeutral(onMismatch);
+        }
+
+        @Override
+        Result filter(final Level level, final Marker marker, final Map<String, String> contextMap) {
+            int first = barrier;
+            for (int i = 0; i < distinctKeys.length; i++) {
+                final String value = get(contextMap, distinctKeys[i]);
+                if (value != null) {
+                    final Integer index = firstMatch[i].get(value);
+                    if (index != null && index < first) {
+                        first = index;
+                    }
+                }
+            }
+            if (first < barrier) {
+                return onMatch[first];
+            }
+            for (int i = barrier; i < keys.length; i++) {
+                final Result result = values[i].equals(get(contextMap, keys[i])) ? onMatch[i] : onMismatch[i];
+                if (result != Result.NEUTRAL) {
+                    return result;
+                }
+            }
+            return Result.NEUTRAL;
+        }
+
+        private static String get(final Map<String, String> contextMap, final String key) {
+            return contextMap == null ? ThreadContext.get(key) : contextMap.get(key);
+        }
+    }
+}
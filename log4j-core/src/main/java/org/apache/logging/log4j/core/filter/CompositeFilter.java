@@ -43,12 +43,20 @@ public final class CompositeFilter extends AbstractLifeCycle implements Iterable
     private static final Filter[] EMPTY_FILTERS = new Filter[0];
     private final Filter[] filters;
 
+    /**
+     * The filters that are evaluated: the configured filters with runs of filters of the same kind compiled into
+     * indexed groups.
+     */
+    private final Filter[] compiledFilters;
+
     private CompositeFilter() {
         this.filters = EMPTY_FILTERS;
+        this.compiledFilters = EMPTY_FILTERS;
     }
 
     private CompositeFilter(final Filter[] filters) {
         this.filters = filters == null ? EMPTY_FILTERS : filters;
+        this.compiledFilters = CompiledFilters.compile(this.filters);
     }
 
     public CompositeFilter addFilter(final Filter filter) {
@@ -59,9 +67,9 @@ public final class CompositeFilter extends AbstractLifeCycle implements Iterable
         if (filter instanceof CompositeFilter) {
             final int size = this.filters.length + ((CompositeFilter) filter).size();
             final Filter[] copy = Arrays.copyOf(this.filters, size);
-            final int index = this.filters.length;
+            int index = this.filters.length;
             for (final Filter currentFilter : ((CompositeFilter) filter).filters) {
-                copy[index] = currentFilter;
+                copy[index++] = currentFilter;
             }
             return new CompositeFilter(copy);
         }
@@ -179,8 +187,8 @@ public final class CompositeFilter extends AbstractLifeCycle implements Iterable
     public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
             final Object... params) {
         Result result = Result.NEUTRAL;
-        for (int i = 0; i < filters.length; i++) {
-            result = filters[i].filter(logger, level, marker, msg, params);
+        for (int i = 0; i < compiledFilters.length; i++) {
+            result = compiledFilters[i].filter(logger, level, marker, msg, params);
             if (result == Result.ACCEPT || result == Result.DENY) {
                 return result;
             }
@@ -206,8 +214,8 @@ public final class CompositeFilter extends AbstractLifeCycle implements Iterable
     public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
             final Object p0) {
         Result result = Result.NEUTRAL;
-        for (int i = 0; i < filters.length; i++) {
-            result = filters[i].filter(logger, level, marker, msg, p0);
+        for (int i = 0; i < compiledFilters.length; i++) {
+            result = compiledFilters[i].filter(logger, level, marker, msg, p0);
             if (result == Result.ACCEPT || result == Result.DENY) {
                 return result;
             }
@@ -234,8 +242,8 @@ public final class CompositeFilter extends AbstractLifeCycle implements Iterable
     public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
             final Object p0, final Object p1) {
         Result result = Result.NEUTRAL;
-        for (int i = 0; i < filters.length; i++) {
-            result = filters[i].filter(logger, level, marker, msg, p0, p1);
+        for (int i = 0; i < compiledFilters.length; i++) {
+            result = compiledFilters[i].filter(logger, level, marker, msg, p0, p1);
             if (result == Result.ACCEPT || result == Result.DENY) {
                 return result;
             }
@@ -263,8 +271,8 @@ public final class CompositeFilter extends AbstractLifeCycle implements Iterable
     public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
             final Object p0, final Object p1, final Object p2) {
         Result result = Result.NEUTRAL;
-        for (int i = 0; i < filters.length; i++) {
-            result = filters[i].filter(logger, level, marker, msg, p0, p1, p2);
+        for (int i = 0; i < compiledFilters.length; i++) {
+            result = compiledFilters[i].filter(logger, level, marker, msg, p0, p1, p2);
             if (result == Result.ACCEPT || result == Result.DENY) {
                 return result;
             }
@@ -293,8 +301,8 @@ public final class CompositeFilter extends AbstractLifeCycle implements Iterable
     public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
             final Object p0, final Object p1, final Object p2, final Object p3) {
         Result result = Result.NEUTRAL;
-        for (int i = 0; i < filters.length; i++) {
-            result = filters[i].filter(logger, level, marker, msg, p0, p1, p2, p3);
+        for (int i = 0; i < compiledFilters.length; i++) {
+            result = compiledFilters[i].filter(logger, level, marker, msg, p0, p1, p2, p3);
             if (result == Result.ACCEPT || result == Result.DENY) {
                 return result;
             }
@@ -325,8 +333,8 @@ public final class CompositeFilter extends AbstractLifeCycle implements Iterable
             final Object p0, final Object p1, final Object p2, final Object p3,
             final Object p4) {
         Result result = Result.NEUTRAL;
-        for (int i = 0; i < filters.length; i++) {
-            result = filters[i].filter(logger, level, marker, msg, p0, p1, p2, p3, p4);
+        for (int i = 0; i < compiledFilters.length; i++) {
+            result = compiledFilters[i].filter(logger, level, marker, msg, p0, p1, p2, p3, p4);
             if (result == Result.ACCEPT || result == Result.DENY) {
                 return result;
             }
@@ -358,8 +366,8 @@ public final class CompositeFilter extends AbstractLifeCycle implements Iterable
             final Object p0, final Object p1, final Object p2, final Object p3,
             final Object p4, final Object p5) {
         Result result = Result.NEUTRAL;
-        for (int i = 0; i < filters.length; i++) {
-            result = filters[i].filter(logger, level, marker, msg, p0, p1, p2, p3, p4, p5);
+        for (int i = 0; i < compiledFilters.length; i++) {
+            result = compiledFilters[i].filter(logger, level, marker, msg, p0, p1, p2, p3, p4, p5);
             if (result == Result.ACCEPT || result == Result.DENY) {
                 return result;
             }
@@ -392,8 +400,8 @@ public final class CompositeFilter extends AbstractLifeCycle implements Iterable
             final Object p0, final Object p1, final Object p2, final Object p3,
             final Object p4, final Object p5, final Object p6) {
         Result result = Result.NEUTRAL;
-        for (int i = 0; i < filters.length; i++) {
-            result = filters[i].filter(logger, level, marker, msg, p0, p1, p2, p3, p4, p5, p6);
+        for (int i = 0; i < compiledFilters.length; i++) {
+            result = compiledFilters[i].filter(logger, level, marker, msg, p0, p1, p2, p3, p4, p5, p6);
             if (result == Result.ACCEPT || result == Result.DENY) {
                 return result;
             }
@@ -428,8 +436,8 @@ public final class CompositeFilter extends AbstractLifeCycle implements Iterable
             final Object p4, final Object p5, final Object p6,
             final Object p7) {
         Result result = Result.NEUTRAL;
-        for (int i = 0; i < filters.length; i++) {
-            result = filters[i].filter(logger, level, marker, msg, p0, p1, p2, p3, p4, p5, p6, p7);
+        for (int i = 0; i < compiledFilters.length; i++) {
+            result = compiledFilters[i].filter(logger, level, marker, msg, p0, p1, p2, p3, p4, p5, p6, p7);
             if (result == Result.ACCEPT || result == Result.DENY) {
                 return result;
             }
@@ -465,8 +473,8 @@ public final class CompositeFilter extends AbstractLifeCycle implements Iterable
             final Object p4, final Object p5, final Object p6,
             final Object p7, final Object p8) {
         Result result = Result.NEUTRAL;
-        for (int i = 0; i < filters.length; i++) {
-            result = filters[i].filter(logger, level, marker, msg, p0, p1, p2, p3, p4, p5, p6, p7, p8);
+        for (int i = 0; i < compiledFilters.length; i++) {
+            result = compiledFilters[i].filter(logger, level, marker, msg, p0, p1, p2, p3, p4, p5, p6, p7, p8);
             if (result == Result.ACCEPT || result == Result.DENY) {
                 return result;
             }
@@ -503,8 +511,8 @@ public final class CompositeFilter extends AbstractLifeCycle implements Iterable
             final Object p4, final Object p5, final Object p6,
             final Object p7, final Object p8, final Object p9) {
         Result result = Result.NEUTRAL;
-        for (int i = 0; i < filters.length; i++) {
-            result = filters[i].filter(logger, level, marker, msg, p0, p1, p2, p3, p4, p5, p6, p7, p8, p9);
+        for (int i = 0; i < compiledFilters.length; i++) {
+            result = compiledFilters[i].filter(logger, level, marker, msg, p0, p1, p2, p3, p4, p5, p6, p7, p8, p9);
             if (result == Result.ACCEPT || result == Result.DENY) {
                 return result;
             }
@@ -531,8 +539,8 @@ public final class CompositeFilter extends AbstractLifeCycle implements Iterable
     public Result filter(final Logger logger, final Level level, final Marker marker, final Object msg,
             final Throwable t) {
         Result result = Result.NEUTRAL;
-        for (int i = 0; i < filters.length; i++) {
-            result = filters[i].filter(logger, level, marker, msg, t);
+        for (int i = 0; i < compiledFilters.length; i++) {
+            result = compiledFilters[i].filter(logger, level, marker, msg, t);
             if (result == Result.ACCEPT || result == Result.DENY) {
                 return result;
             }
@@ -559,8 +567,8 @@ public final class CompositeFilter extends AbstractLifeCycle implements Iterable
     public Result filter(final Logger logger, final Level level, final Marker marker, final Message msg,
             final Throwable t) {
         Result result = Result.NEUTRAL;
-        for (int i = 0; i < filters.length; i++) {
-            result = filters[i].filter(logger, level, marker, msg, t);
+        for (int i = 0; i < compiledFilters.length; i++) {
+            result = compiledFilters[i].filter(logger, level, marker, msg, t);
             if (result == Result.ACCEPT || result == Result.DENY) {
                 return result;
             }
@@ -578,8 +586,8 @@ public final class CompositeFilter extends AbstractLifeCycle implements Iterable
     @Override
     public Result filter(final LogEvent event) {
         Result result = Result.NEUTRAL;
-        for (int i = 0; i < filters.length; i++) {
-            result = filters[i].filter(event);
+        for (int i = 0; i < compiledFilters.length; i++) {
+            result = compiledFilters[i].filter(event);
             if (result == Result.ACCEPT || result == Result.DENY) {
                 return result;
             }
@@ -0,0 +1,537 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.filter;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.Marker;
+import org.apache.logging.log4j.MarkerManager;
+import org.apache.logging.log4j.core.Filter;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.Logger;
+import org.apache.logging.log4j.core.LoggerContext;
+import org.apache.logging.log4j.core.config.Configuration;
+import org.apache.logging.log4j.core.config.Node;
+import org.apache.logging.log4j.core.config.Scheduled;
+import org.apache.logging.log4j.core.config.plugins.Plugin;
+import org.apache.logging.log4j.core.config.plugins.PluginBuilderAttribute;
+import org.apache.logging.log4j.core.config.plugins.PluginBuilderFactory;
+import org.apache.logging.log4j.core.config.plugins.PluginConfiguration;
+import org.apache.logging.log4j.core.util.NanoClock;
+import org.apache.logging.log4j.core.util.SystemNanoClock;
+import org.apache.logging.log4j.message.Message;
+import org.apache.logging.log4j.message.SimpleMessage;
+
+/**
+ * The <code>DeduplicationFilter</code> collapses repeated events into a single event followed by a summary.
+ *
+ * <p>
+ * Events are fingerprinted by logger name, level, message format string and the class of the Throwable. The first
+ * event with a given fingerprint is passed (onMatch) and opens a window of <code>windowMillis</code> milliseconds;
+ * further events with the same fingerprint within that window are suppressed (onMismatch) and counted. When the
+ * window closes a summary event carrying the number of suppressed events is logged to the same logger at the same
+ * level, marked with the {@link #SUMMARY_MARKER}. Summary events are never deduplicated. Windows still open when
+ * the filter stops are summarized immediately.
+ * </p>
+ * <p>
+ * The fingerprints are kept in a map bounded by <code>maxEntries</code> and split in up to 16 lock stripes, so
+ * threads logging different messages rarely contend. Each stripe holds its share of <code>maxEntries</code>; when a
+ * stripe is full its oldest fingerprint is evicted and summarized early.
+ * </p>
+ * <code>
+ * &lt;Console name="console"&gt;<br>
+ * &nbsp;&lt;PatternLayout pattern="%-5p %d{dd-MMM-yyyy HH:mm:ss} %t %m%n"/&gt;<br>
+ * &nbsp;&lt;DeduplicationFilter windowMillis="10000" maxEntries="1024"/&gt;<br>
+ * &lt;/Console&gt;<br>
+ * </code>
+ */
+@Plugin(name = "DeduplicationFilter", category = Node.CATEGORY, elementType = Filter.ELEMENT_TYPE, printObject = true)
+@Scheduled
+public final class DeduplicationFilter extends AbstractFilter {
+
+    /**
+     * The Marker of the summary events logged by this filter.
+     */
+    public static final Marker SUMMARY_MARKER = MarkerManager.getMarker("DEDUPLICATION_SUMMARY");
+
+    private static final String FQCN = DeduplicationFilter.class.getName();
+
+    private static final long DEFAULT_WINDOW_MILLIS = 10000;
+
+    private static final int DEFAULT_MAX_ENTRIES = 1024;
+
+    private static final int MAX_STRIPES = 16;
+
+    private final long windowMillis;
+
+    private final long windowNanos;
+
+    private final int maxEntries;
+
+    private final Configuration configuration;
+
+    private final NanoClock nanoClock;
+
+    private final Stripe[] stripes;
+
+    private final Queue<Summary> pending = new ConcurrentLinkedQueue<>();
+
+    private ScheduledFuture<?> future;
+
+    private DeduplicationFilter(final long windowMillis, final int maxEntries, final Configuration configuration,
+                                final NanoClock nanoClock, final Result onMatch, final Result onMismatch) {
+        super(onMatch, onMismatch);
+        this.windowMillis = windowMillis;
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(windowMillis);
+        this.maxEntries = maxEntries;
+        this.configuration = configuration;
+        this.nanoClock = nanoClock;
+        // a power of two of stripes that each hold at least one entry, sharing maxEntries exactly
+        final int stripeCount = Math.min(MAX_STRIPES, Integer.highestOneBit(maxEntries));
+        this.stripes = new Stripe[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new Stripe(maxEntries / stripeCount + (i < maxEntries % stripeCount ? 1 : 0));
+        }
+    }
+
+    @Override
+    public void start() {
+        if (configuration != null && configuration.getScheduler().isExecutorServiceSet()) {
+            future = configuration.getScheduler().scheduleWithFixedDelay(new Runnable() {
+                @Override
+                public void run() {
+                    emitSummaries(false);
+                }
+            }, windowMillis, windowMillis, TimeUnit.MILLISECONDS);
+        } else {
+            LOGGER.warn("DeduplicationFilter has no configuration scheduler, summary events will not be logged");
+        }
+        super.start();
+    }
+
+    @Override
+    public void stop() {
+        if (future != null) {
+            future.cancel(false);
+            future = null;
+        }
+        // summarize what was suppressed since the last tick, so shutdown and reconfiguration do not lose it
+        emitSummaries(true);
+        super.stop();
+    }
+
+    @Override
+    public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
+                         final Object... params) {
+        final Object last = params == null || params.length == 0 ? null : params[params.length - 1];
+        return filter(logger.getName(), level, marker, msg, last);
+    }
+
+    @Override
+    public Result filter(final Logger logger, final Level level, final Marker marker, final Object msg,
+                         final Throwable t) {
+        return filter(logger.getName(), level, marker, msg == null ? null : msg.toString(), t);
+    }
+
+    @Override
+    public Result filter(final Logger logger, final Level level, final Marker marker, final Message msg,
+                         final Throwable t) {
+        return filter(logger.getName(), level, marker, format(msg), t);
+    }
+
+    @Override
+    public Result filter(final LogEvent event) {
+        return filter(event.getLoggerName(), event.getLevel(), event.getMarker(), format(event.getMessage()),
+                event.getThrown());
+    }
+
+    @Override
+    public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
+            final Object p0) {
+        return filter(logger.getName(), level, marker, msg, p0);
+    }
+
+    @Override
+    public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
+            final Object p0, final Object p1) {
+        return filter(logger.getName(), level, marker, msg, p1);
+    }
+
+    @Override
+    public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
+            final Object p0, final Object p1, final Object p2) {
+        return filter(logger.getName(), level, marker, msg, p2);
+    }
+
+    @Override
+    public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
+            final Object p0, final Object p1, final Object p2, final Object p3) {
+        return filter(logger.getName(), level, marker, msg, p3);
+    }
+
+    @Override
+    public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
+            final Object p0, final Object p1, final Object p2, final Object p3,
+            final Object p4) {
+        return filter(logger.getName(), level, marker, msg, p4);
+    }
+
+    @Override
+    public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
+            final Object p0, final Object p1, final Object p2, final Object p3,
+            final Object p4, final Object p5) {
+        return filter(logger.getName(), level, marker, msg, p5);
+    }
+
+    @Override
+    public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
+            final Object p0, final Object p1, final Object p2, final Object p3,
+            final Object p4, final Object p5, final Object p6) {
+        return filter(logger.getName(), level, marker, msg, p6);
+    }
+
+    @Override
+    public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
+            final Object p0, final Object p1, final Object p2, final Object p3,
+            final Object p4, final Object p5, final Object p6,
+            final Object p7) {
+        return filter(logger.getName(), level, marker, msg, p7);
+    }
+
+    @Override
+    public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
+            final Object p0, final Object p1, final Object p2, final Object p3,
+            final Object p4, final Object p5, final Object p6,
+            final Object p7, final Object p8) {
+        return filter(logger.getName(), level, marker, msg, p8);
+    }
+
+    @Override
+    public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
+            final Object p0, final Object p1, final Object p2, final Object p3,
+            final Object p4, final Object p5, final Object p6,
+            final Object p7, final Object p8, final Object p9) {
+        return filter(logger.getName(), level, marker, msg, p9);
+    }
+
+    private static String format(final Message msg) {
+        if (msg == null) {
+            return null;
+        }
+        final String format = msg.getFormat();
+        return format == null ? msg.getFormattedMessage() : format;
+    }
+
+    /**
+     * Passes the first event of a fingerprint and suppresses its duplicates until the window closes.
+     *
+     * @param loggerName The name of the logger.
+     * @param level The event level.
+     * @param marker The marker, may be null.
+     * @param format The message format string, null when the caller only checks whether logging is enabled.
+     * @param lastParameter The last message parameter or the Throwable of the event, may be null.
+     * @return onMatch for the first event of a window, onMismatch for its duplicates.
+     */
+    private Result filter(final String loggerName, final Level level, final Marker marker, final String format,
+                          final Object lastParameter) {
+        if (marker == SUMMARY_MARKER || format == null) {
+            // Logger.isEnabled() checks pass a null message, they must neither be suppressed nor start a window
+            return onMatch;
+        }
+        final String throwableClassName = lastParameter instanceof Throwable
+                ? lastParameter.getClass().getName() : null;
+        final Fingerprint fingerprint = new Fingerprint(loggerName, level, format, throwableClassName);
+        final Stripe stripe = stripes[(fingerprint.hash ^ (fingerprint.hash >>> 16)) & (stripes.length - 1)];
+        final long now = nanoClock.nanoTime();
+        synchronized (stripe) {
+            final Window window = stripe.windows.get(fingerprint);
+            if (window == null) {
+                stripe.windows.put(fingerprint, new Window(now));
+                return onMatch;
+            }
+            if (now - window.start >= windowNanos) {
+                if (window.suppressed > 0) {
+                    pending.add(new Summary(fingerprint, window.suppressed, now - window.start));
+                }
+                window.start = now;
+                window.suppressed = 0;
+                return onMatch;
+            }
+            window.suppressed++;
+            return onMismatch;
+        }
+    }
+
+    /**
+     * Logs a summary for every closed window that suppressed events.
+     *
+     * @param all when true, all windows are closed regardless of their age.
+     */
+    void emitSummaries(final boolean all) {
+        final long now = nanoClock.nanoTime();
+        final List<Summary> summaries = new ArrayList<>();
+        for (final Stripe stripe : stripes) {
+            synchronized (stripe) {
+                for (final Iterator<Map.Entry<Fingerprint, Window>> iter = stripe.windows.entrySet().iterator();
+                        iter.hasNext();) {
+                    final Map.Entry<Fingerprint, Window> entry = iter.next();
+                    final Window window = entry.getValue();
+                    if (all || now - window.start >= windowNanos) {
+                        if (window.suppressed > 0) {
+                            summaries.add(new Summary(entry.getKey(), window.suppressed, now - window.start));
+                        }
+                        iter.remove();
+                    }
+                }
+            }
+        }
+        Summary summary = pending.poll();
+        while (summary != null) {
+            summaries.add(summary);
+            summary = pending.poll();
+        }
+        if (summaries.isEmpty() || configuration == null) {
+            return;
+        }
+        final LoggerContext context = configuration.getLoggerContext();
+        if (context == null) {
+            return;
+        }
+        for (final Summary item : summaries) {
+            final Fingerprint fingerprint = item.fingerprint;
+            context.getLogger(fingerprint.loggerName).logIfEnabled(FQCN, fingerprint.level, SUMMARY_MARKER,
+                    item.toMessage(), null);
+        }
+    }
+
+    /**
+     * Returns the number of fingerprints currently tracked. Used for unit testing.
+     * @return The number of fingerprints.
+     */
+    int size() {
+        int size = 0;
+        for (final Stripe stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.windows.size();
+            }
+        }
+        return size;
+    }
+
+    @Override
+    public String toString() {
+        return "windowMillis=" + windowMillis + ", maxEntries=" + maxEntries;
+    }
+
+    /**
+     * Identifies events that are considered duplicates of each other.
+     */
+    private static final class Fingerprint {
+        private final String loggerName;
+        private final Level level;
+        private final String format;
+        private final String throwableClassName;
+        private final int hash;
+
+        Fingerprint(final String loggerName, final Level level, final String format,
+                    final String throwableClassName) {
+            this.loggerName = loggerName;
+            this.level = level;
+            this.format = format;
+            this.throwableClassName = throwableClassName;
+            this.hash = Objects.hash(loggerName, level, format, throwableClassName);
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Fingerprint)) {
+                return false;
+            }
+            final Fingerprint other = (Fingerprint) obj;
+            return hash == other.hash && level == other.level && Objects.equals(loggerName, other.loggerName)
+                    && Objects.equals(format, other.format)
+                    && Objects.equals(throwableClassName, other.throwableClassName);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    /**
+     * The suppression window of a fingerprint. Guarded by the lock of the stripe that contains it.
+     */
+    private static final class Window {
+        private long start;
+        private int suppressed;
+
+        Window(final long start) {
+            this.start = start;
+        }
+    }
+
+    /**
+     * A bounded, insertion ordered map of windows guarded by its own monitor.
+     */
+    private final class Stripe {
+        private final Map<Fingerprint, Window> windows;
+
+        Stripe(final int capacity) {
+            this.windows = new LinkedHashMap<Fingerprint, Window>() {
+                private static final long serialVersionUID = 1L;
+
+                @Override
+                protected boolean removeEldestEntry(final Map.Entry<Fingerprint, Window> eldest) {
+                    if (size() <= capacity) {
+                        return false;
+                    }
+                    final Window window = eldest.getValue();
+                    if (window.suppressed > 0) {
+                        pending.add(new Summary(eldest.getKey(), window.suppressed,
+                                nanoClock.nanoTime() - window.start));
+                    }
+                    return true;
+                }
+            };
+        }
+    }
+
+    /**
+     * The number of events suppressed for a fingerprint during a window.
+     */
+    private static final class Summary {
+        private final Fingerprint fingerprint;
+        private final int suppressed;
+        private final long elapsedNanos;
+
+        Summary(final Fingerprint fingerprint, final int suppressed, final long elapsedNanos) {
+            this.fingerprint = fingerprint;
+            this.suppressed = suppressed;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        Message toMessage() {
+            final StringBuilder sb = new StringBuilder(128);
+            sb.append("Suppressed ").append(suppressed).append(suppressed == 1 ? " duplicate" : " duplicates")
+                    .append(" in ").append(TimeUnit.NANOSECONDS.toMillis(elapsedNanos)).append(" ms of: ")
+                    .append(fingerprint.format);
+            if (fingerprint.throwableClassName != null) {
+                sb.append(" [").append(fingerprint.throwableClassName).append(']');
+            }
+            return new SimpleMessage(sb.toString());
+        }
+    }
+
+    @PluginBuilderFactory
+    public static Builder newBuilder() {
+        return new Builder();
+    }
+
+    public static class Builder implements org.apache.logging.log4j.core.util.Builder<DeduplicationFilter> {
+
+        @PluginBuilderAttribute
+        private long windowMillis = DEFAULT_WINDOW_MILLIS;
+
+        @PluginBuilderAttribute
+        private int maxEntries = DEFAULT_MAX_ENTRIES;
+
+        @PluginBuilderAttribute
+        private Result onMatch = Result.NEUTRAL;
+
+        @PluginBuilderAttribute
+        private Result onMismatch = Result.DENY;
+
+        @PluginConfiguration
+        private Configuration configuration;
+
+        private NanoClock nanoClock = new SystemNanoClock();
+
+        /**
+         * Sets the number of milliseconds during which duplicates of an event are suppressed. Defaults to 10000.
+         */
+        public Builder setWindowMillis(final long windowMillis) {
+            this.windowMillis = windowMillis;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of fingerprints that are tracked. Defaults to 1024.
+         */
+        public Builder setMaxEntries(final int maxEntries) {
+            this.maxEntries = maxEntries;
+            return this;
+        }
+
+        /**
+         * Sets the Result to return for the first event of a window. Defaults to Result.NEUTRAL.
+         */
+        public Builder setOnMatch(final Result onMatch) {
+            this.onMatch = onMatch;
+            return this;
+        }
+
+        /**
+         * Sets the Result to return for a duplicate event. The default is Result.DENY.
+         */
+        public Builder setOnMismatch(final Result onMismatch) {
+            this.onMismatch = onMismatch;
+            return this;
+        }
+
+        /**
+         * Sets the Configuration whose scheduler and LoggerContext are used to log summary events.
+         */
+        public Builder setConfiguration(final Configuration configuration) {
+            this.configuration = configuration;
+            return this;
+        }
+
+        /**
+         * Sets the clock used to measure the windows. Used for unit testing.
+         */
+        Builder setNanoClock(final NanoClock nanoClock) {
+            this.nanoClock = nanoClock;
+            return this;
+        }
+
+        @Override
+        public DeduplicationFilter build() {
+            if (this.windowMillis <= 0) {
+                this.windowMillis = DEFAULT_WINDOW_MILLIS;
+            }
+            if (this.maxEntries <= 0) {
+                this.maxEntries = DEFAULT_MAX_ENTRIES;
+            }
+            return new DeduplicationFilter(this.windowMillis, this.maxEntries, this.configuration, this.nanoClock,
+                    this.onMatch, this.onMismatch);
+        }
+    }
+}
@@ -0,0 +1,319 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.filter;
+
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.Marker;
+import org.apache.logging.log4j.ThreadContext;
+import org.apache.logging.log4j.core.Filter;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.Logger;
+import org.apache.logging.log4j.core.config.Node;
+import org.apache.logging.log4j.core.config.plugins.Plugin;
+import org.apache.logging.log4j.core.config.plugins.PluginAttribute;
+import org.apache.logging.log4j.core.config.plugins.PluginElement;
+import org.apache.logging.log4j.core.config.plugins.PluginFactory;
+import org.apache.logging.log4j.core.util.KeyValuePair;
+import org.apache.logging.log4j.message.Message;
+
+/**
+ * The <code>SamplingFilter</code> passes a configurable fraction of events.
+ *
+ * <p>
+ * When a ThreadContext <code>key</code> is configured, the decision is derived from a hash of the key's value, so all
+ * events logged with the same value (for example a trace id) are either all kept or all dropped, in every JVM that
+ * uses the same configuration. When the filter is attached to a Logger or an Appender, events without the key, or
+ * all events when no key is configured, are sampled independently. The sampling rate can be set per level with nested KeyValuePair elements whose key is the level name
+ * and whose value is the rate; levels that are not listed use the <code>rate</code> attribute.
+ * </p>
+ * <code>
+ * &lt;SamplingFilter key="traceId" rate="1.0"&gt;<br>
+ * &nbsp;&lt;KeyValuePair key="DEBUG" value="0.05"/&gt;<br>
+ * &nbsp;&lt;KeyValuePair key="TRACE" value="0.01"/&gt;<br>
+ * &lt;/SamplingFilter&gt;<br>
+ * </code>
+ * <p>
+ * The filter does not depend on the message, so when it is used as a context-wide filter events that are not sampled
+ * are rejected before a Message is created. A context-wide filter is consulted by every level check as well as by
+ * the logging call itself, so it must reach the same decision each time: it requires a <code>key</code>, and the
+ * events logged without a value for the key are kept or dropped as one group. A SamplingFilter without a key is
+ * rejected when it is configured as a context-wide filter.
+ * </p>
+ */
+@Plugin(name = "SamplingFilter", category = Node.CATEGORY, elementType = Filter.ELEMENT_TYPE, printObject = true)
+public final class SamplingFilter extends AbstractFilter {
+
+    private static final long ALWAYS = 1L << 32;
+
+    private final String key;
+
+    private final int seed;
+
+    private final long defaultThreshold;
+
+    private final Level[] levels;
+
+    private final long[] thresholds;
+
+    private SamplingFilter(final String key, final int seed, final float rate, final Level[] levels,
+                           final float[] rates, final Result onMatch, final Result onMismatch) {
+        super(onMatch, onMismatch);
+        this.key = key;
+        this.seed = seed;
+        this.defaultThreshold = toThreshold(rate);
+        this.levels = levels;
+        this.thresholds = new long[rates.length];
+        for (int i = 0; i < rates.length; i++) {
+            thresholds[i] = toThreshold(rates[i]);
+        }
+    }
+
+    private static long toThreshold(final float rate) {
+        if (rate >= 1) {
+            return ALWAYS;
+        }
+        return rate <= 0 ? 0 : (long) (rate * (double) ALWAYS);
+    }
+
+    /**
+     * Returns the ThreadContext key whose value selects the events that are sampled together.
+     *
+     * @return The key, or null if every event is sampled independently.
+     */
+    public String getKey() {
+        return key;
+    }
+
+    @Override
+    public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
+                         final Object... params) {
+        return filter(level, null);
+    }
+
+    @Override
+    public Result filter(final Logger logger, final Level level, final Marker marker, final Object msg,
+                         final Throwable t) {
+        return filter(level, null);
+    }
+
+    @Override
+    public Result filter(final Logger logger, final Level level, final Marker marker, final Message msg,
+                         final Throwable t) {
+        return filter(level, null);
+    }
+
+    @Override
+    public Result filter(final LogEvent event) {
+        return filter(event.getLevel(), event.getContextMap());
+    }
+
+    @Override
+    public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
+            final Object p0) {
+        return filter(level, null);
+    }
+
+    @Override
+    public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
+            final Object p0, final Object p1) {
+        return filter(level, null);
+    }
+
+    @Override
+    public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
+            final Object p0, final Object p1, final Object p2) {
+        return filter(level, null);
+    }
+
+    @Override
+    public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
+            final Object p0, final Object p1, final Object p2, final Object p3) {
+        return filter(level, null);
+    }
+
+    @Override
+    public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
+            final Object p0, final Object p1, final Object p2, final Object p3,
+            final Object p4) {
+        return filter(level, null);
+    }
+
+    @Override
+    public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
+            final Object p0, final Object p1, final Object p2, final Object p3,
+            final Object p4, final Object p5) {
+        return filter(level, null);
+    }
+
+    @Override
+    public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
+            final Object p0, final Object p1, final Object p2, final Object p3,
+            final Object p4, final Object p5, final Object p6) {
+        return filter(level, null);
+    }
+
+    @Override
+    public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
+            final Object p0, final Object p1, final Object p2, final Object p3,
+            final Object p4, final Object p5, final Object p6,
+            final Object p7) {
+        return filter(level, null);
+    }
+
+    @Override
+    public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
+            final Object p0, final Object p1, final Object p2, final Object p3,
+            final Object p4, final Object p5, final Object p6,
+            final Object p7, final Object p8) {
+        return filter(level, null);
+    }
+
+    @Override
+    public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
+            final Object p0, final Object p1, final Object p2, final Object p3,
+            final Object p4, final Object p5, final Object p6,
+            final Object p7, final Object p8, final Object p9) {
+        return filter(level, null);
+    }
+
+    /**
+     * Decides whether the event is sampled.
+     *
+     * @param level The event level.
+     * @param contextMap The context map of the event, or null to use the current ThreadContext. Without an event
+     *            the filter may be called several times for the same logging call, so a missing value is then hashed
+     *            like any other value instead of being sampled at random.
+     * @return onMatch if the event is sampled, onMismatch otherwise.
+     */
+    private Result filter(final Level level, final Map<String, String> contextMap) {
+        final long threshold = getThreshold(level);
+        if (threshold >= ALWAYS) {
+            return onMatch;
+        }
+        if (threshold == 0) {
+            return onMismatch;
+        }
+        String value = null;
+        if (key != null) {
+            value = contextMap == null ? ThreadContext.get(key) : contextMap.get(key);
+        }
+        final int hash;
+        if (value != null) {
+            hash = mix(value.hashCode() ^ seed);
+        } else if (contextMap == null) {
+            hash = mix(seed);
+        } else {
+            hash = ThreadLocalRandom.current().nextInt();
+        }
+        return (hash & 0xFFFFFFFFL) < threshold ? onMatch : onMismatch;
+    }
+
+    private long getThreshold(final Level level) {
+        for (int i = 0; i < levels.length; i++) {
+            if (levels[i] == level) {
+                return thresholds[i];
+            }
+        }
+        return defaultThreshold;
+    }
+
+    /**
+     * The MurmurHash3 finalizer: spreads the bits of String.hashCode(), which are poorly distributed for similar
+     * values, over the whole int range.
+     */
+    private static int mix(final int value) {
+        int h = value;
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+
+    /**
+     * Returns true if all events with the given value for the configured key are sampled at the given level. Events
+     * without a value are sampled at random, so this method returns false for a null value unless the rate is 1.
+     *
+     * @param level The event level.
+     * @param value The value of the ThreadContext key.
+     * @return true if events with this value are sampled.
+     */
+    public boolean isSampled(final Level level, final String value) {
+        final long threshold = getThreshold(level);
+        if (value == null || threshold == 0 || threshold >= ALWAYS) {
+            return threshold >= ALWAYS;
+        }
+        return (mix(value.hashCode() ^ seed) & 0xFFFFFFFFL) < threshold;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder();
+        sb.append("key=").append(key).append(", rate=").append((double) defaultThreshold / ALWAYS);
+        for (int i = 0; i < levels.length; i++) {
+            sb.append(", ").append(levels[i]).append('=').append((double) thresholds[i] / ALWAYS);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Creates a SamplingFilter.
+     * @param key The ThreadContext key whose value selects the events that are sampled together, may be null.
+     * @param seed A value mixed into the hash of the key so that independent filters sample different values.
+     * @param rate The fraction of events to sample at levels that have no specific rate. Defaults to 1.
+     * @param pairs Level names and the fraction of events to sample at that level.
+     * @param onMatch The action to take if the event is sampled.
+     * @param onMismatch The action to take if the event is not sampled.
+     * @return The SamplingFilter.
+     */
+    @PluginFactory
+    public static SamplingFilter createFilter(
+            @PluginAttribute("key") final String key,
+            @PluginAttribute("seed") final int seed,
+            @PluginAttribute(value = "rate", defaultFloat = 1.0f) final float rate,
+            @PluginElement("Pairs") final KeyValuePair[] pairs,
+            @PluginAttribute("onMatch") final Result onMatch,
+            @PluginAttribute("onMismatch") final Result onMismatch) {
+        final int count = pairs == null ? 0 : pairs.length;
+        final Level[] levels = new Level[count];
+        final float[] rates = new float[count];
+        int size = 0;
+        for (int i = 0; i < count; i++) {
+            final Level level = Level.toLevel(pairs[i].getKey(), null);
+            if (level == null) {
+                LOGGER.error("Invalid level {} in SamplingFilter", pairs[i].getKey());
+                continue;
+            }
+            try {
+                rates[size] = Float.parseFloat(pairs[i].getValue());
+            } catch (final NumberFormatException ex) {
+                LOGGER.error("Invalid rate {} for level {} in SamplingFilter", pairs[i].getValue(), level);
+                continue;
+            }
+            levels[size++] = level;
+        }
+        final Level[] validLevels = new Level[size];
+        final float[] validRates = new float[size];
+        System.arraycopy(levels, 0, validLevels, 0, size);
+        System.arraycopy(rates, 0, validRates, 0, size);
+        return new SamplingFilter(key, seed, rate, validLevels, validRates, onMatch, onMismatch);
+    }
+}
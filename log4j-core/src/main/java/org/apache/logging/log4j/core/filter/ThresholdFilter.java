@@ -68,6 +68,75 @@ public final class ThresholdFilter extends AbstractFilter {
         return filter(event.getLevel());
     }
 
+    @Override
+    public Result filter(final Logger logger, final Level testLevel, final Marker marker, final String msg,
+            final Object p0) {
+        return filter(testLevel);
+    }
+
+    @Override
+    public Result filter(final Logger logger, final Level testLevel, final Marker marker, final String msg,
+            final Object p0, final Object p1) {
+        return filter(testLevel);
+    }
+
+    @Override
+    public Result filter(final Logger logger, final Level testLevel, final Marker marker, final String msg,
+            final Object p0, final Object p1, final Object p2) {
+        return filter(testLevel);
+    }
+
+    @Override
+    public Result filter(final Logger logger, final Level testLevel, final Marker marker, final String msg,
+            final Object p0, final Object p1, final Object p2, final Object p3) {
+        return filter(testLevel);
+    }
+
+    @Override
+    public Result filter(final Logger logger, final Level testLevel, final Marker marker, final String msg,
+            final Object p0, final Object p1, final Object p2, final Object p3,
+            final Object p4) {
+        return filter(testLevel);
+    }
+
+    @Override
+    public Result filter(final Logger logger, final Level testLevel, final Marker marker, final String msg,
+            final Object p0, final Object p1, final Object p2, final Object p3,
+            final Object p4, final Object p5) {
+        return filter(testLevel);
+    }
+
+    @Override
+    public Result filter(final Logger logger, final Level testLevel, final Marker marker, final String msg,
+            final Object p0, final Object p1, final Object p2, final Object p3,
+            final Object p4, final Object p5, final Object p6) {
+        return filter(testLevel);
+    }
+
+    @Override
+    public Result filter(final Logger logger, final Level testLevel, final Marker marker, final String msg,
+            final Object p0, final Object p1, final Object p2, final Object p3,
+            final Object p4, final Object p5, final Object p6,
+            final Object p7) {
+        return filter(testLevel);
+    }
+
+    @Override
+    public Result filter(final Logger logger, final Level testLevel, final Marker marker, final String msg,
+            final Object p0, final Object p1, final Object p2, final Object p3,
+            final Object p4, final Object p5, final Object p6,
+            final Object p7, final Object p8) {
+        return filter(testLevel);
+    }
+
+    @Override
+    public Result filter(final Logger logger, final Level testLevel, final Marker marker, final String msg,
+            final Object p0, final Object p1, final Object p2, final Object p3,
+            final Object p4, final Object p5, final Object p6,
+            final Object p7, final Object p8, final Object p9) {
+        return filter(testLevel);
+    }
+
     private Result filter(final Level testLevel) {
         return testLevel.isMoreSpecificThan(this.level) ? onMatch : onMismatch;
     }
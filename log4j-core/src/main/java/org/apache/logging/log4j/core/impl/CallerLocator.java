@@ -0,0 +1,38 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.impl;
+
+/**
+ * Finds the location of the code that called a Logger.
+ * <p>
+ * Implementations are selected with the {@value CallerLocatorFactory#PROPERTY_NAME} system property, see
+ * {@link CallerLocatorFactory}, and must be thread-safe.
+ * </p>
+ *
+ * @since 2.7
+ */
+public interface CallerLocator {
+
+    /**
+     * Returns the StackTraceElement of the caller of the Logger. This is the first frame of the current stack that
+     * follows the innermost frames of the logger class.
+     *
+     * @param fqcnOfLogger the fully qualified class name of the Logger that was called.
+     * @return the StackTraceElement of the caller, or null if the logger class is not on the stack.
+     */
+    StackTraceElement calcLocation(String fqcnOfLogger);
+}
@@ -0,0 +1,102 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.impl;
+
+import org.apache.logging.log4j.core.util.Loader;
+import org.apache.logging.log4j.status.StatusLogger;
+import org.apache.logging.log4j.util.PropertiesUtil;
+
+/**
+ * Factory for {@code CallerLocator} objects.
+ *
+ * @since 2.7
+ */
+public final class CallerLocatorFactory {
+
+    /**
+     * Name of the system property that can be used to specify a {@code CallerLocator}
+     * implementation class. The value of this property is {@value}.
+     */
+    public static final String PROPERTY_NAME = "log4j.CallerLocator";
+    private static final StatusLogger LOGGER = StatusLogger.getLogger();
+
+    private CallerLocatorFactory() {
+    }
+
+    /**
+     * Returns a {@code CallerLocator} instance depending on the value of system
+     * property {@link #PROPERTY_NAME}.
+     * <p>
+     * If system property {@code log4j.CallerLocator=StackWalker} is specified,
+     * this method returns an instance of {@link StackWalkerCallerLocator} if the
+     * JVM supports it. If system property {@code log4j.CallerLocator=Throwable}
+     * is specified, this method returns an instance of {@link ThrowableCallerLocator}.
+     * </p>
+     * <p>
+     * If another value is specified, this value is taken as the fully qualified
+     * class name of a class that implements the {@code CallerLocator} interface. An
+     * object of this class is instantiated and returned.
+     * </p>
+     * <p>
+     * If no value is specified, or if the specified value could not correctly
+     * be instantiated, then a {@link StackWalkerCallerLocator} is returned on
+     * Java 9 and later and a {@link ThrowableCallerLocator} on older JVMs.
+     * </p>
+     *
+     * @return a {@code CallerLocator} instance
+     */
+    public static CallerLocator getCallerLocator() {
+        return createCallerLocator();
+    }
+
+    private static CallerLocator createCallerLocator() {
+        final String userRequest = PropertiesUtil.getProperties().getStringProperty(PROPERTY_NAME);
+        if (userRequest == null) {
+            return createDefault();
+        }
+        if (ThrowableCallerLocator.class.getName().equals(userRequest) || "Throwable".equals(userRequest)) {
+            LOGGER.trace("Using specified ThrowableCallerLocator for caller locations.");
+            return new ThrowableCallerLocator();
+        }
+        if (StackWalkerCallerLocator.class.getName().equals(userRequest) || "StackWalker".equals(userRequest)) {
+            if (StackWalkerCallerLocator.isAvailable()) {
+                LOGGER.trace("Using specified StackWalkerCallerLocator for caller locations.");
+                return new StackWalkerCallerLocator();
+            }
+            LOGGER.error("StackWalker is not available, using ThrowableCallerLocator for caller locations.");
+            return new ThrowableCallerLocator();
+        }
+        try {
+            final CallerLocator result = Loader.newCheckedInstanceOf(userRequest, CallerLocator.class);
+            LOGGER.trace("Using {} for caller locations.", result.getClass().getName());
+            return result;
+        } catch (final Exception e) {
+            final String fmt = "Could not create {}: {}, using default CallerLocator for caller locations.";
+            LOGGER.error(fmt, userRequest, e);
+            return createDefault();
+        }
+    }
+
+    private static CallerLocator createDefault() {
+        if (StackWalkerCallerLocator.isAvailable()) {
+            LOGGER.trace("Using default StackWalkerCallerLocator for caller locations.");
+            return new StackWalkerCallerLocator();
+        }
+        LOGGER.trace("Using default ThrowableCallerLocator for caller locations.");
+        return new ThrowableCallerLocator();
+    }
+}
@@ -51,6 +51,7 @@ public class Log4jLogEvent implements LogEvent {
 
     private static final long serialVersionUID = -8393305700508709443L;
     private static final Clock CLOCK = ClockFactory.getClock();
+    private static final CallerLocator CALLER_LOCATOR = CallerLocatorFactory.getCallerLocator();
     private static volatile NanoClock nanoClock = new DummyNanoClock();
     private final String loggerFqcn;
     private final Marker marker;
@@ -586,21 +587,14 @@ public Log4jLogEvent(final String loggerName, final Marker marker, final String
         return source;
     }
 
+    /**
+     * Returns the StackTraceElement for the caller of the Logger with the given class name, using the
+     * {@link CallerLocator} selected by {@link CallerLocatorFactory}.
+     * @param fqcnOfLogger the fully qualified class name of the Logger that was called.
+     * @return the StackTraceElement for the caller.
+     */
     public static StackTraceElement calcLocation(final String fqcnOfLogger) {
-        if (fqcnOfLogger == null) {
-            return null;
-        }
-        // LOG4J2-1029 new Throwable().getStackTrace is faster than Thread.currentThread().getStackTrace().
-        final StackTraceElement[] stackTrace = new Throwable().getStackTrace();
-        StackTraceElement last = null;
-        for (int i = stackTrace.length - 1; i > 0; i--) {
-            final String className = stackTrace[i].getClassName();
-            if (fqcnOfLogger.equals(className)) {
-                return last;
-            }
-            last = stackTrace[i];
-        }
-        return null;
+        return CALLER_LOCATOR.calcLocation(fqcnOfLogger);
     }
 
     @Override
@@ -29,6 +29,7 @@ import org.apache.logging.log4j.core.util.Constants;
 import org.apache.logging.log4j.message.Message;
 import org.apache.logging.log4j.message.ParameterizedMessage;
 import org.apache.logging.log4j.message.ReusableMessage;
+import org.apache.logging.log4j.message.ReusableParameterizedMessage;
 import org.apache.logging.log4j.message.SimpleMessage;
 import org.apache.logging.log4j.util.Strings;
 
@@ -51,6 +52,7 @@ public class MutableLogEvent implements LogEvent, ReusableMessage {
     private String loggerName;
     private Message message;
     private StringBuilder messageText;
+    private String messageFormat;
     private Object[] parameters;
     private Throwable thrown;
     private ThrowableProxy thrownProxy;
@@ -118,6 +120,7 @@ public class MutableLogEvent implements LogEvent, ReusableMessage {
         // where this instance is kept in a ThreadLocal, so it usually does not change.
         // threadName = null; // no need to clear threadName
 
+        messageFormat = null;
         trimMessageText();
         if (parameters != null) {
             for (int i = 0; i < parameters.length; i++) {
@@ -193,6 +196,8 @@ public class MutableLogEvent implements LogEvent, ReusableMessage {
         if (msg instanceof ReusableMessage) {
             final ReusableMessage reusable = (ReusableMessage) msg;
             reusable.formatTo(getMessageTextForWriting());
+            // only a parameterized message returns its format without converting a CharSequence or Object to text
+            messageFormat = reusable instanceof ReusableParameterizedMessage ? reusable.getFormat() : null;
             if (parameters != null) {
                 parameters = reusable.swapParameters(parameters);
                 parameterCount = reusable.getParameterCount();
@@ -229,7 +234,7 @@ public class MutableLogEvent implements LogEvent, ReusableMessage {
      */
     @Override
     public String getFormat() {
-        return null;
+        return messageFormat;
     }
 
     /**
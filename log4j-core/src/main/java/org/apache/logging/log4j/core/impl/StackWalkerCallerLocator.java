@@ -0,0 +1,177 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.impl;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Finds the caller with the {@code java.lang.StackWalker} API of Java 9 and later. Frames are only materialized until
+ * the caller is found, so the cost does not depend on the depth of the stack below the logging call.
+ * <p>
+ * Log4j is compiled for Java 7, so the StackWalker methods are bound with method handles and the function passed to
+ * {@code StackWalker.walk} is a {@link Proxy} of {@code java.util.function.Function}, created once for each logger
+ * class. This class must only be instantiated when {@link #isAvailable()} returns true.
+ * </p>
+ *
+ * @since 2.7
+ */
+public class StackWalkerCallerLocator implements CallerLocator {
+
+    private static final Object WALKER;
+    private static final Class<?> FUNCTION_CLASS;
+    private static final MethodHandle WALK;
+    private static final MethodHandle ITERATOR;
+    private static final MethodHandle GET_CLASS_NAME;
+    private static final MethodHandle TO_STACK_TRACE_ELEMENT;
+
+    private final ConcurrentMap<String, Object> functions = new ConcurrentHashMap<>();
+
+    static {
+        Object walker = null;
+        Class<?> functionClass = null;
+        MethodHandle walk = null;
+        MethodHandle iterator = null;
+        MethodHandle getClassName = null;
+        MethodHandle toStackTraceElement = null;
+        try {
+            // walk() is caller sensitive, so it cannot be looked up with the public lookup.
+            final MethodHandles.Lookup lookup = MethodHandles.lookup();
+            final Class<?> walkerClass = Class.forName("java.lang.StackWalker");
+            final Class<?> frameClass = Class.forName("java.lang.StackWalker$StackFrame");
+            functionClass = Class.forName("java.util.function.Function");
+            walker = walkerClass.getMethod("getInstance").invoke(null);
+            walk = lookup.findVirtual(walkerClass, "walk", MethodType.methodType(Object.class, functionClass))
+                    .asType(MethodType.methodType(Object.class, Object.class, Object.class));
+            iterator = lookup.findVirtual(Class.forName("java.util.stream.BaseStream"), "iterator",
+                    MethodType.methodType(Iterator.class))
+                    .asType(MethodType.methodType(Iterator.class, Object.class));
+            getClassName = lookup.findVirtual(frameClass, "getClassName", MethodType.methodType(String.class))
+                    .asType(MethodType.methodType(String.class, Object.class));
+            toStackTraceElement = lookup.findVirtual(frameClass, "toStackTraceElement",
+                    MethodType.methodType(StackTraceElement.class))
+                    .asType(MethodType.methodType(StackTraceElement.class, Object.class));
+        } catch (final Exception | LinkageError ex) {
+            walker = null;
+        }
+        WALKER = walker;
+        FUNCTION_CLASS = functionClass;
+        WALK = walk;
+        ITERATOR = iterator;
+        GET_CLASS_NAME = getClassName;
+        TO_STACK_TRACE_ELEMENT = toStackTraceElement;
+    }
+
+    /**
+     * Creates the locator.
+     *
+     * @throws UnsupportedOperationException if the StackWalker API is not available.
+     */
+    public StackWalkerCallerLocator() {
+        if (!isAvailable()) {
+            throw new UnsupportedOperationException("StackWalker is not available");
+        }
+    }
+
+    /**
+     * Returns whether the running JVM provides the StackWalker API.
+     *
+     * @return true on Java 9 and later.
+     */
+    public static boolean isAvailable() {
+        return WALKER != null;
+    }
+
+    @Override
+    public StackTraceElement calcLocation(final String fqcnOfLogger) {
+        if (fqcnOfLogger == null) {
+            return null;
+        }
+        try {
+            final Object result = WALK.invokeExact(WALKER, getFunction(fqcnOfLogger));
+            return (StackTraceElement) result;
+        } catch (final RuntimeException | Error ex) {
+            throw ex;
+        } catch (final Throwable t) {
+            throw new IllegalStateException(t);
+        }
+    }
+
+    private Object getFunction(final String fqcnOfLogger) {
+        Object function = functions.get(fqcnOfLogger);
+        if (function == null) {
+            final Object created = Proxy.newProxyInstance(StackWalkerCallerLocator.class.getClassLoader(),
+                    new Class<?>[] {FUNCTION_CLASS}, new LocationFunction(fqcnOfLogger));
+            function = functions.putIfAbsent(fqcnOfLogger, created);
+            if (function == null) {
+                function = created;
+            }
+        }
+        return function;
+    }
+
+    /**
+     * Implements {@code Function<Stream<StackFrame>, StackTraceElement>}: walks the frames from the top of the stack
+     * and stops at the first frame after the logger class.
+     */
+    private static final class LocationFunction implements InvocationHandler {
+
+        private final String fqcnOfLogger;
+
+        LocationFunction(final String fqcnOfLogger) {
+            this.fqcnOfLogger = fqcnOfLogger;
+        }
+
+        @Override
+        public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable {
+            if (method.getDeclaringClass() == Object.class) {
+                switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    return "LocationFunction[" + fqcnOfLogger + ']';
+                }
+            }
+            // the only abstract method of Function is apply(Stream<StackFrame>)
+            return apply(args[0]);
+        }
+
+        private StackTraceElement apply(final Object frames) throws Throwable {
+            final Iterator<?> iterator = (Iterator<?>) ITERATOR.invokeExact(frames);
+            boolean found = false;
+            while (iterator.hasNext()) {
+                final Object frame = iterator.next();
+                final String className = (String) GET_CLASS_NAME.invokeExact(frame);
+                if (fqcnOfLogger.equals(className)) {
+                    found = true;
+                } else if (found) {
+                    return (StackTraceElement) TO_STACK_TRACE_ELEMENT.invokeExact(frame);
+                }
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,45 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.impl;
+
+/**
+ * Finds the caller in the stack trace of a new Throwable. Works on all Java versions, but the JVM fills in the whole
+ * stack trace even though the caller is usually found in the first few frames.
+ *
+ * @since 2.7
+ */
+public class ThrowableCallerLocator implements CallerLocator {
+
+    @Override
+    public StackTraceElement calcLocation(final String fqcnOfLogger) {
+        if (fqcnOfLogger == null) {
+            return null;
+        }
+        // LOG4J2-1029 new Throwable().getStackTrace is faster than Thread.currentThread().getStackTrace().
+        final StackTraceElement[] stackTrace = new Throwable().getStackTrace();
+        boolean found = false;
+        for (int i = 0; i < stackTrace.length; i++) {
+            final String className = stackTrace[i].getClassName();
+            if (fqcnOfLogger.equals(className)) {
+                found = true;
+            } else if (found) {
+                return stackTrace[i];
+            }
+        }
+        return null;
+    }
+}
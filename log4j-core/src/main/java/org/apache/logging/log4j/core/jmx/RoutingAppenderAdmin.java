@@ -0,0 +1,94 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.jmx;
+
+import java.util.Objects;
+
+import javax.management.ObjectName;
+
+import org.apache.logging.log4j.core.appender.routing.RoutingAppender;
+
+/**
+ * Implementation of the {@code RoutingAppenderAdminMBean} interface.
+ *
+ * @since 2.7
+ */
+public class RoutingAppenderAdmin implements RoutingAppenderAdminMBean {
+
+    private final RoutingAppender routingAppender;
+    private final ObjectName objectName;
+
+    /**
+     * Constructs a new {@code RoutingAppenderAdmin} with the specified contextName
+     * and routing appender.
+     *
+     * @param contextName used in the {@code ObjectName} for this mbean
+     * @param appender the instrumented object
+     */
+    public RoutingAppenderAdmin(final String contextName, final RoutingAppender appender) {
+        Objects.requireNonNull(contextName, "contextName");
+        this.routingAppender = Objects.requireNonNull(appender, "routing appender");
+        try {
+            final String ctxName = Server.escape(contextName);
+            final String configName = Server.escape(appender.getName());
+            final String name = String.format(PATTERN, ctxName, configName);
+            objectName = new ObjectName(name);
+        } catch (final Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Returns the {@code ObjectName} of this mbean.
+     *
+     * @return the {@code ObjectName}
+     * @see RoutingAppenderAdminMBean#PATTERN
+     */
+    public ObjectName getObjectName() {
+        return objectName;
+    }
+
+    @Override
+    public String getName() {
+        return routingAppender.getName();
+    }
+
+    @Override
+    public String getPattern() {
+        return routingAppender.getPattern();
+    }
+
+    @Override
+    public String getPurgePolicy() {
+        return String.valueOf(routingAppender.getPurgePolicy());
+    }
+
+    @Override
+    public int getRouteCount() {
+        return routingAppender.getAppenders().size();
+    }
+
+    @Override
+    public long getRoutesCreated() {
+        return routingAppender.getRoutesCreated();
+    }
+
+    @Override
+    public long getRoutesDeleted() {
+        return routingAppender.getRoutesDeleted();
+    }
+}
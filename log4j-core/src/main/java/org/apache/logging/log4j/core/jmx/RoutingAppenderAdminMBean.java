@@ -0,0 +1,96 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.jmx;
+
+/**
+ * The MBean interface for monitoring a {@code RoutingAppender}.
+ *
+ * @since 2.7
+ */
+public interface RoutingAppenderAdminMBean {
+    /**
+     * ObjectName pattern ({@value}) for RoutingAppenderAdmin MBeans. This
+     * pattern contains two variables, where the first is the name of the
+     * context, the second is the name of the instrumented appender.
+     * <p>
+     * You can find all registered RoutingAppenderAdmin MBeans like this:
+     * </p>
+     * <pre>
+     * MBeanServer mbs = ManagementFactory.getPlatformMBeanServer();
+     * String pattern = String.format(RoutingAppenderAdminMBean.PATTERN, &quot;*&quot;, &quot;*&quot;);
+     * Set&lt;ObjectName&gt; appenderNames = mbs.queryNames(new ObjectName(pattern), null);
+     * </pre>
+     * <p>
+     * Some characters are not allowed in ObjectNames. The logger context name
+     * and appender name may be quoted. When RoutingAppenderAdmin MBeans are
+     * registered, their ObjectNames are created using this pattern as follows:
+     * </p>
+     * <pre>
+     * String ctxName = Server.escape(loggerContext.getName());
+     * String appenderName = Server.escape(appender.getName());
+     * String name = String.format(PATTERN, ctxName, appenderName);
+     * ObjectName objectName = new ObjectName(name);
+     * </pre>
+     * @see Server#escape(String)
+     */
+    String PATTERN = Server.DOMAIN + ":type=%s,component=RoutingAppenders,name=%s";
+
+    /**
+     * Returns the name of the instrumented {@code RoutingAppender}.
+     *
+     * @return the name of the RoutingAppender
+     */
+    String getName();
+
+    /**
+     * Returns the pattern that selects the route of an event.
+     *
+     * @return the route pattern
+     */
+    String getPattern();
+
+    /**
+     * Returns the result of calling {@code toString} on the purge policy of
+     * the instrumented {@code RoutingAppender}, or {@code "null"} if it has none.
+     *
+     * @return the purge policy as a string
+     */
+    String getPurgePolicy();
+
+    /**
+     * Returns the number of routes that currently have an Appender.
+     *
+     * @return the number of active routes
+     */
+    int getRouteCount();
+
+    /**
+     * Returns the number of Appenders created for routes since the appender
+     * was started.
+     *
+     * @return the number of created routes
+     */
+    long getRoutesCreated();
+
+    /**
+     * Returns the number of routes deleted by the purge policy or by
+     * {@code RoutingAppender.deleteAppender}.
+     *
+     * @return the number of deleted routes
+     */
+    long getRoutesDeleted();
+}
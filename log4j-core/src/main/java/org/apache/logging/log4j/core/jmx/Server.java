@@ -34,6 +34,7 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.core.Appender;
 import org.apache.logging.log4j.core.LoggerContext;
 import org.apache.logging.log4j.core.appender.AsyncAppender;
+import org.apache.logging.log4j.core.appender.routing.RoutingAppender;
 import org.apache.logging.log4j.core.async.AsyncLoggerConfig;
 import org.apache.logging.log4j.core.async.AsyncLoggerContext;
 import org.apache.logging.log4j.core.config.LoggerConfig;
@@ -215,6 +216,7 @@ public final class Server {
         unregisterAsyncLoggerConfigRingBufferAdmins("*", mbs);
         unregisterAppenders("*", mbs);
         unregisterAsyncAppenders("*", mbs);
+        unregisterRoutingAppenders("*", mbs);
     }
 
     /**
@@ -264,6 +266,7 @@ public final class Server {
         unregisterLoggerConfigs(contextName, mbs);
         unregisterAppenders(contextName, mbs);
         unregisterAsyncAppenders(contextName, mbs);
+        unregisterRoutingAppenders(contextName, mbs);
         unregisterAsyncLoggerRingBufferAdmins(contextName, mbs);
         unregisterAsyncLoggerConfigRingBufferAdmins(contextName, mbs);
     }
@@ -319,6 +322,12 @@ public final class Server {
         unregisterAllMatching(search, mbs);
     }
 
+    private static void unregisterRoutingAppenders(final String contextName, final MBeanServer mbs) {
+        final String pattern = RoutingAppenderAdminMBean.PATTERN;
+        final String search = String.format(pattern, escape(contextName), "*");
+        unregisterAllMatching(search, mbs);
+    }
+
     private static void unregisterAsyncLoggerRingBufferAdmins(final String contextName, final MBeanServer mbs) {
         final String pattern1 = RingBufferAdminMBean.PATTERN_ASYNC_LOGGER;
         final String search1 = String.format(pattern1, escape(contextName));
@@ -380,6 +389,10 @@ public final class Server {
                 final AppenderAdmin mbean = new AppenderAdmin(ctx.getName(), appender);
                 register(mbs, mbean, mbean.getObjectName());
             }
+            if (appender instanceof RoutingAppender) {
+                final RoutingAppenderAdmin mbean = new RoutingAppenderAdmin(ctx.getName(), (RoutingAppender) appender);
+                register(mbs, mbean, mbean.getObjectName());
+            }
         }
     }
 
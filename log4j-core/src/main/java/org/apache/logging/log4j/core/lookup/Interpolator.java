@@ -150,10 +150,7 @@ public class Interpolator extends AbstractConfigurationAwareLookup {
         if (prefixPos >= 0) {
             final String prefix = var.substring(0, prefixPos);
             final String name = var.substring(prefixPos + 1);
-            final StrLookup lookup = lookups.get(prefix);
-            if (lookup instanceof ConfigurationAware) {
-                ((ConfigurationAware) lookup).setConfiguration(configuration);
-            }
+            final StrLookup lookup = getLookup(prefix);
             String value = null;
             if (lookup != null) {
                 value = event == null ? lookup.lookup(name) : lookup.lookup(event, name);
@@ -170,6 +167,29 @@ public class Interpolator extends AbstractConfigurationAwareLookup {
         return null;
     }
 
+    /**
+     * Returns the StrLookup registered for the given prefix, after passing it the current configuration.
+     *
+     * @param prefix the variable prefix
+     * @return the StrLookup or null if no lookup is registered for the prefix
+     */
+    StrLookup getLookup(final String prefix) {
+        final StrLookup lookup = lookups.get(prefix);
+        if (lookup instanceof ConfigurationAware) {
+            ((ConfigurationAware) lookup).setConfiguration(configuration);
+        }
+        return lookup;
+    }
+
+    /**
+     * Returns the StrLookup used for variables without a prefix and for variables the prefixed lookup cannot resolve.
+     *
+     * @return the default StrLookup
+     */
+    StrLookup getDefaultLookup() {
+        return defaultLookup;
+    }
+
     @Override
     public String toString() {
         final StringBuilder sb = new StringBuilder();
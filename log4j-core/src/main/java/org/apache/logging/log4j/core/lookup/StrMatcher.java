@@ -327,6 +327,15 @@ public abstract class StrMatcher {
         public int isMatch(final char[] buffer, final int pos, final int bufferStart, final int bufferEnd) {
             return ch == buffer[pos] ? 1 : 0;
         }
+
+        /**
+         * Returns the matched character as a String.
+         *
+         * @return the character to match
+         */
+        String getText() {
+            return String.valueOf(ch);
+        }
     }
 
     //-----------------------------------------------------------------------
@@ -369,7 +378,16 @@ public abstract class StrMatcher {
             }
             return len;
         }
-        
+
+        /**
+         * Returns the matched string.
+         *
+         * @return the string to match
+         */
+        String getText() {
+            return new String(chars);
+        }
+
         @Override
         public String toString() {
             return super.toString() + Chars.SPACE + Arrays.toString(chars);
@@ -705,6 +705,23 @@ public class StrSubstitutor implements ConfigurationAware {
         return buf.toString();
     }
 
+    //-----------------------------------------------------------------------
+    /**
+     * Compiles the given source string into a template that can be substituted repeatedly without parsing it
+     * again. The template gives the same result as {@link #replace(LogEvent, String)}; use it for strings that
+     * are substituted for every event.
+     *
+     * @param source  the template, null returns null
+     * @return the compiled template
+     * @since 2.7
+     */
+    public StrTemplate compile(final String source) {
+        if (source == null) {
+            return null;
+        }
+        return StrTemplate.compile(this, source);
+    }
+
     //-----------------------------------------------------------------------
     /**
      * Replaces all the occurrences of variables within the given source buffer
@@ -0,0 +1,392 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.lookup;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.logging.log4j.core.LogEvent;
+
+/**
+ * A template compiled by {@link StrSubstitutor#compile(String)}.
+ * <p>
+ * The template is parsed once into literal text and variable references, and the prefix of each variable is resolved
+ * to the StrLookup the {@link Interpolator} would select for it, so that {@link #replace(LogEvent)} only performs the
+ * lookups. The result is the same as calling {@link StrSubstitutor#replace(LogEvent, String)} with the template:
+ * default values are used for variables that cannot be resolved and values that contain variables are substituted
+ * again.
+ * </p>
+ * <p>
+ * If the variable resolver of the StrSubstitutor is replaced after the template was compiled, the template is
+ * substituted by the StrSubstitutor instead.
+ * </p>
+ *
+ * @since 2.7
+ */
+public final class StrTemplate {
+
+    private final StrSubstitutor substitutor;
+
+    private final StrLookup resolver;
+
+    private final String source;
+
+    private final Segment[] segments;
+
+    private StrTemplate(final StrSubstitutor substitutor, final StrLookup resolver, final String source,
+                        final Segment[] segments) {
+        this.substitutor = substitutor;
+        this.resolver = resolver;
+        this.source = source;
+        this.segments = segments;
+    }
+
+    /**
+     * Compiles a template for the given StrSubstitutor.
+     *
+     * @param substitutor The StrSubstitutor whose variable syntax and resolver are used.
+     * @param source The template.
+     * @return The compiled template.
+     */
+    static StrTemplate compile(final StrSubstitutor substitutor, final String source) {
+        final StrLookup resolver = substitutor.getVariableResolver();
+        Segment[] segments = null;
+        // subclasses may change how variables are substituted
+        if (substitutor.getClass() == StrSubstitutor.class) {
+            final char[] chars = source.toCharArray();
+            segments = new Compiler(substitutor).parse(chars, 0, chars.length);
+        }
+        return new StrTemplate(substitutor, resolver, source, segments);
+    }
+
+    /**
+     * Replaces the variables in this template with their values.
+     *
+     * @param event The current LogEvent, if there is one.
+     * @return The substituted template.
+     */
+    public String replace(final LogEvent event) {
+        if (segments == null || substitutor.getVariableResolver() != resolver) {
+            return substitutor.replace(event, source);
+        }
+        return evaluate(segments, event);
+    }
+
+    /**
+     * Returns the template this instance was compiled from.
+     *
+     * @return The template.
+     */
+    public String getSource() {
+        return source;
+    }
+
+    private static String evaluate(final Segment[] segments, final LogEvent event) {
+        switch (segments.length) {
+        case 0:
+            return "";
+        case 1:
+            return segments[0].evaluate(event);
+        default:
+            final StringBuilder sb = new StringBuilder();
+            for (final Segment segment : segments) {
+                sb.append(segment.evaluate(event));
+            }
+            return sb.toString();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return source;
+    }
+
+    /**
+     * A part of a compiled template.
+     */
+    private abstract static class Segment {
+
+        abstract String evaluate(LogEvent event);
+    }
+
+    /**
+     * Text without variables.
+     */
+    private static final class Literal extends Segment {
+
+        private final String text;
+
+        Literal(final String text) {
+            this.text = text;
+        }
+
+        @Override
+        String evaluate(final LogEvent event) {
+            return text;
+        }
+    }
+
+    /**
+     * A variable whose name contains other variables, which can only be substituted when the template is evaluated.
+     */
+    private static final class Dynamic extends Segment {
+
+        private final StrSubstitutor substitutor;
+
+        private final String expression;
+
+        Dynamic(final StrSubstitutor substitutor, final String expression) {
+            this.substitutor = substitutor;
+            this.expression = expression;
+        }
+
+        @Override
+        String evaluate(final LogEvent event) {
+            return substitutor.replace(event, expression);
+        }
+    }
+
+    /**
+     * A variable reference.
+     */
+    private abstract static class Variable extends Segment {
+
+        private final Compiler compiler;
+
+        private final String expression;
+
+        private final Segment[] defaultValue;
+
+        Variable(final Compiler compiler, final String expression, final Segment[] defaultValue) {
+            this.compiler = compiler;
+            this.expression = expression;
+            this.defaultValue = defaultValue;
+        }
+
+        abstract String resolve(LogEvent event);
+
+        @Override
+        String evaluate(final LogEvent event) {
+            final String value = resolve(event);
+            if (value == null) {
+                return defaultValue == null ? expression : StrTemplate.evaluate(defaultValue, event);
+            }
+            return compiler.containsVariable(value) ? compiler.substitutor.replace(event, value) : value;
+        }
+    }
+
+    /**
+     * A variable resolved by the variable resolver of the StrSubstitutor.
+     */
+    private static final class ResolverVariable extends Variable {
+
+        private final StrLookup resolver;
+
+        private final String name;
+
+        ResolverVariable(final Compiler compiler, final String expression, final Segment[] defaultValue,
+                         final StrLookup resolver, final String name) {
+            super(compiler, expression, defaultValue);
+            this.resolver = resolver;
+            this.name = name;
+        }
+
+        @Override
+        String resolve(final LogEvent event) {
+            return resolver == null ? null : resolver.lookup(event, name);
+        }
+    }
+
+    /**
+     * A variable resolved by the StrLookup that the Interpolator registered for its prefix, falling back to the
+     * default lookup of the Interpolator as {@link Interpolator#lookup(LogEvent, String)} does.
+     */
+    private static final class InterpolatorVariable extends Variable {
+
+        private final StrLookup lookup;
+
+        private final StrLookup defaultLookup;
+
+        private final String name;
+
+        InterpolatorVariable(final Compiler compiler, final String expression, final Segment[] defaultValue,
+                             final StrLookup lookup, final StrLookup defaultLookup, final String name) {
+            super(compiler, expression, defaultValue);
+            this.lookup = lookup;
+            this.defaultLookup = defaultLookup;
+            this.name = name;
+        }
+
+        @Override
+        String resolve(final LogEvent event) {
+            if (lookup != null) {
+                final String value = event == null ? lookup.lookup(name) : lookup.lookup(event, name);
+                if (value != null) {
+                    return value;
+                }
+            }
+            if (defaultLookup != null) {
+                return event == null ? defaultLookup.lookup(name) : defaultLookup.lookup(event, name);
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Parses templates with the variable syntax of a StrSubstitutor, following the rules of
+     * {@link StrSubstitutor#replace(LogEvent, String)}.
+     */
+    private static final class Compiler {
+
+        private static final char PREFIX_SEPARATOR = ':';
+
+        private final StrSubstitutor substitutor;
+        private final StrLookup resolver;
+        private final StrMatcher prefixMatcher;
+        private final StrMatcher suffixMatcher;
+        private final StrMatcher valueDelimiterMatcher;
+        private final char escape;
+        private final boolean substitutionInVariablesEnabled;
+        private final String prefix;
+
+        Compiler(final StrSubstitutor substitutor) {
+            this.substitutor = substitutor;
+            this.resolver = substitutor.getVariableResolver();
+            this.prefixMatcher = substitutor.getVariablePrefixMatcher();
+            this.suffixMatcher = substitutor.getVariableSuffixMatcher();
+            this.valueDelimiterMatcher = substitutor.getValueDelimiterMatcher();
+            this.escape = substitutor.getEscapeChar();
+            this.substitutionInVariablesEnabled = substitutor.isEnableSubstitutionInVariables();
+            if (prefixMatcher instanceof StrMatcher.StringMatcher) {
+                this.prefix = ((StrMatcher.StringMatcher) prefixMatcher).getText();
+            } else if (prefixMatcher instanceof StrMatcher.CharMatcher) {
+                this.prefix = ((StrMatcher.CharMatcher) prefixMatcher).getText();
+            } else {
+                this.prefix = null;
+            }
+        }
+
+        Segment[] parse(final char[] chars, final int offset, final int end) {
+            final List<Segment> segments = new ArrayList<>();
+            final StringBuilder literal = new StringBuilder();
+            int pos = offset;
+            while (pos < end) {
+                final int startMatchLen = prefixMatcher.isMatch(chars, pos, offset, end);
+                if (startMatchLen == 0) {
+                    literal.append(chars[pos++]);
+                } else if (pos > offset && chars[pos - 1] == escape && literal.length() > 0) {
+                    // escaped: the escape character is dropped and the variable start is kept as text
+                    literal.setLength(literal.length() - 1);
+                    literal.append(chars[pos++]);
+                } else {
+                    final int suffixPos = findSuffix(chars, pos + startMatchLen, offset, end);
+                    if (suffixPos < 0) {
+                        // unterminated variable
+                        literal.append(chars, pos, end - pos);
+                        break;
+                    }
+                    final int endPos = suffixPos + suffixMatcher.isMatch(chars, suffixPos, offset, end);
+                    if (literal.length() > 0) {
+                        segments.add(new Literal(literal.toString()));
+                        literal.setLength(0);
+                    }
+                    segments.add(createVariable(new String(chars, pos, endPos - pos),
+                            new String(chars, pos + startMatchLen, suffixPos - pos - startMatchLen)));
+                    pos = endPos;
+                }
+            }
+            if (literal.length() > 0) {
+                segments.add(new Literal(literal.toString()));
+            }
+            return segments.toArray(new Segment[segments.size()]);
+        }
+
+        private int findSuffix(final char[] chars, int pos, final int offset, final int end) {
+            int nestedVarCount = 0;
+            while (pos < end) {
+                int matchLen;
+                if (substitutionInVariablesEnabled && (matchLen = prefixMatcher.isMatch(chars, pos, offset, end)) != 0) {
+                    nestedVarCount++;
+                    pos += matchLen;
+                    continue;
+                }
+                matchLen = suffixMatcher.isMatch(chars, pos, offset, end);
+                if (matchLen == 0) {
+                    pos++;
+                } else if (nestedVarCount == 0) {
+                    return pos;
+                } else {
+                    nestedVarCount--;
+                    pos += matchLen;
+                }
+            }
+            return -1;
+        }
+
+        private Segment createVariable(final String expression, final String varNameExpr) {
+            if (substitutionInVariablesEnabled && containsVariable(varNameExpr)) {
+                return new Dynamic(substitutor, expression);
+            }
+            String varName = varNameExpr;
+            Segment[] defaultValue = null;
+            if (valueDelimiterMatcher != null) {
+                final char[] varNameExprChars = varNameExpr.toCharArray();
+                for (int i = 0; i < varNameExprChars.length; i++) {
+                    if (!substitutionInVariablesEnabled
+                            && prefixMatcher.isMatch(varNameExprChars, i, i, varNameExprChars.length) != 0) {
+                        break;
+                    }
+                    final int valueDelimiterMatchLen = valueDelimiterMatcher.isMatch(varNameExprChars, i);
+                    if (valueDelimiterMatchLen != 0) {
+                        varName = varNameExpr.substring(0, i);
+                        final int start = i + valueDelimiterMatchLen;
+                        defaultValue = parse(varNameExprChars, start, varNameExprChars.length);
+                        break;
+                    }
+                }
+            }
+            if (resolver != null && resolver.getClass() == Interpolator.class) {
+                final Interpolator interpolator = (Interpolator) resolver;
+                final int prefixPos = varName.indexOf(PREFIX_SEPARATOR);
+                if (prefixPos >= 0) {
+                    return new InterpolatorVariable(this, expression, defaultValue,
+                            interpolator.getLookup(varName.substring(0, prefixPos)),
+                            interpolator.getDefaultLookup(), varName.substring(prefixPos + 1));
+                }
+                return new InterpolatorVariable(this, expression, defaultValue, null, interpolator.getDefaultLookup(),
+                        varName);
+            }
+            return new ResolverVariable(this, expression, defaultValue, resolver, varName);
+        }
+
+        boolean containsVariable(final String value) {
+            if (prefix != null) {
+                return value.contains(prefix);
+            }
+            if (value.isEmpty()) {
+                return false;
+            }
+            final char[] chars = value.toCharArray();
+            for (int i = 0; i < chars.length; i++) {
+                if (prefixMatcher.isMatch(chars, i, 0, chars.length) != 0) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -19,8 +19,13 @@ package org.apache.logging.log4j.core.net;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.List;
 import java.util.Properties;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
 
 import javax.activation.DataSource;
 import javax.mail.Authenticator;
@@ -47,6 +52,7 @@ import org.apache.logging.log4j.core.impl.MutableLogEvent;
 import org.apache.logging.log4j.core.layout.AbstractStringLayout.Serializer;
 import org.apache.logging.log4j.core.layout.PatternLayout;
 import org.apache.logging.log4j.core.util.CyclicBuffer;
+import org.apache.logging.log4j.core.util.Log4jThread;
 import org.apache.logging.log4j.core.util.NameUtil;
 import org.apache.logging.log4j.core.util.NetUtils;
 import org.apache.logging.log4j.message.ReusableMessage;
@@ -55,10 +61,26 @@ import org.apache.logging.log4j.util.Strings;
 
 /**
  * Manager for sending SMTP events.
+ * <p>
+ * In asynchronous mode the triggering thread only queues the buffered events; a background thread talks to the SMTP
+ * server. Events triggered while that thread waits for the digest delay, the minimum send interval or a previous
+ * e-mail are sent together in one digest e-mail. Unless they are configured otherwise, the connection and socket
+ * timeouts of that thread are 10 seconds, and releasing the manager waits at most 30 seconds for the queued e-mails to
+ * be sent.
+ * </p>
  */
 public class SmtpManager extends AbstractManager {
     private static final SMTPManagerFactory FACTORY = new SMTPManagerFactory();
 
+    /** Default for the mail.&lt;protocol&gt;.connectiontimeout and .timeout properties in asynchronous mode. */
+    private static final String DEFAULT_ASYNC_TIMEOUT_MILLIS = "10000";
+
+    /** How long releasing the manager waits for the sender thread before it interrupts it. */
+    private static final long SHUTDOWN_TIMEOUT_MILLIS = 30000;
+
+    /** Wakes up the sender thread when the manager is released. */
+    private static final PendingEmail SHUTDOWN = new PendingEmail(null, new LogEvent[0]);
+
     private final Session session;
 
     private final CyclicBuffer<LogEvent> buffer;
@@ -67,6 +89,10 @@ public class SmtpManager extends AbstractManager {
 
     private final FactoryData data;
 
+    private final BlockingQueue<PendingEmail> queue;
+
+    private final Sender sender;
+
     private static MimeMessage createMimeMessage(final FactoryData data, final Session session, final LogEvent appendEvent)
             throws MessagingException {
         return new MimeMessageBuilder(session).setFrom(data.from).setReplyTo(data.replyto)
@@ -82,15 +108,27 @@ public class SmtpManager extends AbstractManager {
         this.message = message;
         this.data = data;
         this.buffer = new CyclicBuffer<>(LogEvent.class, data.numElements);
+        if (data.async) {
+            this.queue = new ArrayBlockingQueue<>(Math.max(data.queueSize, 1));
+            this.sender = new Sender();
+            this.sender.start();
+        } else {
+            this.queue = null;
+            this.sender = null;
+        }
+    }
+
+    public void add(final LogEvent event) {
+        buffer.add(toImmutable(event));
     }
 
-    public void add(LogEvent event) {
+    private static LogEvent toImmutable(final LogEvent event) {
         if (event instanceof Log4jLogEvent && event.getMessage() instanceof ReusableMessage) {
             ((Log4jLogEvent) event).makeMessageImmutable();
         } else if (event instanceof MutableLogEvent) {
-            event = ((MutableLogEvent) event).createMemento();
+            return ((MutableLogEvent) event).createMemento();
         }
-        buffer.add(event);
+        return event;
     }
 
     public static SmtpManager getSmtpManager(
@@ -100,6 +138,30 @@ public class SmtpManager extends AbstractManager {
                                              final String subject, String protocol, final String host,
                                              final int port, final String username, final String password,
                                              final boolean isDebug, final String filterName, final int numElements) {
+        return getSmtpManager(config, to, cc, bcc, from, replyTo, subject, protocol, host, port, username, password,
+            isDebug, filterName, numElements, false, 0, 0, 0);
+    }
+
+    /**
+     * Gets an SmtpManager that optionally sends its e-mails from a background thread.
+     *
+     * @param async Whether e-mails are sent from a background thread.
+     * @param queueSize The maximum number of triggering events waiting to be sent in asynchronous mode. Further
+     *                  triggering events are dropped.
+     * @param digestDelayMillis How long the background thread waits for more triggering events before it sends an
+     *                          e-mail.
+     * @param minSendIntervalMillis The minimum number of milliseconds between two e-mails in asynchronous mode.
+     * @since 2.7
+     */
+    public static SmtpManager getSmtpManager(
+                                             final Configuration config,
+                                             final String to, final String cc, final String bcc,
+                                             final String from, final String replyTo,
+                                             final String subject, String protocol, final String host,
+                                             final int port, final String username, final String password,
+                                             final boolean isDebug, final String filterName, final int numElements,
+                                             final boolean async, final int queueSize, final long digestDelayMillis,
+                                             final long minSendIntervalMillis) {
         if (Strings.isEmpty(protocol)) {
             protocol = "smtp";
         }
@@ -139,40 +201,116 @@ public class SmtpManager extends AbstractManager {
         }
         sb.append(isDebug ? ":debug:" : "::");
         sb.append(filterName);
+        if (async) {
+            sb.append(":async:").append(queueSize).append(':').append(digestDelayMillis).append(':')
+                .append(minSendIntervalMillis);
+        }
 
         final String name = "SMTP:" + NameUtil.md5(sb.toString());
         final Serializer subjectSerializer = PatternLayout.createSerializer(config, null, subject, null, null, false, false);
 
         return getManager(name, FACTORY, new FactoryData(to, cc, bcc, from, replyTo, subjectSerializer,
-            protocol, host, port, username, password, isDebug, numElements));
+            protocol, host, port, username, password, isDebug, numElements, async, queueSize, digestDelayMillis,
+            minSendIntervalMillis));
     }
 
     /**
-     * Send the contents of the cyclic buffer as an e-mail message.
+     * Send the contents of the cyclic buffer as an e-mail message. In asynchronous mode the events are queued for
+     * the background thread and this method returns immediately.
      * @param layout The layout for formatting the events.
      * @param appendEvent The event that triggered the send.
      */
     public void sendEvents(final Layout<?> layout, final LogEvent appendEvent) {
+        if (queue != null) {
+            queueEvents(layout, appendEvent);
+            return;
+        }
         if (message == null) {
             connect(appendEvent);
         }
         try {
             final LogEvent[] priorEvents = buffer.removeAll();
             // LOG4J-310: log appendEvent even if priorEvents is empty
+            send(layout, priorEvents, appendEvent);
+        } catch (final MessagingException | IOException | RuntimeException e) {
+            logError("Caught exception while sending e-mail notification.", e);
+            throw new LoggingException("Error occurred while sending email", e);
+        }
+    }
+
+    private void queueEvents(final Layout<?> layout, final LogEvent appendEvent) {
+        final LogEvent[] priorEvents = buffer.removeAll();
+        final LogEvent[] events = new LogEvent[priorEvents.length + 1];
+        System.arraycopy(priorEvents, 0, events, 0, priorEvents.length);
+        events[priorEvents.length] = toImmutable(appendEvent);
+        if (!queue.offer(new PendingEmail(layout, events))) {
+            LOGGER.warn("SmtpManager {} dropped {} events: {} e-mails are already waiting to be sent.", getName(),
+                events.length, queue.size());
+        }
+    }
+
+    private void send(final Layout<?> layout, final LogEvent[] priorEvents, final LogEvent appendEvent)
+            throws MessagingException, IOException {
+        final byte[] rawBytes = formatContentToBytes(priorEvents, appendEvent, layout);
 
-            final byte[] rawBytes = formatContentToBytes(priorEvents, appendEvent, layout);
+        final String contentType = layout.getContentType();
+        final String encoding = getEncoding(rawBytes, contentType);
+        final byte[] encodedBytes = encodeContentToBytes(rawBytes, encoding);
 
-            final String contentType = layout.getContentType();
-            final String encoding = getEncoding(rawBytes, contentType);
-            final byte[] encodedBytes = encodeContentToBytes(rawBytes, encoding);
+        final InternetHeaders headers = getHeaders(contentType, encoding);
+        final MimeMultipart mp = getMimeMultipart(encodedBytes, headers);
 
-            final InternetHeaders headers = getHeaders(contentType, encoding);
-            final MimeMultipart mp = getMimeMultipart(encodedBytes, headers);
+        sendMultipartMessage(message, mp);
+    }
 
-            sendMultipartMessage(message, mp);
+    /**
+     * Sends the events of several triggering events in one e-mail.
+     */
+    private void sendDigest(final List<PendingEmail> emails) {
+        int count = 0;
+        for (final PendingEmail email : emails) {
+            count += email.events.length;
+        }
+        if (count == 0) {
+            return;
+        }
+        final LogEvent[] priorEvents = new LogEvent[count - 1];
+        LogEvent appendEvent = null;
+        int pos = 0;
+        for (final PendingEmail email : emails) {
+            for (final LogEvent event : email.events) {
+                if (pos < priorEvents.length) {
+                    priorEvents[pos++] = event;
+                } else {
+                    appendEvent = event;
+                }
+            }
+        }
+        if (message == null) {
+            connect(emails.get(0).events[emails.get(0).events.length - 1]);
+        }
+        try {
+            send(emails.get(0).layout, priorEvents, appendEvent);
         } catch (final MessagingException | IOException | RuntimeException e) {
-            logError("Caught exception while sending e-mail notification.", e);
-            throw new LoggingException("Error occurred while sending email", e);
+            logError("Caught exception while sending e-mail notification for " + count + " events.", e);
+        }
+    }
+
+    @Override
+    protected void releaseSub() {
+        if (sender != null) {
+            sender.shutdown();
+            try {
+                sender.join(SHUTDOWN_TIMEOUT_MILLIS);
+                if (sender.isAlive()) {
+                    LOGGER.warn("SmtpManager {} did not send its queued e-mails within {} milliseconds.", getName(),
+                        SHUTDOWN_TIMEOUT_MILLIS);
+                    sender.interrupt();
+                }
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                LOGGER.warn("Interrupted while SmtpManager {} was sending its last e-mail.", getName());
+            }
         }
     }
 
@@ -250,6 +388,84 @@ public class SmtpManager extends AbstractManager {
         return mp;
     }
 
+    /**
+     * The buffered events and the triggering event waiting to be sent by the background thread.
+     */
+    private static class PendingEmail {
+        private final Layout<?> layout;
+        private final LogEvent[] events;
+
+        PendingEmail(final Layout<?> layout, final LogEvent[] events) {
+            this.layout = layout;
+            this.events = events;
+        }
+    }
+
+    /**
+     * Thread that sends the queued events. It waits for the digest delay and the minimum send interval before each
+     * e-mail, and sends all events queued in the meantime in that e-mail.
+     */
+    private class Sender extends Log4jThread {
+
+        private volatile boolean shutdown;
+
+        private long lastSendNanos;
+
+        Sender() {
+            super("SmtpSender-" + SmtpManager.this.getName());
+            setDaemon(true);
+            lastSendNanos = System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(data.minSendInterval);
+        }
+
+        @Override
+        public void run() {
+            final List<PendingEmail> emails = new ArrayList<>();
+            while (!shutdown || !queue.isEmpty()) {
+                try {
+                    collect(emails);
+                } catch (final InterruptedException e) {
+                    // Send what has been collected and drain the queue without waiting.
+                    shutdown = true;
+                }
+                queue.drainTo(emails);
+                emails.remove(SHUTDOWN);
+                if (!emails.isEmpty()) {
+                    sendDigest(emails);
+                    emails.clear();
+                    lastSendNanos = System.nanoTime();
+                }
+            }
+        }
+
+        private void collect(final List<PendingEmail> emails) throws InterruptedException {
+            if (shutdown) {
+                return;
+            }
+            final PendingEmail first = queue.take();
+            if (first == SHUTDOWN) {
+                return;
+            }
+            emails.add(first);
+            final long now = System.nanoTime();
+            final long deadline = Math.max(now + TimeUnit.MILLISECONDS.toNanos(data.digestDelay),
+                lastSendNanos + TimeUnit.MILLISECONDS.toNanos(data.minSendInterval));
+            long remaining = deadline - now;
+            while (remaining > 0 && !shutdown) {
+                final PendingEmail next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                if (next == null || next == SHUTDOWN) {
+                    return;
+                }
+                emails.add(next);
+                remaining = deadline - System.nanoTime();
+            }
+        }
+
+        void shutdown() {
+            shutdown = true;
+            queue.offer(SHUTDOWN);
+        }
+    }
+
     protected void sendMultipartMessage(final MimeMessage msg, final MimeMultipart mp) throws MessagingException {
         synchronized (msg) {
             msg.setContent(mp);
@@ -275,10 +491,23 @@ public class SmtpManager extends AbstractManager {
         private final String password;
         private final boolean isDebug;
         private final int numElements;
+        private final boolean async;
+        private final int queueSize;
+        private final long digestDelay;
+        private final long minSendInterval;
 
         public FactoryData(final String to, final String cc, final String bcc, final String from, final String replyTo,
                            final Serializer subjectSerializer, final String protocol, final String host, final int port,
                            final String username, final String password, final boolean isDebug, final int numElements) {
+            this(to, cc, bcc, from, replyTo, subjectSerializer, protocol, host, port, username, password, isDebug,
+                numElements, false, 0, 0, 0);
+        }
+
+        public FactoryData(final String to, final String cc, final String bcc, final String from, final String replyTo,
+                           final Serializer subjectSerializer, final String protocol, final String host, final int port,
+                           final String username, final String password, final boolean isDebug, final int numElements,
+                           final boolean async, final int queueSize, final long digestDelay,
+                           final long minSendInterval) {
             this.to = to;
             this.cc = cc;
             this.bcc = bcc;
@@ -292,6 +521,10 @@ public class SmtpManager extends AbstractManager {
             this.password = password;
             this.isDebug = isDebug;
             this.numElements = numElements;
+            this.async = async;
+            this.queueSize = queueSize;
+            this.digestDelay = digestDelay;
+            this.minSendInterval = minSendInterval;
         }
     }
 
@@ -330,6 +563,16 @@ public class SmtpManager extends AbstractManager {
                 properties.put(prefix + ".port", String.valueOf(data.port));
             }
 
+            if (data.async) {
+                // JavaMail blocks forever by default, which would keep the sender from ever shutting down
+                if (properties.getProperty(prefix + ".connectiontimeout") == null) {
+                    properties.put(prefix + ".connectiontimeout", DEFAULT_ASYNC_TIMEOUT_MILLIS);
+                }
+                if (properties.getProperty(prefix + ".timeout") == null) {
+                    properties.put(prefix + ".timeout", DEFAULT_ASYNC_TIMEOUT_MILLIS);
+                }
+            }
+
             final Authenticator authenticator = buildAuthenticator(data.username, data.password);
             if (null != authenticator) {
                 properties.put(prefix + ".auth", "true");
@@ -17,8 +17,23 @@
 package org.apache.logging.log4j.core.util;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ScheduledFuture;
@@ -28,16 +43,53 @@ import org.apache.logging.log4j.Logger;
 import org.apache.logging.log4j.core.AbstractLifeCycle;
 import org.apache.logging.log4j.core.config.ConfigurationScheduler;
 import org.apache.logging.log4j.status.StatusLogger;
+import org.apache.logging.log4j.util.PropertiesUtil;
 
 /**
  * Manages FileWatchers.
+ * <p>
+ * Where the file system supports it, the directories of the watched files are registered with a
+ * {@link WatchService} so that modifications are noticed as soon as they happen. A burst of events for the same file,
+ * as produced by most editors when saving, is coalesced into a single notification once the file has been quiet for
+ * the coalescing period. Files that cannot be registered, or that live on remote file systems where watch events are
+ * not delivered reliably, are polled every {@link #getIntervalSeconds() interval} as before. Symbolic links are also
+ * polled, since modifications of their target are not reported in the directory of the link.
+ * </p>
  */
 public class WatchManager extends AbstractLifeCycle {
 
+    /**
+     * Property that can be set to false to disable the use of the native WatchService and poll all files.
+     */
+    public static final String ENABLE_WATCH_SERVICE_PROPERTY = "log4j2.enable.watchService";
+
+    /**
+     * Property that sets the number of milliseconds a file must be quiet before a modification is reported.
+     */
+    public static final String COALESCE_MILLIS_PROPERTY = "log4j2.watchService.coalesceMillis";
+
+    private static final long DEFAULT_COALESCE_MILLIS = 100;
+
+    /** A file that is modified continuously is still reported after this many coalescing periods. */
+    private static final int MAX_COALESCED_PERIODS = 10;
+
+    /** The JDK falls back to this implementation where there is no native support; it is slower than our polling. */
+    private static final String POLLING_WATCH_SERVICE = "sun.nio.fs.PollingWatchService";
+
+    private static final Set<String> REMOTE_FILE_STORE_TYPES = new HashSet<>(Arrays.asList("nfs", "nfs4", "cifs",
+            "smbfs", "smb2", "afs", "ncpfs", "9p", "fuse.sshfs", "vboxsf", "prl_fs"));
+
     private static Logger logger = StatusLogger.getLogger();
     private final ConcurrentMap<File, FileMonitor> watchers = new ConcurrentHashMap<>();
+    private final ConcurrentMap<WatchKey, Path> directories = new ConcurrentHashMap<>();
     private int intervalSeconds = 0;
+    private boolean useWatchService = PropertiesUtil.getProperties().getBooleanProperty(
+            ENABLE_WATCH_SERVICE_PROPERTY, true);
+    private long coalesceMillis = PropertiesUtil.getProperties().getLongProperty(COALESCE_MILLIS_PROPERTY,
+            DEFAULT_COALESCE_MILLIS);
     private ScheduledFuture<?> future;
+    private volatile WatchService watchService;
+    private Thread watchThread;
     private final ConfigurationScheduler scheduler;
 
     public WatchManager(final ConfigurationScheduler scheduler) {
@@ -59,10 +111,51 @@ public class WatchManager extends AbstractLifeCycle {
         return this.intervalSeconds;
     }
 
+    /**
+     * Sets whether files are watched with the native WatchService when the file system supports it. Has no effect
+     * once the WatchManager is started.
+     * @param useWatchService false to poll all files.
+     */
+    public void setUseWatchService(final boolean useWatchService) {
+        if (!isStarted()) {
+            this.useWatchService = useWatchService;
+        }
+    }
+
+    public boolean isUseWatchService() {
+        return useWatchService;
+    }
+
+    /**
+     * Sets how long a file must be quiet after a watch event before the modification is reported. Has no effect once
+     * the WatchManager is started.
+     * @param coalesceMillis The coalescing period in milliseconds.
+     */
+    public void setCoalesceMillis(final long coalesceMillis) {
+        if (!isStarted()) {
+            this.coalesceMillis = coalesceMillis;
+        }
+    }
+
+    public long getCoalesceMillis() {
+        return coalesceMillis;
+    }
+
     @Override
     public void start() {
         super.start();
         if (intervalSeconds > 0) {
+            if (useWatchService) {
+                watchService = createWatchService();
+            }
+            if (watchService != null) {
+                for (final FileMonitor fileMonitor : watchers.values()) {
+                    fileMonitor.polled = !register(fileMonitor);
+                }
+                watchThread = Log4jThreadFactory.createDaemonThreadFactory("WatchManager").newThread(
+                        new WatchServiceWorker(watchService));
+                watchThread.start();
+            }
             future = scheduler.scheduleWithFixedDelay(new WatchWorker(), intervalSeconds, intervalSeconds,
                     TimeUnit.SECONDS);
         }
@@ -70,13 +163,31 @@ public class WatchManager extends AbstractLifeCycle {
 
     @Override
     public void stop() {
-        future.cancel(true);
+        if (future != null) {
+            future.cancel(true);
+            future = null;
+        }
+        final WatchService service = watchService;
+        if (service != null) {
+            watchService = null;
+            try {
+                service.close();
+            } catch (final IOException ex) {
+                logger.debug("Unable to close WatchService: {}", ex.getMessage());
+            }
+            watchThread.interrupt();
+            watchThread = null;
+            directories.clear();
+        }
         super.stop();
     }
 
     public void watchFile(final File file, final FileWatcher watcher) {
-        watchers.put(file, new FileMonitor(file.lastModified(), watcher));
-
+        final FileMonitor fileMonitor = new FileMonitor(file, file.lastModified(), watcher);
+        if (watchService != null) {
+            fileMonitor.polled = !register(fileMonitor);
+        }
+        watchers.put(file, fileMonitor);
     }
 
     public Map<File, FileWatcher> getWatchers() {
@@ -87,18 +198,85 @@ public class WatchManager extends AbstractLifeCycle {
         return map;
     }
 
+    /**
+     * Returns whether the file is checked for modifications by polling rather than by watch events.
+     * @param file A watched file.
+     * @return true if the file is polled, false if it is not polled or not watched.
+     */
+    public boolean isPolled(final File file) {
+        final FileMonitor fileMonitor = watchers.get(file);
+        return fileMonitor != null && fileMonitor.polled;
+    }
+
+    private static WatchService createWatchService() {
+        try {
+            final WatchService service = FileSystems.getDefault().newWatchService();
+            if (POLLING_WATCH_SERVICE.equals(service.getClass().getName())) {
+                logger.debug("No native WatchService on this platform, files will be polled");
+                service.close();
+                return null;
+            }
+            return service;
+        } catch (final IOException | UnsupportedOperationException ex) {
+            logger.debug("Unable to create WatchService, files will be polled: {}", ex.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Registers the directory of the file with the WatchService.
+     * @return true if the file will be reported by watch events, false if it has to be polled.
+     */
+    private boolean register(final FileMonitor fileMonitor) {
+        final WatchService service = watchService;
+        final Path directory = fileMonitor.path == null ? null : fileMonitor.path.getParent();
+        if (service == null || directory == null) {
+            return false;
+        }
+        if (Files.isSymbolicLink(fileMonitor.path)) {
+            // Changes to the target of a link are not reported for the directory of the link.
+            logger.debug("File {} is a symbolic link and will be polled", fileMonitor.file);
+            return false;
+        }
+        try {
+            final String type = Files.getFileStore(directory).type();
+            if (REMOTE_FILE_STORE_TYPES.contains(type)) {
+                logger.debug("File {} is on a {} file system and will be polled", fileMonitor.file, type);
+                return false;
+            }
+            final WatchKey key = directory.register(service, StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY);
+            directories.put(key, directory);
+            return true;
+        } catch (final IOException | UnsupportedOperationException | ClosedWatchServiceException
+                | SecurityException ex) {
+            logger.debug("Unable to watch directory {}, file {} will be polled: {}", directory, fileMonitor.file,
+                    ex.getMessage());
+            return false;
+        }
+    }
+
+    private void notifyWatcher(final FileMonitor fileMonitor, final long lastModified) {
+        logger.info("File {} was modified", fileMonitor.file.toString());
+        fileMonitor.lastModified = lastModified;
+        try {
+            fileMonitor.fileWatcher.fileModified(fileMonitor.file);
+        } catch (final RuntimeException ex) {
+            logger.error("Error processing modification of file {}", fileMonitor.file, ex);
+        }
+    }
+
     private class WatchWorker implements Runnable {
 
         @Override
         public void run() {
-            for (final Map.Entry<File, FileMonitor> entry : watchers.entrySet()) {
-                final File file = entry.getKey();
-                final FileMonitor fileMonitor = entry.getValue();
-                final long lastModfied = file.lastModified();
+            for (final FileMonitor fileMonitor : watchers.values()) {
+                if (!fileMonitor.polled) {
+                    continue;
+                }
+                final long lastModfied = fileMonitor.file.lastModified();
                 if (fileModified(fileMonitor, lastModfied)) {
-                    logger.info("File {} was modified", file.toString());
-                    fileMonitor.lastModified = lastModfied;
-                    fileMonitor.fileWatcher.fileModified(file);
+                    notifyWatcher(fileMonitor, lastModfied);
                 }
             }
         }
@@ -108,13 +286,135 @@ public class WatchManager extends AbstractLifeCycle {
         }
     }
 
+    /**
+     * Takes events from the WatchService and reports each modified file once it has been quiet for the coalescing
+     * period.
+     */
+    private class WatchServiceWorker implements Runnable {
+
+        private final WatchService service;
+
+        /** Files with events that have not been reported yet, in the order of their first event. */
+        private final Map<FileMonitor, PendingEvent> pending = new LinkedHashMap<>();
+
+        WatchServiceWorker(final WatchService service) {
+            this.service = service;
+        }
+
+        @Override
+        public void run() {
+            final long coalesceNanos = TimeUnit.MILLISECONDS.toNanos(coalesceMillis);
+            try {
+                while (true) {
+                    final long now = System.nanoTime();
+                    final WatchKey key = pending.isEmpty() ? service.take()
+                            : service.poll(Math.max(nextDeadline() - now, 0), TimeUnit.NANOSECONDS);
+                    if (key != null) {
+                        processEvents(key, System.nanoTime(), coalesceNanos);
+                    }
+                    notifyQuietFiles(System.nanoTime());
+                }
+            } catch (final InterruptedException | ClosedWatchServiceException ex) {
+                logger.debug("WatchManager stopped watching files");
+            }
+        }
+
+        private void processEvents(final WatchKey key, final long now, final long coalesceNanos) {
+            final Path directory = directories.get(key);
+            for (final WatchEvent<?> event : key.pollEvents()) {
+                if (directory == null) {
+                    continue;
+                }
+                if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                    // Events were lost; check every file of the directory.
+                    for (final FileMonitor fileMonitor : watchers.values()) {
+                        if (!fileMonitor.polled && directory.equals(fileMonitor.path.getParent())
+                                && fileMonitor.file.lastModified() != fileMonitor.lastModified) {
+                            addPending(fileMonitor, now, coalesceNanos);
+                        }
+                    }
+                    continue;
+                }
+                final Path path = directory.resolve((Path) event.context());
+                for (final FileMonitor fileMonitor : watchers.values()) {
+                    if (!fileMonitor.polled && path.equals(fileMonitor.path)) {
+                        addPending(fileMonitor, now, coalesceNanos);
+                    }
+                }
+            }
+            if (!key.reset()) {
+                directories.remove(key);
+            }
+        }
+
+        private void addPending(final FileMonitor fileMonitor, final long now, final long coalesceNanos) {
+            final PendingEvent event = pending.get(fileMonitor);
+            if (event == null) {
+                pending.put(fileMonitor, new PendingEvent(now + coalesceNanos,
+                        now + coalesceNanos * MAX_COALESCED_PERIODS));
+            } else {
+                event.deadline = Math.min(now + coalesceNanos, event.latest);
+            }
+        }
+
+        private long nextDeadline() {
+            long next = Long.MAX_VALUE;
+            boolean first = true;
+            for (final PendingEvent event : pending.values()) {
+                if (first || event.deadline - next < 0) {
+                    next = event.deadline;
+                    first = false;
+                }
+            }
+            return next;
+        }
+
+        private void notifyQuietFiles(final long now) {
+            final Iterator<Map.Entry<FileMonitor, PendingEvent>> iter = pending.entrySet().iterator();
+            while (iter.hasNext()) {
+                final Map.Entry<FileMonitor, PendingEvent> entry = iter.next();
+                if (entry.getValue().deadline - now <= 0) {
+                    iter.remove();
+                    final FileMonitor fileMonitor = entry.getKey();
+                    // Skip files that were replaced since they were registered.
+                    if (watchers.get(fileMonitor.file) == fileMonitor) {
+                        notifyWatcher(fileMonitor, fileMonitor.file.lastModified());
+                    }
+                }
+            }
+        }
+    }
+
+    private static class PendingEvent {
+        private long deadline;
+        private final long latest;
+
+        PendingEvent(final long deadline, final long latest) {
+            this.deadline = deadline;
+            this.latest = latest;
+        }
+    }
+
     private class FileMonitor {
+        private final File file;
+        private final Path path;
         private final FileWatcher fileWatcher;
-        private long lastModified;
+        private volatile long lastModified;
+        private volatile boolean polled = true;
 
-        public FileMonitor(final long lastModified, final FileWatcher fileWatcher) {
+        public FileMonitor(final File file, final long lastModified, final FileWatcher fileWatcher) {
+            this.file = file;
+            this.path = toPath(file);
             this.fileWatcher = fileWatcher;
             this.lastModified = lastModified;
         }
     }
+
+    private static Path toPath(final File file) {
+        try {
+            return file.getAbsoluteFile().toPath().normalize();
+        } catch (final InvalidPathException ex) {
+            return null;
+        }
+    }
 }
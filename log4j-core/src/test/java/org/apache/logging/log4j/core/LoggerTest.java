@@ -17,6 +17,7 @@
 package org.apache.logging.log4j.core;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertTrue;
@@ -36,6 +37,7 @@ import org.apache.logging.log4j.ThreadContext;
 import org.apache.logging.log4j.core.config.Configuration;
 import org.apache.logging.log4j.core.config.Configurator;
 import org.apache.logging.log4j.core.config.LoggerConfig;
+import org.apache.logging.log4j.core.filter.ThresholdFilter;
 import org.apache.logging.log4j.junit.LoggerContextRule;
 import org.apache.logging.log4j.message.Message;
 import org.apache.logging.log4j.message.MessageFactory;
@@ -149,6 +151,39 @@ public class LoggerTest {
         assertEventCount(events, 2);
     }
 
+    @Test
+    public void debugAddAndRemoveContextFilter() {
+        final Filter filter = ThresholdFilter.createFilter(Level.INFO, Filter.Result.NEUTRAL, Filter.Result.DENY);
+        logger.debug("Debug message 1");
+        final List<LogEvent> events = app.getEvents();
+        assertEventCount(events, 1);
+        context.getLoggerContext().addFilter(filter);
+        assertFalse(logger.isDebugEnabled());
+        logger.debug("Debug message 2");
+        assertEventCount(events, 1);
+        context.getLoggerContext().removeFilter(filter);
+        assertTrue(logger.isDebugEnabled());
+        logger.debug("Debug message 3");
+        assertEventCount(events, 2);
+    }
+
+    @Test
+    public void debugAddAndRemoveConfigurationFilter() {
+        final Filter filter = ThresholdFilter.createFilter(Level.INFO, Filter.Result.NEUTRAL, Filter.Result.DENY);
+        logger.debug("Debug message 1");
+        final List<LogEvent> events = app.getEvents();
+        assertEventCount(events, 1);
+        final Configuration config = context.getConfiguration();
+        config.addFilter(filter);
+        assertFalse(logger.isDebugEnabled());
+        logger.debug("Debug message 2");
+        assertEventCount(events, 1);
+        config.removeFilter(filter);
+        assertTrue(logger.isDebugEnabled());
+        logger.debug("Debug message 3");
+        assertEventCount(events, 2);
+    }
+
     @Test
     public void debugChangeLevelAllChildrenLoggers() {
         // Use logger AND child loggers
@@ -184,4 +184,80 @@ public class SmtpAppenderTest {
         assertFalse(body2.contains("Error with exception"));
         assertTrue(body2.contains("Error message #2"));
     }
+
+    @Test
+    public void testAsyncDeliveryCoalescesTriggeringEvents() {
+        final SmtpAppender appender = SmtpAppender.createAppender(null, "AsyncDigest", "to@example.com", null, null,
+                "from@example.com", null, "Digest", null, HOST, PORT, null, null, "false", "3", "true", null, "60000",
+                null, null, null, "true");
+        appender.start();
+
+        final LoggerContext context = LoggerContext.getContext();
+        final Logger root = context.getLogger("SMTPAppenderAsyncDigestTest");
+        root.addAppender(appender);
+        root.setAdditive(false);
+        root.setLevel(Level.DEBUG);
+
+        final SimpleSmtpServer server = SimpleSmtpServer.start(PORTNUM);
+        try {
+            root.debug("Debug message #1");
+            root.error("Error message #1");
+            root.debug("Debug message #2");
+            root.error("Error message #2");
+            root.error("Error message #3");
+            // nothing is sent while the digest delay runs
+            assertEquals(0, server.getReceivedEmailSize());
+            // stopping sends the pending digest without waiting for the delay
+            root.removeAppender(appender);
+            appender.stop();
+        } finally {
+            server.stop();
+        }
+        assertEquals(1, server.getReceivedEmailSize());
+        final String body = server.getReceivedEmail().next().getBody();
+        assertTrue(body.contains("Debug message #1"));
+        assertTrue(body.contains("Error message #1"));
+        assertTrue(body.contains("Debug message #2"));
+        assertTrue(body.contains("Error message #2"));
+        assertTrue(body.contains("Error message #3"));
+    }
+
+    @Test
+    public void testAsyncDeliveryMinSendInterval() throws InterruptedException {
+        final SmtpAppender appender = SmtpAppender.createAppender(null, "AsyncInterval", "to@example.com", null,
+                null, "from@example.com", null, "Interval", null, HOST, PORT, null, null, "false", "3", "true", null,
+                null, "60000", null, null, "true");
+        appender.start();
+
+        final LoggerContext context = LoggerContext.getContext();
+        final Logger root = context.getLogger("SMTPAppenderAsyncIntervalTest");
+        root.addAppender(appender);
+        root.setAdditive(false);
+        root.setLevel(Level.DEBUG);
+
+        final SimpleSmtpServer server = SimpleSmtpServer.start(PORTNUM);
+        try {
+            root.error("Error message #1");
+            // the first e-mail is not delayed
+            for (int i = 0; i < 500 && server.getReceivedEmailSize() == 0; i++) {
+                Thread.sleep(10);
+            }
+            assertEquals(1, server.getReceivedEmailSize());
+            root.error("Error message #2");
+            root.error("Error message #3");
+            Thread.sleep(100);
+            assertEquals(1, server.getReceivedEmailSize());
+            root.removeAppender(appender);
+            appender.stop();
+        } finally {
+            server.stop();
+        }
+        assertEquals(2, server.getReceivedEmailSize());
+        final Iterator<SmtpMessage> messages = server.getReceivedEmail();
+        assertTrue(messages.next().getBody().contains("Error message #1"));
+        final String body = messages.next().getBody();
+        assertFalse(body.contains("Error message #1"));
+        assertTrue(body.contains("Error message #2"));
+        assertTrue(body.contains("Error message #3"));
+    }
 }
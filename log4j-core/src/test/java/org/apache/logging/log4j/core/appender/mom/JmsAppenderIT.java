@@ -33,6 +33,7 @@ import org.apache.activemq.jndi.ActiveMQInitialContextFactory;
 import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.core.LogEvent;
 import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.core.impl.MutableLogEvent;
 import org.apache.logging.log4j.core.layout.SerializedLayout;
 import org.apache.logging.log4j.core.net.JndiManager;
 import org.apache.logging.log4j.message.SimpleMessage;
@@ -50,19 +51,28 @@ public class JmsAppenderIT {
 
     private static JmsManager jmsManager;
 
+    private static JmsManager transactedJmsManager;
+
     private JmsAppender appender;
 
     @BeforeClass
     public static void setUpClass() {
+        final JndiManager jndiManager = getJndiManager();
+        jmsManager = JmsManager.getJmsManager("JmsManager", jndiManager, "ConnectionFactory", "TestQueue", null, null);
+        transactedJmsManager = JmsManager.getJmsManager("TransactedJmsManager", jndiManager, "ConnectionFactory",
+            "TestQueue", null, null, true);
+    }
+
+    private static JndiManager getJndiManager() {
         final Properties additional = new Properties();
         additional.setProperty("queue.TestQueue", "TestQueue");
-        final JndiManager jndiManager = JndiManager.getJndiManager(ActiveMQInitialContextFactory.class.getName(),
+        return JndiManager.getJndiManager(ActiveMQInitialContextFactory.class.getName(),
             "vm://localhost?broker.persistent=false", null, null, null, additional);
-        jmsManager = JmsManager.getJmsManager("JmsManager", jndiManager, "ConnectionFactory", "TestQueue", null, null);
     }
 
     @AfterClass
     public static void tearDownClass() {
+        transactedJmsManager.close();
         jmsManager.close();
     }
 
@@ -88,6 +98,101 @@ public class JmsAppenderIT {
             appender.append(event);
         }
         consumer.awaitAndAssertAllMessagesConsumed();
+        messageConsumer.close();
+    }
+
+    @Test
+    public void testLogToQueueInBatches() throws Exception {
+        final int messageCount = 105;
+        final JmsAppender batchAppender = createBatchAppender(10, 50);
+        assertEquals(10, batchAppender.getBatchSize());
+        batchAppender.start();
+        final MessageConsumer messageConsumer = jmsManager.createMessageConsumer();
+        final JmsQueueConsumer consumer = new JmsQueueConsumer(messageCount);
+        messageConsumer.setMessageListener(consumer);
+        for (int i = 0; i < messageCount; i++) {
+            batchAppender.append(createEvent("Hello, World!"));
+        }
+        // the last partial batch is committed once its delay has elapsed
+        consumer.awaitAndAssertAllMessagesConsumed();
+        messageConsumer.close();
+        batchAppender.stop();
+    }
+
+    @Test
+    public void testLogReusedEventInBatches() throws Exception {
+        final int messageCount = 25;
+        final JmsAppender batchAppender = createBatchAppender(10, 60000);
+        batchAppender.start();
+        final MessageConsumer messageConsumer = jmsManager.createMessageConsumer();
+        final JmsQueueConsumer consumer = new JmsQueueConsumer(messageCount);
+        messageConsumer.setMessageListener(consumer);
+        final String loggerName = this.getClass().getName();
+        final MutableLogEvent event = new MutableLogEvent();
+        for (int i = 0; i < messageCount; i++) {
+            // the same instance for every event, as garbage-free loggers pass them
+            event.setLoggerName(loggerName);
+            event.setLoggerFqcn(loggerName);
+            event.setLevel(Level.INFO);
+            event.setMessage(new SimpleMessage("Message " + i));
+            event.setThreadName(Thread.currentThread().getName());
+            event.setTimeMillis(System.currentTimeMillis());
+            batchAppender.append(event);
+        }
+        batchAppender.stop();
+        consumer.awaitAndAssertAllMessagesConsumed();
+        messageConsumer.close();
+        int i = 0;
+        for (final LogEvent consumed : consumer.events) {
+            assertEquals("Message " + i++, consumed.getMessage().getFormattedMessage());
+        }
+    }
+
+    @Test
+    public void testTransactedManagerIsNotShared() throws Exception {
+        final JmsManager manager = JmsManager.getJmsManager("JmsManager", getJndiManager(), "ConnectionFactory",
+            "TestQueue", null, null, true);
+        try {
+            assertNotSame(jmsManager, manager);
+            assertTrue(manager.isTransacted());
+            assertFalse(jmsManager.isTransacted());
+            assertEquals("JmsManager" + JmsManager.TRANSACTED_SUFFIX, manager.getName());
+        } finally {
+            manager.close();
+        }
+    }
+
+    @Test
+    public void testStopSendsPendingBatch() throws Exception {
+        final int messageCount = 5;
+        final JmsAppender batchAppender = createBatchAppender(100, 60000);
+        batchAppender.start();
+        final MessageConsumer messageConsumer = jmsManager.createMessageConsumer();
+        final JmsQueueConsumer consumer = new JmsQueueConsumer(messageCount);
+        messageConsumer.setMessageListener(consumer);
+        for (int i = 0; i < messageCount; i++) {
+            batchAppender.append(createEvent("Goodbye, World!"));
+        }
+        batchAppender.stop();
+        consumer.awaitAndAssertAllMessagesConsumed();
+        messageConsumer.close();
+    }
+
+    private static JmsAppender createBatchAppender(final int batchSize, final long batchDelayMillis)
+            throws JMSException {
+        // acquires the shared manager, which the appender releases when it is stopped
+        final JmsManager manager = JmsManager.getJmsManager("TransactedJmsManager", null, null, null, null, null, true);
+        assertSame(transactedJmsManager, manager);
+        return new JmsAppender("JmsBatchAppender", null, SerializedLayout.createLayout(), true, manager, batchSize,
+            batchDelayMillis, 0);
+    }
+
+    private LogEvent createEvent(final String messageText) {
+        final String loggerName = this.getClass().getName();
+        return Log4jLogEvent.newBuilder().setLoggerName(loggerName) //
+                .setLoggerFqcn(loggerName).setLevel(Level.INFO) //
+                .setMessage(new SimpleMessage(messageText)).setThreadName(Thread.currentThread().getName()) //
+                .setTimeMillis(System.currentTimeMillis()).build();
     }
 
     private static class JmsQueueConsumer implements MessageListener {
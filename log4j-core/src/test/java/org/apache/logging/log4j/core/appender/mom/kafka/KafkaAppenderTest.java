@@ -22,6 +22,7 @@ import java.io.IOException;
 import java.io.ObjectInput;
 import java.io.ObjectInputStream;
 import java.nio.charset.StandardCharsets;
+import java.util.Collections;
 import java.util.List;
 import java.util.Properties;
 import java.util.concurrent.TimeUnit;
@@ -132,6 +133,44 @@ public class KafkaAppenderTest {
         assertEquals(LOG_MESSAGE, deserializeLogEvent(item.value()).getMessage().getFormattedMessage());
     }
 
+    @Test
+    public void testAppendAsync() throws Exception {
+        final Appender appender = ctx.getRequiredAppender("KafkaAppenderAsync");
+        appender.append(createLogEvent());
+        final List<ProducerRecord<byte[], byte[]>> history = kafka.history();
+        assertEquals(1, history.size());
+        final ProducerRecord<byte[], byte[]> item = history.get(0);
+        assertNotNull(item);
+        assertEquals(TOPIC_NAME, item.topic());
+        assertEquals(LOG_MESSAGE, new String(item.value(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testAppendWithKey() throws Exception {
+        final Appender appender = ctx.getRequiredAppender("KafkaAppenderWithKey");
+        appender.append(new Log4jLogEvent.Builder(createLogEvent())
+            .setContextMap(Collections.singletonMap("traceId", "trace-1"))
+            .build());
+        appender.append(createLogEvent());
+        final List<ProducerRecord<byte[], byte[]>> history = kafka.history();
+        assertEquals(2, history.size());
+        assertEquals("trace-1", new String(history.get(0).key(), StandardCharsets.UTF_8));
+        assertNull(history.get(1).key());
+        assertEquals(TOPIC_NAME, history.get(0).topic());
+    }
+
+    @Test
+    public void testAppendWithTopicPattern() throws Exception {
+        final Appender appender = ctx.getRequiredAppender("KafkaAppenderWithTopicPattern");
+        appender.append(createLogEvent());
+        appender.append(new Log4jLogEvent.Builder(createLogEvent()).setLevel(Level.WARN).build());
+        final List<ProducerRecord<byte[], byte[]>> history = kafka.history();
+        assertEquals(2, history.size());
+        assertEquals("kafka-INFO", history.get(0).topic());
+        assertEquals("kafka-WARN", history.get(1).topic());
+        assertEquals("constant-key", new String(history.get(1).key(), StandardCharsets.UTF_8));
+    }
+
     private LogEvent deserializeLogEvent(final byte[] data) throws IOException, ClassNotFoundException {
         final ByteArrayInputStream bis = new ByteArrayInputStream(data);
         try (ObjectInput ois = new ObjectInputStream(bis)) {
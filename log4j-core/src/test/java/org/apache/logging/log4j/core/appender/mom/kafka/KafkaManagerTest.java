@@ -0,0 +1,161 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+
+package org.apache.logging.log4j.core.appender.mom.kafka;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.TimeoutException;
+
+import org.apache.kafka.clients.producer.Callback;
+import org.apache.kafka.clients.producer.MockProducer;
+import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.apache.logging.log4j.core.appender.mom.kafka.KafkaManager.OverflowPolicy;
+import org.apache.logging.log4j.core.config.Property;
+import org.apache.logging.log4j.junit.LoggerContextRule;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests the asynchronous mode of {@link KafkaManager} with a MockProducer that only completes sends on demand.
+ */
+public class KafkaManagerTest {
+
+    private static final MockProducer<byte[], byte[]> kafka = new MockProducer<>(false, null, null);
+
+    private static final byte[] MESSAGE = "Hello, world!".getBytes(StandardCharsets.UTF_8);
+
+    private final List<Exception> completions = new ArrayList<>();
+
+    private final Callback callback = new Callback() {
+        @Override
+        public void onCompletion(final RecordMetadata metadata, final Exception exception) {
+            completions.add(exception);
+        }
+    };
+
+    @BeforeClass
+    public static void setUpClass() throws Exception {
+        KafkaManager.producerFactory = new KafkaProducerFactory() {
+            @Override
+            public Producer<byte[], byte[]> newKafkaProducer(final Properties config) {
+                return kafka;
+            }
+        };
+    }
+
+    @Rule
+    public LoggerContextRule ctx = new LoggerContextRule("KafkaAppenderTest.xml");
+
+    @Before
+    public void setUp() throws Exception {
+        kafka.flush();
+        kafka.clear();
+    }
+
+    private KafkaManager createManager(final int maxInFlightRecords, final int maxInFlightBytes,
+            final OverflowPolicy overflowPolicy) {
+        final KafkaManager manager = new KafkaManager(ctx.getLoggerContext(), "KafkaManagerTest", "kafka-topic",
+                false, maxInFlightRecords, maxInFlightBytes, overflowPolicy,
+                new Property[] {Property.createProperty("timeout.ms", "100")});
+        manager.startup();
+        return manager;
+    }
+
+    @Test
+    public void testSendDoesNotWaitForAcknowledgment() throws Exception {
+        final KafkaManager manager = createManager(10, 1000, OverflowPolicy.BLOCK);
+        for (int i = 0; i < 3; i++) {
+            assertTrue(manager.send(MESSAGE, callback));
+        }
+        assertEquals(3, kafka.history().size());
+        assertEquals(3, manager.getInFlightCount());
+        assertTrue(completions.isEmpty());
+
+        kafka.completeNext();
+        kafka.completeNext();
+        assertEquals(1, manager.getInFlightCount());
+        assertEquals(2, completions.size());
+        assertNull(completions.get(0));
+    }
+
+    @Test(expected = TimeoutException.class)
+    public void testBlockPolicyTimesOutWhenRecordWindowIsFull() throws Exception {
+        final KafkaManager manager = createManager(2, 1000, OverflowPolicy.BLOCK);
+        manager.send(MESSAGE, callback);
+        manager.send(MESSAGE, callback);
+        manager.send(MESSAGE, callback);
+    }
+
+    @Test
+    public void testDiscardPolicyDropsWhenRecordWindowIsFull() throws Exception {
+        final KafkaManager manager = createManager(2, 1000, OverflowPolicy.DISCARD);
+        assertTrue(manager.send(MESSAGE, callback));
+        assertTrue(manager.send(MESSAGE, callback));
+        assertFalse(manager.send(MESSAGE, callback));
+        assertEquals(1, manager.getDiscardedCount());
+        assertEquals(2, kafka.history().size());
+
+        kafka.completeNext();
+        assertTrue(manager.send(MESSAGE, callback));
+        assertEquals(3, kafka.history().size());
+    }
+
+    @Test
+    public void testDiscardPolicyDropsWhenByteWindowIsFull() throws Exception {
+        final KafkaManager manager = createManager(10, MESSAGE.length + 1, OverflowPolicy.DISCARD);
+        assertTrue(manager.send(MESSAGE, callback));
+        assertFalse(manager.send(MESSAGE, callback));
+        assertEquals(1, manager.getDiscardedCount());
+
+        kafka.completeNext();
+        assertTrue(manager.send(MESSAGE, callback));
+    }
+
+    @Test
+    public void testFailuresAreCountedAndReported() throws Exception {
+        final KafkaManager manager = createManager(10, 1000, OverflowPolicy.BLOCK);
+        manager.send(MESSAGE, callback);
+        manager.send(MESSAGE, callback);
+        final RuntimeException failure = new RuntimeException("broker unavailable");
+        kafka.errorNext(failure);
+        kafka.completeNext();
+
+        assertEquals(1, manager.getFailedCount());
+        assertEquals(0, manager.getInFlightCount());
+        assertSame(failure, completions.get(0));
+        assertNull(completions.get(1));
+    }
+
+    @Test
+    public void testCloseFlushesInFlightRecords() throws Exception {
+        final KafkaManager manager = createManager(10, 1000, OverflowPolicy.BLOCK);
+        manager.send(MESSAGE, callback);
+        manager.send(MESSAGE, callback);
+        manager.close();
+
+        assertEquals(0, manager.getInFlightCount());
+        assertEquals(2, completions.size());
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.appender.routing;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import org.apache.logging.log4j.EventLogger;
+import org.apache.logging.log4j.core.Appender;
+import org.apache.logging.log4j.core.jmx.RoutingAppenderAdmin;
+import org.apache.logging.log4j.junit.LoggerContextRule;
+import org.apache.logging.log4j.message.StructuredDataMessage;
+import org.apache.logging.log4j.test.appender.ListAppender;
+import org.junit.Before;
+import org.junit.ClassRule;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests the route limit of the IdlePurgePolicy and the route statistics of the RoutingAppender.
+ */
+public class RoutingAppenderMaxRoutesTest {
+
+    private static final String CONFIG = "log4j-routing-max-routes.xml";
+
+    @ClassRule
+    public static LoggerContextRule loggerContextRule = new LoggerContextRule(CONFIG);
+
+    private RoutingAppender routingAppender;
+
+    @Before
+    public void setUp() throws Exception {
+        routingAppender = loggerContextRule.getRequiredAppender("Routing", RoutingAppender.class);
+        for (final String key : new ArrayList<>(routingAppender.getAppenders().keySet())) {
+            routingAppender.deleteAppender(key);
+        }
+    }
+
+    private static void log(final String id) throws InterruptedException {
+        EventLogger.logEvent(new StructuredDataMessage(id, "This is a test", "Service"));
+        // the least recently used route is found by time
+        Thread.sleep(5);
+    }
+
+    @Test
+    public void testLeastRecentlyUsedRouteIsPurged() throws Exception {
+        log("1");
+        log("2");
+        final Appender first = routingAppender.getAppenders().get("1").getAppender();
+        log("1");
+        log("3");
+        assertEquals(2, routingAppender.getAppenders().size());
+        assertTrue(routingAppender.getAppenders().containsKey("1"));
+        assertTrue(routingAppender.getAppenders().containsKey("3"));
+        assertTrue(first.isStarted());
+        log("4");
+        assertEquals(2, routingAppender.getAppenders().size());
+        assertFalse(first.isStarted());
+    }
+
+    @Test
+    public void testStaticRouteIsNotStopped() throws Exception {
+        final ListAppender list = loggerContextRule.getListAppender("List");
+        list.clear();
+        log("static");
+        log("1");
+        log("2");
+        assertFalse(routingAppender.getAppenders().containsKey("static"));
+        assertTrue(list.isStarted());
+        log("static");
+        assertEquals(2, list.getEvents().size());
+    }
+
+    @Test
+    public void testStatistics() throws Exception {
+        final long created = routingAppender.getRoutesCreated();
+        final long deleted = routingAppender.getRoutesDeleted();
+        log("a");
+        log("b");
+        log("c");
+        final RoutingAppenderAdmin admin = new RoutingAppenderAdmin("ctx", routingAppender);
+        assertEquals(2, admin.getRouteCount());
+        assertEquals(created + 3, admin.getRoutesCreated());
+        assertEquals(deleted + 1, admin.getRoutesDeleted());
+        assertEquals("${sd:id}", admin.getPattern());
+        assertEquals("timeToLive=3600000, maxRoutes=2", admin.getPurgePolicy());
+    }
+
+    @Test
+    public void testConcurrentEventsCreateOneAppender() throws Exception {
+        final long created = routingAppender.getRoutesCreated();
+        final CountDownLatch start = new CountDownLatch(1);
+        final List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            final Thread thread = new Thread() {
+                @Override
+                public void run() {
+                    try {
+                        start.await();
+                        EventLogger.logEvent(new StructuredDataMessage("concurrent", "This is a test", "Service"));
+                    } catch (final InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            };
+            thread.start();
+            threads.add(thread);
+        }
+        start.countDown();
+        for (final Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(created + 1, routingAppender.getRoutesCreated());
+        final ListAppender appender = (ListAppender) routingAppender.getAppenders().get("concurrent").getAppender();
+        assertEquals(8, appender.getEvents().size());
+    }
+}
@@ -0,0 +1,221 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.config;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.logging.log4j.core.Appender;
+import org.apache.logging.log4j.junit.LoggerContextRule;
+import org.apache.logging.log4j.test.appender.ListAppender;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests the concurrent creation and startup of Appenders.
+ */
+public class AppenderStartupTest {
+
+    @BeforeClass
+    public static void setUpClass() {
+        System.setProperty(AppenderStartup.THREADS_PROPERTY, "4");
+    }
+
+    @AfterClass
+    public static void tearDownClass() {
+        System.clearProperty(AppenderStartup.THREADS_PROPERTY);
+    }
+
+    @Rule
+    public LoggerContextRule context = new LoggerContextRule("log4j-appender-startup.xml");
+
+    private static final Map<String, Set<String>> NO_DEPENDENCIES = Collections.emptyMap();
+
+    private static final Map<String, Runnable> NO_HANDLERS = Collections.emptyMap();
+
+    private final List<String> order = Collections.synchronizedList(new ArrayList<String>());
+
+    private Runnable record(final String name, final long sleepMillis) {
+        return new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    Thread.sleep(sleepMillis);
+                } catch (final InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+                order.add(name);
+            }
+        };
+    }
+
+    private static Set<String> set(final String... names) {
+        return new HashSet<>(Arrays.asList(names));
+    }
+
+    @Test
+    public void testAppendersStarted() throws Exception {
+        final Map<String, Appender> appenders = context.getConfiguration().getAppenders();
+        assertEquals(5, appenders.size());
+        for (final Appender appender : appenders.values()) {
+            assertTrue(appender.getName(), appender.isStarted());
+        }
+        context.getLogger("AppenderStartupTest").info("Hello");
+        final ListAppender list = context.getListAppender("List");
+        for (int i = 0; i < 100 && list.getMessages().isEmpty(); i++) {
+            Thread.sleep(10);
+        }
+        assertEquals(Collections.singletonList("Hello"), list.getMessages());
+        assertTrue(context.getListAppender("Fallback").getMessages().isEmpty());
+    }
+
+    @Test
+    public void testDependenciesRunFirst() throws Exception {
+        final Map<String, Runnable> tasks = new LinkedHashMap<>();
+        tasks.put("Failover", record("Failover", 0));
+        tasks.put("Async", record("Async", 0));
+        tasks.put("List", record("List", 100));
+        tasks.put("Console", record("Console", 0));
+        final Map<String, Set<String>> dependencies = new LinkedHashMap<>();
+        dependencies.put("Failover", set("Async", "Unknown"));
+        dependencies.put("Async", set("List", "Async"));
+        assertTrue(new AppenderStartup(4, 10000).run("start", tasks, dependencies, NO_HANDLERS).isEmpty());
+        assertEquals(Arrays.asList("Console", "List", "Async", "Failover"), order);
+    }
+
+    @Test
+    public void testCycle() throws Exception {
+        final Map<String, Runnable> tasks = new LinkedHashMap<>();
+        tasks.put("A", record("A", 0));
+        tasks.put("B", record("B", 0));
+        tasks.put("C", record("C", 0));
+        final Map<String, Set<String>> dependencies = new LinkedHashMap<>();
+        dependencies.put("A", set("B"));
+        dependencies.put("B", set("A"));
+        assertTrue(new AppenderStartup(2, 10000).run("start", tasks, dependencies, NO_HANDLERS).isEmpty());
+        assertEquals(Arrays.asList("C", "A", "B"), order);
+    }
+
+    private Map<String, Runnable> handlers(final String... names) {
+        final Map<String, Runnable> handlers = new LinkedHashMap<>();
+        for (final String name : names) {
+            handlers.put(name, record("stop " + name, 0));
+        }
+        return handlers;
+    }
+
+    @Test
+    public void testTimeout() throws Exception {
+        final CountDownLatch latch = new CountDownLatch(1);
+        final Map<String, Runnable> tasks = new LinkedHashMap<>();
+        tasks.put("Blocked", new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    latch.await();
+                } catch (final InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+                order.add("Blocked");
+            }
+        });
+        tasks.put("Fast", record("Fast", 0));
+        final long start = System.nanoTime();
+        try {
+            final Set<String> incomplete = new AppenderStartup(2, 100).run("start", tasks, NO_DEPENDENCIES,
+                    handlers("Blocked", "Fast"));
+            assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(5));
+            assertEquals(set("Blocked"), incomplete);
+            // the blocked task is interrupted and stops what it started before run returns
+            assertEquals(Arrays.asList("Fast", "Blocked", "stop Blocked"), order);
+        } finally {
+            latch.countDown();
+        }
+    }
+
+    @Test
+    public void testTimeoutSkipsQueuedTasks() throws Exception {
+        final CountDownLatch latch = new CountDownLatch(1);
+        final Map<String, Runnable> tasks = new LinkedHashMap<>();
+        tasks.put("Blocked", new Runnable() {
+            @Override
+            public void run() {
+                boolean interrupted = false;
+                while (latch.getCount() > 0) {
+                    try {
+                        latch.await();
+                    } catch (final InterruptedException ex) {
+                        interrupted = true;
+                    }
+                }
+                order.add("Blocked");
+                if (interrupted) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+        tasks.put("Queued", record("Queued", 0));
+        tasks.put("Dependent", record("Dependent", 0));
+        final Map<String, Set<String>> dependencies = new LinkedHashMap<>();
+        dependencies.put("Dependent", set("Blocked"));
+        try {
+            final Set<String> incomplete = new AppenderStartup(1, 100).run("start", tasks, dependencies,
+                    handlers("Blocked", "Queued", "Dependent"));
+            assertEquals(set("Blocked", "Queued", "Dependent"), incomplete);
+            // the tasks that never ran are stopped before run returns
+            assertEquals(Arrays.asList("stop Queued", "stop Dependent"), order);
+        } finally {
+            latch.countDown();
+        }
+        // the task that ignores interruption stops what it started when it ends
+        for (int i = 0; i < 100 && order.size() < 4; i++) {
+            Thread.sleep(10);
+        }
+        assertEquals(Arrays.asList("stop Queued", "stop Dependent", "Blocked", "stop Blocked"), order);
+    }
+
+    @Test
+    public void testFailureIsRethrown() throws Exception {
+        final Map<String, Runnable> tasks = new LinkedHashMap<>();
+        tasks.put("Failing", new Runnable() {
+            @Override
+            public void run() {
+                throw new ConfigurationException("Failing");
+            }
+        });
+        tasks.put("Other", record("Other", 0));
+        try {
+            new AppenderStartup(2, 10000).run("start", tasks, NO_DEPENDENCIES, NO_HANDLERS);
+            fail("Expected ConfigurationException");
+        } catch (final ConfigurationException ex) {
+            assertEquals("Failing", ex.getMessage());
+        }
+        assertEquals(Collections.singletonList("Other"), order);
+    }
+}
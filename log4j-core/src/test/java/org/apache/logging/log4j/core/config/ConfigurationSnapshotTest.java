@@ -0,0 +1,122 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.config;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.apache.logging.log4j.core.config.xml.XmlConfiguration;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.*;
+
+public class ConfigurationSnapshotTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Before
+    public void setUp() {
+        System.setProperty(ConfigurationSnapshot.DIRECTORY_PROPERTY, folder.getRoot().getPath());
+    }
+
+    @After
+    public void tearDown() {
+        System.clearProperty(ConfigurationSnapshot.DIRECTORY_PROPERTY);
+    }
+
+    private static ConfigurationSource source(final String resource) throws IOException {
+        final URL url = ConfigurationSnapshotTest.class.getClassLoader().getResource(resource);
+        assertNotNull(resource, url);
+        return new ConfigurationSource(url.openStream(), url);
+    }
+
+    private static byte[] content(final String resource) throws IOException {
+        try (final InputStream in = source(resource).getInputStream()) {
+            return AbstractConfiguration.toByteArray(in);
+        }
+    }
+
+    private static XmlConfiguration configure(final String resource) throws IOException {
+        final XmlConfiguration config = new XmlConfiguration(null, source(resource));
+        config.initialize();
+        return config;
+    }
+
+    private static File snapshotFile(final String resource) throws IOException {
+        return ConfigurationSnapshot.forConfiguration(source(resource), content(resource)).getFile();
+    }
+
+    @Test
+    public void testDisabledByDefault() throws Exception {
+        System.clearProperty(ConfigurationSnapshot.DIRECTORY_PROPERTY);
+        assertNull(ConfigurationSnapshot.forConfiguration(source("log4j-test1.xml"), content("log4j-test1.xml")));
+        configure("log4j-test1.xml");
+        assertEquals(0, folder.getRoot().list().length);
+    }
+
+    @Test
+    public void testSnapshotWrittenAndReused() throws Exception {
+        final XmlConfiguration first = configure("log4j-test1.xml");
+        final File file = snapshotFile("log4j-test1.xml");
+        assertTrue(file.isFile());
+        assertEquals(1, folder.getRoot().list().length);
+        final long length = file.length();
+
+        final XmlConfiguration second = configure("log4j-test1.xml");
+        assertEquals(length, file.length());
+        assertEquals(first.getName(), second.getName());
+        assertEquals(first.getAppenders().keySet(), second.getAppenders().keySet());
+        assertEquals(first.getLoggers().keySet(), second.getLoggers().keySet());
+        assertNotNull(second.getFilter());
+    }
+
+    @Test
+    public void testSnapshotReplacesParsing() throws Exception {
+        configure("log4j-list.xml");
+        Files.copy(snapshotFile("log4j-list.xml").toPath(), snapshotFile("log4j-test1.xml").toPath());
+        final XmlConfiguration config = configure("log4j-test1.xml");
+        assertEquals(1, config.getAppenders().size());
+        assertNotNull(config.getAppender("List"));
+    }
+
+    @Test
+    public void testContentIsPartOfTheKey() throws Exception {
+        final File file = snapshotFile("log4j-test1.xml");
+        final byte[] content = content("log4j-test1.xml");
+        content[content.length - 1] = ' ';
+        assertNotEquals(file, ConfigurationSnapshot.forConfiguration(source("log4j-test1.xml"), content).getFile());
+        assertNotEquals(file, snapshotFile("log4j-list.xml"));
+    }
+
+    @Test
+    public void testUnreadableSnapshotIsReplaced() throws Exception {
+        Files.write(snapshotFile("log4j-test1.xml").toPath(), "garbage".getBytes(StandardCharsets.UTF_8));
+        final XmlConfiguration config = configure("log4j-test1.xml");
+        assertEquals(3, config.getAppenders().size());
+        assertTrue(ConfigurationSnapshot.forConfiguration(source("log4j-test1.xml"),
+                content("log4j-test1.xml")).load());
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.config.plugins.processor;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.core.config.Configuration;
+import org.apache.logging.log4j.core.config.plugins.Plugin;
+import org.apache.logging.log4j.core.config.plugins.PluginAliases;
+import org.apache.logging.log4j.core.config.plugins.PluginAttribute;
+import org.apache.logging.log4j.core.config.plugins.PluginConfiguration;
+import org.apache.logging.log4j.core.config.plugins.PluginElement;
+import org.apache.logging.log4j.core.config.plugins.PluginFactory;
+import org.apache.logging.log4j.core.config.plugins.validation.constraints.Required;
+
+/**
+ * Test plugin with a factory method, for which the processor generates a factory class.
+ */
+@Plugin(name = "FakeFactory", category = "Test")
+public class FakeFactoryPlugin {
+
+    private final String name;
+    private final int size;
+    private final Level level;
+    private final Configuration configuration;
+    private final FakePlugin.Nested[] nested;
+
+    private FakeFactoryPlugin(final String name, final int size, final Level level,
+                              final Configuration configuration, final FakePlugin.Nested[] nested) {
+        this.name = name;
+        this.size = size;
+        this.level = level;
+        this.configuration = configuration;
+        this.nested = nested;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public Level getLevel() {
+        return level;
+    }
+
+    public Configuration getConfiguration() {
+        return configuration;
+    }
+
+    public FakePlugin.Nested[] getNested() {
+        return nested;
+    }
+
+    @PluginFactory
+    public static FakeFactoryPlugin createFakeFactoryPlugin(
+            @PluginAttribute("name") @PluginAliases("id") @Required(message = "No name") final String name,
+            @PluginAttribute(value = "size", defaultInt = 42) final int size,
+            @PluginAttribute(value = "level", defaultString = "warn") final Level level,
+            @PluginConfiguration final Configuration configuration,
+            @PluginElement("Nested") final FakePlugin.Nested[] nested) {
+        return new FakeFactoryPlugin(name, size, level, configuration, nested);
+    }
+}
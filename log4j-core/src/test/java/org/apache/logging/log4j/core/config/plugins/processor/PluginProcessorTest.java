@@ -19,6 +19,7 @@ package org.apache.logging.log4j.core.config.plugins.processor;
 
 import org.apache.logging.log4j.core.config.plugins.Plugin;
 import org.apache.logging.log4j.core.config.plugins.PluginAliases;
+import org.apache.logging.log4j.core.config.plugins.util.GeneratedPluginFactory;
 import org.junit.BeforeClass;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -90,4 +91,17 @@ public class PluginProcessorTest {
         assertEquals(p.printObject(), nested.isPrintable());
         assertEquals(p.deferChildren(), nested.isDefer());
     }
+
+    @Test
+    public void testGeneratedFactoryRecorded() throws Exception {
+        final PluginEntry entry = pluginCache.getCategory("Test").get("fakefactory");
+        assertNotNull(entry);
+        assertEquals(FakeFactoryPlugin.class.getName() + "_PluginFactory", entry.getFactoryClassName());
+        assertTrue(GeneratedPluginFactory.class.isAssignableFrom(Class.forName(entry.getFactoryClassName())));
+    }
+
+    @Test
+    public void testNoGeneratedFactoryWithoutFactoryMethod() throws Exception {
+        assertNull(pluginCache.getCategory(p.category()).get(p.name().toLowerCase()).getFactoryClassName());
+    }
 }
@@ -0,0 +1,96 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.config.plugins.util;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.core.config.Configuration;
+import org.apache.logging.log4j.core.config.Node;
+import org.apache.logging.log4j.core.config.NullConfiguration;
+import org.apache.logging.log4j.core.config.plugins.processor.FakeFactoryPlugin;
+import org.apache.logging.log4j.core.config.plugins.processor.FakePlugin;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class GeneratedPluginFactoryTest {
+
+    private PluginManager manager;
+    private PluginType<?> plugin;
+    private Node node;
+
+    @Before
+    public void setUp() throws Exception {
+        manager = new PluginManager("Test");
+        manager.collectPlugins();
+        plugin = manager.getPluginType("FakeFactory");
+        assertNotNull("Rebuild this module to make sure annotation processing kicks in.", plugin);
+        node = new Node(null, "FakeFactory", plugin);
+    }
+
+    private FakeFactoryPlugin build(final Configuration configuration) {
+        return (FakeFactoryPlugin) new PluginBuilder(plugin)
+            .withConfiguration(configuration)
+            .withConfigurationNode(node)
+            .build();
+    }
+
+    @Test
+    public void testGeneratedFactoryIsUsed() throws Exception {
+        assertNotNull(plugin.getGeneratedFactory());
+        assertEquals(FakeFactoryPlugin.class.getName() + "_PluginFactory",
+            plugin.getGeneratedFactory().getClass().getName());
+        assertNull(manager.getPluginType("Fake").getGeneratedFactory());
+    }
+
+    @Test
+    public void testAttributesAndDefaults() throws Exception {
+        node.getAttributes().put("name", "foo");
+        final Configuration configuration = new NullConfiguration();
+        final FakeFactoryPlugin fake = build(configuration);
+        assertNotNull(fake);
+        assertEquals("foo", fake.getName());
+        assertEquals(42, fake.getSize());
+        assertEquals(Level.WARN, fake.getLevel());
+        assertSame(configuration, fake.getConfiguration());
+        assertEquals(0, fake.getNested().length);
+        assertTrue(node.getAttributes().isEmpty());
+    }
+
+    @Test
+    public void testAliasesConversionAndElements() throws Exception {
+        node.getAttributes().put("id", "bar");
+        node.getAttributes().put("size", "7");
+        node.getAttributes().put("level", "debug");
+        final Node child = new Node(node, "Nested", manager.getPluginType("Nested"));
+        final FakePlugin.Nested nested = new FakePlugin.Nested();
+        child.setObject(nested);
+        node.getChildren().add(child);
+        final FakeFactoryPlugin fake = build(new NullConfiguration());
+        assertNotNull(fake);
+        assertEquals("bar", fake.getName());
+        assertEquals(7, fake.getSize());
+        assertEquals(Level.DEBUG, fake.getLevel());
+        assertArrayEquals(new FakePlugin.Nested[] { nested }, fake.getNested());
+        assertTrue(node.getChildren().isEmpty());
+    }
+
+    @Test
+    public void testRequiredAttributeMissing() throws Exception {
+        assertNull(build(new NullConfiguration()));
+    }
+}
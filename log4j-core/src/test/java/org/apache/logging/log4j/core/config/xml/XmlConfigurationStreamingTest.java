@@ -0,0 +1,131 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.config.xml;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+
+import org.apache.logging.log4j.core.config.ConfigurationSource;
+import org.apache.logging.log4j.core.config.Node;
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameters;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests that the streaming parser creates the same Node hierarchy as the DOM parser.
+ */
+@RunWith(Parameterized.class)
+public class XmlConfigurationStreamingTest {
+
+    @Parameters(name = "{0}")
+    public static Collection<Object[]> data() {
+        return Arrays.asList(new Object[][] {
+            {"log4j-test1.xml"},
+            {"log4j-strict1.xml"},
+            {"log4j-routing.xml"},
+            {"log4j-patternSelector.xml"},
+            {"log4j-script-filters.xml"},
+            {"log4j-customLevels.xml"},
+            {"log4j-xinclude.xml"}
+        });
+    }
+
+    private final String resource;
+
+    public XmlConfigurationStreamingTest(final String resource) {
+        this.resource = resource;
+    }
+
+    @After
+    public void tearDown() {
+        System.clearProperty(XmlConfiguration.STREAMING_PROPERTY);
+    }
+
+    private static XmlConfiguration configure(final ConfigurationSource source, final boolean streaming) {
+        System.setProperty(XmlConfiguration.STREAMING_PROPERTY, Boolean.toString(streaming));
+        final XmlConfiguration config = new XmlConfiguration(null, source);
+        config.getPluginManager().collectPlugins(config.getPluginPackages());
+        config.setup();
+        return config;
+    }
+
+    private ConfigurationSource source() throws IOException {
+        final URL url = getClass().getClassLoader().getResource(resource);
+        assertNotNull(resource, url);
+        return new ConfigurationSource(url.openStream(), url);
+    }
+
+    private static void assertNodeEquals(final String path, final Node expected, final Node actual) {
+        assertEquals(path, expected.getName(), actual.getName());
+        assertSame(path, expected.getType(), actual.getType());
+        assertEquals(path, expected.getValue(), actual.getValue());
+        assertEquals(path, expected.getAttributes(), actual.getAttributes());
+        assertEquals(path, expected.getChildren().size(), actual.getChildren().size());
+        for (int i = 0; i < expected.getChildren().size(); i++) {
+            final Node child = expected.getChildren().get(i);
+            assertNodeEquals(path + '/' + child.getName(), child, actual.getChildren().get(i));
+        }
+    }
+
+    @Test
+    public void testSameHierarchy() throws Exception {
+        final XmlConfiguration dom = configure(source(), false);
+        final XmlConfiguration stax = configure(source(), true);
+        assertFalse(dom.getRootNode().getChildren().isEmpty());
+        assertEquals(dom.getName(), stax.getName());
+        assertEquals(dom.getPluginPackages(), stax.getPluginPackages());
+        assertNodeEquals(resource, dom.getRootNode(), stax.getRootNode());
+    }
+
+    @Test
+    public void testStrictSameAttributes() throws Exception {
+        final String xml = "<Configuration xmlns='urn:log4j' strict='true' type='Root' name='Strict'>"
+                + "<Appenders xmlns:ext='urn:ext'>"
+                + "<Appender type='Other' Type='List' ext:flag='1' name='List'>"
+                + "<Layout xmlns='' type='PatternLayout' pattern='%m'/>"
+                + "</Appender></Appenders></Configuration>";
+        final XmlConfiguration dom = configure(new ConfigurationSource(
+                new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8))), false);
+        final XmlConfiguration stax = configure(new ConfigurationSource(
+                new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8))), true);
+        assertNodeEquals("Configuration", dom.getRootNode(), stax.getRootNode());
+        final Node appenders = stax.getRootNode().getChildren().get(0);
+        assertEquals("urn:ext", appenders.getAttributes().get("xmlns:ext"));
+        final Node appender = appenders.getChildren().get(0);
+        // the first type attribute in name order names the plugin, the others are kept
+        assertEquals("List", appender.getName());
+        assertEquals("Other", appender.getAttributes().get("type"));
+        assertFalse(appender.getAttributes().containsKey("Type"));
+        assertEquals("", appender.getChildren().get(0).getAttributes().get("xmlns"));
+    }
+
+    @Test
+    public void testMalformedDocument() throws Exception {
+        final String xml = "<Configuration name='Malformed'><Appenders><List name='List'/></Appenders><Loggers>";
+        final XmlConfiguration config = configure(new ConfigurationSource(
+                new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8))), true);
+        assertTrue(config.getRootNode().getChildren().isEmpty());
+    }
+}
@@ -19,7 +19,13 @@ package org.apache.logging.log4j.core.filter;
 
 import java.util.List;
 
+import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.MarkerManager;
+import org.apache.logging.log4j.ThreadContext;
+import org.apache.logging.log4j.core.Filter.Result;
+import org.apache.logging.log4j.core.util.ManualNanoClock;
+import org.apache.logging.log4j.message.SimpleMessage;
 import org.apache.logging.log4j.junit.LoggerContextRule;
 import org.apache.logging.log4j.test.appender.ListAppender;
 import org.junit.Before;
@@ -49,6 +55,14 @@ public class BurstFilterTest {
 
     private final Logger logger = context.getLogger();
 
+    /**
+     * Returns an upper bound for the number of tokens the configured filter (rate="33") has refilled since the given
+     * System.nanoTime(), so the assertions on the configured filter hold however long the test takes to run.
+     */
+    private static long refilledSince(final long start) {
+        return (System.nanoTime() - start) * 33 / 1000000000L + 1;
+    }
+
     /**
      * Test BurstFilter by surpassing maximum number of log messages allowed by filter and
      * making sure only the maximum number are indeed logged, then wait for while and make
@@ -57,16 +71,14 @@ public class BurstFilterTest {
     @Test
     public void test() throws Exception {
         // exceed the burst limit and make sure no more than 100 errors get logged
-        final long start = System.nanoTime();
+        long start = System.nanoTime();
         for (int i = 0; i < 110; i++) {
-            if (i % 10 == 0) {
-                Thread.sleep(200);
-            }
             logger.info("Logging 110 messages, should only see 100 logs # " + (i + 1));
             assertTrue("Incorrect number of available slots", filter.getAvailable() < 100);
         }
         List<String> msgs = app.getMessages();
-        assertEquals("Incorrect message count. Should be 100, actual " + msgs.size(), 100, msgs.size());
+        assertTrue("Incorrect message count. Should be 100, actual " + msgs.size(),
+                msgs.size() >= 100 && msgs.size() <= 100 + refilledSince(start));
         app.clear();
 
         assertTrue("Incorrect number of available slots", filter.getAvailable() < 100);
@@ -84,10 +96,11 @@ public class BurstFilterTest {
 
         filter.clear();
 
+        start = System.nanoTime();
         for (int i = 0; i < 110; i++) {
             logger.info("Waited 1.5 seconds and trying to log again, should see more than 0 and less than 100" + (i + 1));
         }
-        assertEquals("", 0, filter.getAvailable());
+        assertTrue("Incorrect number of available slots", filter.getAvailable() <= refilledSince(start));
         app.clear();
 
 
@@ -98,7 +111,7 @@ public class BurstFilterTest {
         }
 
         msgs = app.getMessages();
-        assertTrue("Incorrect message count. Should be 0, actual " + msgs.size(), msgs.isEmpty());
+        assertTrue("Incorrect message count. Should be 0, actual " + msgs.size(), msgs.size() <= refilledSince(start));
         app.clear();
 
         // now log 100 warns, they should all get through because the filter's level is set at info
@@ -131,12 +144,100 @@ public class BurstFilterTest {
         // wait and make sure we can log messages again despite the fact we just logged a bunch of warns, errors, fatals
         Thread.sleep(3100);
 
+        start = System.nanoTime();
         for (int i = 0; i < 110; i++) {
             logger.debug("Waited 3+ seconds, should see 100 logs #" + (i + 1));
         }
         msgs = app.getMessages();
-        assertEquals("Incorrect message count. Should be 100, actual " + msgs.size(), 100, msgs.size());
+        assertTrue("Incorrect message count. Should be 100, actual " + msgs.size(),
+                msgs.size() >= 100 && msgs.size() <= 100 + refilledSince(start));
         app.clear();
 
     }
+
+    @Test
+    public void testRefillsAtRate() {
+        final ManualNanoClock clock = new ManualNanoClock(-1234567890L);
+        final BurstFilter burst = BurstFilter.newBuilder().setLevel(Level.INFO).setRate(10).setMaxBurst(5)
+                .setNanoClock(clock).build();
+        final org.apache.logging.log4j.core.Logger coreLogger = context.getLogger("refill");
+        for (int i = 0; i < 5; i++) {
+            assertSame(Result.NEUTRAL, burst.filter(coreLogger, Level.INFO, null, new SimpleMessage("msg"), null));
+        }
+        assertSame(Result.DENY, burst.filter(coreLogger, Level.INFO, null, new SimpleMessage("msg"), null));
+        assertEquals(0, burst.getAvailable());
+
+        clock.advanceMillis(250);
+        assertEquals(2, burst.getAvailable());
+        assertSame(Result.NEUTRAL, burst.filter(coreLogger, Level.DEBUG, null, "msg", "p0"));
+        assertSame(Result.NEUTRAL, burst.filter(coreLogger, Level.DEBUG, null, "msg", "p0", "p1"));
+        assertSame(Result.DENY, burst.filter(coreLogger, Level.DEBUG, null, "msg", "p0", "p1", "p2"));
+        assertSame(Result.NEUTRAL, burst.filter(coreLogger, Level.WARN, null, "msg", "p0", "p1", "p2"));
+
+        clock.advanceMillis(10000);
+        assertEquals("Bucket must not exceed maxBurst", 5, burst.getAvailable());
+    }
+
+    @Test
+    public void testRefillAcrossNanoTimeOverflow() {
+        // no overflow, but close
+        final ManualNanoClock clock = new ManualNanoClock(Long.MAX_VALUE - 500000000L);
+        final BurstFilter burst = BurstFilter.newBuilder().setLevel(Level.INFO).setRate(10).setMaxBurst(10)
+                .setNanoClock(clock).build();
+        final org.apache.logging.log4j.core.Logger coreLogger = context.getLogger("refill");
+        for (int i = 0; i < 10; i++) {
+            assertSame(Result.NEUTRAL, burst.filter(coreLogger, Level.INFO, null, "msg"));
+        }
+        assertSame(Result.DENY, burst.filter(coreLogger, Level.INFO, null, "msg"));
+
+        // Overflow
+        clock.advanceMillis(1000);
+        assertEquals(10, burst.getAvailable());
+        for (int i = 0; i < 10; i++) {
+            assertSame(Result.NEUTRAL, burst.filter(coreLogger, Level.INFO, null, "msg"));
+        }
+        assertSame(Result.DENY, burst.filter(coreLogger, Level.INFO, null, "msg"));
+    }
+
+    @Test
+    public void testRateLimitedPerKey() {
+        final ManualNanoClock clock = new ManualNanoClock(0);
+        final BurstFilter burst = BurstFilter.newBuilder().setLevel(Level.INFO).setRate(1).setMaxBurst(2)
+                .setKeyType(BurstFilter.KeyType.MARKER).setMaxKeys(1).setNanoClock(clock).build();
+        final org.apache.logging.log4j.core.Logger coreLogger = context.getLogger("perKey");
+        final org.apache.logging.log4j.Marker chatty = MarkerManager.getMarker("CHATTY");
+        final org.apache.logging.log4j.Marker quiet = MarkerManager.getMarker("QUIET");
+        for (int i = 0; i < 2; i++) {
+            assertSame(Result.NEUTRAL, burst.filter(coreLogger, Level.INFO, chatty, "msg"));
+        }
+        assertSame(Result.DENY, burst.filter(coreLogger, Level.INFO, chatty, "msg"));
+        assertEquals(0, burst.getAvailable("CHATTY"));
+
+        // QUIET does not fit in the key map and shares the default bucket with unmarked events
+        assertSame(Result.NEUTRAL, burst.filter(coreLogger, Level.INFO, quiet, "msg"));
+        assertSame(Result.NEUTRAL, burst.filter(coreLogger, Level.INFO, null, "msg"));
+        assertSame(Result.DENY, burst.filter(coreLogger, Level.INFO, null, "msg"));
+
+        // once CHATTY's bucket is full again it is purged and QUIET gets its own bucket
+        clock.advanceMillis(2000);
+        assertSame(Result.NEUTRAL, burst.filter(coreLogger, Level.INFO, quiet, "msg"));
+        assertEquals(1, burst.getAvailable("QUIET"));
+    }
+
+    @Test
+    public void testRateLimitedPerContextKey() {
+        final BurstFilter burst = BurstFilter.newBuilder().setLevel(Level.INFO).setRate(1).setMaxBurst(1)
+                .setKeyType(BurstFilter.KeyType.CONTEXT).setContextKey("tenant").setNanoClock(new ManualNanoClock(0))
+                .build();
+        final org.apache.logging.log4j.core.Logger coreLogger = context.getLogger("perContextKey");
+        try {
+            ThreadContext.put("tenant", "a");
+            assertSame(Result.NEUTRAL, burst.filter(coreLogger, Level.INFO, null, "msg"));
+            assertSame(Result.DENY, burst.filter(coreLogger, Level.INFO, null, "msg"));
+            ThreadContext.put("tenant", "b");
+            assertSame(Result.NEUTRAL, burst.filter(coreLogger, Level.INFO, null, "msg"));
+        } finally {
+            ThreadContext.remove("tenant");
+        }
+    }
 }
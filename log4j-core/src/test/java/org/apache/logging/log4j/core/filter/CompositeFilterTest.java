@@ -0,0 +1,152 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.filter;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.Marker;
+import org.apache.logging.log4j.MarkerManager;
+import org.apache.logging.log4j.ThreadContext;
+import org.apache.logging.log4j.core.Filter;
+import org.apache.logging.log4j.core.Filter.Result;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.core.util.KeyValuePair;
+import org.apache.logging.log4j.message.SimpleMessage;
+import org.junit.After;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Verifies that the compiled evaluation of a CompositeFilter returns the same results as evaluating its filters
+ * one after the other.
+ */
+public class CompositeFilterTest {
+
+    private static final Level[] LEVELS = {Level.OFF, Level.FATAL, Level.ERROR, Level.WARN, Level.INFO, Level.DEBUG,
+            Level.TRACE, Level.ALL};
+    private static final Result[] RESULTS = Result.values();
+    private static final String[] NAMES = {"A", "B", "C", "D"};
+    private static final String[] USERS = {"alice", "bob", "carol"};
+
+    private static final Marker PARENT = MarkerManager.getMarker("CompositeFilterTest.A");
+    private static final Marker CHILD = MarkerManager.getMarker("CompositeFilterTest.B").setParents(PARENT);
+    private static final Marker OTHER = MarkerManager.getMarker("CompositeFilterTest.C");
+    private static final Marker[] MARKERS = {null, PARENT, CHILD, OTHER};
+
+    @After
+    public void tearDown() {
+        ThreadContext.clearMap();
+    }
+
+    @Test
+    public void testFirstMatchWins() {
+        final CompositeFilter composite = CompositeFilter.createFilters(new Filter[] {
+                MarkerFilter.createFilter("CompositeFilterTest.B", Result.DENY, Result.NEUTRAL),
+                MarkerFilter.createFilter("CompositeFilterTest.A", Result.ACCEPT, Result.NEUTRAL),
+                ThresholdFilter.createFilter(Level.WARN, Result.NEUTRAL, Result.DENY)});
+        assertSame(Result.DENY, composite.filter(null, Level.ERROR, CHILD, "Test", "p0"));
+        assertSame(Result.ACCEPT, composite.filter(null, Level.DEBUG, PARENT, "Test"));
+        assertSame(Result.DENY, composite.filter(null, Level.DEBUG, OTHER, "Test"));
+        assertSame(Result.NEUTRAL, composite.filter(null, Level.ERROR, null, "Test", "p0", "p1"));
+    }
+
+    @Test
+    public void testAddCompositeFilter() {
+        final CompositeFilter first = CompositeFilter.createFilters(new Filter[] {
+                ThresholdFilter.createFilter(Level.WARN, Result.NEUTRAL, Result.DENY)});
+        final CompositeFilter second = CompositeFilter.createFilters(new Filter[] {
+                MarkerFilter.createFilter("CompositeFilterTest.A", Result.ACCEPT, Result.NEUTRAL),
+                MarkerFilter.createFilter("CompositeFilterTest.C", Result.DENY, Result.NEUTRAL)});
+        final CompositeFilter combined = first.addFilter(second);
+        assertEquals(3, combined.size());
+        for (final Filter filter : combined) {
+            assertNotNull(filter);
+        }
+        assertSame(Result.DENY, combined.filter(null, Level.ERROR, OTHER, "Test"));
+    }
+
+    @Test
+    public void testCompiledMatchesSequential() {
+        final Random random = new Random(42);
+        for (int iteration = 0; iteration < 500; iteration++) {
+            final Filter[] filters = new Filter[1 + random.nextInt(12)];
+            for (int i = 0; i < filters.length; i++) {
+                filters[i] = randomFilter(random);
+            }
+            final CompositeFilter composite = CompositeFilter.createFilters(filters);
+            for (final Level level : LEVELS) {
+                for (final Marker marker : MARKERS) {
+                    for (final String user : new String[] {null, "alice", "bob", "dave"}) {
+                        final Map<String, String> map = new HashMap<>();
+                        if (user != null) {
+                            map.put("user", user);
+                            map.put("role", user.substring(0, 1));
+                        }
+                        ThreadContext.clearMap();
+                        ThreadContext.putAll(map);
+                        final Result expected = sequential(filters, level, marker, null);
+                        final String description = composite + " " + level + " " + marker + " " + map;
+                        assertSame(description, expected, composite.filter(null, level, marker, "Test"));
+                        assertSame(description, expected, composite.filter(null, level, marker, "Test {}", "p0"));
+                        assertSame(description, expected,
+                                composite.filter(null, level, marker, new SimpleMessage("Test"), null));
+                        final LogEvent event = Log4jLogEvent.newBuilder().setLevel(level).setMarker(marker)
+                                .setContextMap(map).setMessage(new SimpleMessage("Test")).build();
+                        assertSame(description, sequential(filters, level, marker, event),
+                                composite.filter(event));
+                    }
+                }
+            }
+        }
+    }
+
+    private static Result sequential(final Filter[] filters, final Level level, final Marker marker,
+                                     final LogEvent event) {
+        for (final Filter filter : filters) {
+            final Result result = event == null ? filter.filter(null, level, marker, "Test") : filter.filter(event);
+            if (result != Result.NEUTRAL) {
+                return result;
+            }
+        }
+        return Result.NEUTRAL;
+    }
+
+    private static Filter randomFilter(final Random random) {
+        final Result onMatch = random.nextInt(3) == 0 ? Result.NEUTRAL : RESULTS[random.nextInt(RESULTS.length)];
+        final Result onMismatch = random.nextInt(2) == 0 ? Result.NEUTRAL : RESULTS[random.nextInt(RESULTS.length)];
+        switch (random.nextInt(4)) {
+        case 0:
+            return ThresholdFilter.createFilter(LEVELS[random.nextInt(LEVELS.length)], onMatch, onMismatch);
+        case 1:
+            return MarkerFilter.createFilter("CompositeFilterTest." + NAMES[random.nextInt(NAMES.length)], onMatch,
+                    onMismatch);
+        case 2:
+            final String key = random.nextBoolean() ? "user" : "role";
+            final String value = key.equals("user") ? USERS[random.nextInt(USERS.length)] : "a";
+            return ThreadContextMapFilter.createFilter(new KeyValuePair[] {new KeyValuePair(key, value)}, null,
+                    onMatch, onMismatch);
+        default:
+            return ThreadContextMapFilter.createFilter(new KeyValuePair[] {new KeyValuePair("user", "alice"),
+                    new KeyValuePair("role", "b")}, "or", onMatch, onMismatch);
+        }
+    }
+}
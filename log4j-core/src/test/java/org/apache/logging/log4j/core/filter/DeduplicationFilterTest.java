@@ -0,0 +1,168 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.filter;
+
+import java.io.IOException;
+import java.util.List;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.core.Filter.Result;
+import org.apache.logging.log4j.core.LoggerContext;
+import org.apache.logging.log4j.core.util.ManualNanoClock;
+import org.apache.logging.log4j.junit.LoggerContextRule;
+import org.apache.logging.log4j.test.appender.ListAppender;
+import org.junit.Before;
+import org.junit.ClassRule;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit test for <code>DeduplicationFilter</code>.
+ */
+public class DeduplicationFilterTest {
+
+    private static final String CONFIG = "log4j-dedup.xml";
+
+    @ClassRule
+    public static LoggerContextRule context = new LoggerContextRule(CONFIG);
+
+    private ListAppender app;
+    private DeduplicationFilter filter;
+
+    @Before
+    public void setUp() throws Exception {
+        app = context.getListAppender("ListAppender").clear();
+        filter = (DeduplicationFilter) app.getFilter();
+        assertNotNull("No DeduplicationFilter", filter);
+        filter.emitSummaries(true);
+        app.clear();
+    }
+
+    @Test
+    public void testDuplicatesAreSummarized() {
+        final Logger logger = context.getLogger("dedup");
+        for (int i = 0; i < 100; i++) {
+            logger.error("Connection to {} failed", "db" + i, new IOException("refused " + i));
+        }
+        logger.error("Connection to {} failed", "db", new IllegalStateException());
+        logger.warn("Connection to {} failed", "db", new IOException());
+        logger.error("Retrying {}", "db");
+        List<String> msgs = app.getMessages();
+        assertEquals(msgs.toString(), 4, msgs.size());
+        assertTrue(msgs.get(0), msgs.get(0).startsWith("ERROR Connection to db0 failed"));
+        app.clear();
+
+        filter.emitSummaries(true);
+        msgs = app.getMessages();
+        assertEquals(msgs.toString(), 1, msgs.size());
+        assertTrue(msgs.get(0), msgs.get(0).startsWith("ERROR Suppressed 99 duplicates in "));
+        assertTrue(msgs.get(0), msgs.get(0).contains("of: Connection to {} failed [java.io.IOException]"));
+        app.clear();
+
+        // after the window is closed the next occurrence is logged again
+        logger.error("Connection to {} failed", "db", new IOException());
+        assertEquals(1, app.getMessages().size());
+    }
+
+    @Test
+    public void testEvictedEntriesAreSummarized() {
+        final Logger logger = context.getLogger("evict");
+        for (int i = 0; i < 100; i++) {
+            logger.info("Message " + i);
+            logger.info("Message " + i);
+        }
+        assertEquals(100, app.getMessages().size());
+        assertEquals("Map is not bounded by maxEntries", 4, filter.size());
+        app.clear();
+
+        filter.emitSummaries(true);
+        final List<String> msgs = app.getMessages();
+        assertEquals(100, msgs.size());
+        assertTrue(msgs.get(0), msgs.get(0).startsWith("INFO  Suppressed 1 duplicate in "));
+    }
+
+    @Test
+    public void testStopEmitsSummaries() {
+        final DeduplicationFilter dedup = DeduplicationFilter.newBuilder().setWindowMillis(60000)
+                .setConfiguration(context.getConfiguration()).setNanoClock(new ManualNanoClock(0)).build();
+        dedup.start();
+        final org.apache.logging.log4j.core.Logger logger = context.getLogger("dedup");
+        for (int i = 0; i < 5; i++) {
+            dedup.filter(logger, Level.ERROR, null, "Lost {}", i);
+        }
+        assertTrue(app.getMessages().isEmpty());
+
+        dedup.stop();
+        final List<String> msgs = app.getMessages();
+        assertEquals(msgs.toString(), 1, msgs.size());
+        assertTrue(msgs.get(0), msgs.get(0).startsWith("ERROR Suppressed 4 duplicates in "));
+        assertEquals(0, dedup.size());
+    }
+
+    @Test
+    public void testWindowExpires() {
+        final ManualNanoClock clock = new ManualNanoClock(1234567890L);
+        final DeduplicationFilter dedup = DeduplicationFilter.newBuilder().setWindowMillis(1000)
+                .setNanoClock(clock).build();
+        final org.apache.logging.log4j.core.Logger logger = context.getLogger("expire");
+        assertSame(Result.NEUTRAL, dedup.filter(logger, Level.ERROR, null, "Failed {}", "a"));
+        assertSame(Result.DENY, dedup.filter(logger, Level.ERROR, null, "Failed {}", "b"));
+        assertSame(Result.NEUTRAL, dedup.filter(logger, Level.WARN, null, "Failed {}", "b"));
+        assertSame(Result.NEUTRAL, dedup.filter(logger, Level.ERROR, DeduplicationFilter.SUMMARY_MARKER,
+                "Failed {}", "c"));
+        clock.advanceMillis(1000);
+        assertSame(Result.NEUTRAL, dedup.filter(logger, Level.ERROR, null, "Failed {}", "d"));
+        assertSame(Result.DENY, dedup.filter(logger, Level.ERROR, null, "Failed {}", "e"));
+    }
+
+    @Test
+    public void testMaxEntriesIsExact() {
+        final org.apache.logging.log4j.core.Logger logger = context.getLogger("bound");
+        for (final int maxEntries : new int[] {1, 3, 20}) {
+            final DeduplicationFilter dedup = DeduplicationFilter.newBuilder().setMaxEntries(maxEntries)
+                    .setNanoClock(new ManualNanoClock(0)).build();
+            for (int i = 0; i < 500; i++) {
+                dedup.filter(logger, Level.INFO, null, "Message " + i);
+            }
+            assertEquals(maxEntries, dedup.size());
+        }
+    }
+
+    @Test
+    public void testEnabledChecksAreNotDeduplicated() {
+        final DeduplicationFilter dedup = DeduplicationFilter.newBuilder().setNanoClock(new ManualNanoClock(0))
+                .build();
+        final LoggerContext ctx = context.getLoggerContext();
+        ctx.addFilter(dedup);
+        try {
+            final Logger logger = context.getLogger("enabled");
+            for (int i = 0; i < 3; i++) {
+                assertTrue(logger.isDebugEnabled());
+                assertTrue(logger.isEnabled(Level.INFO));
+            }
+            assertEquals(0, dedup.size());
+            logger.debug("Checked");
+            logger.debug("Checked");
+            assertEquals(1, dedup.size());
+            assertEquals(1, app.getMessages().size());
+        } finally {
+            ctx.removeFilter(dedup);
+        }
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.filter;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.ThreadContext;
+import org.apache.logging.log4j.core.Filter;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.core.util.KeyValuePair;
+import org.apache.logging.log4j.junit.LoggerContextRule;
+import org.apache.logging.log4j.message.SimpleMessage;
+import org.apache.logging.log4j.test.appender.ListAppender;
+import org.junit.After;
+import org.junit.ClassRule;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ *
+ */
+public class SamplingFilterTest {
+
+    @ClassRule
+    public static LoggerContextRule context = new LoggerContextRule("log4j-sampling-contextwide.xml");
+
+    @After
+    public void tearDown() {
+        ThreadContext.clearMap();
+    }
+
+    @Test
+    public void testPerLevelRates() {
+        final KeyValuePair[] pairs = new KeyValuePair[] {
+                new KeyValuePair("DEBUG", "0"), new KeyValuePair("WARN", "1"), new KeyValuePair("BOGUS", "1") };
+        final SamplingFilter filter = SamplingFilter.createFilter(null, 0, 0.0f, pairs, null, null);
+        filter.start();
+        assertTrue(filter.isStarted());
+        assertSame(Filter.Result.DENY, filter.filter(null, Level.DEBUG, null, "Test"));
+        assertSame(Filter.Result.DENY, filter.filter(null, Level.DEBUG, null, "Test {}", "p0"));
+        assertSame(Filter.Result.DENY, filter.filter(null, Level.INFO, null, "Test {} {}", "p0", "p1"));
+        assertSame(Filter.Result.NEUTRAL, filter.filter(null, Level.WARN, null, "Test {} {} {}", "p0", "p1", "p2"));
+        assertSame(Filter.Result.NEUTRAL, filter.filter(null, Level.WARN, null, (Object) null, (Throwable) null));
+    }
+
+    @Test
+    public void testPerEventRate() {
+        final SamplingFilter filter = SamplingFilter.createFilter(null, 0, 0.25f, null, null, null);
+        final LogEvent event = Log4jLogEvent.newBuilder() //
+                .setLevel(Level.INFO) //
+                .setMessage(new SimpleMessage("Test")) //
+                .build();
+        int sampled = 0;
+        for (int i = 0; i < 10000; i++) {
+            if (filter.filter(event) == Filter.Result.NEUTRAL) {
+                sampled++;
+            }
+        }
+        assertTrue("Sampled " + sampled, sampled > 2000 && sampled < 3000);
+    }
+
+    @Test
+    public void testMissingValueIsConsistentBeforeEvent() {
+        final SamplingFilter filter = SamplingFilter.createFilter("traceId", 0, 0.5f, null, null, null);
+        final Filter.Result guard = filter.filter(null, Level.INFO, null, (Object) null, (Throwable) null);
+        for (int i = 0; i < 100; i++) {
+            assertSame(guard, filter.filter(null, Level.INFO, null, (Object) null, (Throwable) null));
+            assertSame(guard, filter.filter(null, Level.INFO, null, "Test {}", i));
+        }
+    }
+
+    @Test
+    public void testContextWideFilterRequiresKey() {
+        assertFalse(context.getConfiguration().hasFilter());
+        final ListAppender app = context.getListAppender("ListAppender").clear();
+        context.getLogger("sampling").info("Not sampled away");
+        assertEquals(1, app.getMessages().size());
+    }
+
+    @Test
+    public void testConsistentPerKey() {
+        final SamplingFilter filter = SamplingFilter.createFilter("traceId", 0, 0.1f, null, null, null);
+        int sampled = 0;
+        for (int i = 0; i < 10000; i++) {
+            final String traceId = "trace-" + i;
+            ThreadContext.put("traceId", traceId);
+            final Filter.Result expected = filter.isSampled(Level.DEBUG, traceId)
+                    ? Filter.Result.NEUTRAL : Filter.Result.DENY;
+            if (expected == Filter.Result.NEUTRAL) {
+                sampled++;
+            }
+            for (int j = 0; j < 3; j++) {
+                assertSame(expected, filter.filter(null, Level.DEBUG, null, "Test {}", j));
+            }
+            final Map<String, String> map = new HashMap<>();
+            map.put("traceId", traceId);
+            final LogEvent event = Log4jLogEvent.newBuilder() //
+                    .setLevel(Level.DEBUG) //
+                    .setContextMap(map) //
+                    .setMessage(new SimpleMessage("Test")) //
+                    .build();
+            assertSame(expected, filter.filter(event));
+        }
+        assertTrue("Sampled " + sampled, sampled > 800 && sampled < 1200);
+    }
+
+    @Test
+    public void testSeedChangesSample() {
+        final SamplingFilter filter1 = SamplingFilter.createFilter("traceId", 1, 0.5f, null, null, null);
+        final SamplingFilter filter2 = SamplingFilter.createFilter("traceId", 2, 0.5f, null, null, null);
+        int different = 0;
+        for (int i = 0; i < 1000; i++) {
+            if (filter1.isSampled(Level.INFO, "trace-" + i) != filter2.isSampled(Level.INFO, "trace-" + i)) {
+                different++;
+            }
+        }
+        assertTrue("Different " + different, different > 300 && different < 700);
+    }
+}
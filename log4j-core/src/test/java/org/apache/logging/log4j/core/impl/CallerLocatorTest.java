@@ -0,0 +1,126 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Assume;
+import org.junit.Test;
+
+/**
+ * Tests the {@link CallerLocator} implementations.
+ */
+public class CallerLocatorTest {
+
+    /** Stands in for a Logger: calls back into the test through a few frames of its own. */
+    public static class FakeLogger {
+
+        private final CallerLocator locator;
+
+        public FakeLogger(final CallerLocator locator) {
+            this.locator = locator;
+        }
+
+        public StackTraceElement log(final Runnable nested) {
+            return logIfEnabled(nested);
+        }
+
+        private StackTraceElement logIfEnabled(final Runnable nested) {
+            if (nested != null) {
+                nested.run();
+            }
+            return locator.calcLocation(FakeLogger.class.getName());
+        }
+    }
+
+    private static List<CallerLocator> locators() {
+        final List<CallerLocator> locators = new ArrayList<>();
+        locators.add(new ThrowableCallerLocator());
+        if (StackWalkerCallerLocator.isAvailable()) {
+            locators.add(new StackWalkerCallerLocator());
+        }
+        return locators;
+    }
+
+    @Test
+    public void testFindsCaller() {
+        for (final CallerLocator locator : locators()) {
+            final StackTraceElement location = new FakeLogger(locator).log(null);
+            assertEquals(locator.toString(), CallerLocatorTest.class.getName(), location.getClassName());
+            assertEquals(locator.toString(), "testFindsCaller", location.getMethodName());
+        }
+    }
+
+    @Test
+    public void testFindsCallerAtDepth() {
+        for (final CallerLocator locator : locators()) {
+            final StackTraceElement location = recurse(locator, 200);
+            assertEquals(locator.toString(), "recurse", location.getMethodName());
+        }
+    }
+
+    private StackTraceElement recurse(final CallerLocator locator, final int depth) {
+        return depth == 0 ? new FakeLogger(locator).log(null) : recurse(locator, depth - 1);
+    }
+
+    @Test
+    public void testNestedCallReportsInnermostCaller() {
+        for (final CallerLocator locator : locators()) {
+            final FakeLogger logger = new FakeLogger(locator);
+            final StackTraceElement[] inner = new StackTraceElement[1];
+            logger.log(new Runnable() {
+                @Override
+                public void run() {
+                    inner[0] = logger.log(null);
+                }
+            });
+            assertTrue(locator.toString(), inner[0].getClassName().startsWith(CallerLocatorTest.class.getName() + "$"));
+            assertEquals(locator.toString(), "run", inner[0].getMethodName());
+        }
+    }
+
+    @Test
+    public void testLoggerNotOnStack() {
+        for (final CallerLocator locator : locators()) {
+            assertNull(locator.calcLocation("org.example.NotALogger"));
+            assertNull(locator.calcLocation(null));
+        }
+    }
+
+    @Test
+    public void testFactoryUsesStackWalkerWhenAvailable() {
+        final CallerLocator locator = CallerLocatorFactory.getCallerLocator();
+        Assume.assumeTrue(System.getProperty(CallerLocatorFactory.PROPERTY_NAME) == null);
+        assertEquals(StackWalkerCallerLocator.isAvailable() ? StackWalkerCallerLocator.class
+                : ThrowableCallerLocator.class, locator.getClass());
+    }
+
+    @Test
+    public void testFactoryHonorsProperty() {
+        System.setProperty(CallerLocatorFactory.PROPERTY_NAME, "Throwable");
+        try {
+            assertEquals(ThrowableCallerLocator.class, CallerLocatorFactory.getCallerLocator().getClass());
+        } finally {
+            System.clearProperty(CallerLocatorFactory.PROPERTY_NAME);
+        }
+    }
+}
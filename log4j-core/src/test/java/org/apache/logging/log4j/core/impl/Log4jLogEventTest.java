@@ -65,6 +65,20 @@ public class Log4jLogEventTest {
         }
     }
 
+    /** Stands in for a Logger that resolves the location of the event it creates. */
+    public static class LocatingLogger {
+
+        public static StackTraceElement log(final String format) {
+            return Log4jLogEvent.newBuilder() //
+                    .setLoggerName("LocatingLogger") //
+                    .setLoggerFqcn(LocatingLogger.class.getName()) //
+                    .setLevel(Level.INFO) //
+                    .setMessage(new SimpleMessage(format)) //
+                    .setIncludeLocation(true) //
+                    .build().getSource();
+        }
+    }
+
     @BeforeClass
     public static void beforeClass() {
         System.setProperty(ClockFactory.PROPERTY_NAME, FixedTimeClock.class.getName());
@@ -75,6 +89,15 @@ public class Log4jLogEventTest {
         ClockFactoryTest.resetClocks();
     }
 
+    @Test
+    public void testCallSitesSharingFormatLiteralHaveOwnLocation() {
+        final StackTraceElement first = LocatingLogger.log("shared literal");
+        final StackTraceElement second = LocatingLogger.log("shared literal");
+        assertEquals("testCallSitesSharingFormatLiteralHaveOwnLocation", first.getMethodName());
+        assertEquals(first.getMethodName(), second.getMethodName());
+        assertEquals(first.getLineNumber() + 1, second.getLineNumber());
+    }
+
     @Test
     public void testJavaIoSerializable() throws Exception {
         final Log4jLogEvent evt = Log4jLogEvent.newBuilder() //
@@ -0,0 +1,116 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.lookup;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.logging.log4j.ThreadContext;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Verifies that compiled templates give the same results as {@link StrSubstitutor#replace(LogEvent, String)}.
+ */
+public class StrTemplateTest {
+
+    private static final String[] TEMPLATES = {
+        "", "plain text", "${key}", "${key}-${ctx:key}", "before ${key} after", "${missing}", "${ctx:missing}",
+        "${missing:-default}", "${ctx:missing:-}", "${missing:-${key}}", "${missing:-$${key}}", "$${key}",
+        "$$${key}", "${key", "text ${", "${nested}", "${unknown:key}", "${ctx:other:-x}-${other}",
+        "${key}${key}", "${:-empty}"
+    };
+
+    private final Map<String, String> map = new HashMap<>();
+    private StrSubstitutor subst;
+
+    @Before
+    public void before() {
+        map.put("key", "value");
+        map.put("nested", "[${key}]");
+        map.put("other", "map");
+        subst = new StrSubstitutor(new Interpolator(new MapLookup(map)));
+        ThreadContext.put("key", "context");
+    }
+
+    @After
+    public void after() {
+        ThreadContext.clearMap();
+    }
+
+    @Test
+    public void testSameResultAsReplace() {
+        final Map<String, String> contextMap = new HashMap<>();
+        contextMap.put("key", "event");
+        final LogEvent event = Log4jLogEvent.newBuilder().setContextMap(contextMap).build();
+        for (final String template : TEMPLATES) {
+            final StrTemplate compiled = subst.compile(template);
+            assertEquals(template, subst.replace(template), compiled.replace(null));
+            assertEquals(template, subst.replace(event, template), compiled.replace(event));
+        }
+    }
+
+    @Test
+    public void testSubstitutionInVariables() {
+        subst.setEnableSubstitutionInVariables(true);
+        map.put("value.suffix", "resolved");
+        for (final String template : new String[] {"${${key}.suffix}", "${missing:-${key}}", "${${missing}}"}) {
+            assertEquals(template, subst.replace(template), subst.compile(template).replace(null));
+        }
+    }
+
+    @Test
+    public void testCustomSyntax() {
+        final StrSubstitutor custom = new StrSubstitutor(new MapLookup(map), "%(", ")", '\\', "|");
+        for (final String template : new String[] {"%(key)", "\\%(key)", "%(missing|fallback)", "%(nested)"}) {
+            assertEquals(template, custom.replace(template), custom.compile(template).replace(null));
+        }
+    }
+
+    @Test
+    public void testLookupsAreEvaluatedEachTime() {
+        final StrTemplate template = subst.compile("${ctx:key}");
+        assertEquals("context", template.replace(null));
+        ThreadContext.put("key", "changed");
+        assertEquals("changed", template.replace(null));
+    }
+
+    @Test
+    public void testReplacedResolver() {
+        final StrTemplate template = subst.compile("${key}");
+        final Map<String, String> other = new HashMap<>();
+        other.put("key", "other");
+        subst.setVariableResolver(new MapLookup(other));
+        assertEquals("other", template.replace(null));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testCyclicSubstitution() {
+        map.put("cycle", "${cycle}");
+        subst.compile("${cycle}").replace(null);
+    }
+
+    @Test
+    public void testNullSource() {
+        assertNull(subst.compile(null));
+    }
+}
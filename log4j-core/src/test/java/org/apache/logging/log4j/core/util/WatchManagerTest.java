@@ -16,7 +16,10 @@
  */
 package org.apache.logging.log4j.core.util;
 
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
 import java.io.File;
 import java.io.FileOutputStream;
@@ -24,6 +27,7 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.util.Queue;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.LinkedBlockingQueue;
@@ -75,6 +79,85 @@ public class WatchManagerTest {
         }
     }
 
+    @Test
+    public void testWatchServiceReportsModificationBeforeInterval() throws Exception {
+        Assume.assumeFalse(IS_WINDOWS);
+        final ConfigurationScheduler scheduler = new ConfigurationScheduler();
+        scheduler.incrementScheduledItems();
+        final WatchManager watchManager = new WatchManager(scheduler);
+        watchManager.setIntervalSeconds(60);
+        scheduler.start();
+        watchManager.start();
+        try {
+            final File targetFile = new File("target/testWatchServiceFile");
+            Files.copy(Paths.get(originalFile), targetFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            final BlockingQueue<File> queue = new LinkedBlockingQueue<>();
+            watchManager.watchFile(targetFile, new TestWatcher(queue));
+            Assume.assumeFalse("No native WatchService", watchManager.isPolled(targetFile));
+            Files.copy(Paths.get(newFile), targetFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            final File f = queue.poll(10, TimeUnit.SECONDS);
+            assertNotNull("File change not detected", f);
+        } finally {
+            watchManager.stop();
+            scheduler.stop();
+        }
+    }
+
+    @Test
+    public void testWatchServiceCoalescesBursts() throws Exception {
+        Assume.assumeFalse(IS_WINDOWS);
+        final ConfigurationScheduler scheduler = new ConfigurationScheduler();
+        scheduler.incrementScheduledItems();
+        final WatchManager watchManager = new WatchManager(scheduler);
+        watchManager.setIntervalSeconds(60);
+        watchManager.setCoalesceMillis(500);
+        scheduler.start();
+        watchManager.start();
+        try {
+            final File targetFile = new File("target/testWatchServiceBurstFile");
+            Files.copy(Paths.get(originalFile), targetFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            final BlockingQueue<File> queue = new LinkedBlockingQueue<>();
+            watchManager.watchFile(targetFile, new TestWatcher(queue));
+            Assume.assumeFalse("No native WatchService", watchManager.isPolled(targetFile));
+            for (int i = 0; i < 5; i++) {
+                Files.write(targetFile.toPath(), ("<!-- " + i + " -->").getBytes(), StandardOpenOption.APPEND);
+            }
+            assertNotNull("File change not detected", queue.poll(10, TimeUnit.SECONDS));
+            assertNull("Burst was reported more than once", queue.poll(1500, TimeUnit.MILLISECONDS));
+        } finally {
+            watchManager.stop();
+            scheduler.stop();
+        }
+    }
+
+    @Test
+    public void testPollingWhenWatchServiceDisabled() throws Exception {
+        Assume.assumeFalse(IS_WINDOWS);
+        final ConfigurationScheduler scheduler = new ConfigurationScheduler();
+        scheduler.incrementScheduledItems();
+        final WatchManager watchManager = new WatchManager(scheduler);
+        watchManager.setIntervalSeconds(1);
+        watchManager.setUseWatchService(false);
+        scheduler.start();
+        watchManager.start();
+        try {
+            final File targetFile = new File("target/testPolledWatchFile");
+            Files.copy(Paths.get(originalFile), targetFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            final BlockingQueue<File> queue = new LinkedBlockingQueue<>();
+            watchManager.watchFile(targetFile, new TestWatcher(queue));
+            assertTrue(watchManager.isPolled(targetFile));
+            Thread.sleep(1000);
+            Files.copy(Paths.get(newFile), targetFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            assertTrue(targetFile.setLastModified(targetFile.lastModified() + 2000));
+            final File f = queue.poll(5, TimeUnit.SECONDS);
+            assertNotNull("File change not detected", f);
+        } finally {
+            watchManager.stop();
+            scheduler.stop();
+        }
+        assertFalse(watchManager.isStarted());
+    }
+
     private class TestWatcher implements FileWatcher {
 
         private final Queue<File> queue;
@@ -18,6 +18,9 @@ package org.apache.logging.log4j.jul;
 
 import java.util.logging.Logger;
 
+import org.apache.logging.log4j.message.MessageFactory;
+import org.apache.logging.log4j.message.MessageFormatMessageFactory;
+import org.apache.logging.log4j.message.ReusableMessageFormatMessageFactory;
 import org.apache.logging.log4j.spi.LoggerContext;
 import org.apache.logging.log4j.util.ReflectionUtil;
 
@@ -29,6 +32,13 @@ import org.apache.logging.log4j.util.ReflectionUtil;
  */
 public abstract class AbstractLoggerAdapter extends org.apache.logging.log4j.spi.AbstractLoggerAdapter<Logger> {
 
+    /**
+     * Creates the messages of the JDK Loggers: JUL uses java.text.MessageFormat patterns. The messages are reused
+     * unless ThreadLocals are disabled, for example in web applications.
+     */
+    static final MessageFactory MESSAGE_FACTORY = org.apache.logging.log4j.util.Constants.ENABLE_THREADLOCALS
+            ? ReusableMessageFormatMessageFactory.INSTANCE : new MessageFormatMessageFactory();
+
     @Override
     protected LoggerContext getContext() {
         return getContext(ReflectionUtil.getCallerClass(java.util.logging.LogManager.class));
@@ -107,71 +107,74 @@ public class ApiLogger extends Logger {
         throw new UnsupportedOperationException("Cannot set parent logger");
     }
 
+    // The convenience methods below go straight to logIfEnabled, so no LogRecord is created and the message is only
+    // created if the level is enabled.
+
     @Override
     public void log(final Level level, final String msg) {
-        logger.log(LevelTranslator.toLevel(level), msg);
+        logger.logIfEnabled(FQCN, LevelTranslator.toLevel(level), null, msg);
     }
 
     @Override
     public void log(final Level level, final String msg, final Object param1) {
-        logger.log(LevelTranslator.toLevel(level), msg, param1);
+        logger.logIfEnabled(FQCN, LevelTranslator.toLevel(level), null, msg, param1);
     }
 
     @Override
     public void log(final Level level, final String msg, final Object[] params) {
-        logger.log(LevelTranslator.toLevel(level), msg, params);
+        logger.logIfEnabled(FQCN, LevelTranslator.toLevel(level), null, msg, params);
     }
 
     @Override
     public void log(final Level level, final String msg, final Throwable thrown) {
-        logger.log(LevelTranslator.toLevel(level), msg, thrown);
+        logger.logIfEnabled(FQCN, LevelTranslator.toLevel(level), null, msg, thrown);
     }
 
     @Override
     public void logp(final Level level, final String sourceClass, final String sourceMethod, final String msg) {
-        log(level, msg);
+        logger.logIfEnabled(FQCN, LevelTranslator.toLevel(level), null, msg);
     }
 
     @Override
     public void logp(final Level level, final String sourceClass, final String sourceMethod, final String msg,
                      final Object param1) {
-        log(level, msg, param1);
+        logger.logIfEnabled(FQCN, LevelTranslator.toLevel(level), null, msg, param1);
     }
 
     @Override
     public void logp(final Level level, final String sourceClass, final String sourceMethod, final String msg,
                      final Object[] params) {
-        log(level, msg, params);
+        logger.logIfEnabled(FQCN, LevelTranslator.toLevel(level), null, msg, params);
     }
 
     @Override
     public void logp(final Level level, final String sourceClass, final String sourceMethod, final String msg,
                      final Throwable thrown) {
-        log(level, msg, thrown);
+        logger.logIfEnabled(FQCN, LevelTranslator.toLevel(level), null, msg, thrown);
     }
 
     @Override
     public void logrb(final Level level, final String sourceClass, final String sourceMethod, final String bundleName,
                       final String msg) {
-        log(level, msg);
+        logger.logIfEnabled(FQCN, LevelTranslator.toLevel(level), null, msg);
     }
 
     @Override
     public void logrb(final Level level, final String sourceClass, final String sourceMethod, final String bundleName,
                       final String msg, final Object param1) {
-        log(level, msg, param1);
+        logger.logIfEnabled(FQCN, LevelTranslator.toLevel(level), null, msg, param1);
     }
 
     @Override
     public void logrb(final Level level, final String sourceClass, final String sourceMethod, final String bundleName,
                       final String msg, final Object[] params) {
-        log(level, msg, params);
+        logger.logIfEnabled(FQCN, LevelTranslator.toLevel(level), null, msg, params);
     }
 
     @Override
     public void logrb(final Level level, final String sourceClass, final String sourceMethod, final String bundleName,
                       final String msg, final Throwable thrown) {
-        log(level, msg, thrown);
+        logger.logIfEnabled(FQCN, LevelTranslator.toLevel(level), null, msg, thrown);
     }
 
     @Override
@@ -19,8 +19,6 @@ package org.apache.logging.log4j.jul;
 
 import java.util.logging.Logger;
 
-import org.apache.logging.log4j.message.MessageFactory;
-import org.apache.logging.log4j.message.MessageFormatMessageFactory;
 import org.apache.logging.log4j.spi.LoggerContext;
 
 /**
@@ -31,8 +29,6 @@ import org.apache.logging.log4j.spi.LoggerContext;
  */
 public class ApiLoggerAdapter extends AbstractLoggerAdapter {
 
-    private static final MessageFactory MESSAGE_FACTORY = new MessageFormatMessageFactory();
-
     @Override
     protected Logger newLogger(final String name, final LoggerContext context) {
         return new ApiLogger(context.getLogger(name, MESSAGE_FACTORY));
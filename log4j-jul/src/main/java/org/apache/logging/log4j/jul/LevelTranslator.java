@@ -45,6 +45,16 @@ public final class LevelTranslator {
     private static final Logger LOGGER = StatusLogger.getLogger();
     private static final LevelConverter LEVEL_CONVERTER;
 
+    /**
+     * The standard JDK levels from FINEST to SEVERE, indexed by their value divided by 100.
+     */
+    private static final java.util.logging.Level[] JAVA_LEVELS = new java.util.logging.Level[11];
+
+    /**
+     * The converted Log4j levels of {@link #JAVA_LEVELS}, at the same indices.
+     */
+    private static final Level[] LEVELS = new Level[11];
+
     static {
         final String levelConverterClassName =
             PropertiesUtil.getProperties().getStringProperty(Constants.LEVEL_CONVERTER_PROPERTY);
@@ -60,6 +70,14 @@ public final class LevelTranslator {
         } else {
             LEVEL_CONVERTER = new DefaultLevelConverter();
         }
+        final java.util.logging.Level[] standardLevels = {java.util.logging.Level.FINEST,
+                java.util.logging.Level.FINER, java.util.logging.Level.FINE, java.util.logging.Level.CONFIG,
+                java.util.logging.Level.INFO, java.util.logging.Level.WARNING, java.util.logging.Level.SEVERE};
+        for (final java.util.logging.Level javaLevel : standardLevels) {
+            final int index = javaLevel.intValue() / 100;
+            JAVA_LEVELS[index] = javaLevel;
+            LEVELS[index] = LEVEL_CONVERTER.toLevel(javaLevel);
+        }
     }
 
     /**
@@ -69,6 +87,13 @@ public final class LevelTranslator {
      * @return converted Level or null
      */
     public static Level toLevel(final java.util.logging.Level level) {
+        if (level != null) {
+            // the standard levels are looked up in an array instead of asking the converter
+            final int index = level.intValue() / 100;
+            if (index >= 0 && index < JAVA_LEVELS.length && JAVA_LEVELS[index] == level) {
+                return LEVELS[index];
+            }
+        }
         return LEVEL_CONVERTER.toLevel(level);
     }
 
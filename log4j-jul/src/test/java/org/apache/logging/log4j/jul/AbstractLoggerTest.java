@@ -92,6 +92,21 @@ public abstract class AbstractLoggerTest {
         assertEquals("ENTER params", events.get(0).getMessage().getFormattedMessage());
     }
 
+    @Test
+    public void testLogWithParameters() {
+        logger.log(java.util.logging.Level.INFO, "Hello {0}", "World");
+        logger.log(java.util.logging.Level.INFO, "Hello {0} and {1}", new Object[] {"a", "b"});
+        logger.logp(java.util.logging.Level.INFO, "sourceClass", "sourceMethod", "Hello {0}", "logp");
+        final List<LogEvent> events = eventAppender.getEvents();
+        assertThat(events, hasSize(3));
+        assertEquals("Hello World", events.get(0).getMessage().getFormattedMessage());
+        assertEquals("Hello a and b", events.get(1).getMessage().getFormattedMessage());
+        assertEquals("Hello logp", events.get(2).getMessage().getFormattedMessage());
+        for (final LogEvent event : events) {
+            assertEquals(ApiLogger.class.getName(), event.getLoggerFqcn());
+        }
+    }
+
     @Test
     public void testLogUsingCustomLevel() throws Exception {
         logger.config("Config level");
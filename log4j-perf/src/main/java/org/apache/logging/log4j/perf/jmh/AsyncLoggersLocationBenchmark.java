@@ -29,13 +29,15 @@ import org.openjdk.jmh.annotations.BenchmarkMode;
 import org.openjdk.jmh.annotations.Level;
 import org.openjdk.jmh.annotations.Mode;
 import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
 import org.openjdk.jmh.annotations.Scope;
 import org.openjdk.jmh.annotations.Setup;
 import org.openjdk.jmh.annotations.State;
 import org.openjdk.jmh.annotations.TearDown;
 
 /**
- * Tests Log4j2 Async Loggers performance.
+ * Tests Log4j2 Async Loggers performance with location, for each CallerLocator and for logging calls made at
+ * increasing stack depths.
  */
 // ============================== HOW TO RUN THIS TEST: ====================================
 //
@@ -45,16 +47,22 @@ import org.openjdk.jmh.annotations.TearDown;
 // multiple threads (for example, 4 threads):
 // java -jar log4j-perf/target/benchmarks.jar ".*AsyncLoggersLocationBenchmark.*" -f 1 -wi 10 -i 20 -t 4 -si true
 //
+// The CallerLocator is chosen once per JVM, so run with at least one fork.
+//
 // Usage help:
 // java -jar log4j-perf/target/benchmarks.jar -help
 //
 @State(Scope.Thread)
 public class AsyncLoggersLocationBenchmark {
 
+    @Param({"StackWalker", "Throwable"})
+    public String callerLocator;
+
     Logger logger;
 
     @Setup(Level.Trial)
     public void up() {
+        System.setProperty("log4j.CallerLocator", callerLocator);
         System.setProperty("log4j.configurationFile", "perf-WithoutAnyAppender-location.xml");
         System.setProperty("Log4jContextSelector", "org.apache.logging.log4j.core.async.AsyncLoggerContextSelector");
         System.setProperty("AsyncLogger.RingBufferSize", "262144");
@@ -79,4 +87,36 @@ public class AsyncLoggersLocationBenchmark {
         logger.info(BenchmarkMessageParams.TEST);
     }
 
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public void throughputDepth20() {
+        logAtDepth(20);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public void throughputDepth100() {
+        logAtDepth(100);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public void throughputDepth300() {
+        logAtDepth(300);
+    }
+
+    /**
+     * Logs after adding frames to the stack, like the framework code below a typical logging call. The JMH harness
+     * accounts for about ten frames of its own.
+     */
+    private void logAtDepth(final int depth) {
+        if (depth <= 0) {
+            logger.info(BenchmarkMessageParams.TEST);
+        } else {
+            logAtDepth(depth - 1);
+        }
+    }
 }
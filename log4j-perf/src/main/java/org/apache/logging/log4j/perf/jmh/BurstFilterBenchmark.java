@@ -0,0 +1,137 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+
+package org.apache.logging.log4j.perf.jmh;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.core.Filter;
+import org.apache.logging.log4j.core.Logger;
+import org.apache.logging.log4j.core.filter.BurstFilter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Compares the token bucket based BurstFilter with the DelayQueue based implementation it replaced. The rate is set
+ * high enough for most events to be accepted, so the cost of taking a permit dominates.
+ */
+// HOW TO RUN THIS TEST
+// single thread:
+// java -jar target/benchmarks.jar ".*BurstFilterBenchmark.*" -f 1 -i 5 -wi 5 -bm sample -tu ns
+// multiple threads (for example, 4 threads):
+// java -jar target/benchmarks.jar ".*BurstFilterBenchmark.*" -f 1 -i 5 -wi 5 -t 4 -si true -bm sample -tu ns
+@State(Scope.Benchmark)
+public class BurstFilterBenchmark {
+
+    private static final float RATE = 1000000;
+    private static final long MAX_BURST = 100000;
+
+    Logger logger;
+    BurstFilter tokenBucketFilter;
+    BurstFilter perLoggerFilter;
+    DelayQueueBurstFilter delayQueueFilter;
+
+    @Setup
+    public void setUp() {
+        logger = (Logger) LogManager.getLogger(BurstFilterBenchmark.class);
+        tokenBucketFilter = BurstFilter.newBuilder().setLevel(Level.INFO).setRate(RATE).setMaxBurst(MAX_BURST)
+                .build();
+        perLoggerFilter = BurstFilter.newBuilder().setLevel(Level.INFO).setRate(RATE).setMaxBurst(MAX_BURST)
+                .setKeyType(BurstFilter.KeyType.LOGGER).build();
+        delayQueueFilter = new DelayQueueBurstFilter(Level.INFO, RATE, MAX_BURST);
+    }
+
+    @Benchmark
+    public Filter.Result delayQueue() {
+        return delayQueueFilter.filter(Level.INFO);
+    }
+
+    @Benchmark
+    public Filter.Result tokenBucket() {
+        return tokenBucketFilter.filter(logger, Level.INFO, null, "This is a test");
+    }
+
+    @Benchmark
+    public Filter.Result tokenBucketPerLogger() {
+        return perLoggerFilter.filter(logger, Level.INFO, null, "This is a test");
+    }
+
+    /**
+     * The algorithm of the BurstFilter before it used a token bucket: every accepted event occupies a slot in a
+     * DelayQueue until the burst interval has elapsed.
+     */
+    static final class DelayQueueBurstFilter {
+        private static final long NANOS_IN_SECONDS = 1000000000;
+
+        private final Level level;
+        private final long burstInterval;
+        private final DelayQueue<LogDelay> history = new DelayQueue<>();
+        private final Queue<LogDelay> available = new ConcurrentLinkedQueue<>();
+
+        DelayQueueBurstFilter(final Level level, final float rate, final long maxBurst) {
+            this.level = level;
+            this.burstInterval = (long) (NANOS_IN_SECONDS * (maxBurst / rate));
+            for (int i = 0; i < maxBurst; ++i) {
+                available.add(new LogDelay());
+            }
+        }
+
+        Filter.Result filter(final Level level) {
+            if (this.level.isMoreSpecificThan(level)) {
+                LogDelay delay = history.poll();
+                while (delay != null) {
+                    available.add(delay);
+                    delay = history.poll();
+                }
+                delay = available.poll();
+                if (delay != null) {
+                    delay.setDelay(burstInterval);
+                    history.add(delay);
+                    return Filter.Result.NEUTRAL;
+                }
+                return Filter.Result.DENY;
+            }
+            return Filter.Result.NEUTRAL;
+        }
+    }
+
+    private static final class LogDelay implements Delayed {
+        private long expireTime;
+
+        void setDelay(final long delay) {
+            this.expireTime = delay + System.nanoTime();
+        }
+
+        @Override
+        public long getDelay(final TimeUnit timeUnit) {
+            return timeUnit.convert(expireTime - System.nanoTime(), TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public int compareTo(final Delayed delayed) {
+            return Long.signum(this.expireTime - ((LogDelay) delayed).expireTime);
+        }
+    }
+}
@@ -18,23 +18,30 @@
 package org.apache.logging.log4j.perf.jmh;
 
 import java.io.ByteArrayInputStream;
+import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
 import java.util.concurrent.TimeUnit;
 
 import org.apache.logging.log4j.core.LoggerContext;
+import org.apache.logging.log4j.core.config.ConfigurationSnapshot;
 import org.apache.logging.log4j.core.config.ConfigurationSource;
 import org.apache.logging.log4j.core.config.Configurator;
+import org.apache.logging.log4j.core.config.xml.XmlConfiguration;
 import org.openjdk.jmh.annotations.Benchmark;
 import org.openjdk.jmh.annotations.BenchmarkMode;
 import org.openjdk.jmh.annotations.Mode;
 import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
 import org.openjdk.jmh.annotations.Scope;
 import org.openjdk.jmh.annotations.Setup;
 import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
 
 /**
  * This benchmark demonstrates how long it takes for a simple XML configuration file to be parsed and initialize a new
- * {@link org.apache.logging.log4j.core.LoggerContext} using that configuration.
+ * {@link org.apache.logging.log4j.core.LoggerContext} using that configuration, and how long it takes after a previous
+ * start with and without a {@link ConfigurationSnapshot}.
  */
 // TO RUN THIS TEST:
 // java -jar target/benchmarks.jar '.*ConfiguratorInitializeBenchmark.*'
@@ -55,9 +62,49 @@ public class ConfiguratorInitializeBenchmark {
 
     private ConfigurationSource configurationSource;
 
+    /**
+     * Configures the inline configuration once, as the previous start of an application would, with configuration
+     * snapshots enabled or not. Both variants load the same classes and plugins before the measured initialization.
+     */
+    @State(Scope.Thread)
+    public static class PreviousStartState {
+
+        @Param({"false", "true"})
+        public boolean snapshot;
+
+        private File directory;
+        private ConfigurationSource configurationSource;
+
+        @Setup
+        public void setUp() throws IOException {
+            directory = Files.createTempDirectory("log4j-snapshot").toFile();
+            if (snapshot) {
+                System.setProperty(ConfigurationSnapshot.DIRECTORY_PROPERTY, directory.getPath());
+            }
+            new XmlConfiguration(null, newConfigurationSource()).initialize();
+            configurationSource = newConfigurationSource();
+        }
+
+        @TearDown
+        public void tearDown() {
+            System.clearProperty(ConfigurationSnapshot.DIRECTORY_PROPERTY);
+            final File[] files = directory.listFiles();
+            if (files != null) {
+                for (final File file : files) {
+                    file.delete();
+                }
+            }
+            directory.delete();
+        }
+    }
+
+    private static ConfigurationSource newConfigurationSource() throws IOException {
+        return new ConfigurationSource(new ByteArrayInputStream(inlineConfigurationXML.getBytes()));
+    }
+
     @Setup
     public void setUp() throws IOException {
-        configurationSource = new ConfigurationSource(new ByteArrayInputStream(inlineConfigurationXML.getBytes()));
+        configurationSource = newConfigurationSource();
     }
 
     @Benchmark
@@ -67,4 +114,11 @@ public class ConfiguratorInitializeBenchmark {
         return Configurator.initialize(null, configurationSource);
     }
 
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public LoggerContext initializeLoggerContextAfterPreviousStart(final PreviousStartState state) {
+        return Configurator.initialize(null, state.configurationSource);
+    }
+
 }
@@ -19,6 +19,9 @@ package org.apache.logging.log4j.perf.jmh;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.core.Filter;
+import org.apache.logging.log4j.core.LoggerContext;
+import org.apache.logging.log4j.core.filter.MarkerFilter;
 import org.openjdk.jmh.annotations.Benchmark;
 import org.openjdk.jmh.annotations.Scope;
 import org.openjdk.jmh.annotations.Setup;
@@ -30,13 +33,17 @@ import org.slf4j.LoggerFactory;
  * Benchmarks Log4j 2, Log4j 1, and Logback using the DEBUG level which is disabled for this test. One of the primary
  * performance concerns of logging frameworks is adding minimal overhead when logging is disabled. Some users disable
  * all logging in production, while others disable finer logging levels in production. This benchmark demonstrates the
- * overhead in calling {@code logger.isDebugEnabled()} and {@code logger.debug()}.
+ * overhead in calling {@code logger.isDebugEnabled()} and {@code logger.debug()}. The {@code log4jFiltered} benchmarks
+ * use a separate LoggerContext with a configuration-level MarkerFilter that is NEUTRAL for unmarked events, so the
+ * filter is consulted before the level on every call.
  */
 // HOW TO RUN THIS TEST
 // java -jar target/benchmarks.jar ".*DebugDisabledBenchmark.*" -f 1 -i 5 -wi 5 -bm sample -tu ns
 @State(Scope.Thread)
 public class DebugDisabledBenchmark {
     Logger log4jLogger;
+    Logger log4jFilteredLogger;
+    LoggerContext filteredContext;
     org.slf4j.Logger slf4jLogger;
     org.apache.log4j.Logger log4jClassicLogger;
     Integer j;
@@ -50,11 +57,17 @@ public class DebugDisabledBenchmark {
         log4jLogger = LogManager.getLogger(DebugDisabledBenchmark.class);
         slf4jLogger = LoggerFactory.getLogger(DebugDisabledBenchmark.class);
         log4jClassicLogger = org.apache.log4j.Logger.getLogger(DebugDisabledBenchmark.class);
+
+        filteredContext = new LoggerContext("DebugDisabledFiltered");
+        filteredContext.start();
+        filteredContext.addFilter(MarkerFilter.createFilter("FLOW", Filter.Result.ACCEPT, Filter.Result.NEUTRAL));
+        log4jFilteredLogger = filteredContext.getLogger(DebugDisabledBenchmark.class.getName());
         j = Integer.valueOf(2);
     }
 
     @TearDown
     public void tearDown() {
+        filteredContext.stop();
         System.clearProperty("log4j.configurationFile");
         System.clearProperty("log4j.configuration");
         System.clearProperty("logback.configurationFile");
@@ -70,6 +83,11 @@ public class DebugDisabledBenchmark {
         return log4jLogger.isDebugEnabled();
     }
 
+    @Benchmark
+    public boolean log4jFilteredIsDebugEnabled() {
+        return log4jFilteredLogger.isDebugEnabled();
+    }
+
     @Benchmark
     public boolean slf4jIsDebugEnabled() {
         return slf4jLogger.isDebugEnabled();
@@ -100,6 +118,11 @@ public class DebugDisabledBenchmark {
         log4jLogger.debug("This is a debug [{}] message", j);
     }
 
+    @Benchmark
+    public void log4jFilteredDebugParameterizedString() {
+        log4jFilteredLogger.debug("This is a debug [{}] message", j);
+    }
+
     @Benchmark
     public void slf4jDebugParameterizedString() {
         slf4jLogger.debug("This is a debug [{}] message", j);
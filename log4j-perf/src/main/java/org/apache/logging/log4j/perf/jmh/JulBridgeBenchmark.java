@@ -0,0 +1,96 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.perf.jmh;
+
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Benchmarks logging through the java.util.logging bridge of Log4j 2 against logging to Log4j 2 directly. Events are
+ * sent to an appender that discards them; run with the GC profiler to compare the allocation rate of the two paths.
+ * <p>
+ * The JDK Logger is obtained from a bridge LogManager instance, so the benchmark does not depend on the
+ * java.util.logging.manager system property being set before the JDK LogManager is initialized.
+ * </p>
+ */
+// HOW TO RUN THIS TEST
+// java -jar log4j-perf/target/benchmarks.jar ".*JulBridgeBenchmark.*" -f 1 -wi 5 -i 10 -prof gc
+@State(Scope.Benchmark)
+public class JulBridgeBenchmark {
+    private static final String LOGGER_NAME = "NoopLogger";
+
+    Logger log4j2Logger;
+    java.util.logging.Logger julLogger;
+
+    @Setup
+    public void setUp() {
+        System.setProperty("log4j.configurationFile", "log4j2-appenderComparison.xml");
+        log4j2Logger = LogManager.getLogger(LOGGER_NAME);
+        julLogger = new org.apache.logging.log4j.jul.LogManager().getLogger(LOGGER_NAME);
+    }
+
+    @TearDown
+    public void tearDown() {
+        System.clearProperty("log4j.configurationFile");
+    }
+
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    @Benchmark
+    public void log4j2Param1() {
+        log4j2Logger.info("Val1={}", "arg1");
+    }
+
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    @Benchmark
+    public void julParam1() {
+        julLogger.log(Level.INFO, "Val1={0}", "arg1");
+    }
+
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    @Benchmark
+    public void julLogpParam1() {
+        julLogger.logp(Level.INFO, "JulBridgeBenchmark", "julLogpParam1", "Val1={0}", "arg1");
+    }
+
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    @Benchmark
+    public void julInfo() {
+        julLogger.info("This is a test");
+    }
+
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    @Benchmark
+    public void julDisabled() {
+        julLogger.log(Level.FINEST, "Val1={0}", "arg1");
+    }
+}
@@ -17,9 +17,14 @@
 
 package org.apache.logging.log4j.perf.jmh;
 
+import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.apache.logging.log4j.ThreadContext;
+import org.apache.logging.log4j.core.Filter;
+import org.apache.logging.log4j.core.filter.CompositeFilter;
+import org.apache.logging.log4j.core.filter.ThreadContextMapFilter;
+import org.apache.logging.log4j.core.util.KeyValuePair;
 import org.openjdk.jmh.annotations.Benchmark;
 import org.openjdk.jmh.annotations.Scope;
 import org.openjdk.jmh.annotations.Setup;
@@ -29,7 +34,9 @@ import org.slf4j.LoggerFactory;
 import org.slf4j.MDC;
 
 /**
- * Benchmarks Log4j 2 and Logback ThreadContext/MDC Filter performance.
+ * Benchmarks Log4j 2 and Logback ThreadContext/MDC Filter performance. The composite benchmarks compare the compiled
+ * evaluation of a CompositeFilter of many ThreadContextMapFilters with evaluating the same filters one after the
+ * other.
  */
 // HOW TO RUN THIS TEST
 // single thread:
@@ -40,10 +47,14 @@ import org.slf4j.MDC;
 
 @State(Scope.Benchmark)
 public class MDCFilterBenchmark {
+    private static final int COMPOSITE_SIZE = 20;
+
     // Loggers are Benchmark scope, just like in a real application:
     // different threads may use the same logger instance, which may have some lock contention.
     Logger log4jLogger;
     org.slf4j.Logger slf4jLogger;
+    CompositeFilter compositeFilter;
+    Filter[] filters;
 
     @State(Scope.Thread)
     public static class ThreadContextState {
@@ -65,6 +76,13 @@ public class MDCFilterBenchmark {
 
         log4jLogger = LogManager.getLogger(MDCFilterBenchmark.class);
         slf4jLogger = LoggerFactory.getLogger(MDCFilterBenchmark.class);
+        filters = new Filter[COMPOSITE_SIZE];
+        for (int i = 0; i < COMPOSITE_SIZE; i++) {
+            final String key = i % 2 == 0 ? "user" : "tenant";
+            filters[i] = ThreadContextMapFilter.createFilter(new KeyValuePair[] {new KeyValuePair(key, "JDoe" + i)},
+                    null, Filter.Result.ACCEPT, Filter.Result.NEUTRAL);
+        }
+        compositeFilter = CompositeFilter.createFilters(filters);
     }
 
     @TearDown
@@ -88,4 +106,20 @@ public class MDCFilterBenchmark {
         slf4jLogger.info(state.message());
     }
 
+    @Benchmark
+    public Filter.Result compositeFilterCompiled(final ThreadContextState state) {
+        return compositeFilter.filter(null, Level.INFO, null, state.message());
+    }
+
+    @Benchmark
+    public Filter.Result compositeFilterSequential(final ThreadContextState state) {
+        Filter.Result result = Filter.Result.NEUTRAL;
+        for (int i = 0; i < filters.length; i++) {
+            result = filters[i].filter(null, Level.INFO, null, state.message());
+            if (result != Filter.Result.NEUTRAL) {
+                return result;
+            }
+        }
+        return result;
+    }
 }
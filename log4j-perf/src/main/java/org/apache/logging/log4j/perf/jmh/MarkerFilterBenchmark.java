@@ -17,10 +17,14 @@
 
 package org.apache.logging.log4j.perf.jmh;
 
+import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.apache.logging.log4j.Marker;
 import org.apache.logging.log4j.MarkerManager;
+import org.apache.logging.log4j.core.Filter;
+import org.apache.logging.log4j.core.filter.CompositeFilter;
+import org.apache.logging.log4j.core.filter.MarkerFilter;
 import org.openjdk.jmh.annotations.Benchmark;
 import org.openjdk.jmh.annotations.Scope;
 import org.openjdk.jmh.annotations.Setup;
@@ -31,7 +35,8 @@ import org.slf4j.MarkerFactory;
 
 /**
  * Benchmarks Log4j 2 and Logback using a global MarkerFilter which will not be matched for this test. The Marker
- * provided will have a
+ * provided will have a parent. The composite benchmarks compare the compiled evaluation of a CompositeFilter of many
+ * MarkerFilters with evaluating the same filters one after the other.
  */
 // HOW TO RUN THIS TEST
 // single thread:
@@ -40,12 +45,18 @@ import org.slf4j.MarkerFactory;
 // java -jar target/benchmarks.jar ".*MarkerFilterBenchmark.*" -f 1 -i 5 -wi 5 -t 4 -si true -bm sample -tu ns
 @State(Scope.Benchmark)
 public class MarkerFilterBenchmark {
+    private static final int COMPOSITE_SIZE = 20;
+    private static final int HIERARCHY_DEPTH = 10;
+
     Logger log4jLogger;
     org.slf4j.Logger slf4jLogger;
     org.slf4j.Marker LOGBACK_FLOW_MARKER;
     org.slf4j.Marker LOGBACK_ENTRY_MARKER;
     Marker LOG4J_FLOW_MARKER;
     Marker LOG4J_ENTRY_MARKER;
+    Marker LOG4J_DEEP_MARKER;
+    CompositeFilter compositeFilter;
+    Filter[] filters;
 
     @Setup
     public void setUp() {
@@ -57,7 +68,17 @@ public class MarkerFilterBenchmark {
         LOG4J_ENTRY_MARKER = MarkerManager.getMarker("ENTRY");
         LOGBACK_ENTRY_MARKER.add(LOGBACK_FLOW_MARKER);
         LOG4J_ENTRY_MARKER.addParents(LOG4J_FLOW_MARKER);
+        LOG4J_DEEP_MARKER = LOG4J_FLOW_MARKER;
+        for (int i = 0; i < HIERARCHY_DEPTH; i++) {
+            LOG4J_DEEP_MARKER = MarkerManager.getMarker("DEEP" + i).addParents(LOG4J_DEEP_MARKER);
+        }
         log4jLogger = LogManager.getLogger(MarkerFilterBenchmark.class);
+        filters = new Filter[COMPOSITE_SIZE];
+        for (int i = 0; i < COMPOSITE_SIZE - 1; i++) {
+            filters[i] = MarkerFilter.createFilter("MARKER" + i, Filter.Result.ACCEPT, Filter.Result.NEUTRAL);
+        }
+        filters[COMPOSITE_SIZE - 1] = MarkerFilter.createFilter("FLOW", Filter.Result.ACCEPT, Filter.Result.NEUTRAL);
+        compositeFilter = CompositeFilter.createFilters(filters);
         slf4jLogger = LoggerFactory.getLogger(MarkerFilterBenchmark.class);
     }
 
@@ -78,6 +99,16 @@ public class MarkerFilterBenchmark {
         log4jLogger.info(LOG4J_ENTRY_MARKER, "This is a test");
     }
 
+    @Benchmark
+    public void log4jDeepMarker() {
+        log4jLogger.info(LOG4J_DEEP_MARKER, "This is a test");
+    }
+
+    @Benchmark
+    public boolean log4jDeepMarkerIsInstanceOf() {
+        return LOG4J_DEEP_MARKER.isInstanceOf(LOG4J_FLOW_MARKER);
+    }
+
     @Benchmark
     public void log4jSimpleMarker() {
         log4jLogger.info(LOG4J_FLOW_MARKER, "This is a test");
@@ -102,4 +133,21 @@ public class MarkerFilterBenchmark {
     public void logbackTooFine() {
         slf4jLogger.trace("This is not logged");
     }
+
+    @Benchmark
+    public Filter.Result compositeFilterCompiled() {
+        return compositeFilter.filter(null, Level.INFO, LOG4J_ENTRY_MARKER, "This is a test");
+    }
+
+    @Benchmark
+    public Filter.Result compositeFilterSequential() {
+        Filter.Result result = Filter.Result.NEUTRAL;
+        for (int i = 0; i < filters.length; i++) {
+            result = filters[i].filter(null, Level.INFO, LOG4J_ENTRY_MARKER, "This is a test");
+            if (result != Filter.Result.NEUTRAL) {
+                return result;
+            }
+        }
+        return result;
+    }
 }
@@ -19,7 +19,10 @@ package org.apache.logging.log4j.perf.jmh;
 
 import java.util.concurrent.TimeUnit;
 
+import org.apache.logging.log4j.message.Message;
 import org.apache.logging.log4j.message.ParameterizedMessage;
+import org.apache.logging.log4j.message.ReusableMessageFactory;
+import org.apache.logging.log4j.util.StringBuilderFormattable;
 import org.openjdk.jmh.annotations.Benchmark;
 import org.openjdk.jmh.annotations.BenchmarkMode;
 import org.openjdk.jmh.annotations.Mode;
@@ -37,12 +40,19 @@ import org.openjdk.jmh.annotations.State;
 // multiple threads (for example, 4 threads):
 // java -jar log4j-perf/target/benchmarks.jar ".*ParameterizedMessageBench.*" -f 1 -wi 5 -i 10 -t 4 -si true
 //
+// Parsed message patterns are cached by default. To measure without the cache:
+// java -jar log4j-perf/target/benchmarks.jar ".*ParameterizedMessageBench.*" -f 1 -wi 5 -i 10 -jvmArgs -Dlog4j2.messagePatternCacheSize=0
+//
 // Usage help:
 // java -jar log4j-perf/target/benchmarks.jar -help
 //
 @State(Scope.Benchmark)
 public class ParameterizedMessageBenchmark {
     private static final Object[] ARGS = { "arg1", "arg2" };
+    private static final String SHORT_PATTERN = "{} {}";
+    private static final String LONG_PATTERN = "Processed request {} for the account of the customer in the primary "
+            + "data center after waiting in the queue of the dispatcher; the upstream service answered with status {} "
+            + "and the response was written back to the client connection";
 
     @State(Scope.Thread)
     public static class ThreadState {
@@ -74,4 +84,42 @@ public class ParameterizedMessageBenchmark {
                 formatTo(state.buffer);
         return state.buffer.length();
     }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public int formatToShortPattern(final ThreadState state) {
+        state.buffer.setLength(0);
+        new ParameterizedMessage(SHORT_PATTERN, ARGS).formatTo(state.buffer);
+        return state.buffer.length();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public int formatToLongPattern(final ThreadState state) {
+        state.buffer.setLength(0);
+        new ParameterizedMessage(LONG_PATTERN, ARGS).formatTo(state.buffer);
+        return state.buffer.length();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public int reusableFormatToShortPattern(final ThreadState state) {
+        state.buffer.setLength(0);
+        final Message message = ReusableMessageFactory.INSTANCE.newMessage(SHORT_PATTERN, "arg1", "arg2");
+        ((StringBuilderFormattable) message).formatTo(state.buffer);
+        return state.buffer.length();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public int reusableFormatToLongPattern(final ThreadState state) {
+        state.buffer.setLength(0);
+        final Message message = ReusableMessageFactory.INSTANCE.newMessage(LONG_PATTERN, "arg1", "arg2");
+        ((StringBuilderFormattable) message).formatTo(state.buffer);
+        return state.buffer.length();
+    }
 }
@@ -0,0 +1,74 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+
+package org.apache.logging.log4j.perf.jmh;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.ThreadContext;
+import org.apache.logging.log4j.core.LoggerContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Benchmarks a RoutingAppender that routes on a {@code ${ctx:tenant}} key, with each thread logging for its own
+ * tenant. Run it with several threads to measure the contention between events for routes that already exist.
+ */
+// HOW TO RUN THIS TEST
+// java -jar target/benchmarks.jar ".*RoutingAppenderBenchmark.*" -f 1 -wi 5 -i 5 -t 8
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class RoutingAppenderBenchmark {
+
+    private static final AtomicInteger TENANTS = new AtomicInteger();
+
+    Logger logger;
+
+    @State(Scope.Thread)
+    public static class TenantState {
+        public TenantState() {
+            ThreadContext.put("tenant", "tenant" + TENANTS.getAndIncrement());
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        System.setProperty("log4j.configurationFile", "log4j2-routing-perf.xml");
+        logger = LogManager.getLogger(RoutingAppenderBenchmark.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        System.clearProperty("log4j.configurationFile");
+        ((LoggerContext) LogManager.getContext(false)).stop();
+    }
+
+    @Benchmark
+    public void routeByTenant(final TenantState state) {
+        logger.info("This is a test");
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.perf.jmh;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.slf4j.Log4jLogger;
+import org.apache.logging.slf4j.Log4jMarkerFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.slf4j.Marker;
+import org.slf4j.spi.LocationAwareLogger;
+
+/**
+ * Benchmarks logging through the Log4j 2 SLF4J binding against logging to Log4j 2 directly. Events are sent to an
+ * appender that discards them, so run with the GC profiler to compare the allocation rate of the two paths.
+ * <p>
+ * Logback is the SLF4J binding of this module, so the SLF4J logger is created directly instead of through the
+ * SLF4J LoggerFactory.
+ * </p>
+ */
+// HOW TO RUN THIS TEST
+// java -jar log4j-perf/target/benchmarks.jar ".*Slf4jBindingBenchmark.*" -f 1 -wi 5 -i 10 -prof gc
+@State(Scope.Benchmark)
+public class Slf4jBindingBenchmark {
+    private static final String LOGGER_NAME = "NoopLogger";
+
+    Logger log4j2Logger;
+    Log4jLogger slf4jLogger;
+    Marker marker;
+
+    @Setup
+    public void setUp() {
+        System.setProperty("log4j.configurationFile", "log4j2-appenderComparison.xml");
+        log4j2Logger = LogManager.getLogger(LOGGER_NAME);
+        slf4jLogger = new Log4jLogger(LogManager.getContext(false).getLogger(LOGGER_NAME), LOGGER_NAME);
+        marker = new Log4jMarkerFactory().getMarker("MARKER");
+    }
+
+    @TearDown
+    public void tearDown() {
+        System.clearProperty("log4j.configurationFile");
+    }
+
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    @Benchmark
+    public void log4j2Param2() {
+        log4j2Logger.info("Val1={}, val2={}", "arg1", "arg2");
+    }
+
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    @Benchmark
+    public void slf4jParam2() {
+        slf4jLogger.info("Val1={}, val2={}", "arg1", "arg2");
+    }
+
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    @Benchmark
+    public void slf4jMarkerParam2() {
+        slf4jLogger.info(marker, "Val1={}, val2={}", "arg1", "arg2");
+    }
+
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    @Benchmark
+    public void slf4jLocationAwareParam2() {
+        slf4jLogger.log(null, Log4jLogger.FQCN, LocationAwareLogger.INFO_INT, "Val1={}, val2={}",
+                new Object[] {"arg1", "arg2"}, null);
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+
+package org.apache.logging.log4j.perf.jmh;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.core.lookup.Interpolator;
+import org.apache.logging.log4j.core.lookup.StrSubstitutor;
+import org.apache.logging.log4j.core.lookup.StrTemplate;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Compares substituting a RoutingAppender route key like {@code ${ctx:tenant}} with
+ * {@link StrSubstitutor#replace(LogEvent, String)} and with a template compiled by {@link StrSubstitutor#compile(String)}.
+ */
+// HOW TO RUN THIS TEST
+// java -jar target/benchmarks.jar ".*StrSubstitutorBenchmark.*" -f 1 -wi 5 -i 5
+//
+// allocation per operation:
+// java -jar target/benchmarks.jar ".*StrSubstitutorBenchmark.*" -f 1 -wi 5 -i 5 -prof gc
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class StrSubstitutorBenchmark {
+
+    private static final String ROUTING_KEY = "${ctx:tenant}";
+    private static final String COMPOSITE_KEY = "${ctx:tenant}-${ctx:region:-default}";
+
+    private StrSubstitutor substitutor;
+    private StrTemplate routingKey;
+    private StrTemplate compositeKey;
+    private LogEvent event;
+
+    @Setup
+    public void setUp() {
+        substitutor = new StrSubstitutor(new Interpolator());
+        routingKey = substitutor.compile(ROUTING_KEY);
+        compositeKey = substitutor.compile(COMPOSITE_KEY);
+        final Map<String, String> contextMap = new HashMap<>();
+        contextMap.put("tenant", "acme");
+        event = Log4jLogEvent.newBuilder().setContextMap(contextMap).build();
+    }
+
+    @Benchmark
+    public String routingKeyReplace() {
+        return substitutor.replace(event, ROUTING_KEY);
+    }
+
+    @Benchmark
+    public String routingKeyCompiled() {
+        return routingKey.replace(event);
+    }
+
+    @Benchmark
+    public String compositeKeyReplace() {
+        return substitutor.replace(event, COMPOSITE_KEY);
+    }
+
+    @Benchmark
+    public String compositeKeyCompiled() {
+        return compositeKey.replace(event);
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.perf.jmh;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.logging.log4j.CloseableThreadContext;
+import org.apache.logging.log4j.ThreadContext;
+import org.apache.logging.slf4j.Log4jMDCAdapter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Models a request filter that sets a number of ThreadContext keys when a request starts and removes them when it
+ * ends. Compares updating the default copy-on-write map key by key with the bulk operations.
+ */
+// HOW TO RUN THIS TEST
+// java -jar target/benchmarks.jar ".*ThreadContextBenchmark.*" -f 1 -wi 5 -i 5 -prof gc
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ThreadContextBenchmark {
+
+    @Param({"1", "6", "12"})
+    public int count;
+
+    private String[] keys;
+    private String[] values;
+    private Map<String, String> requestContext;
+    private List<String> requestKeys;
+    private final Log4jMDCAdapter mdcAdapter = new Log4jMDCAdapter();
+
+    @Setup
+    public void setUp() {
+        keys = new String[count];
+        values = new String[count];
+        requestContext = new HashMap<>();
+        for (int i = 0; i < count; i++) {
+            keys[i] = "key" + i;
+            values[i] = "value" + i;
+            requestContext.put(keys[i], values[i]);
+        }
+        requestKeys = Arrays.asList(keys);
+        ThreadContext.clearMap();
+    }
+
+    @Benchmark
+    public String putAndRemove() {
+        for (int i = 0; i < count; i++) {
+            ThreadContext.put(keys[i], values[i]);
+        }
+        final String result = ThreadContext.get(keys[0]);
+        for (int i = 0; i < count; i++) {
+            ThreadContext.remove(keys[i]);
+        }
+        return result;
+    }
+
+    @Benchmark
+    public String putAllAndRemoveAll() {
+        ThreadContext.putAll(requestContext);
+        final String result = ThreadContext.get(keys[0]);
+        ThreadContext.removeAll(requestKeys);
+        return result;
+    }
+
+    @Benchmark
+    public String closeableThreadContextPut() {
+        final CloseableThreadContext.Instance ctc = CloseableThreadContext.put(keys[0], values[0]);
+        for (int i = 1; i < count; i++) {
+            ctc.put(keys[i], values[i]);
+        }
+        try {
+            return ThreadContext.get(keys[0]);
+        } finally {
+            ctc.close();
+        }
+    }
+
+    @Benchmark
+    public String closeableThreadContextPutAll() {
+        try (final CloseableThreadContext.Instance ignored = CloseableThreadContext.putAll(requestContext)) {
+            return ThreadContext.get(keys[0]);
+        }
+    }
+
+    @Benchmark
+    public String mdcAdapterSetContextMapAndClear() {
+        mdcAdapter.setContextMap(requestContext);
+        final String result = mdcAdapter.get(keys[0]);
+        mdcAdapter.clear();
+        return result;
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+
+package org.apache.logging.log4j.perf.jmh;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.logging.log4j.core.config.ConfigurationSource;
+import org.apache.logging.log4j.core.config.Node;
+import org.apache.logging.log4j.core.config.xml.XmlConfiguration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Compares the time it takes to create the Node hierarchy of an XML configuration with the DOM parser and with the
+ * streaming parser, for a small configuration and for a generated configuration with many loggers.
+ */
+// ============================== HOW TO RUN THIS TEST: ====================================
+//
+// java -jar log4j-perf/target/benchmarks.jar ".*XmlConfigurationParseBenchmark.*" -f 1 -wi 5 -i 10
+//
+// Add "-prof gc" to compare the memory allocated by each parser.
+//
+// Usage help:
+// java -jar log4j-perf/target/benchmarks.jar -help
+//
+@State(Scope.Thread)
+public class XmlConfigurationParseBenchmark {
+
+    @Param({"10", "5000"})
+    public int loggers;
+
+    @Param({"false", "true"})
+    public boolean streaming;
+
+    private byte[] configuration;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        System.setProperty(XmlConfiguration.STREAMING_PROPERTY, Boolean.toString(streaming));
+        final StringBuilder sb = new StringBuilder();
+        sb.append("<?xml version='1.0' encoding='UTF-8'?>\n");
+        sb.append("<Configuration name='XmlConfigurationParseBenchmark' status='off'>\n");
+        sb.append("  <Properties>\n");
+        sb.append("    <Property name='pattern'>%d %-5level [%t] %logger{36} - %msg%n</Property>\n");
+        sb.append("  </Properties>\n");
+        sb.append("  <Appenders>\n");
+        sb.append("    <Console name='STDOUT'>\n");
+        sb.append("      <PatternLayout pattern='${pattern}'/>\n");
+        sb.append("    </Console>\n");
+        sb.append("  </Appenders>\n");
+        sb.append("  <Loggers>\n");
+        for (int i = 0; i < loggers; i++) {
+            sb.append("    <Logger name='org.example.service").append(i).append("' level='info' additivity='false'>\n");
+            sb.append("      <AppenderRef ref='STDOUT'/>\n");
+            sb.append("    </Logger>\n");
+        }
+        sb.append("    <Root level='error'>\n");
+        sb.append("      <AppenderRef ref='STDOUT'/>\n");
+        sb.append("    </Root>\n");
+        sb.append("  </Loggers>\n");
+        sb.append("</Configuration>\n");
+        configuration = sb.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        System.clearProperty(XmlConfiguration.STREAMING_PROPERTY);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public Node parse() throws IOException {
+        final XmlConfiguration config = new XmlConfiguration(null,
+                new ConfigurationSource(new ByteArrayInputStream(configuration)));
+        config.getPluginManager().collectPlugins(config.getPluginPackages());
+        config.setup();
+        return config.getRootNode();
+    }
+}
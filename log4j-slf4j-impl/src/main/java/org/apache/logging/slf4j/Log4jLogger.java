@@ -24,8 +24,6 @@ import java.io.Serializable;
 import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.message.Message;
-import org.apache.logging.log4j.message.ParameterizedMessage;
-import org.apache.logging.log4j.message.SimpleMessage;
 import org.apache.logging.log4j.spi.ExtendedLogger;
 import org.apache.logging.log4j.util.LoaderUtil;
 import org.slf4j.Marker;
@@ -355,7 +353,7 @@ public class Log4jLogger implements LocationAwareLogger, Serializable {
     }
 
     @Override
-    public void log(final Marker marker, final String fqcn, final int level, final String message, final Object[] params, Throwable throwable) {
+    public void log(final Marker marker, final String fqcn, final int level, final String message, final Object[] params, final Throwable throwable) {
         final Level log4jLevel = getLevel(level);
         final org.apache.logging.log4j.Marker log4jMarker = getMarker(marker);
 
@@ -363,17 +361,19 @@ public class Log4jLogger implements LocationAwareLogger, Serializable {
             return;
         }
         final Message msg;
+        final Throwable actualThrowable;
         if (eventLogger && marker != null && marker.contains(EVENT_MARKER) && converter != null) {
             msg = converter.convertEvent(message, params, throwable);
+            actualThrowable = throwable;
         } else if (params == null) {
-            msg = new SimpleMessage(message);
+            msg = logger.getMessageFactory().newMessage(message);
+            actualThrowable = throwable;
         } else {
-            msg = new ParameterizedMessage(message, params, throwable);
-            if (throwable != null) {
-                throwable = msg.getThrowable();
-            }
+            // Use the logger's message factory so that bridges logging through this method get reusable messages.
+            msg = logger.getMessageFactory().newMessage(message, params);
+            actualThrowable = throwable != null ? throwable : msg.getThrowable();
         }
-        logger.logMessage(fqcn, log4jLevel, log4jMarker, msg, throwable);
+        logger.logMessage(fqcn, log4jLevel, log4jMarker, msg, actualThrowable);
     }
 
     private static org.apache.logging.log4j.Marker getMarker(final Marker marker) {
@@ -55,8 +55,6 @@ public class Log4jMDCAdapter implements MDCAdapter {
     @SuppressWarnings("unchecked") // nothing we can do about this, restricted by SLF4J API
     public void setContextMap(@SuppressWarnings("rawtypes") final Map map) {
         ThreadContext.clearMap();
-        for (final Map.Entry<String, String> entry : ((Map<String, String>) map).entrySet()) {
-            ThreadContext.put(entry.getKey(), entry.getValue());
-        }
+        ThreadContext.putAll((Map<String, String>) map);
     }
 }
@@ -25,6 +25,7 @@ import java.util.concurrent.ConcurrentMap;
 import org.apache.logging.log4j.Logger;
 import org.apache.logging.log4j.MarkerManager;
 import org.apache.logging.log4j.status.StatusLogger;
+import org.apache.logging.log4j.util.PerformanceSensitive;
 import org.slf4j.IMarkerFactory;
 import org.slf4j.Marker;
 
@@ -35,8 +36,19 @@ public class Log4jMarkerFactory implements IMarkerFactory {
 
     private static final Logger LOGGER = StatusLogger.getLogger();
 
+    /**
+     * Number of slots of the cache of converted custom SLF4J Markers. Must be a power of 2.
+     */
+    private static final int CONVERTED_CACHE_SIZE = 64;
+
     private final ConcurrentMap<String, Marker> markerMap = new ConcurrentHashMap<>();
 
+    /**
+     * Direct-mapped cache of custom SLF4J Markers and their Log4j/SLF4J counterparts, keyed by identity, so that
+     * logging with the same custom Marker instance does not look up its name every time.
+     */
+    private final ConvertedMarker[] convertedMarkers = new ConvertedMarker[CONVERTED_CACHE_SIZE];
+
     /**
      * Returns a Log4j Marker that is compatible with SLF4J.
      * @param name The name of the Marker.
@@ -67,15 +79,22 @@ public class Log4jMarkerFactory implements IMarkerFactory {
      * @return A converted Log4j/SLF4J Marker.
      * @since 2.1
      */
+    @PerformanceSensitive("allocation")
     public Marker getMarker(final Marker marker) {
         if (marker == null) {
             throw new IllegalArgumentException("Marker must not be null");
         }
-        final Marker m = markerMap.get(marker.getName());
-        if (m != null) {
-            return m;
+        final int index = System.identityHashCode(marker) & (CONVERTED_CACHE_SIZE - 1);
+        final ConvertedMarker cached = convertedMarkers[index];
+        if (cached != null && cached.original == marker) {
+            return cached.converted;
+        }
+        Marker m = markerMap.get(marker.getName());
+        if (m == null) {
+            m = addMarkerIfAbsent(marker.getName(), convertMarker(marker));
         }
-        return addMarkerIfAbsent(marker.getName(), convertMarker(marker));
+        convertedMarkers[index] = new ConvertedMarker(marker, m);
+        return m;
     }
 
     private static org.apache.logging.log4j.Marker convertMarker(final Marker original) {
@@ -134,5 +153,19 @@ public class Log4jMarkerFactory implements IMarkerFactory {
         return getMarker(name);
     }
 
+    /**
+     * A custom SLF4J Marker and the Log4j/SLF4J Marker it was converted to.
+     */
+    private static final class ConvertedMarker {
+
+        private final Marker original;
+
+        private final Marker converted;
+
+        ConvertedMarker(final Marker original, final Marker converted) {
+            this.original = original;
+            this.converted = converted;
+        }
+    }
 
 }
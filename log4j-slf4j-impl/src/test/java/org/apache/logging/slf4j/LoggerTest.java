@@ -18,11 +18,13 @@ package org.apache.logging.slf4j;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 import java.util.List;
 import java.util.Locale;
 
+import org.apache.logging.log4j.core.LogEvent;
 import org.apache.logging.log4j.core.util.Constants;
 import org.apache.logging.log4j.junit.LoggerContextRule;
 import org.apache.logging.log4j.test.appender.ListAppender;
@@ -103,6 +105,24 @@ public class LoggerTest {
     }
 
 
+    @Test
+    public void locationAwareLogWithParms() {
+        ((LocationAwareLogger)logger).log(null, Log4jLogger.class.getName(), LocationAwareLogger.DEBUG_INT,
+            "Hello, {}", new Object[] {"World"}, null);
+        verify("List", "o.a.l.s.LoggerTest Hello, World MDC{}" + Constants.LINE_SEPARATOR);
+    }
+
+    @Test
+    public void locationAwareLogWithThrowableParm() {
+        final Exception exception = new IllegalStateException("Test Exception");
+        ((LocationAwareLogger)logger).log(null, Log4jLogger.class.getName(), LocationAwareLogger.DEBUG_INT,
+            "Hello, {}", new Object[] {"World", exception}, null);
+        verify("List", "o.a.l.s.LoggerTest Hello, World MDC{}" + Constants.LINE_SEPARATOR);
+        final List<LogEvent> events = ctx.getListAppender("UnformattedList").getEvents();
+        assertEquals("Incorrect number of events", 1, events.size());
+        assertSame("Incorrect Throwable", exception, events.get(0).getThrown());
+    }
+
     @Test
     public void debugWithParms() {
         logger.debug("Hello, {}", "World");
@@ -178,5 +198,6 @@ public class LoggerTest {
         MDC.clear();
         ctx.getListAppender("List").clear();
         ctx.getListAppender("EventLogger").clear();
+        ctx.getListAppender("UnformattedList").clear();
     }
 }
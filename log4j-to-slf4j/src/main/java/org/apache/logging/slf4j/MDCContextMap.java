@@ -19,14 +19,13 @@ package org.apache.logging.slf4j;
 import java.util.Map;
 import java.util.Map.Entry;
 
-import org.apache.logging.log4j.spi.ThreadContextMap;
-import org.apache.logging.log4j.spi.ThreadContextMap2;
+import org.apache.logging.log4j.spi.CleanableThreadContextMap;
 import org.slf4j.MDC;
 
 /**
  * Bind the ThreadContextMap to the SLF4J MDC.
  */
-public class MDCContextMap implements ThreadContextMap2 {
+public class MDCContextMap implements CleanableThreadContextMap {
 
     @Override
     public void put(final String key, final String value) {
@@ -40,6 +39,24 @@ public class MDCContextMap implements ThreadContextMap2 {
 		}
     }
 
+    @Override
+    public void removeAll(final Iterable<String> keys) {
+        for (final String key : keys) {
+            MDC.remove(key);
+        }
+    }
+
+    @Override
+    public void restoreAll(final Map<String, String> values) {
+        for (final Entry<String, String> entry : values.entrySet()) {
+            if (entry.getValue() == null) {
+                MDC.remove(entry.getKey());
+            } else {
+                MDC.put(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
     @Override
     public String get(final String key) {
         return MDC.get(key);